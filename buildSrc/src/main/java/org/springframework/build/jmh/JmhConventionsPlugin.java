@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.build.jmh;
+
+import me.champeau.gradle.JMHPlugin;
+import me.champeau.gradle.JMHPluginExtension;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.file.DuplicatesStrategy;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.compile.JavaCompile;
+
+/**
+ * {@link Plugin} that applies conventions for JMH benchmarks in Spring Framework modules.
+ * <p>Benchmarks are declared in a {@code src/jmh/java} source set and compiled
+ * against the main classes of the module. A self-contained benchmark jar can be
+ * built with {@code "./gradlew :spring-core:jmhJar"} and executed with
+ * {@code "java -jar spring-core/build/libs/spring-core-*-jmh.jar"}.
+ *
+ * @since 5.3
+ */
+public class JmhConventionsPlugin implements Plugin<Project> {
+
+	/**
+	 * The JMH version used for compiling and running benchmarks.
+	 */
+	public static final String JMH_VERSION = "1.25";
+
+	/**
+	 * Name of the configuration holding benchmark dependencies.
+	 */
+	public static final String JMH_CONFIGURATION_NAME = "jmh";
+
+	@Override
+	public void apply(Project project) {
+		project.getPlugins().withType(JavaPlugin.class, javaPlugin -> applyJmhConventions(project));
+	}
+
+	private void applyJmhConventions(Project project) {
+		project.getPlugins().apply(JMHPlugin.class);
+		JMHPluginExtension jmh = project.getExtensions().getByType(JMHPluginExtension.class);
+		jmh.setJmhVersion(JMH_VERSION);
+		jmh.setDuplicateClassesStrategy(DuplicatesStrategy.EXCLUDE);
+		// JMH depends on an older jopt-simple than the one used by spring-core
+		project.getDependencies().add(JMH_CONFIGURATION_NAME, "net.sf.jopt-simple:jopt-simple");
+		project.getTasks().withType(JavaCompile.class)
+				.matching(compileTask -> compileTask.getName().equals("compileJmhJava"))
+				.configureEach(compileTask -> compileTask.getOptions().setEncoding("UTF-8"));
+	}
+
+}
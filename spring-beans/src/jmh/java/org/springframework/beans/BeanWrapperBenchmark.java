@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the per-property cost of reading and writing bean properties,
+ * comparing reflective invocation with the generated accessors used by
+ * {@link BeanWrapperImpl}.
+ *
+ * @since 5.3
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BeanWrapperBenchmark {
+
+	@Benchmark
+	public void reflectiveRead(BenchmarkState state, Blackhole bh) throws Exception {
+		bh.consume(state.readMethod.invoke(state.bean));
+	}
+
+	@Benchmark
+	public void generatedRead(BenchmarkState state, Blackhole bh) throws Exception {
+		bh.consume(state.readInvoker.get(state.bean));
+	}
+
+	@Benchmark
+	public void reflectiveWrite(BenchmarkState state) throws Exception {
+		state.writeMethod.invoke(state.bean, 42);
+	}
+
+	@Benchmark
+	public void generatedWrite(BenchmarkState state) throws Exception {
+		state.writeInvoker.set(state.bean, 42);
+	}
+
+	@Benchmark
+	public void beanWrapperRead(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.beanWrapper.getPropertyValue("age"));
+	}
+
+	@Benchmark
+	public void beanWrapperWrite(BenchmarkState state) {
+		state.beanWrapper.setPropertyValue("age", 42);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public TestBean bean;
+
+		public BeanWrapperImpl beanWrapper;
+
+		public Method readMethod;
+
+		public Method writeMethod;
+
+		public PropertyMethodInvoker readInvoker;
+
+		public PropertyMethodInvoker writeInvoker;
+
+		@Setup
+		public void setup() throws Exception {
+			this.bean = new TestBean();
+			this.beanWrapper = new BeanWrapperImpl(this.bean);
+			this.readMethod = TestBean.class.getMethod("getAge");
+			this.writeMethod = TestBean.class.getMethod("setAge", int.class);
+			this.readInvoker = PropertyMethodInvoker.forReadMethod(this.readMethod);
+			this.writeInvoker = PropertyMethodInvoker.forWriteMethod(this.writeMethod);
+		}
+	}
+
+
+	public static class TestBean {
+
+		private int age;
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.BeanInfo;
+import java.beans.Introspector;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the startup cost of introspecting a bean class that has not
+ * been introspected before, comparing standard JavaBeans introspection with the
+ * {@link CachedIntrospectionResults#FAST_INTROSPECTION_PROPERTY_NAME fast mode}.
+ *
+ * @since 5.3
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IntrospectionBenchmark {
+
+	@Benchmark
+	public void standardIntrospection(BenchmarkState state, Blackhole bh) throws Exception {
+		// Cold introspection, as on startup: drop the Introspector's own cache
+		Introspector.flushFromCaches(state.beanClass);
+		BeanInfo beanInfo = state.extendedBeanInfoFactory.getBeanInfo(state.beanClass);
+		if (beanInfo == null) {
+			beanInfo = Introspector.getBeanInfo(state.beanClass);
+		}
+		bh.consume(beanInfo.getPropertyDescriptors());
+	}
+
+	@Benchmark
+	public void fastIntrospection(BenchmarkState state, Blackhole bh) throws Exception {
+		bh.consume(state.simpleBeanInfoFactory.getBeanInfo(state.beanClass).getPropertyDescriptors());
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"org.springframework.beans.BeanWrapperImpl",
+				"org.springframework.beans.factory.support.RootBeanDefinition",
+				"org.springframework.beans.IntrospectionBenchmark$SimpleBean"})
+		public String beanClassName;
+
+		public Class<?> beanClass;
+
+		public ExtendedBeanInfoFactory extendedBeanInfoFactory;
+
+		public SimpleBeanInfoFactory simpleBeanInfoFactory;
+
+		@Setup
+		public void setup() throws Exception {
+			this.beanClass = Class.forName(this.beanClassName);
+			this.extendedBeanInfoFactory = new ExtendedBeanInfoFactory();
+			this.simpleBeanInfoFactory = new SimpleBeanInfoFactory();
+		}
+	}
+
+
+	public static class SimpleBean {
+
+		private String name;
+
+		private int age;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+
+}
@@ -303,6 +303,9 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 					throw pae.getException();
 				}
 			}
+			else if (this.pd instanceof GenericTypeAwarePropertyDescriptor) {
+				return ((GenericTypeAwarePropertyDescriptor) this.pd).getReadMethodInvoker().get(getWrappedInstance());
+			}
 			else {
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
@@ -311,6 +314,10 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		@Override
 		public void setValue(@Nullable Object value) throws Exception {
+			if (System.getSecurityManager() == null && this.pd instanceof GenericTypeAwarePropertyDescriptor) {
+				((GenericTypeAwarePropertyDescriptor) this.pd).getWriteMethodInvoker().set(getWrappedInstance(), value);
+				return;
+			}
 			Method writeMethod = (this.pd instanceof GenericTypeAwarePropertyDescriptor ?
 					((GenericTypeAwarePropertyDescriptor) this.pd).getWriteMethodForActualAccess() :
 					this.pd.getWriteMethod());
@@ -92,12 +92,33 @@ public final class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to derive bean properties directly from
+	 * the public accessor methods of a class instead of going through the JavaBeans
+	 * {@link Introspector}: "spring.beaninfo.fast", with a value of "true" enabling
+	 * this mode. This avoids the Introspector's {@code BeanInfo} class lookups and
+	 * its global synchronization, at the expense of indexed property descriptors and
+	 * any custom {@code BeanInfo} metadata, neither of which is needed for common
+	 * Spring bean binding. Non-void returning setter methods are detected as well.
+	 * <p>The default is "false", using the Introspector. Custom {@link BeanInfoFactory}
+	 * implementations registered in {@code META-INF/spring.factories} still apply.
+	 * @since 5.3
+	 * @see PropertyDescriptorUtils#determineBasicProperties(Class)
+	 */
+	public static final String FAST_INTROSPECTION_PROPERTY_NAME = "spring.beaninfo.fast";
+
 	private static final PropertyDescriptor[] EMPTY_PROPERTY_DESCRIPTOR_ARRAY = {};
 
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	private static final boolean shouldUseFastIntrospection =
+			SpringProperties.getFlag(FAST_INTROSPECTION_PROPERTY_NAME);
+
+	/** The BeanInfoFactory for fast introspection mode, bypassing the Introspector. */
+	private static final SimpleBeanInfoFactory simpleBeanInfoFactory = new SimpleBeanInfoFactory();
+
 	/** Stores the BeanInfoFactory instances. */
 	private static final List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -237,14 +258,22 @@ public final class CachedIntrospectionResults {
 	 * @param beanClass the target class to introspect
 	 * @return the resulting {@code BeanInfo} descriptor (never {@code null})
 	 * @throws IntrospectionException from the underlying {@link Introspector}
+	 * @see #FAST_INTROSPECTION_PROPERTY_NAME
 	 */
 	private static BeanInfo getBeanInfo(Class<?> beanClass) throws IntrospectionException {
 		for (BeanInfoFactory beanInfoFactory : beanInfoFactories) {
+			if (shouldUseFastIntrospection && beanInfoFactory instanceof ExtendedBeanInfoFactory) {
+				// Non-void returning setters are covered by the simple BeanInfoFactory already
+				continue;
+			}
 			BeanInfo beanInfo = beanInfoFactory.getBeanInfo(beanClass);
 			if (beanInfo != null) {
 				return beanInfo;
 			}
 		}
+		if (shouldUseFastIntrospection) {
+			return simpleBeanInfoFactory.getBeanInfo(beanClass);
+		}
 		return (shouldIntrospectorIgnoreBeaninfoClasses ?
 				Introspector.getBeanInfo(beanClass, Introspector.IGNORE_ALL_BEANINFO) :
 				Introspector.getBeanInfo(beanClass));
@@ -63,6 +63,12 @@ final class GenericTypeAwarePropertyDescriptor extends PropertyDescriptor {
 	@Nullable
 	private final Class<?> propertyEditorClass;
 
+	@Nullable
+	private volatile PropertyMethodInvoker readMethodInvoker;
+
+	@Nullable
+	private volatile PropertyMethodInvoker writeMethodInvoker;
+
 
 	public GenericTypeAwarePropertyDescriptor(Class<?> beanClass, String propertyName,
 			@Nullable Method readMethod, @Nullable Method writeMethod,
@@ -145,6 +151,25 @@ final class GenericTypeAwarePropertyDescriptor extends PropertyDescriptor {
 		return this.writeMethod;
 	}
 
+	public PropertyMethodInvoker getReadMethodInvoker() {
+		PropertyMethodInvoker invoker = this.readMethodInvoker;
+		if (invoker == null) {
+			Assert.state(this.readMethod != null, "No read method available");
+			invoker = PropertyMethodInvoker.forReadMethod(this.readMethod);
+			this.readMethodInvoker = invoker;
+		}
+		return invoker;
+	}
+
+	public PropertyMethodInvoker getWriteMethodInvoker() {
+		PropertyMethodInvoker invoker = this.writeMethodInvoker;
+		if (invoker == null) {
+			invoker = PropertyMethodInvoker.forWriteMethod(getWriteMethodForActualAccess());
+			this.writeMethodInvoker = invoker;
+		}
+		return invoker;
+	}
+
 	public MethodParameter getWriteMethodParameter() {
 		Assert.state(this.writeMethodParameter != null, "No write method available");
 		return this.writeMethodParameter;
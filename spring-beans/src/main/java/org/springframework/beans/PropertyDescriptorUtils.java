@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,18 @@
 package org.springframework.beans;
 
 import java.beans.IntrospectionException;
+import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+import org.springframework.core.BridgeMethodResolver;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
 
@@ -32,6 +40,77 @@ import org.springframework.util.ObjectUtils;
  */
 abstract class PropertyDescriptorUtils {
 
+	/**
+	 * Simple introspection algorithm for basic set/get/is accessor methods,
+	 * building corresponding JavaBeans property descriptors for them.
+	 * <p>This just supports the basic JavaBeans conventions, without indexed
+	 * properties or any customizers, and without other BeanInfo metadata.
+	 * Like {@link ExtendedBeanInfo}, it accepts non-void returning and static
+	 * setter methods.
+	 * For standard JavaBeans introspection, use the JavaBeans Introspector.
+	 * @param beanClass the target class to introspect
+	 * @return a collection of property descriptors, sorted by property name
+	 * @throws IntrospectionException from introspecting the given bean class
+	 * @since 5.3
+	 * @see SimpleBeanInfoFactory
+	 */
+	public static Collection<PropertyDescriptor> determineBasicProperties(Class<?> beanClass)
+			throws IntrospectionException {
+
+		Map<String, BasicPropertyDescriptor> pdMap = new TreeMap<>();
+
+		for (Method method : beanClass.getMethods()) {
+			if (method.isBridge() && !BridgeMethodResolver.isVisibilityBridgeMethodPair(
+					method, BridgeMethodResolver.findBridgedMethod(method))) {
+				// Generic or covariant bridge method: the bridged method is exposed as well
+				continue;
+			}
+			String methodName = method.getName();
+			boolean isStatic = Modifier.isStatic(method.getModifiers());
+			boolean setter = false;
+			int nameIndex;
+			if (methodName.startsWith("set") && method.getParameterCount() == 1) {
+				// Static setters are accepted, in line with ExtendedBeanInfo
+				setter = true;
+				nameIndex = 3;
+			}
+			else if (methodName.startsWith("get") && method.getParameterCount() == 0 &&
+					method.getReturnType() != Void.TYPE && !isStatic) {
+				nameIndex = 3;
+			}
+			else if (methodName.startsWith("is") && method.getParameterCount() == 0 &&
+					method.getReturnType() == Boolean.TYPE && !isStatic) {
+				nameIndex = 2;
+			}
+			else {
+				continue;
+			}
+
+			String propertyName = Introspector.decapitalize(methodName.substring(nameIndex));
+			if (propertyName.isEmpty()) {
+				continue;
+			}
+
+			BasicPropertyDescriptor pd = pdMap.get(propertyName);
+			if (pd == null) {
+				pd = new BasicPropertyDescriptor(propertyName);
+				pdMap.put(propertyName, pd);
+			}
+			if (setter) {
+				pd.addWriteMethodCandidate(method);
+			}
+			else if (pd.getReadMethod() == null || nameIndex == 2) {
+				// An "is" accessor for a boolean property takes precedence over a "get" accessor
+				pd.setReadMethod(method);
+			}
+		}
+
+		for (BasicPropertyDescriptor pd : pdMap.values()) {
+			pd.resolveWriteMethod();
+		}
+		return new ArrayList<>(pdMap.values());
+	}
+
 	/**
 	 * See {@link java.beans.FeatureDescriptor}.
 	 */
@@ -173,4 +252,96 @@ abstract class PropertyDescriptorUtils {
 				pd.isBound() == otherPd.isBound() && pd.isConstrained() == otherPd.isConstrained());
 	}
 
+
+
+	/**
+	 * PropertyDescriptor for {@link #determineBasicProperties(Class)},
+	 * not performing any early type determination for
+	 * {@link #setReadMethod}/{@link #setWriteMethod}.
+	 * @since 5.3
+	 */
+	private static class BasicPropertyDescriptor extends PropertyDescriptor {
+
+		@Nullable
+		private Method readMethod;
+
+		@Nullable
+		private Method writeMethod;
+
+		private final List<Method> writeMethodCandidates = new ArrayList<>(1);
+
+		public BasicPropertyDescriptor(String propertyName) throws IntrospectionException {
+			super(propertyName, null, null);
+		}
+
+		@Override
+		public void setReadMethod(@Nullable Method readMethod) {
+			this.readMethod = readMethod;
+		}
+
+		@Override
+		@Nullable
+		public Method getReadMethod() {
+			return this.readMethod;
+		}
+
+		@Override
+		public void setWriteMethod(@Nullable Method writeMethod) {
+			this.writeMethod = writeMethod;
+		}
+
+		@Override
+		@Nullable
+		public Method getWriteMethod() {
+			return this.writeMethod;
+		}
+
+		@Override
+		@Nullable
+		public Class<?> getPropertyType() {
+			if (this.readMethod != null) {
+				return this.readMethod.getReturnType();
+			}
+			return (this.writeMethod != null ? this.writeMethod.getParameterTypes()[0] : null);
+		}
+
+		void addWriteMethodCandidate(Method writeMethod) {
+			this.writeMethodCandidates.add(writeMethod);
+		}
+
+		/**
+		 * Pick the write method among the candidates: the one that matches the
+		 * read method's return type or, without such a match, the one with the
+		 * most specific parameter type. With a read method, only candidates with
+		 * a parameter type assignable to or from its return type are considered;
+		 * without any, the property remains read-only.
+		 */
+		void resolveWriteMethod() {
+			if (this.writeMethodCandidates.isEmpty()) {
+				return;
+			}
+			Class<?> propertyType = (this.readMethod != null ? this.readMethod.getReturnType() : null);
+			if (propertyType != null) {
+				for (Method candidate : this.writeMethodCandidates) {
+					if (candidate.getParameterTypes()[0] == propertyType) {
+						this.writeMethod = candidate;
+						return;
+					}
+				}
+			}
+			Method writeMethod = null;
+			for (Method candidate : this.writeMethodCandidates) {
+				Class<?> paramType = candidate.getParameterTypes()[0];
+				if (propertyType != null &&
+						!propertyType.isAssignableFrom(paramType) && !paramType.isAssignableFrom(propertyType)) {
+					continue;
+				}
+				if (writeMethod == null || writeMethod.getParameterTypes()[0].isAssignableFrom(paramType)) {
+					writeMethod = candidate;
+				}
+			}
+			this.writeMethod = writeMethod;
+		}
+	}
+
 }
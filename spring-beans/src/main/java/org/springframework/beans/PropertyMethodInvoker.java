@@ -0,0 +1,254 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Invoker for the read or write method of a bean property, as used by
+ * {@link BeanWrapperImpl} and cached along with the property descriptors
+ * in {@link CachedIntrospectionResults}.
+ *
+ * <p>Methods are invoked reflectively at first. Once a method has been
+ * invoked a number of times, a getter {@link Function} or setter
+ * {@link BiConsumer} is generated for it through {@link LambdaMetafactory},
+ * which is considerably cheaper to call than {@link Method#invoke}. This is
+ * only possible for public methods with public signature types on public
+ * classes that are visible to the class loader of this class; all other
+ * methods keep being invoked reflectively.
+ *
+ * <p>In either case, an exception thrown by the method itself is
+ * propagated as an {@link InvocationTargetException}.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see GenericTypeAwarePropertyDescriptor#getReadMethodInvoker()
+ * @see GenericTypeAwarePropertyDescriptor#getWriteMethodInvoker()
+ */
+final class PropertyMethodInvoker {
+
+	/** Number of reflective invocations before a function is generated. */
+	static final int GENERATION_THRESHOLD = 16;
+
+	private static final Log logger = LogFactory.getLog(PropertyMethodInvoker.class);
+
+
+	private final Method method;
+
+	private final boolean writeMethod;
+
+	/** The parameter type of the write method, if any, with primitives resolved to their wrappers. */
+	@Nullable
+	private final Class<?> parameterType;
+
+	private final boolean primitiveParameter;
+
+	/** Whether a function may be generated for the method. */
+	private final boolean generatable;
+
+	/** Number of reflective invocations, racily incremented. */
+	private int invocationCount;
+
+	@Nullable
+	private volatile Function<Object, Object> getter;
+
+	@Nullable
+	private volatile BiConsumer<Object, Object> setter;
+
+
+	private PropertyMethodInvoker(Method method, boolean writeMethod, boolean generatable) {
+		this.method = method;
+		this.writeMethod = writeMethod;
+		Class<?> parameterType = (writeMethod && method.getParameterCount() == 1 ? method.getParameterTypes()[0] : null);
+		this.parameterType = (parameterType != null ? ClassUtils.resolvePrimitiveIfNecessary(parameterType) : null);
+		this.primitiveParameter = (parameterType != null && parameterType.isPrimitive());
+		this.generatable = generatable;
+	}
+
+
+	/**
+	 * Return the underlying read or write method.
+	 */
+	Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Return whether a function has been generated for the underlying method.
+	 */
+	boolean isGenerated() {
+		return (this.getter != null || this.setter != null);
+	}
+
+	/**
+	 * Invoke the underlying read method on the given target.
+	 * @param target the target bean instance
+	 * @return the property value
+	 * @throws InvocationTargetException if the read method threw an exception
+	 * @throws IllegalAccessException if the read method is not accessible
+	 */
+	@Nullable
+	Object get(Object target) throws InvocationTargetException, IllegalAccessException {
+		Function<Object, Object> getter = this.getter;
+		if (getter == null && this.generatable && ++this.invocationCount == GENERATION_THRESHOLD) {
+			getter = generateGetter();
+		}
+		if (getter != null) {
+			try {
+				return getter.apply(target);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+		ReflectionUtils.makeAccessible(this.method);
+		return this.method.invoke(target, (Object[]) null);
+	}
+
+	/**
+	 * Invoke the underlying write method on the given target.
+	 * @param target the target bean instance
+	 * @param value the property value to set
+	 * @throws InvocationTargetException if the write method threw an exception
+	 * @throws IllegalAccessException if the write method is not accessible
+	 */
+	void set(Object target, @Nullable Object value) throws InvocationTargetException, IllegalAccessException {
+		BiConsumer<Object, Object> setter = this.setter;
+		if (setter == null && this.generatable && ++this.invocationCount == GENERATION_THRESHOLD) {
+			setter = generateSetter();
+		}
+		if (setter != null && isAssignableValue(value)) {
+			try {
+				setter.accept(target, value);
+				return;
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+		// Reflective invocation, also for values that Method.invoke rejects with an
+		// IllegalArgumentException whereas a generated setter would throw another exception
+		ReflectionUtils.makeAccessible(this.method);
+		this.method.invoke(target, value);
+	}
+
+	private boolean isAssignableValue(@Nullable Object value) {
+		Class<?> parameterType = this.parameterType;
+		if (parameterType == null) {
+			return false;
+		}
+		return (value != null ? parameterType.isInstance(value) : !this.primitiveParameter);
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private Function<Object, Object> generateGetter() {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle handle = lookup.unreflect(this.method);
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+					MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class), handle,
+					MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(this.method.getReturnType()),
+							this.method.getDeclaringClass()));
+			Function<Object, Object> getter = (Function<Object, Object>) callSite.getTarget().invoke();
+			this.getter = getter;
+			return getter;
+		}
+		catch (Throwable ex) {
+			logGenerationFailure(ex);
+			return null;
+		}
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private BiConsumer<Object, Object> generateSetter() {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle handle = lookup.unreflect(this.method);
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+					MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class), handle,
+					MethodType.methodType(void.class, this.method.getDeclaringClass(), this.parameterType));
+			BiConsumer<Object, Object> setter = (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+			this.setter = setter;
+			return setter;
+		}
+		catch (Throwable ex) {
+			logGenerationFailure(ex);
+			return null;
+		}
+	}
+
+	private void logGenerationFailure(Throwable ex) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Failed to generate " + (this.writeMethod ? "setter" : "getter") + " for " +
+					this.method + " - falling back to reflection: " + ex);
+		}
+	}
+
+
+	/**
+	 * Create an invoker for the given property read method.
+	 * @param readMethod the read method (a public or non-public no-arg method)
+	 */
+	static PropertyMethodInvoker forReadMethod(Method readMethod) {
+		return new PropertyMethodInvoker(readMethod, false,
+				isGeneratable(readMethod) && isAccessibleType(readMethod.getReturnType()));
+	}
+
+	/**
+	 * Create an invoker for the given property write method.
+	 * @param writeMethod the write method (a public or non-public single-arg method)
+	 */
+	static PropertyMethodInvoker forWriteMethod(Method writeMethod) {
+		return new PropertyMethodInvoker(writeMethod, true,
+				writeMethod.getParameterCount() == 1 && isGeneratable(writeMethod) &&
+						isAccessibleType(writeMethod.getParameterTypes()[0]) &&
+						isAccessibleType(writeMethod.getReturnType()));
+	}
+
+	private static boolean isGeneratable(Method method) {
+		return (System.getSecurityManager() == null && !Modifier.isStatic(method.getModifiers()) &&
+				Modifier.isPublic(method.getModifiers()) && isAccessibleType(method.getDeclaringClass()));
+	}
+
+	private static boolean isAccessibleType(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		return (type.isPrimitive() || (Modifier.isPublic(type.getModifiers()) &&
+				ClassUtils.isVisible(type, PropertyMethodInvoker.class.getClassLoader())));
+	}
+
+}
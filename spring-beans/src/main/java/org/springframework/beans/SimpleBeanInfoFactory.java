@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.BeanDescriptor;
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.beans.SimpleBeanInfo;
+import java.util.Collection;
+
+/**
+ * {@link BeanInfoFactory} implementation that bypasses the JavaBeans
+ * {@link java.beans.Introspector} for faster introspection, reduced to basic
+ * property determination (as commonly needed in Spring applications).
+ *
+ * <p>Used by {@link CachedIntrospectionResults} instead of the Introspector
+ * and {@link ExtendedBeanInfoFactory} when the
+ * {@link CachedIntrospectionResults#FAST_INTROSPECTION_PROPERTY_NAME
+ * "spring.beaninfo.fast"} flag is set. Indexed property methods, {@code BeanInfo}
+ * classes and other JavaBeans metadata are not taken into account.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see PropertyDescriptorUtils#determineBasicProperties(Class)
+ */
+class SimpleBeanInfoFactory implements BeanInfoFactory {
+
+	@Override
+	public BeanInfo getBeanInfo(Class<?> beanClass) throws IntrospectionException {
+		Collection<PropertyDescriptor> pds = PropertyDescriptorUtils.determineBasicProperties(beanClass);
+		PropertyDescriptor[] pdArray = pds.toArray(new PropertyDescriptor[0]);
+
+		return new SimpleBeanInfo() {
+			@Override
+			public BeanDescriptor getBeanDescriptor() {
+				return new BeanDescriptor(beanClass);
+			}
+			@Override
+			public PropertyDescriptor[] getPropertyDescriptors() {
+				return pdArray.clone();
+			}
+		};
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.beans.factory.support;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -139,6 +140,9 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	private boolean allowRawInjectionDespiteWrapping = false;
 
+	/** Whether to cache creation plans for non-singleton beans. */
+	private boolean cacheBeanCreationPlans = false;
+
 	/**
 	 * Dependency types to ignore on dependency check and autowire, as Set of
 	 * Class objects: for example, String. Default is none.
@@ -257,6 +261,31 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		this.allowRawInjectionDespiteWrapping = allowRawInjectionDespiteWrapping;
 	}
 
+	/**
+	 * Set whether to cache a creation plan for every non-singleton bean, e.g. a
+	 * prototype or request-scoped bean, once its first instance has been created.
+	 * <p>The plan keeps the beans that autowired constructor and factory method
+	 * arguments resolved to, so that further instances obtain those beans by name
+	 * rather than going through full dependency resolution, and instantiates
+	 * further instances through a generated function rather than reflectively
+	 * where possible.
+	 * <p>Default is "false". Turn this on for applications that create large numbers
+	 * of non-singleton bean instances, provided that the autowiring candidates for
+	 * such beans do not change once the first instance has been created.
+	 * @since 5.3
+	 */
+	public void setCacheBeanCreationPlans(boolean cacheBeanCreationPlans) {
+		this.cacheBeanCreationPlans = cacheBeanCreationPlans;
+	}
+
+	/**
+	 * Return whether to cache a creation plan for every non-singleton bean.
+	 * @since 5.3
+	 */
+	public boolean isCacheBeanCreationPlans() {
+		return this.cacheBeanCreationPlans;
+	}
+
 	/**
 	 * Ignore the given dependency type for autowiring:
 	 * for example, String. Default is none.
@@ -287,6 +316,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 					(AbstractAutowireCapableBeanFactory) otherFactory;
 			this.instantiationStrategy = otherAutowireFactory.instantiationStrategy;
 			this.allowCircularReferences = otherAutowireFactory.allowCircularReferences;
+			this.cacheBeanCreationPlans = otherAutowireFactory.cacheBeanCreationPlans;
 			this.ignoredDependencyTypes.addAll(otherAutowireFactory.ignoredDependencyTypes);
 			this.ignoredDependencyInterfaces.addAll(otherAutowireFactory.ignoredDependencyInterfaces);
 		}
@@ -983,7 +1013,11 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	@Nullable
 	private FactoryBean<?> getSingletonFactoryBeanForTypeCheck(String beanName, RootBeanDefinition mbd) {
-		synchronized (getSingletonMutex()) {
+		if (!acquireSingletonCreationLock(beanName)) {
+			// Bean in creation on another thread which waits for the current thread...
+			return null;
+		}
+		try {
 			BeanWrapper bw = this.factoryBeanInstanceCache.get(beanName);
 			if (bw != null) {
 				return (FactoryBean<?>) bw.getWrappedInstance();
@@ -1031,6 +1065,9 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			}
 			return fb;
 		}
+		finally {
+			releaseSingletonCreationLock(beanName);
+		}
 	}
 
 	/**
@@ -1301,7 +1338,11 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	protected BeanWrapper instantiateBean(String beanName, RootBeanDefinition mbd) {
 		try {
 			Object beanInstance;
-			if (System.getSecurityManager() != null) {
+			BeanCreationPlan creationPlan = obtainDefaultConstructorCreationPlan(mbd);
+			if (creationPlan != null && creationPlan.isInstantiable()) {
+				beanInstance = creationPlan.instantiate(new Object[0]);
+			}
+			else if (System.getSecurityManager() != null) {
 				beanInstance = AccessController.doPrivileged(
 						(PrivilegedAction<Object>) () -> getInstantiationStrategy().instantiate(mbd, beanName, this),
 						getAccessControlContext());
@@ -1319,6 +1360,75 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		}
 	}
 
+	/**
+	 * Obtain the creation plan for instantiating the given bean through its
+	 * default constructor, once that constructor has been resolved.
+	 * @param mbd the bean definition for the bean
+	 * @return the creation plan, or {@code null} if not applicable
+	 * @see #obtainCreationPlan
+	 */
+	@Nullable
+	private BeanCreationPlan obtainDefaultConstructorCreationPlan(RootBeanDefinition mbd) {
+		if (!this.cacheBeanCreationPlans || mbd.isSingleton()) {
+			return null;
+		}
+		Executable constructorToUse;
+		synchronized (mbd.constructorArgumentLock) {
+			constructorToUse = mbd.resolvedConstructorOrFactoryMethod;
+		}
+		if (!(constructorToUse instanceof Constructor) || constructorToUse.getParameterCount() != 0) {
+			return null;
+		}
+		return obtainCreationPlan(mbd, constructorToUse);
+	}
+
+	/**
+	 * Obtain the creation plan for the given non-singleton bean and its resolved
+	 * constructor or factory method, creating a new plan if necessary.
+	 * @param mbd the bean definition for the bean
+	 * @param executable the resolved constructor or factory method
+	 * @return the creation plan, or {@code null} if creation plans are not
+	 * to be cached for the given bean
+	 * @since 5.3
+	 * @see #setCacheBeanCreationPlans
+	 */
+	@Nullable
+	BeanCreationPlan obtainCreationPlan(RootBeanDefinition mbd, Executable executable) {
+		if (!this.cacheBeanCreationPlans || mbd.isSingleton() || System.getSecurityManager() != null) {
+			return null;
+		}
+		BeanCreationPlan creationPlan = mbd.creationPlan;
+		if (creationPlan == null || creationPlan.getExecutable() != executable) {
+			creationPlan = new BeanCreationPlan(executable, null, isPlanInstantiable(mbd));
+			mbd.creationPlan = creationPlan;
+		}
+		return creationPlan;
+	}
+
+	/**
+	 * Store a creation plan with the given names of the beans to inject as
+	 * autowired arguments for the given bean.
+	 * @param mbd the bean definition for the bean
+	 * @param executable the resolved constructor or factory method
+	 * @param argumentBeanNames the names of the beans to inject as autowired
+	 * arguments, with {@code null} entries for arguments to resolve on every creation
+	 * @since 5.3
+	 */
+	void storeCreationPlan(RootBeanDefinition mbd, Executable executable, String[] argumentBeanNames) {
+		mbd.creationPlan = new BeanCreationPlan(executable, argumentBeanNames, isPlanInstantiable(mbd));
+	}
+
+	/**
+	 * Determine whether instances of the given bean may be created through its
+	 * creation plan rather than through the {@link InstantiationStrategy}: only
+	 * without method overrides and with a standard instantiation strategy.
+	 */
+	private boolean isPlanInstantiable(RootBeanDefinition mbd) {
+		Class<?> strategyClass = this.instantiationStrategy.getClass();
+		return (!mbd.hasMethodOverrides() && (strategyClass == CglibSubclassingInstantiationStrategy.class ||
+				strategyClass == SimpleInstantiationStrategy.class));
+	}
+
 	/**
 	 * Instantiate the bean using a named factory method. The method may be static, if the
 	 * mbd parameter specifies a class, rather than a factoryBean, or an instance variable
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Modifier;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Cached plan for creating further instances of a non-singleton bean, held by
+ * its {@link RootBeanDefinition} once the first instance has been created.
+ *
+ * <p>A plan refers to the resolved constructor or factory method and keeps the
+ * names of the beans that autowired arguments resolved to, so that subsequent
+ * instances can obtain those beans by name rather than going through full
+ * dependency resolution. For a constructor with up to two parameters that is
+ * instantiated through the default {@link InstantiationStrategy}, a function
+ * is generated through {@link LambdaMetafactory} once the plan has been used
+ * a number of times, which is considerably cheaper to call than reflective
+ * instantiation. This is only possible for public constructors of public
+ * classes with public parameter types that are visible to the class loader
+ * of this class; all other constructors keep being invoked reflectively.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see AbstractAutowireCapableBeanFactory#setCacheBeanCreationPlans
+ */
+final class BeanCreationPlan {
+
+	/** Number of reflective instantiations before an instantiator is generated. */
+	static final int GENERATION_THRESHOLD = 16;
+
+	private static final Log logger = LogFactory.getLog(BeanCreationPlan.class);
+
+
+	private final Executable executable;
+
+	@Nullable
+	private final String[] argumentBeanNames;
+
+	private final boolean instantiable;
+
+	/** The parameter types of the constructor, with primitives resolved to their wrappers. */
+	private final Class<?>[] parameterTypes;
+
+	/** Whether a function may be generated for the constructor. */
+	private final boolean generatable;
+
+	/** Number of reflective instantiations, racily incremented. */
+	private int instantiationCount;
+
+	@Nullable
+	private volatile Function<Object[], Object> instantiator;
+
+
+	/**
+	 * Create a new BeanCreationPlan.
+	 * @param executable the resolved constructor or factory method
+	 * @param argumentBeanNames the names of the beans to inject as autowired
+	 * arguments, with {@code null} entries for arguments that need to be resolved
+	 * on every creation, or {@code null} if the arguments have not been prepared
+	 * @param instantiable whether instances may be created through
+	 * {@link #instantiate} (only for constructors)
+	 */
+	BeanCreationPlan(Executable executable, @Nullable String[] argumentBeanNames, boolean instantiable) {
+		this.executable = executable;
+		this.argumentBeanNames = argumentBeanNames;
+		this.instantiable = (instantiable && executable instanceof Constructor);
+		this.parameterTypes = executable.getParameterTypes();
+		for (int i = 0; i < this.parameterTypes.length; i++) {
+			this.parameterTypes[i] = ClassUtils.resolvePrimitiveIfNecessary(this.parameterTypes[i]);
+		}
+		this.generatable = (this.instantiable && isGeneratable((Constructor<?>) executable));
+	}
+
+
+	/**
+	 * Return the resolved constructor or factory method.
+	 */
+	Executable getExecutable() {
+		return this.executable;
+	}
+
+	/**
+	 * Return the names of the beans to inject as autowired arguments, with
+	 * {@code null} entries for arguments that need to be resolved on every
+	 * creation, or {@code null} if the arguments have not been prepared yet.
+	 */
+	@Nullable
+	String[] getArgumentBeanNames() {
+		return this.argumentBeanNames;
+	}
+
+	/**
+	 * Return whether instances may be created through {@link #instantiate},
+	 * bypassing the {@link InstantiationStrategy}.
+	 */
+	boolean isInstantiable() {
+		return this.instantiable;
+	}
+
+	/**
+	 * Return whether a function has been generated for the constructor.
+	 */
+	boolean isGenerated() {
+		return (this.instantiator != null);
+	}
+
+	/**
+	 * Create a new instance through the constructor.
+	 * @param args the constructor arguments
+	 * @return the new instance
+	 * @throws BeanInstantiationException if the instantiation failed
+	 * @see #isInstantiable()
+	 */
+	Object instantiate(Object[] args) throws BeanInstantiationException {
+		Constructor<?> constructor = (Constructor<?>) this.executable;
+		Function<Object[], Object> instantiator = this.instantiator;
+		if (instantiator == null && this.generatable && ++this.instantiationCount == GENERATION_THRESHOLD) {
+			instantiator = generateInstantiator(constructor);
+		}
+		if (instantiator != null && isAssignableArguments(args)) {
+			try {
+				return instantiator.apply(args);
+			}
+			catch (Throwable ex) {
+				throw new BeanInstantiationException(constructor, "Constructor threw exception", ex);
+			}
+		}
+		// Reflective instantiation, also for arguments that Constructor.newInstance rejects
+		// with an IllegalArgumentException whereas a generated function would throw another exception
+		return BeanUtils.instantiateClass(constructor, args);
+	}
+
+	private boolean isAssignableArguments(Object[] args) {
+		if (args.length != this.parameterTypes.length) {
+			return false;
+		}
+		for (int i = 0; i < args.length; i++) {
+			if (!this.parameterTypes[i].isInstance(args[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private Function<Object[], Object> generateInstantiator(Constructor<?> constructor) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle handle = lookup.unreflectConstructor(constructor);
+			Class<?> declaringClass = constructor.getDeclaringClass();
+			Function<Object[], Object> instantiator;
+			switch (this.parameterTypes.length) {
+				case 0: {
+					CallSite callSite = LambdaMetafactory.metafactory(lookup, "get",
+							MethodType.methodType(Supplier.class), MethodType.methodType(Object.class), handle,
+							MethodType.methodType(declaringClass));
+					Supplier<Object> supplier = (Supplier<Object>) callSite.getTarget().invoke();
+					instantiator = args -> supplier.get();
+					break;
+				}
+				case 1: {
+					CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+							MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+							handle, MethodType.methodType(declaringClass, this.parameterTypes[0]));
+					Function<Object, Object> function = (Function<Object, Object>) callSite.getTarget().invoke();
+					instantiator = args -> function.apply(args[0]);
+					break;
+				}
+				default: {
+					CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+							MethodType.methodType(BiFunction.class),
+							MethodType.methodType(Object.class, Object.class, Object.class), handle,
+							MethodType.methodType(declaringClass, this.parameterTypes[0], this.parameterTypes[1]));
+					BiFunction<Object, Object, Object> function =
+							(BiFunction<Object, Object, Object>) callSite.getTarget().invoke();
+					instantiator = args -> function.apply(args[0], args[1]);
+				}
+			}
+			this.instantiator = instantiator;
+			return instantiator;
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate instantiator for " + constructor +
+						" - falling back to reflection: " + ex);
+			}
+			return null;
+		}
+	}
+
+
+	private static boolean isGeneratable(Constructor<?> constructor) {
+		Class<?> declaringClass = constructor.getDeclaringClass();
+		if (constructor.getParameterCount() > 2 || !Modifier.isPublic(constructor.getModifiers()) ||
+				Modifier.isAbstract(declaringClass.getModifiers()) || !isAccessibleType(declaringClass) ||
+				(KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(declaringClass))) {
+			return false;
+		}
+		for (Class<?> parameterType : constructor.getParameterTypes()) {
+			if (!isAccessibleType(parameterType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAccessibleType(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		return (type.isPrimitive() || (Modifier.isPublic(type.getModifiers()) &&
+				ClassUtils.isVisible(type, BeanCreationPlan.class.getClassLoader())));
+	}
+
+}
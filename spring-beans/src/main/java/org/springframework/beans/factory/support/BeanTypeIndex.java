@@ -0,0 +1,287 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+
+/**
+ * Index from raw types to the names of the beans in a {@link DefaultListableBeanFactory}
+ * that may match them, narrowing down the bean names that
+ * {@link DefaultListableBeanFactory#getBeanNamesForType} needs to check.
+ *
+ * <p>Every bean is indexed under the class of its singleton instance or, without
+ * an instance, under its predicted type, registered for all superclasses and
+ * interfaces of that class. Beans whose type cannot be reliably determined up
+ * front are never filtered out: FactoryBeans, decorated bean definitions, beans
+ * without a predictable type and singletons currently in creation.
+ *
+ * <p>The index is built lazily on first use. Afterwards, changes to individual
+ * beans (registration, removal, singleton creation and destruction) just mark
+ * those beans for re-indexing on the next lookup, rather than invalidating the
+ * entire index. The resulting candidates are a superset of the actual matches,
+ * to be refined through regular type matching (including generics).
+ * Array types are not indexed since they match covariantly, e.g. a
+ * {@code String[]} bean for an {@code Object[]} lookup.
+ *
+ * <p>Once all changes are indexed, the candidates per type are cached as
+ * immutable snapshots, served without locking until the next change.
+ *
+ * @author Spring Team
+ * @since 5.3
+ */
+final class BeanTypeIndex {
+
+	/** Marker for beans that may match any type. */
+	private static final Class<?>[] UNINDEXED = {};
+
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private volatile boolean initialized;
+
+	/** Names of beans to be (re-)indexed, with the stamp of their latest change. */
+	private final Map<String, Long> pendingNames = new HashMap<>();
+
+	/** Indexed types per bean name. */
+	private final Map<String, Class<?>[]> typesByName = new HashMap<>();
+
+	/** Bean names per indexed type and all of its supertypes. */
+	private final Map<Class<?>, Set<String>> namesByType = new HashMap<>();
+
+	private final Set<String> unindexedNames = new HashSet<>();
+
+	private long changeCount;
+
+	/** Immutable candidate snapshots per type, only valid while no bean is pending. */
+	private final Map<Class<?>, Set<String>> candidateCache = new ConcurrentHashMap<>(64);
+
+
+	/**
+	 * Create a new BeanTypeIndex for the given bean factory.
+	 * @param beanFactory the bean factory whose beans to index
+	 */
+	BeanTypeIndex(DefaultListableBeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+
+	/**
+	 * Return the names of all beans that may match the given type.
+	 * @param type the raw type to match
+	 * @return the candidate bean names (an unordered, immutable superset of the
+	 * matching beans), or {@code null} if all beans need to be checked
+	 */
+	@Nullable
+	Set<String> getCandidateNames(Class<?> type) {
+		if (type.isArray()) {
+			return null;
+		}
+		Set<String> cachedCandidates = this.candidateCache.get(type);
+		if (cachedCandidates != null) {
+			return cachedCandidates;
+		}
+
+		Map<String, Long> namesToIndex;
+		synchronized (this) {
+			if (!this.initialized) {
+				Iterator<String> it = this.beanFactory.getBeanNamesIterator();
+				while (it.hasNext()) {
+					this.pendingNames.put(it.next(), this.changeCount);
+				}
+				this.initialized = true;
+			}
+			namesToIndex = new HashMap<>(this.pendingNames);
+		}
+
+		// Determine types outside of the lock since this may involve class loading
+		// and other bean factory callbacks
+		Map<String, Class<?>[]> resolvedTypes = new HashMap<>(namesToIndex.size());
+		for (String beanName : namesToIndex.keySet()) {
+			resolvedTypes.put(beanName, determineTypes(beanName));
+		}
+
+		synchronized (this) {
+			resolvedTypes.forEach((beanName, types) -> {
+				// Skip beans that changed again in the meantime: still pending
+				if (namesToIndex.get(beanName).equals(this.pendingNames.get(beanName))) {
+					this.pendingNames.remove(beanName);
+					removeFromIndex(beanName);
+					if (types != null) {
+						addToIndex(beanName, types);
+					}
+				}
+			});
+			Set<String> candidates = new HashSet<>(this.unindexedNames);
+			Set<String> names = this.namesByType.get(type);
+			if (names != null) {
+				candidates.addAll(names);
+			}
+			candidates.addAll(this.pendingNames.keySet());
+			candidates = Collections.unmodifiableSet(candidates);
+			if (this.pendingNames.isEmpty()) {
+				this.candidateCache.put(type, candidates);
+			}
+			return candidates;
+		}
+	}
+
+	/**
+	 * Mark the given bean for re-indexing, e.g. after its bean definition has been
+	 * registered or its singleton instance has been created or destroyed.
+	 * @param beanName the name of the bean
+	 */
+	void beanChanged(String beanName) {
+		if (this.initialized) {
+			synchronized (this) {
+				if (this.initialized) {
+					this.pendingNames.put(beanName, ++this.changeCount);
+					this.candidateCache.clear();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Discard the entire index, to be rebuilt on next use.
+	 */
+	synchronized void reset() {
+		this.initialized = false;
+		this.pendingNames.clear();
+		this.typesByName.clear();
+		this.namesByType.clear();
+		this.unindexedNames.clear();
+		this.candidateCache.clear();
+	}
+
+	private void addToIndex(String beanName, Class<?>[] types) {
+		this.typesByName.put(beanName, types);
+		if (types == UNINDEXED) {
+			this.unindexedNames.add(beanName);
+			return;
+		}
+		for (Class<?> type : types) {
+			for (Class<?> supertype : getTypeHierarchy(type)) {
+				this.namesByType.computeIfAbsent(supertype, key -> new HashSet<>()).add(beanName);
+			}
+		}
+	}
+
+	private void removeFromIndex(String beanName) {
+		Class<?>[] types = this.typesByName.remove(beanName);
+		if (types == UNINDEXED) {
+			this.unindexedNames.remove(beanName);
+		}
+		else if (types != null) {
+			for (Class<?> type : types) {
+				for (Class<?> supertype : getTypeHierarchy(type)) {
+					Set<String> names = this.namesByType.get(supertype);
+					if (names != null) {
+						names.remove(beanName);
+						if (names.isEmpty()) {
+							this.namesByType.remove(supertype);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Determine the types to index the given bean under, consistent with
+	 * {@link AbstractBeanFactory#isTypeMatch(String, ResolvableType, boolean)}.
+	 * @return the raw types, {@link #UNINDEXED} if the bean may match any type,
+	 * or {@code null} if there is no such bean (anymore)
+	 */
+	@Nullable
+	private Class<?>[] determineTypes(String beanName) {
+		DefaultListableBeanFactory bf = this.beanFactory;
+		try {
+			if (bf.isSingletonCurrentlyInCreation(beanName)) {
+				// Early singleton references may expose a different type (e.g. a proxy)
+				return UNINDEXED;
+			}
+			boolean hasBeanDefinition = bf.containsBeanDefinition(beanName);
+			Object beanInstance = bf.getSingleton(beanName, false);
+			if (beanInstance != null) {
+				if (beanInstance instanceof FactoryBean || beanInstance.getClass() == NullBean.class ||
+						!bf.containsSingleton(beanName)) {
+					return UNINDEXED;
+				}
+				if (!hasBeanDefinition) {
+					return new Class<?>[] {beanInstance.getClass()};
+				}
+				// Generics may also match on the target type or factory method return type
+				RootBeanDefinition mbd = bf.getMergedLocalBeanDefinition(beanName);
+				Set<Class<?>> types = new LinkedHashSet<>(4);
+				types.add(beanInstance.getClass());
+				addRawType(mbd.targetType, types);
+				addRawType(mbd.factoryMethodReturnType, types);
+				return types.toArray(new Class<?>[0]);
+			}
+			if (!hasBeanDefinition) {
+				return (bf.containsSingleton(beanName) ? UNINDEXED : null);
+			}
+			RootBeanDefinition mbd = bf.getMergedLocalBeanDefinition(beanName);
+			if (mbd.getDecoratedDefinition() != null || bf.isFactoryBean(beanName, mbd)) {
+				return UNINDEXED;
+			}
+			Class<?> predictedType = bf.predictBeanType(beanName, mbd);
+			if (predictedType == null || FactoryBean.class.isAssignableFrom(predictedType)) {
+				return UNINDEXED;
+			}
+			return new Class<?>[] {predictedType};
+		}
+		catch (RuntimeException ex) {
+			// Let regular type matching deal with it (e.g. class loading failure)
+			return UNINDEXED;
+		}
+	}
+
+	private static void addRawType(@Nullable ResolvableType type, Set<Class<?>> types) {
+		Class<?> rawType = (type != null ? type.resolve() : null);
+		if (rawType != null) {
+			types.add(rawType);
+		}
+	}
+
+	private static Set<Class<?>> getTypeHierarchy(Class<?> type) {
+		Set<Class<?>> hierarchy = new LinkedHashSet<>();
+		collectTypeHierarchy(type, hierarchy);
+		return hierarchy;
+	}
+
+	private static void collectTypeHierarchy(@Nullable Class<?> type, Set<Class<?>> hierarchy) {
+		if (type != null && hierarchy.add(type)) {
+			collectTypeHierarchy(type.getSuperclass(), hierarchy);
+			for (Class<?> ifc : type.getInterfaces()) {
+				collectTypeHierarchy(ifc, hierarchy);
+			}
+		}
+	}
+
+}
@@ -300,6 +300,10 @@ class ConstructorResolver {
 			String beanName, RootBeanDefinition mbd, Constructor<?> constructorToUse, Object[] argsToUse) {
 
 		try {
+			BeanCreationPlan creationPlan = this.beanFactory.obtainCreationPlan(mbd, constructorToUse);
+			if (creationPlan != null && creationPlan.isInstantiable()) {
+				return creationPlan.instantiate(argsToUse);
+			}
 			InstantiationStrategy strategy = this.beanFactory.getInstantiationStrategy();
 			if (System.getSecurityManager() != null) {
 				return AccessController.doPrivileged((PrivilegedAction<Object>) () ->
@@ -825,12 +829,33 @@ class ConstructorResolver {
 				new BeanDefinitionValueResolver(this.beanFactory, beanName, mbd, converter);
 		Class<?>[] paramTypes = executable.getParameterTypes();
 
+		// Autowired arguments may be obtained by bean name as per the creation plan, if any
+		BeanCreationPlan creationPlan = this.beanFactory.obtainCreationPlan(mbd, executable);
+		String[] argumentBeanNames = (creationPlan != null ? creationPlan.getArgumentBeanNames() : null);
+		String[] newArgumentBeanNames =
+				(creationPlan != null && argumentBeanNames == null ? new String[argsToResolve.length] : null);
+
 		Object[] resolvedArgs = new Object[argsToResolve.length];
 		for (int argIndex = 0; argIndex < argsToResolve.length; argIndex++) {
 			Object argValue = argsToResolve[argIndex];
+			if (argValue == autowiredArgumentMarker && argumentBeanNames != null && argumentBeanNames[argIndex] != null) {
+				Object autowiredArgument = this.beanFactory.getBean(argumentBeanNames[argIndex]);
+				if (paramTypes[argIndex].isInstance(autowiredArgument)) {
+					resolvedArgs[argIndex] = autowiredArgument;
+					continue;
+				}
+			}
 			MethodParameter methodParam = MethodParameter.forExecutable(executable, argIndex);
 			if (argValue == autowiredArgumentMarker) {
-				argValue = resolveAutowiredArgument(methodParam, beanName, null, converter, true);
+				Set<String> autowiredBeanNames = (newArgumentBeanNames != null ? new LinkedHashSet<>(2) : null);
+				argValue = resolveAutowiredArgument(methodParam, beanName, autowiredBeanNames, converter, true);
+				if (autowiredBeanNames != null && autowiredBeanNames.size() == 1) {
+					String autowiredBeanName = autowiredBeanNames.iterator().next();
+					if (this.beanFactory.containsBean(autowiredBeanName) &&
+							this.beanFactory.isTypeMatch(autowiredBeanName, paramTypes[argIndex])) {
+						newArgumentBeanNames[argIndex] = autowiredBeanName;
+					}
+				}
 			}
 			else if (argValue instanceof BeanMetadataElement) {
 				argValue = valueResolver.resolveValueIfNecessary("constructor argument", argValue);
@@ -849,6 +874,9 @@ class ConstructorResolver {
 						"] to required type [" + paramType.getName() + "]: " + ex.getMessage());
 			}
 		}
+		if (newArgumentBeanNames != null) {
+			this.beanFactory.storeCreationPlan(mbd, executable, newArgumentBeanNames);
+		}
 		return resolvedArgs;
 	}
 
@@ -40,6 +40,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -78,6 +79,7 @@ import org.springframework.core.annotation.MergedAnnotation;
 import org.springframework.core.annotation.MergedAnnotations;
 import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
 import org.springframework.core.log.LogMessage;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -157,6 +159,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Resolver to use for checking if a bean definition is an autowire candidate. */
 	private AutowireCandidateResolver autowireCandidateResolver = SimpleAutowireCandidateResolver.INSTANCE;
 
+	/** Optional Executor for pre-instantiating independent singletons in parallel. */
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/** Map from dependency type to corresponding autowired value. */
 	private final Map<Class<?>, Object> resolvableDependencies = new ConcurrentHashMap<>(16);
 
@@ -172,6 +178,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Map of singleton-only bean names, keyed by dependency type. */
 	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
 
+	/** Index of candidate bean names by type, for by-type lookups in a frozen configuration. */
+	private final BeanTypeIndex beanTypeIndex = new BeanTypeIndex(this);
+
 	/** List of bean definition names, in registration order. */
 	private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
 
@@ -316,6 +325,39 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating non-lazy singletons in parallel.
+	 * <p>Default is none, creating all singletons one after another on the calling
+	 * thread. If specified, {@link #preInstantiateSingletons()} derives a dependency
+	 * graph from the registered bean definitions (depends-on declarations, factory
+	 * beans and explicit bean references) and hands independent parts of it to the
+	 * given executor, creating dependencies before their dependents and circular
+	 * references on a single thread. {@link SmartInitializingSingleton} callbacks
+	 * still run on the calling thread once all singletons have been created.
+	 * <p>Dependencies that are only resolved at creation time, e.g. through
+	 * autowiring, are not part of the graph; such beans are created on demand
+	 * by whichever thread requests them first. A circular reference between
+	 * such beans that spans threads does not resolve an early reference across
+	 * threads: the creation on one of the threads is aborted instead, and its
+	 * beans are created sequentially on the calling thread in the end.
+	 * The executor is expected to bound the number of threads; any tasks it
+	 * rejects are run on the submitting thread.
+	 * @since 5.3
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for pre-instantiating singletons in parallel, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
@@ -325,6 +367,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.bootstrapExecutor = otherListableFactory.bootstrapExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware
 			setAutowireCandidateResolver(otherListableFactory.getAutowireCandidateResolver().cloneIfNecessary());
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well
@@ -509,9 +552,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
+		Set<String> candidateNames = getCandidateBeanNamesForType(type, allowEagerInit);
 
 		// Check all bean definitions.
 		for (String beanName : this.beanDefinitionNames) {
+			if (candidateNames != null && !candidateNames.contains(beanName)) {
+				continue;
+			}
 			// Only consider bean as eligible if the bean name is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
 				try {
@@ -566,6 +613,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 		// Check manually registered singletons too.
 		for (String beanName : this.manualSingletonNames) {
+			if (candidateNames != null && !candidateNames.contains(beanName)) {
+				continue;
+			}
 			try {
 				// In case of FactoryBean, match object created by FactoryBean.
 				if (isFactoryBean(beanName)) {
@@ -592,6 +642,24 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return StringUtils.toStringArray(result);
 	}
 
+	/**
+	 * Determine the names of the beans that may match the given type, based on
+	 * the {@link BeanTypeIndex}. The index is only used once the configuration
+	 * is frozen, since bean types are not expected to be predictable before.
+	 * @param type the type to match
+	 * @param allowEagerInit whether type matching may initialize beans
+	 * @return the candidate bean names, or {@code null} if all beans need to be checked
+	 */
+	@Nullable
+	private Set<String> getCandidateBeanNamesForType(ResolvableType type, boolean allowEagerInit) {
+		Class<?> rawType = type.resolve();
+		if (!allowEagerInit || !isConfigurationFrozen() || getTempClassLoader() != null ||
+				rawType == null || rawType == Object.class) {
+			return null;
+		}
+		return this.beanTypeIndex.getCandidateNames(rawType);
+	}
+
 	private boolean isSingleton(String beanName, RootBeanDefinition mbd, @Nullable BeanDefinitionHolder dbd) {
 		return (dbd != null ? mbd.isSingleton() : isSingleton(beanName));
 	}
@@ -837,6 +905,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		super.clearMetadataCache();
 		this.mergedBeanDefinitionHolders.clear();
 		clearByTypeCache();
+		this.beanTypeIndex.reset();
 	}
 
 	@Override
@@ -871,31 +940,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged(
-									(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				}
-				else {
-					getBean(beanName);
-				}
+		Executor executor = this.bootstrapExecutor;
+		if (executor != null) {
+			new SingletonPreInstantiator(this, executor).preInstantiate(beanNames);
+		}
+		else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -903,6 +954,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		for (String beanName : beanNames) {
 			Object singletonInstance = getSingleton(beanName);
 			if (singletonInstance instanceof SmartInitializingSingleton) {
+				StartupStep smartInitialize = getApplicationStartup().start("spring.beans.smart-initialize")
+						.tag("beanName", beanName);
 				SmartInitializingSingleton smartSingleton = (SmartInitializingSingleton) singletonInstance;
 				if (System.getSecurityManager() != null) {
 					AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
@@ -913,6 +966,50 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				else {
 					smartSingleton.afterSingletonsInstantiated();
 				}
+				smartInitialize.end();
+			}
+		}
+	}
+
+
+	/**
+	 * Determine whether the given bean is to be pre-instantiated, i.e. whether
+	 * it is a non-abstract, non-lazy singleton.
+	 * @param mbd the merged bean definition of the bean
+	 */
+	boolean isPreInstantiationCandidate(RootBeanDefinition mbd) {
+		return (!mbd.isAbstract() && mbd.isSingleton() && !mbd.isLazyInit());
+	}
+
+	/**
+	 * Pre-instantiate the given bean if it is a non-lazy singleton, also
+	 * creating the object of an eager-init {@link SmartFactoryBean}.
+	 * @param beanName the name of the bean
+	 */
+	void preInstantiateSingleton(String beanName) {
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+		if (isPreInstantiationCandidate(bd)) {
+			if (isFactoryBean(beanName)) {
+				Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+				if (bean instanceof FactoryBean) {
+					FactoryBean<?> factory = (FactoryBean<?>) bean;
+					boolean isEagerInit;
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged(
+								(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext());
+					}
+					else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+					if (isEagerInit) {
+						getBean(beanName);
+					}
+				}
+			}
+			else {
+				getBean(beanName);
 			}
 		}
 	}
@@ -992,8 +1089,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		if (existingDefinition != null || containsSingleton(beanName)) {
 			resetBeanDefinition(beanName);
 		}
-		else if (isConfigurationFrozen()) {
-			clearByTypeCache();
+		else {
+			this.beanTypeIndex.beanChanged(beanName);
+			if (isConfigurationFrozen()) {
+				clearByTypeCache();
+			}
 		}
 	}
 
@@ -1040,6 +1140,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	protected void resetBeanDefinition(String beanName) {
 		// Remove the merged bean definition for the given bean, if already created.
 		clearMergedBeanDefinition(beanName);
+		this.beanTypeIndex.beanChanged(beanName);
 
 		// Remove corresponding bean from singleton cache, if any. Shouldn't usually
 		// be necessary, rather just meant for overriding a context's default beans
@@ -1080,11 +1181,30 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		this.beanTypeIndex.beanChanged(beanName);
+	}
+
+	@Override
+	protected void beforeSingletonCreation(String beanName) {
+		super.beforeSingletonCreation(beanName);
+		this.beanTypeIndex.beanChanged(beanName);
+	}
+
+	@Override
+	protected void afterSingletonCreation(String beanName) {
+		super.afterSingletonCreation(beanName);
+		this.beanTypeIndex.beanChanged(beanName);
+	}
+
 	@Override
 	public void destroySingletons() {
 		super.destroySingletons();
 		updateManualSingletonNames(Set::clear, set -> !set.isEmpty());
 		clearByTypeCache();
+		this.beanTypeIndex.reset();
 	}
 
 	@Override
@@ -1092,6 +1212,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		super.destroySingleton(beanName);
 		removeManualSingletonName(beanName);
 		clearByTypeCache();
+		this.beanTypeIndex.beanChanged(beanName);
 	}
 
 	private void removeManualSingletonName(String beanName) {
@@ -25,6 +25,9 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCreationNotAllowedException;
@@ -32,6 +35,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -55,6 +59,15 @@ import org.springframework.util.StringUtils;
  * the {@link org.springframework.beans.factory.config.ConfigurableBeanFactory}
  * interface extends the {@link SingletonBeanRegistry} interface.
  *
+ * <p>Singleton creation is guarded by a reentrant lock per bean name, so that
+ * different singletons may be created concurrently on different threads while
+ * each singleton is still created only once. A thread that would have to wait
+ * for a singleton in creation on another thread which in turn (directly or
+ * indirectly) waits for a singleton in creation on the current thread resolves
+ * an early reference to the requested singleton if one has been exposed, just
+ * like for a circular reference within a single thread, and otherwise fails
+ * with a {@link BeanCurrentlyInCreationException} instead of deadlocking.
+ *
  * <p>Note that this class assumes neither a bean definition concept
  * nor a specific creation process for bean instances, in contrast to
  * {@link AbstractBeanFactory} and {@link DefaultListableBeanFactory}
@@ -73,6 +86,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	/** Maximum number of suppressed exceptions to preserve. */
 	private static final int SUPPRESSED_EXCEPTIONS_LIMIT = 100;
 
+	/** Interval in milliseconds for re-checking a creation lock wait for deadlocks. */
+	private static final long DEADLOCK_CHECK_INTERVAL = 100;
+
 
 	/** Cache of singleton objects: bean name to bean instance. */
 	private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>(256);
@@ -94,12 +110,22 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Creation locks for singletons: bean name to lock, as long as the lock is in use. */
+	private final Map<String, SingletonCreationLock> singletonCreationLocks = new ConcurrentHashMap<>(16);
+
+	/** Creation locks that threads are currently waiting for: thread to lock. */
+	private final Map<Thread, SingletonCreationLock> singletonCreationLockWaits = new ConcurrentHashMap<>(16);
+
+	/** Whether a circular reference across threads has been encountered, if tracked for the current thread. */
+	private final ThreadLocal<AtomicBoolean> crossThreadCircularReferences =
+			new NamedThreadLocal<>("Circular references across threads");
+
 	/** Collection of suppressed Exceptions, available for associating related causes. */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions during singleton creation");
 
 	/** Flag that indicates whether we're currently within destroySingletons. */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
 
 	/** Disposable bean instances: bean name to disposable instance. */
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
@@ -178,31 +204,65 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	@Nullable
 	protected Object getSingleton(String beanName, boolean allowEarlyReference) {
-		// Quick check for existing instance without full singleton lock
+		// Quick check for existing instance without singleton creation lock
 		Object singletonObject = this.singletonObjects.get(beanName);
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
-			singletonObject = this.earlySingletonObjects.get(beanName);
-			if (singletonObject == null && allowEarlyReference) {
-				synchronized (this.singletonObjects) {
-					// Consistent creation of early reference within full singleton lock
-					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						singletonObject = this.earlySingletonObjects.get(beanName);
-						if (singletonObject == null) {
-							ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-							if (singletonFactory != null) {
-								singletonObject = singletonFactory.getObject();
-								this.earlySingletonObjects.put(beanName, singletonObject);
-								this.singletonFactories.remove(beanName);
-							}
-						}
-					}
+			// Early references are only exposed to the thread that creates the singleton:
+			// other threads are supposed to wait for the fully initialized singleton.
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			Thread owner = (lock != null ? lock.owner : null);
+			if (owner == null || owner == Thread.currentThread()) {
+				singletonObject = this.earlySingletonObjects.get(beanName);
+				if (singletonObject == null && allowEarlyReference) {
+					singletonObject = getEarlySingletonReference(beanName);
 				}
 			}
 		}
 		return singletonObject;
 	}
 
+	/**
+	 * Obtain an early reference to the specified singleton, creating it
+	 * through its registered singleton factory if necessary.
+	 * <p>The singleton factory is invoked outside of the registry's internal
+	 * lock, since it may call out to arbitrary post-processor code.
+	 * @param beanName the name of the bean
+	 * @return the early singleton reference, or {@code null} if none available
+	 */
+	@Nullable
+	private Object getEarlySingletonReference(String beanName) {
+		ObjectFactory<?> singletonFactory;
+		synchronized (this.singletonObjects) {
+			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				singletonObject = this.earlySingletonObjects.get(beanName);
+			}
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			singletonFactory = this.singletonFactories.remove(beanName);
+		}
+		if (singletonFactory == null) {
+			return null;
+		}
+		Object singletonObject;
+		try {
+			singletonObject = singletonFactory.getObject();
+		}
+		catch (RuntimeException | Error ex) {
+			synchronized (this.singletonObjects) {
+				if (!this.singletonObjects.containsKey(beanName) && !this.earlySingletonObjects.containsKey(beanName)) {
+					this.singletonFactories.put(beanName, singletonFactory);
+				}
+			}
+			throw ex;
+		}
+		synchronized (this.singletonObjects) {
+			Object existingObject = this.earlySingletonObjects.putIfAbsent(beanName, singletonObject);
+			return (existingObject != null ? existingObject : singletonObject);
+		}
+	}
+
 	/**
 	 * Return the (raw) singleton object registered under the given name,
 	 * creating and registering a new one if none registered yet.
@@ -213,8 +273,23 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
-		synchronized (this.singletonObjects) {
-			Object singletonObject = this.singletonObjects.get(beanName);
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		if (!acquireSingletonCreationLock(beanName)) {
+			checkCrossThreadCircularReference(beanName);
+			// Waiting would deadlock: resolve like a circular reference on a single thread.
+			singletonObject = getEarlySingletonReference(beanName);
+			if (singletonObject == null) {
+				throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently in creation " +
+						"on another thread which in turn waits for a bean in creation on the current thread: " +
+						"Is there an unresolvable circular reference?");
+			}
+			return singletonObject;
+		}
+		try {
+			singletonObject = this.singletonObjects.get(beanName);
 			if (singletonObject == null) {
 				if (this.singletonsCurrentlyInDestruction) {
 					throw new BeanCreationNotAllowedException(beanName,
@@ -226,9 +301,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				}
 				beforeSingletonCreation(beanName);
 				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
+				Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+				boolean recordSuppressedExceptions = (suppressedExceptions == null);
 				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
+					suppressedExceptions = new LinkedHashSet<>();
+					this.suppressedExceptions.set(suppressedExceptions);
 				}
 				try {
 					singletonObject = singletonFactory.getObject();
@@ -244,7 +321,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				}
 				catch (BeanCreationException ex) {
 					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
+						for (Exception suppressedException : suppressedExceptions) {
 							ex.addRelatedCause(suppressedException);
 						}
 					}
@@ -252,7 +329,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				}
 				finally {
 					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
+						this.suppressedExceptions.remove();
 					}
 					afterSingletonCreation(beanName);
 				}
@@ -262,11 +339,165 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			}
 			return singletonObject;
 		}
+		finally {
+			releaseSingletonCreationLock(beanName);
+		}
+	}
+
+	/**
+	 * Acquire the creation lock for the specified singleton, waiting for
+	 * a concurrent creation of the same singleton on another thread to finish.
+	 * <p>Creation locks are reentrant and held for the entire creation of a
+	 * singleton within {@link #getSingleton(String, ObjectFactory)}. Subclasses
+	 * should acquire the lock for any extended creation phase of a singleton,
+	 * e.g. for obtaining the object exposed by a singleton FactoryBean.
+	 * Every successful acquisition needs to be followed by a corresponding
+	 * {@link #releaseSingletonCreationLock} call.
+	 * @param beanName the name of the bean
+	 * @return {@code true} if the lock has been acquired, or {@code false} if
+	 * waiting for it would deadlock since the owning thread (directly or
+	 * indirectly) waits for a creation lock held by the current thread
+	 * @since 5.3
+	 */
+	protected boolean acquireSingletonCreationLock(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.compute(beanName, (name, existingLock) -> {
+			SingletonCreationLock lockToUse = (existingLock != null ? existingLock : new SingletonCreationLock());
+			lockToUse.users++;
+			return lockToUse;
+		});
+		Thread currentThread = Thread.currentThread();
+		if (!lock.tryLock() && !awaitSingletonCreationLock(lock, currentThread)) {
+			releaseSingletonCreationLockUse(beanName);
+			return false;
+		}
+		lock.owner = currentThread;
+		return true;
+	}
+
+	/**
+	 * Release the creation lock for the specified singleton.
+	 * @param beanName the name of the bean
+	 * @throws IllegalStateException if the lock is not held by the current thread
+	 * @since 5.3
+	 * @see #acquireSingletonCreationLock
+	 */
+	protected void releaseSingletonCreationLock(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		if (lock == null || !lock.isHeldByCurrentThread()) {
+			throw new IllegalStateException("Creation lock for singleton '" + beanName +
+					"' is not held by the current thread");
+		}
+		if (lock.getHoldCount() == 1) {
+			lock.owner = null;
+		}
+		lock.unlock();
+		releaseSingletonCreationLockUse(beanName);
+	}
+
+	/**
+	 * Run the given action on the current thread, aborting it on any circular
+	 * reference to a singleton in creation on another thread, rather than
+	 * resolving an early reference to it.
+	 * <p>The singleton that the current thread is creating at that point fails,
+	 * releasing its creation lock, so that the other thread may complete the
+	 * circular reference on its own, just like without concurrent creation.
+	 * @param action the action to run
+	 * @return {@code true} if the action completed without encountering a
+	 * circular reference across threads, {@code false} otherwise
+	 */
+	boolean runWithoutCrossThreadCircularReferences(Runnable action) {
+		AtomicBoolean encountered = new AtomicBoolean();
+		this.crossThreadCircularReferences.set(encountered);
+		try {
+			action.run();
+		}
+		catch (RuntimeException | Error ex) {
+			if (!encountered.get()) {
+				throw ex;
+			}
+		}
+		finally {
+			this.crossThreadCircularReferences.remove();
+		}
+		return !encountered.get();
+	}
+
+	/**
+	 * Check a circular reference to the given singleton, which is in creation on
+	 * another thread that in turn waits for a singleton in creation on the current
+	 * thread. Aborts the current creation if called within
+	 * {@link #runWithoutCrossThreadCircularReferences}.
+	 * <p>Deliberately throws an {@link IllegalStateException} rather than a
+	 * {@link BeanCurrentlyInCreationException}, which some lookups tolerate.
+	 * @param beanName the name of the singleton in creation on another thread
+	 */
+	void checkCrossThreadCircularReference(String beanName) {
+		AtomicBoolean encountered = this.crossThreadCircularReferences.get();
+		if (encountered != null) {
+			encountered.set(true);
+			throw new IllegalStateException("Singleton '" + beanName + "' is currently in creation on " +
+					"another thread which in turn waits for a singleton in creation on the current thread");
+		}
+	}
+
+	private boolean awaitSingletonCreationLock(SingletonCreationLock lock, Thread currentThread) {
+		boolean interrupted = false;
+		this.singletonCreationLockWaits.put(currentThread, lock);
+		try {
+			// Re-check periodically: the last thread to join a wait cycle detects it right away,
+			// unless it raced with another thread in the cycle just taking ownership of its lock.
+			while (!isWaitCycle(lock, currentThread)) {
+				try {
+					if (lock.tryLock(DEADLOCK_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				}
+				catch (InterruptedException ex) {
+					// Keep waiting like for a monitor, restoring the interrupt flag afterwards.
+					interrupted = true;
+				}
+			}
+			return false;
+		}
+		finally {
+			this.singletonCreationLockWaits.remove(currentThread);
+			if (interrupted) {
+				currentThread.interrupt();
+			}
+		}
+	}
+
+	private boolean isWaitCycle(SingletonCreationLock lock, Thread currentThread) {
+		Set<Thread> visitedThreads = null;
+		SingletonCreationLock lockToCheck = lock;
+		while (lockToCheck != null) {
+			Thread owner = lockToCheck.owner;
+			if (owner == null) {
+				return false;
+			}
+			if (owner == currentThread) {
+				return true;
+			}
+			if (visitedThreads == null) {
+				visitedThreads = new HashSet<>();
+			}
+			if (!visitedThreads.add(owner)) {
+				// Cycle among other threads, not involving the current thread
+				return false;
+			}
+			lockToCheck = this.singletonCreationLockWaits.get(owner);
+		}
+		return false;
+	}
+
+	private void releaseSingletonCreationLockUse(String beanName) {
+		this.singletonCreationLocks.computeIfPresent(beanName, (name, lock) -> (--lock.users > 0 ? lock : null));
 	}
 
 	/**
 	 * Register an exception that happened to get suppressed during the creation of a
-	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
+	 * singleton bean instance on the current thread, e.g. a temporary circular
+	 * reference resolution problem.
 	 * <p>The default implementation preserves any given exception in this registry's
 	 * collection of suppressed exceptions, up to a limit of 100 exceptions, adding
 	 * them as related causes to an eventual top-level {@link BeanCreationException}.
@@ -274,10 +505,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see BeanCreationException#getRelatedCauses()
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null && this.suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null && suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
+			suppressedExceptions.add(ex);
 		}
 	}
 
@@ -511,6 +741,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		synchronized (this.singletonObjects) {
 			this.singletonsCurrentlyInDestruction = true;
 		}
+		awaitSingletonsInCreation();
 
 		String[] disposableBeanNames;
 		synchronized (this.disposableBeans) {
@@ -527,6 +758,21 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		clearSingletonCache();
 	}
 
+	/**
+	 * Wait for singletons currently in creation on other threads to be fully
+	 * registered, so that they get destroyed along with all other singletons.
+	 * <p>To be called once {@link #singletonsCurrentlyInDestruction} is set,
+	 * preventing the creation of further singletons. Singletons in creation on
+	 * a thread that waits for the current thread are not waited for.
+	 */
+	private void awaitSingletonsInCreation() {
+		for (String beanName : StringUtils.toStringArray(this.singletonCreationLocks.keySet())) {
+			if (acquireSingletonCreationLock(beanName)) {
+				releaseSingletonCreationLock(beanName);
+			}
+		}
+	}
+
 	/**
 	 * Clear all cached singleton instances in this registry.
 	 * @since 4.3.15
@@ -623,9 +869,15 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
 	/**
 	 * Exposes the singleton mutex to subclasses and external collaborators.
-	 * <p>Subclasses should synchronize on the given Object if they perform
-	 * any sort of extended singleton creation phase. In particular, subclasses
-	 * should <i>not</i> have their own mutexes involved in singleton creation,
+	 * <p>This mutex guards the registration and removal of singletons, e.g. for
+	 * subclasses that need to clear their own caches along with the singleton
+	 * cache. As of 5.3, it is not held during singleton creation anymore, which
+	 * is guarded by per-bean creation locks instead: Code holding this mutex must
+	 * not obtain beans from the factory, since the thread creating such a bean
+	 * needs the mutex for registering it. Subclasses should rather
+	 * {@linkplain #acquireSingletonCreationLock acquire the creation lock} of the
+	 * affected bean if they perform any sort of extended singleton creation phase,
+	 * and should <i>not</i> have their own mutexes involved in singleton creation,
 	 * to avoid the potential for deadlocks in lazy-init situations.
 	 */
 	@Override
@@ -633,4 +885,20 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * Reentrant creation lock for a singleton, exposing its current owner
+	 * for deadlock detection.
+	 */
+	@SuppressWarnings("serial")
+	private static final class SingletonCreationLock extends ReentrantLock {
+
+		/** Owning thread, set while the lock is held. */
+		@Nullable
+		volatile Thread owner;
+
+		/** Number of threads using the lock, modified within the lock map only. */
+		int users;
+	}
+
 }
@@ -95,8 +95,18 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 	 */
 	protected Object getObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
 		if (factory.isSingleton() && containsSingleton(beanName)) {
-			synchronized (getSingletonMutex()) {
-				Object object = this.factoryBeanObjectCache.get(beanName);
+			Object object = this.factoryBeanObjectCache.get(beanName);
+			if (object != null) {
+				return object;
+			}
+			if (!acquireSingletonCreationLock(beanName)) {
+				checkCrossThreadCircularReference(beanName);
+				throw new BeanCurrentlyInCreationException(beanName, "FactoryBean object is currently in creation " +
+						"on another thread which in turn waits for a bean in creation on the current thread: " +
+						"Is there an unresolvable circular reference?");
+			}
+			try {
+				object = this.factoryBeanObjectCache.get(beanName);
 				if (object == null) {
 					object = doGetObjectFromFactoryBean(factory, beanName);
 					// Only post-process and store if not put there already during getObject() call above
@@ -123,13 +133,19 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 								afterSingletonCreation(beanName);
 							}
 						}
-						if (containsSingleton(beanName)) {
-							this.factoryBeanObjectCache.put(beanName, object);
+						synchronized (getSingletonMutex()) {
+							// Consistent with concurrent removal of the FactoryBean singleton
+							if (containsSingleton(beanName)) {
+								this.factoryBeanObjectCache.put(beanName, object);
+							}
 						}
 					}
 				}
 				return object;
 			}
+			finally {
+				releaseSingletonCreationLock(beanName);
+			}
 		}
 		else {
 			Object object = doGetObjectFromFactoryBean(factory, beanName);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -104,6 +104,10 @@ public class RootBeanDefinition extends AbstractBeanDefinition {
 	@Nullable
 	Object[] preparedConstructorArguments;
 
+	/** Package-visible field for caching the creation plan of a non-singleton bean. */
+	@Nullable
+	volatile BeanCreationPlan creationPlan;
+
 	/** Common lock for the two post-processing fields below. */
 	final Object postProcessingLock = new Object();
 
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Helper class for {@link DefaultListableBeanFactory#preInstantiateSingletons()}
+ * that creates non-lazy singletons concurrently on a given {@link Executor}.
+ *
+ * <p>A dependency graph is derived from the merged bean definitions: depends-on
+ * declarations, factory bean names and explicit bean references in constructor
+ * arguments and property values (including nested collections and inner beans).
+ * Beans that refer to each other in a cycle are grouped together and created
+ * one after the other on a single thread, in registration order. Every group
+ * is only submitted once all groups it depends on have been created.
+ *
+ * <p>Dependencies that are only resolved at creation time (e.g. autowiring)
+ * are not part of the graph, so a circular reference may still span threads.
+ * Instead of resolving an early reference to a bean in creation on another
+ * thread, the affected creation is aborted, letting the other thread complete
+ * the circular reference on its own; the aborted beans are created one after
+ * the other on the calling thread once all tasks have completed.
+ *
+ * <p>Tasks are submitted from the calling thread only; a task that the executor
+ * rejects is run on the calling thread instead. After the first failure, no
+ * further tasks are submitted and the failure is rethrown once all running
+ * tasks have completed.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see DefaultListableBeanFactory#setBootstrapExecutor
+ */
+final class SingletonPreInstantiator {
+
+	private static final Log logger = LogFactory.getLog(SingletonPreInstantiator.class);
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final Executor executor;
+
+	private final BlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+
+
+	/**
+	 * Create a new SingletonPreInstantiator for the given bean factory.
+	 * @param beanFactory the bean factory to pre-instantiate singletons for
+	 * @param executor the executor to create singletons on
+	 */
+	SingletonPreInstantiator(DefaultListableBeanFactory beanFactory, Executor executor) {
+		this.beanFactory = beanFactory;
+		this.executor = executor;
+	}
+
+
+	/**
+	 * Pre-instantiate all eligible singletons among the given bean names.
+	 * @param beanNames the bean names to consider, in registration order
+	 */
+	void preInstantiate(List<String> beanNames) {
+		Map<String, Integer> candidates = new HashMap<>();
+		List<String> names = new ArrayList<>();
+		for (String beanName : beanNames) {
+			RootBeanDefinition mbd = this.beanFactory.getMergedLocalBeanDefinition(beanName);
+			if (this.beanFactory.isPreInstantiationCandidate(mbd) && !candidates.containsKey(beanName)) {
+				candidates.put(beanName, names.size());
+				names.add(beanName);
+			}
+		}
+		if (names.isEmpty()) {
+			return;
+		}
+
+		int[][] edges = new int[names.size()][];
+		for (int i = 0; i < names.size(); i++) {
+			String beanName = names.get(i);
+			Set<String> dependencies = getDependencies(this.beanFactory.getMergedLocalBeanDefinition(beanName));
+			List<Integer> targets = new ArrayList<>(dependencies.size());
+			for (String dependency : dependencies) {
+				Integer target = candidates.get(this.beanFactory.transformedBeanName(dependency));
+				if (target != null && target != i) {
+					targets.add(target);
+				}
+			}
+			edges[i] = targets.stream().mapToInt(Integer::intValue).toArray();
+		}
+
+		List<Group> groups = groupStronglyConnected(names, edges);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Pre-instantiating " + names.size() + " singletons in " + groups.size() +
+					" groups on " + this.executor);
+		}
+		run(groups);
+	}
+
+	private void run(List<Group> groups) {
+		List<Group> ready = new ArrayList<>();
+		for (Group group : groups) {
+			if (group.pending == 0) {
+				ready.add(group);
+			}
+		}
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		Throwable failure = null;
+		boolean interrupted = false;
+		int running = 0;
+		int remaining = groups.size();
+		List<String> deferred = new ArrayList<>();
+		while (true) {
+			if (failure == null) {
+				for (Group group : ready) {
+					running++;
+					submit(group, classLoader);
+				}
+			}
+			ready.clear();
+			if (running == 0) {
+				break;
+			}
+			Completion completion;
+			try {
+				completion = this.completions.take();
+			}
+			catch (InterruptedException ex) {
+				interrupted = true;
+				if (failure == null) {
+					failure = new IllegalStateException(
+							"Interrupted while waiting for singletons to be pre-instantiated", ex);
+				}
+				continue;
+			}
+			running--;
+			remaining--;
+			deferred.addAll(completion.deferredBeanNames);
+			if (completion.failure != null) {
+				if (failure == null) {
+					failure = completion.failure;
+				}
+				else if (failure != completion.failure) {
+					failure.addSuppressed(completion.failure);
+				}
+			}
+			for (Group dependent : completion.group.dependents) {
+				if (--dependent.pending == 0) {
+					ready.add(dependent);
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null) {
+			ReflectionUtils.rethrowRuntimeException(failure);
+		}
+		if (remaining != 0) {
+			throw new IllegalStateException(remaining + " singleton groups have not been pre-instantiated");
+		}
+		if (!deferred.isEmpty()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Pre-instantiating singletons " + deferred +
+						" sequentially after circular references across threads");
+			}
+			for (String beanName : deferred) {
+				this.beanFactory.preInstantiateSingleton(beanName);
+			}
+		}
+	}
+
+	private void submit(Group group, @Nullable ClassLoader classLoader) {
+		Runnable task = () -> create(group, classLoader);
+		try {
+			this.executor.execute(task);
+		}
+		catch (RejectedExecutionException ex) {
+			task.run();
+		}
+	}
+
+	private void create(Group group, @Nullable ClassLoader classLoader) {
+		Thread currentThread = Thread.currentThread();
+		ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+		List<String> deferredBeanNames = new ArrayList<>();
+		Throwable failure = null;
+		try {
+			currentThread.setContextClassLoader(classLoader);
+			for (String beanName : group.beanNames) {
+				if (!this.beanFactory.runWithoutCrossThreadCircularReferences(
+						() -> this.beanFactory.preInstantiateSingleton(beanName))) {
+					deferredBeanNames.add(beanName);
+				}
+			}
+		}
+		catch (Throwable ex) {
+			failure = ex;
+		}
+		finally {
+			currentThread.setContextClassLoader(previousClassLoader);
+			this.completions.add(new Completion(group, deferredBeanNames, failure));
+		}
+	}
+
+
+	/**
+	 * Collect the names of all beans that the given bean definition refers to.
+	 */
+	private Set<String> getDependencies(BeanDefinition bd) {
+		Set<String> dependencies = new LinkedHashSet<>();
+		collectDependencies(bd, dependencies);
+		return dependencies;
+	}
+
+	private void collectDependencies(BeanDefinition bd, Set<String> dependencies) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependency : dependsOn) {
+				dependencies.add(dependency);
+			}
+		}
+		if (bd.getFactoryBeanName() != null) {
+			dependencies.add(bd.getFactoryBeanName());
+		}
+		if (bd.hasConstructorArgumentValues()) {
+			ConstructorArgumentValues args = bd.getConstructorArgumentValues();
+			for (ConstructorArgumentValues.ValueHolder valueHolder : args.getIndexedArgumentValues().values()) {
+				collectReferences(valueHolder.getValue(), dependencies);
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : args.getGenericArgumentValues()) {
+				collectReferences(valueHolder.getValue(), dependencies);
+			}
+		}
+		if (bd.hasPropertyValues()) {
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				collectReferences(pv.getValue(), dependencies);
+			}
+		}
+	}
+
+	private void collectReferences(@Nullable Object value, Set<String> dependencies) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			if (!ref.isToParent() && ref.getBeanType() == null) {
+				dependencies.add(ref.getBeanName());
+			}
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), dependencies);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectDependencies((BeanDefinition) value, dependencies);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectReferences(element, dependencies);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectReferences(entry.getKey(), dependencies);
+				collectReferences(entry.getValue(), dependencies);
+			}
+		}
+		else if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				collectReferences(element, dependencies);
+			}
+		}
+	}
+
+
+	/**
+	 * Group the given nodes into strongly connected components, using an
+	 * iterative variant of Tarjan's algorithm. Components are returned with
+	 * their dependencies first, and the beans within each component are kept
+	 * in registration order.
+	 */
+	private static List<Group> groupStronglyConnected(List<String> names, int[][] edges) {
+		int count = names.size();
+		int[] index = new int[count];
+		int[] lowLink = new int[count];
+		int[] nextEdge = new int[count];
+		boolean[] onStack = new boolean[count];
+		Group[] groupOf = new Group[count];
+		Deque<Integer> stack = new ArrayDeque<>();
+		Deque<Integer> callStack = new ArrayDeque<>();
+		List<Group> groups = new ArrayList<>();
+		int counter = 0;
+
+		for (int root = 0; root < count; root++) {
+			if (index[root] != 0) {
+				continue;
+			}
+			index[root] = lowLink[root] = ++counter;
+			stack.push(root);
+			onStack[root] = true;
+			callStack.push(root);
+			while (!callStack.isEmpty()) {
+				int node = callStack.peek();
+				if (nextEdge[node] < edges[node].length) {
+					int target = edges[node][nextEdge[node]++];
+					if (index[target] == 0) {
+						index[target] = lowLink[target] = ++counter;
+						stack.push(target);
+						onStack[target] = true;
+						callStack.push(target);
+					}
+					else if (onStack[target]) {
+						lowLink[node] = Math.min(lowLink[node], index[target]);
+					}
+					continue;
+				}
+				callStack.pop();
+				if (!callStack.isEmpty()) {
+					int caller = callStack.peek();
+					lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+				}
+				if (lowLink[node] == index[node]) {
+					List<Integer> members = new ArrayList<>();
+					int member;
+					do {
+						member = stack.pop();
+						onStack[member] = false;
+						members.add(member);
+					}
+					while (member != node);
+					members.sort(null);
+					Group group = new Group(members.size());
+					for (int m : members) {
+						group.beanNames.add(names.get(m));
+						groupOf[m] = group;
+					}
+					groups.add(group);
+				}
+			}
+		}
+
+		for (int node = 0; node < count; node++) {
+			Group group = groupOf[node];
+			for (int target : edges[node]) {
+				Group dependency = groupOf[target];
+				if (dependency != group && dependency.dependents.add(group)) {
+					group.pending++;
+				}
+			}
+		}
+		return groups;
+	}
+
+
+	/**
+	 * A set of beans to be created together on a single thread.
+	 * Only accessed by the thread that drives the pre-instantiation.
+	 */
+	private static final class Group {
+
+		final List<String> beanNames;
+
+		final Set<Group> dependents = new LinkedHashSet<>();
+
+		int pending;
+
+		Group(int size) {
+			this.beanNames = new ArrayList<>(size);
+		}
+	}
+
+
+	/**
+	 * Completion signal for a {@link Group}, handed back to the driving thread.
+	 */
+	private static final class Completion {
+
+		final Group group;
+
+		final List<String> deferredBeanNames;
+
+		@Nullable
+		final Throwable failure;
+
+		Completion(Group group, List<String> deferredBeanNames, @Nullable Throwable failure) {
+			this.group = group;
+			this.deferredBeanNames = deferredBeanNames;
+			this.failure = failure;
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link PropertyMethodInvoker}.
+ *
+ * @since 5.3
+ */
+class PropertyMethodInvokerTests {
+
+	@Test
+	void generatesGetterAfterThreshold() throws Exception {
+		PropertyMethodInvoker invoker = PropertyMethodInvoker.forReadMethod(
+				PublicBean.class.getMethod("getName"));
+		PublicBean bean = new PublicBean();
+		bean.setName("spring");
+
+		invokeGetterUntilThreshold(invoker, bean);
+		assertThat(invoker.isGenerated()).isTrue();
+		assertThat(invoker.get(bean)).isEqualTo("spring");
+	}
+
+	@Test
+	void generatesGetterForPrimitiveProperty() throws Exception {
+		PropertyMethodInvoker invoker = PropertyMethodInvoker.forReadMethod(
+				PublicBean.class.getMethod("getAge"));
+		PublicBean bean = new PublicBean();
+		bean.setAge(42);
+
+		invokeGetterUntilThreshold(invoker, bean);
+		assertThat(invoker.isGenerated()).isTrue();
+		assertThat(invoker.get(bean)).isEqualTo(42);
+	}
+
+	@Test
+	void generatesSetterAfterThreshold() throws Exception {
+		PropertyMethodInvoker invoker = PropertyMethodInvoker.forWriteMethod(
+				PublicBean.class.getMethod("setAge", int.class));
+		PublicBean bean = new PublicBean();
+
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD; i++) {
+			assertThat(invoker.isGenerated()).isFalse();
+			invoker.set(bean, i);
+			assertThat(bean.getAge()).isEqualTo(i);
+		}
+		assertThat(invoker.isGenerated()).isTrue();
+		invoker.set(bean, 99);
+		assertThat(bean.getAge()).isEqualTo(99);
+	}
+
+	@Test
+	void generatedSetterRejectsInvalidValuesLikeReflection() throws Exception {
+		PropertyMethodInvoker invoker = PropertyMethodInvoker.forWriteMethod(
+				PublicBean.class.getMethod("setAge", int.class));
+		PublicBean bean = new PublicBean();
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD; i++) {
+			invoker.set(bean, i);
+		}
+		assertThat(invoker.isGenerated()).isTrue();
+
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.set(bean, null));
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.set(bean, "42"));
+	}
+
+	@Test
+	void propagatesExceptionAsInvocationTargetException() throws Exception {
+		PropertyMethodInvoker invoker = PropertyMethodInvoker.forReadMethod(
+				PublicBean.class.getMethod("getBroken"));
+		PublicBean bean = new PublicBean();
+
+		for (int i = 0; i <= PropertyMethodInvoker.GENERATION_THRESHOLD; i++) {
+			assertThatExceptionOfType(InvocationTargetException.class).isThrownBy(() -> invoker.get(bean))
+					.satisfies(ex -> assertThat(ex.getTargetException()).isInstanceOf(IllegalStateException.class));
+		}
+		assertThat(invoker.isGenerated()).isTrue();
+	}
+
+	@Test
+	void invokesNonPublicClassReflectively() throws Exception {
+		PropertyMethodInvoker invoker = PropertyMethodInvoker.forReadMethod(
+				NonPublicBean.class.getMethod("getName"));
+		NonPublicBean bean = new NonPublicBean();
+
+		invokeGetterUntilThreshold(invoker, bean);
+		assertThat(invoker.isGenerated()).isFalse();
+		assertThat(invoker.get(bean)).isEqualTo("hidden");
+	}
+
+	@Test
+	void beanWrapperUsesGeneratedAccessors() {
+		PublicBean bean = new PublicBean();
+		BeanWrapperImpl bw = new BeanWrapperImpl(bean);
+		for (int i = 0; i <= PropertyMethodInvoker.GENERATION_THRESHOLD; i++) {
+			bw.setPropertyValue("age", String.valueOf(i));
+			assertThat(bw.getPropertyValue("age")).isEqualTo(i);
+		}
+
+		GenericTypeAwarePropertyDescriptor pd = (GenericTypeAwarePropertyDescriptor)
+				bw.getPropertyDescriptor("age");
+		assertThat(pd.getReadMethodInvoker().isGenerated()).isTrue();
+		assertThat(pd.getWriteMethodInvoker().isGenerated()).isTrue();
+		assertThatExceptionOfType(InvalidPropertyException.class).isThrownBy(() -> {
+			for (int i = 0; i <= PropertyMethodInvoker.GENERATION_THRESHOLD; i++) {
+				bw.getPropertyValue("broken");
+			}
+		});
+	}
+
+
+	private static void invokeGetterUntilThreshold(PropertyMethodInvoker invoker, Object bean) throws Exception {
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD; i++) {
+			assertThat(invoker.isGenerated()).isFalse();
+			invoker.get(bean);
+		}
+	}
+
+
+	public static class PublicBean {
+
+		private String name;
+
+		private int age;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public String getBroken() {
+			throw new IllegalStateException("broken");
+		}
+	}
+
+
+	static class NonPublicBean {
+
+		public String getName() {
+			return "hidden";
+		}
+	}
+
+}
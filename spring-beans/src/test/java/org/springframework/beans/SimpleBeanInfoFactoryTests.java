@@ -0,0 +1,310 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.support.DerivedFromProtectedBaseBean;
+import org.springframework.beans.testfixture.beans.BooleanTestBean;
+import org.springframework.beans.testfixture.beans.DerivedTestBean;
+import org.springframework.beans.testfixture.beans.Employee;
+import org.springframework.beans.testfixture.beans.GenericBean;
+import org.springframework.beans.testfixture.beans.IndexedTestBean;
+import org.springframework.beans.testfixture.beans.NumberTestBean;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SimpleBeanInfoFactory}, verifying that the basic
+ * property determination is equivalent to standard JavaBeans introspection
+ * (plus {@link ExtendedBeanInfo} for non-void returning setter methods).
+ *
+ * @since 5.3
+ */
+class SimpleBeanInfoFactoryTests {
+
+	@ParameterizedTest
+	@ValueSource(classes = {TestBean.class, DerivedTestBean.class, IndexedTestBean.class, GenericBean.class,
+			NumberTestBean.class, BooleanTestBean.class, Employee.class, DefaultListableBeanFactory.class,
+			RootBeanDefinition.class, Date.class, ArrayList.class, Object.class, FluentBean.class, BooleanBean.class,
+			CovariantBean.class, CovariantSubclassBean.class, GenericSubclassBean.class, OverloadedSetterBean.class,
+			WriteOnlyBean.class, SpecialNamesBean.class, StaticSetterBean.class,
+			DerivedFromProtectedBaseBean.class})
+	void equivalentToStandardIntrospection(Class<?> beanClass) throws IntrospectionException {
+		assertThat(describe(new SimpleBeanInfoFactory().getBeanInfo(beanClass)))
+				.isEqualTo(describe(standardBeanInfo(beanClass)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(classes = {TestBean.class, FluentBean.class, CovariantBean.class, GenericSubclassBean.class})
+	void equivalentPropertyTypes(Class<?> beanClass) throws IntrospectionException {
+		BeanInfo simpleBeanInfo = new SimpleBeanInfoFactory().getBeanInfo(beanClass);
+		BeanInfo standardBeanInfo = standardBeanInfo(beanClass);
+		for (PropertyDescriptor pd : simpleBeanInfo.getPropertyDescriptors()) {
+			PropertyDescriptor standardPd = findPropertyDescriptor(standardBeanInfo, pd.getName());
+			assertThat(new GenericTypeAwarePropertyDescriptor(beanClass, pd.getName(),
+					pd.getReadMethod(), pd.getWriteMethod(), null).getPropertyType())
+					.as(pd.getName()).isEqualTo(new GenericTypeAwarePropertyDescriptor(beanClass, pd.getName(),
+							standardPd.getReadMethod(), standardPd.getWriteMethod(), null).getPropertyType());
+		}
+	}
+
+	@Test
+	void ignoresStaticReadMethods() throws Exception {
+		PropertyDescriptor pd = findPropertyDescriptor(
+				new SimpleBeanInfoFactory().getBeanInfo(StaticSetterBean.class), "value");
+		assertThat(pd.getReadMethod()).isNull();
+		assertThat(pd.getWriteMethod()).isEqualTo(StaticSetterBean.class.getMethod("setValue", String.class));
+	}
+
+	@Test
+	void ignoresSetterIncompatibleWithReadMethod() throws Exception {
+		PropertyDescriptor pd = findPropertyDescriptor(
+				new SimpleBeanInfoFactory().getBeanInfo(IncompatibleSetterBean.class), "value");
+		assertThat(pd.getReadMethod()).isEqualTo(IncompatibleSetterBean.class.getMethod("getValue"));
+		assertThat(pd.getWriteMethod()).isNull();
+	}
+
+	@Test
+	void detectsInterfaceDefaultMethods() throws Exception {
+		PropertyDescriptor pd = findPropertyDescriptor(
+				new SimpleBeanInfoFactory().getBeanInfo(DefaultMethodBean.class), "defaultName");
+		assertThat(pd.getReadMethod()).isEqualTo(DefaultMethodBean.class.getMethod("getDefaultName"));
+		// Found through CachedIntrospectionResults in standard introspection mode as well
+		assertThat(CachedIntrospectionResults.forClass(DefaultMethodBean.class).getPropertyDescriptor("defaultName")
+				.getReadMethod()).isEqualTo(pd.getReadMethod());
+	}
+
+	@ParameterizedTest
+	@ValueSource(classes = {TestBean.class, FluentBean.class})
+	void beanDescriptorReferencesBeanClass(Class<?> beanClass) throws IntrospectionException {
+		assertThat(new SimpleBeanInfoFactory().getBeanInfo(beanClass).getBeanDescriptor().getBeanClass())
+				.isEqualTo(beanClass);
+	}
+
+
+	private static BeanInfo standardBeanInfo(Class<?> beanClass) throws IntrospectionException {
+		BeanInfo beanInfo = new ExtendedBeanInfoFactory().getBeanInfo(beanClass);
+		return (beanInfo != null ? beanInfo : Introspector.getBeanInfo(beanClass, Introspector.IGNORE_ALL_BEANINFO));
+	}
+
+	private static PropertyDescriptor findPropertyDescriptor(BeanInfo beanInfo, String name) {
+		for (PropertyDescriptor pd : beanInfo.getPropertyDescriptors()) {
+			if (pd.getName().equals(name)) {
+				return pd;
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+
+	/**
+	 * Map property names to their read and write methods, ignoring descriptors
+	 * for purely indexed properties.
+	 */
+	private static Map<String, List<Method>> describe(BeanInfo beanInfo) {
+		Map<String, List<Method>> description = new LinkedHashMap<>();
+		for (PropertyDescriptor pd : beanInfo.getPropertyDescriptors()) {
+			if (pd.getReadMethod() != null || pd.getWriteMethod() != null) {
+				List<Method> methods = new ArrayList<>(2);
+				methods.add(pd.getReadMethod());
+				methods.add(pd.getWriteMethod());
+				description.put(pd.getName(), methods);
+			}
+		}
+		return description;
+	}
+
+
+	public static class FluentBean {
+
+		public String getName() {
+			return null;
+		}
+
+		public FluentBean setName(String name) {
+			return this;
+		}
+
+		public FluentBean setAge(int age) {
+			return this;
+		}
+	}
+
+
+	public static class BooleanBean {
+
+		public boolean isActive() {
+			return false;
+		}
+
+		public boolean getActive() {
+			return false;
+		}
+
+		public void setActive(boolean active) {
+		}
+
+		public Boolean isWrapped() {
+			return null;
+		}
+
+		public void setWrapped(Boolean wrapped) {
+		}
+
+		public void getNothing() {
+		}
+	}
+
+
+	public static class CovariantBean {
+
+		public Number getValue() {
+			return null;
+		}
+
+		public void setValue(Number value) {
+		}
+	}
+
+
+	public static class CovariantSubclassBean extends CovariantBean {
+
+		@Override
+		public Integer getValue() {
+			return null;
+		}
+	}
+
+
+	public abstract static class GenericBaseBean<T> {
+
+		public abstract T getValue();
+
+		public abstract void setValue(T value);
+	}
+
+
+	public static class GenericSubclassBean extends GenericBaseBean<String> {
+
+		@Override
+		public String getValue() {
+			return null;
+		}
+
+		@Override
+		public void setValue(String value) {
+		}
+	}
+
+
+	public static class OverloadedSetterBean {
+
+		public String getValue() {
+			return null;
+		}
+
+		public void setValue(String value) {
+		}
+
+		public void setValue(Integer value) {
+		}
+	}
+
+
+	public static class WriteOnlyBean {
+
+		public void setValue(String value) {
+		}
+
+		public String get() {
+			return null;
+		}
+
+		public void set(String value) {
+		}
+	}
+
+
+	public static class SpecialNamesBean {
+
+		public String getURL() {
+			return null;
+		}
+
+		public void setURL(String url) {
+		}
+
+		public String getX() {
+			return null;
+		}
+
+		public String getValue(int index) {
+			return null;
+		}
+	}
+
+
+	public static class IncompatibleSetterBean {
+
+		public String getValue() {
+			return "";
+		}
+
+		public void setValue(Integer value) {
+		}
+	}
+
+
+	public static class StaticSetterBean {
+
+		public static void setValue(String value) {
+		}
+
+		public static String getValue() {
+			return null;
+		}
+	}
+
+
+	public static class DefaultMethodBean extends TestBean implements DefaultMethods {
+	}
+
+
+	public interface DefaultMethods {
+
+		default String getDefaultName() {
+			return null;
+		}
+	}
+
+}
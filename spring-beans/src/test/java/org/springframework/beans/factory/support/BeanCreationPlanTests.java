@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for caching a {@link BeanCreationPlan} for non-singleton beans through
+ * {@link AbstractAutowireCapableBeanFactory#setCacheBeanCreationPlans}.
+ *
+ * @since 5.3
+ */
+class BeanCreationPlanTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@BeforeEach
+	void setup() {
+		this.beanFactory.setCacheBeanCreationPlans(true);
+		this.beanFactory.registerBeanDefinition("dependency", new RootBeanDefinition(TestBean.class));
+	}
+
+
+	@Test
+	void cachesAutowiredArgumentsAndGeneratesInstantiator() {
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		this.beanFactory.registerBeanDefinition("prototype", bd);
+
+		Set<ConstructorBean> instances = createInstances("prototype", ConstructorBean.class);
+		TestBean dependency = this.beanFactory.getBean("dependency", TestBean.class);
+		assertThat(instances).allSatisfy(instance -> assertThat(instance.dependency).isSameAs(dependency));
+
+		BeanCreationPlan creationPlan = this.beanFactory.getMergedLocalBeanDefinition("prototype").creationPlan;
+		assertThat(creationPlan).isNotNull();
+		assertThat(creationPlan.getArgumentBeanNames()).containsExactly("dependency");
+		assertThat(creationPlan.isGenerated()).isTrue();
+	}
+
+	@Test
+	void resolvesPrototypeArgumentsForEveryInstance() {
+		RootBeanDefinition dependency = new RootBeanDefinition(TestBean.class);
+		dependency.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("dependency", dependency);
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		this.beanFactory.registerBeanDefinition("prototype", bd);
+
+		Set<ConstructorBean> instances = createInstances("prototype", ConstructorBean.class);
+		Set<TestBean> dependencies = Collections.newSetFromMap(new IdentityHashMap<>());
+		instances.forEach(instance -> dependencies.add(instance.dependency));
+		assertThat(dependencies).hasSameSizeAs(instances);
+	}
+
+	@Test
+	void generatesInstantiatorForDefaultConstructor() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("prototype", bd);
+
+		createInstances("prototype", TestBean.class);
+		BeanCreationPlan creationPlan = this.beanFactory.getMergedLocalBeanDefinition("prototype").creationPlan;
+		assertThat(creationPlan).isNotNull();
+		assertThat(creationPlan.isGenerated()).isTrue();
+	}
+
+	@Test
+	void doesNotInstantiateBeansWithMethodOverrides() {
+		RootBeanDefinition bd = new RootBeanDefinition(LookupBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.getMethodOverrides().addOverride(new LookupOverride("getDependency", "dependency"));
+		this.beanFactory.registerBeanDefinition("prototype", bd);
+
+		Set<LookupBean> instances = createInstances("prototype", LookupBean.class);
+		assertThat(instances).allSatisfy(instance -> assertThat(instance.getDependency()).isNotNull());
+		assertThat(this.beanFactory.getMergedLocalBeanDefinition("prototype").creationPlan).isNull();
+	}
+
+	@Test
+	void propagatesConstructorExceptionFromGeneratedInstantiator() {
+		RootBeanDefinition bd = new RootBeanDefinition(FailingBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.getConstructorArgumentValues().addGenericArgumentValue("ok");
+		this.beanFactory.registerBeanDefinition("prototype", bd);
+		createInstances("prototype", FailingBean.class);
+		assertThat(this.beanFactory.getMergedLocalBeanDefinition("prototype").creationPlan.isGenerated()).isTrue();
+
+		assertThatExceptionOfType(BeanCreationException.class)
+				.isThrownBy(() -> this.beanFactory.getBean("prototype", "fail"))
+				.satisfies(ex -> assertThat(ex.getMostSpecificCause()).isInstanceOf(IllegalArgumentException.class));
+	}
+
+	@Test
+	void doesNotCacheCreationPlansByDefault() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		beanFactory.registerBeanDefinition("prototype", bd);
+		beanFactory.getBean("prototype");
+		beanFactory.getBean("prototype");
+		assertThat(beanFactory.getMergedLocalBeanDefinition("prototype").creationPlan).isNull();
+	}
+
+	@Test
+	void doesNotCacheCreationPlansForSingletons() {
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorBean.class);
+		bd.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		this.beanFactory.registerBeanDefinition("singleton", bd);
+		this.beanFactory.getBean("singleton");
+		assertThat(this.beanFactory.getMergedLocalBeanDefinition("singleton").creationPlan).isNull();
+	}
+
+
+	private <T> Set<T> createInstances(String beanName, Class<T> type) {
+		Set<T> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (int i = 0; i <= BeanCreationPlan.GENERATION_THRESHOLD + 1; i++) {
+			instances.add(this.beanFactory.getBean(beanName, type));
+		}
+		assertThat(instances).hasSize(BeanCreationPlan.GENERATION_THRESHOLD + 2);
+		return instances;
+	}
+
+
+	public static class ConstructorBean {
+
+		final TestBean dependency;
+
+		public ConstructorBean(TestBean dependency) {
+			this.dependency = dependency;
+		}
+	}
+
+
+	public static class LookupBean {
+
+		public TestBean getDependency() {
+			return null;
+		}
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean(String value) {
+			if (value.equals("fail")) {
+				throw new IllegalArgumentException(value);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import org.springframework.beans.testfixture.beans.INestedTestBean;
+import org.springframework.beans.testfixture.beans.ITestBean;
+import org.springframework.beans.testfixture.beans.NestedTestBean;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.beans.testfixture.beans.factory.DummyFactory;
+import org.springframework.core.ResolvableType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for by-type lookups through the {@link BeanTypeIndex} of a
+ * {@link DefaultListableBeanFactory} with a frozen configuration.
+ *
+ * @since 5.3
+ */
+class BeanTypeIndexTests {
+
+	@Test
+	void frozenLookupsMatchFullScan() {
+		Consumer<DefaultListableBeanFactory> registrar = bf -> {
+			bf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+			bf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+			bf.registerBeanDefinition("factory", new RootBeanDefinition(DummyFactory.class));
+			RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+			prototype.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+			bf.registerBeanDefinition("tb2", prototype);
+			RootBeanDefinition created = new RootBeanDefinition(ObjectFactoryMethods.class);
+			created.setFactoryMethodName("create");
+			bf.registerBeanDefinition("created", created);
+			bf.registerSingleton("manual", new TestBean());
+		};
+		DefaultListableBeanFactory frozen = new DefaultListableBeanFactory();
+		registrar.accept(frozen);
+		frozen.freezeConfiguration();
+		DefaultListableBeanFactory unfrozen = new DefaultListableBeanFactory();
+		registrar.accept(unfrozen);
+
+		for (Class<?> type : new Class<?>[] {TestBean.class, ITestBean.class, INestedTestBean.class,
+				NestedTestBean.class, FactoryBean.class, DummyFactory.class, Comparable.class, String.class}) {
+			assertThat(frozen.getBeanNamesForType(type)).as(type.getName())
+					.containsExactly(unfrozen.getBeanNamesForType(type));
+			assertThat(frozen.getBeanNamesForType(type, false, true)).as(type.getName())
+					.containsExactly(unfrozen.getBeanNamesForType(type, false, true));
+		}
+		assertThat(frozen.getBeanNamesForType(ITestBean.class))
+				.containsExactly("tb1", "factory", "tb2", "manual");
+	}
+
+	@Test
+	void onlyChecksCandidateBeans() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		List<String> predicted = new ArrayList<>();
+		bf.addBeanPostProcessor(new SmartInstantiationAwareBeanPostProcessor() {
+			@Override
+			public Class<?> predictBeanType(Class<?> beanClass, String beanName) {
+				predicted.add(beanName);
+				return null;
+			}
+		});
+		for (int i = 0; i < 20; i++) {
+			bf.registerBeanDefinition("bean" + i, new RootBeanDefinition(TestBean.class));
+		}
+		bf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		bf.freezeConfiguration();
+		assertThat(bf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+
+		predicted.clear();
+		bf.registerBeanDefinition("nested2", new RootBeanDefinition(NestedTestBean.class));
+		assertThat(bf.getBeanNamesForType(INestedTestBean.class)).containsExactly("nested", "nested2");
+		assertThat(predicted).containsOnly("nested", "nested2");
+
+		predicted.clear();
+		assertThat(bf.getBeanNamesForType(ResolvableType.forClass(Comparable.class)))
+				.hasSize(20).contains("bean0", "bean19");
+		assertThat(predicted).doesNotContain("nested", "nested2");
+	}
+
+	@Test
+	void tracksRegistrationAndRemovalAfterFreeze() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		bf.freezeConfiguration();
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("tb1");
+
+		bf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class));
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("tb1", "tb2");
+
+		bf.registerBeanDefinition("tb1", new RootBeanDefinition(NestedTestBean.class));
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("tb2");
+		assertThat(bf.getBeanNamesForType(NestedTestBean.class)).containsExactly("tb1");
+
+		bf.removeBeanDefinition("tb2");
+		assertThat(bf.getBeanNamesForType(TestBean.class)).isEmpty();
+
+		bf.registerSingleton("manual", new TestBean());
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("manual");
+		bf.destroySingleton("manual");
+		assertThat(bf.getBeanNamesForType(TestBean.class)).isEmpty();
+	}
+
+	@Test
+	void tracksSingletonInstanceType() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		RootBeanDefinition created = new RootBeanDefinition(ObjectFactoryMethods.class);
+		created.setFactoryMethodName("create");
+		bf.registerBeanDefinition("created", created);
+		bf.freezeConfiguration();
+		assertThat(bf.getBeanNamesForType(TestBean.class)).isEmpty();
+
+		// Instance type more specific than the factory method return type
+		bf.getBean("created");
+		bf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("created");
+	}
+
+	@Test
+	void arrayLookupsMatchCovariantArrayBeans() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerSingleton("names", new String[] {"a", "b"});
+		bf.registerSingleton("numbers", new Integer[] {1});
+		bf.freezeConfiguration();
+		assertThat(bf.getBeanNamesForType(String[].class)).containsExactly("names");
+		assertThat(bf.getBeanNamesForType(CharSequence[].class)).containsExactly("names");
+		assertThat(bf.getBeanNamesForType(Object[].class)).containsExactly("names", "numbers");
+	}
+
+	@Test
+	void candidateSnapshotReflectsLaterChanges() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		bf.freezeConfiguration();
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("tb1");
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("tb1");
+
+		bf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class));
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("tb1", "tb2");
+	}
+
+
+	static class ObjectFactoryMethods {
+
+		static Object create() {
+			return new TestBean();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,30 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationNotAllowedException;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.testfixture.beans.DerivedTestBean;
 import org.springframework.beans.testfixture.beans.TestBean;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * @author Juergen Hoeller
@@ -101,4 +117,229 @@ public class DefaultSingletonBeanRegistryTests {
 		assertThat(beanRegistry.isDependent("c", "c")).isTrue();
 	}
 
+	@Test
+	public void testConcurrentCreationOfDifferentSingletons() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		CountDownLatch bothInCreation = new CountDownLatch(2);
+		ObjectFactory<Object> singletonFactory = () -> {
+			bothInCreation.countDown();
+			await(bothInCreation);
+			return new TestBean();
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> a = executor.submit(() -> beanRegistry.getSingleton("a", singletonFactory));
+			Future<Object> b = executor.submit(() -> beanRegistry.getSingleton("b", singletonFactory));
+			assertThat(a.get(10, TimeUnit.SECONDS)).isSameAs(beanRegistry.getSingleton("a"));
+			assertThat(b.get(10, TimeUnit.SECONDS)).isSameAs(beanRegistry.getSingleton("b"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentCreationOfSameSingleton() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		AtomicInteger creationCount = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ObjectFactory<Object> singletonFactory = () -> {
+			creationCount.incrementAndGet();
+			return new TestBean();
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> {
+					await(start);
+					return beanRegistry.getSingleton("tb", singletonFactory);
+				}));
+			}
+			start.countDown();
+			for (Future<Object> result : results) {
+				assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(beanRegistry.getSingleton("tb"));
+			}
+			assertThat(creationCount.get()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCrossThreadCircularReferenceWithEarlyReference() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		TestBean a = new TestBean("a");
+		AtomicReference<Thread> creatorOfA = new AtomicReference<>();
+		CountDownLatch aInCreation = new CountDownLatch(1);
+		AtomicBoolean bInCreation = new AtomicBoolean();
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> futureA = executor.submit(() -> beanRegistry.getSingleton("a", () -> {
+				beanRegistry.addSingletonFactory("a", () -> a);
+				creatorOfA.set(Thread.currentThread());
+				aInCreation.countDown();
+				spinUntil(bInCreation);
+				a.setSpouse((TestBean) beanRegistry.getSingleton("b", () -> new TestBean("other")));
+				return a;
+			}));
+			Future<Object> futureB = executor.submit(() -> beanRegistry.getSingleton("b", () -> {
+				await(aInCreation);
+				bInCreation.set(true);
+				awaitBlocked(creatorOfA.get());
+				TestBean b = new TestBean("b");
+				b.setSpouse((TestBean) beanRegistry.getSingleton("a", () -> new TestBean("other")));
+				return b;
+			}));
+
+			TestBean b = (TestBean) futureB.get(10, TimeUnit.SECONDS);
+			assertThat(futureA.get(10, TimeUnit.SECONDS)).isSameAs(a);
+			assertThat(b.getSpouse()).isSameAs(a);
+			assertThat(a.getSpouse()).isSameAs(b);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCrossThreadCircularReferenceWithoutEarlyReference() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		AtomicReference<Thread> creatorOfA = new AtomicReference<>();
+		CountDownLatch aInCreation = new CountDownLatch(1);
+		AtomicBoolean bInCreation = new AtomicBoolean();
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> futureA = executor.submit(() -> beanRegistry.getSingleton("a", () -> {
+				creatorOfA.set(Thread.currentThread());
+				aInCreation.countDown();
+				spinUntil(bInCreation);
+				TestBean a = new TestBean("a");
+				a.setSpouse((TestBean) beanRegistry.getSingleton("b", () -> new TestBean("b")));
+				return a;
+			}));
+			Future<Object> futureB = executor.submit(() -> beanRegistry.getSingleton("b", () -> {
+				await(aInCreation);
+				bInCreation.set(true);
+				awaitBlocked(creatorOfA.get());
+				return beanRegistry.getSingleton("a", () -> new TestBean("other"));
+			}));
+
+			assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> futureB.get(10, TimeUnit.SECONDS))
+					.withCauseInstanceOf(BeanCurrentlyInCreationException.class);
+			TestBean a = (TestBean) futureA.get(10, TimeUnit.SECONDS);
+			assertThat(a.getSpouse()).isSameAs(beanRegistry.getSingleton("b"));
+			assertThat(a.getSpouse().getName()).isEqualTo("b");
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testSingletonMutexExcludesConcurrentRegistration() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		AtomicReference<Thread> creator = new AtomicReference<>();
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> future;
+			synchronized (beanRegistry.getSingletonMutex()) {
+				future = executor.submit(() -> beanRegistry.getSingleton("a", () -> {
+					creator.set(Thread.currentThread());
+					return new TestBean("a");
+				}));
+				spinUntilSet(creator);
+				awaitBlockedOnMonitor(creator.get());
+				assertThat(beanRegistry.containsSingleton("a")).isFalse();
+				beanRegistry.removeSingleton("a");
+			}
+			assertThat(future.get(10, TimeUnit.SECONDS)).isSameAs(beanRegistry.getSingleton("a"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testDestroySingletonsWaitsForSingletonInCreation() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		AtomicBoolean destroyed = new AtomicBoolean();
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			Future<Object> creation = executor.submit(() -> beanRegistry.getSingleton("a", () -> {
+				inCreation.countDown();
+				await(proceed);
+				beanRegistry.registerDisposableBean("a", () -> destroyed.set(true));
+				return new TestBean("a");
+			}));
+			await(inCreation);
+			Future<?> destruction = executor.submit(beanRegistry::destroySingletons);
+			assertThatExceptionOfType(TimeoutException.class).isThrownBy(
+					() -> destruction.get(200, TimeUnit.MILLISECONDS));
+			assertThatExceptionOfType(ExecutionException.class).isThrownBy(
+					() -> executor.submit(() -> beanRegistry.getSingleton("b", TestBean::new)).get(10, TimeUnit.SECONDS))
+					.withCauseInstanceOf(BeanCreationNotAllowedException.class);
+
+			proceed.countDown();
+			creation.get(10, TimeUnit.SECONDS);
+			destruction.get(10, TimeUnit.SECONDS);
+			assertThat(destroyed).isTrue();
+			assertThat(beanRegistry.containsSingleton("a")).isFalse();
+			assertThat(beanRegistry.getSingletonCount()).isEqualTo(0);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static void spinUntil(AtomicBoolean flag) {
+		// Spin rather than block, so that awaitBlocked only sees the wait for a creation lock
+		while (!flag.get()) {
+			Thread.yield();
+		}
+	}
+
+	private static void spinUntilSet(AtomicReference<?> reference) {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (reference.get() == null) {
+			assertThat(System.currentTimeMillis()).isLessThan(deadline);
+			Thread.yield();
+		}
+	}
+
+	private static void awaitBlockedOnMonitor(Thread thread) {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (thread.getState() != Thread.State.BLOCKED) {
+			assertThat(System.currentTimeMillis()).isLessThan(deadline);
+			Thread.yield();
+		}
+	}
+
+	private static void awaitBlocked(Thread thread) {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (thread.getState() != Thread.State.TIMED_WAITING && thread.getState() != Thread.State.WAITING) {
+			assertThat(System.currentTimeMillis()).isLessThan(deadline);
+			Thread.yield();
+		}
+	}
+
 }
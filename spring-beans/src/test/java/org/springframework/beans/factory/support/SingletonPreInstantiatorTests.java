@@ -0,0 +1,299 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for parallel singleton pre-instantiation through
+ * {@link DefaultListableBeanFactory#setBootstrapExecutor}.
+ *
+ * @since 5.3
+ */
+class SingletonPreInstantiatorTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final Queue<String> log = new ConcurrentLinkedQueue<>();
+
+	private ExecutorService executor;
+
+
+	@BeforeEach
+	void setup() {
+		this.executor = Executors.newFixedThreadPool(4);
+		this.beanFactory.setBootstrapExecutor(this.executor);
+		this.beanFactory.registerSingleton("log", this.log);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	void createsAllNonLazySingletons() {
+		for (int i = 0; i < 50; i++) {
+			this.beanFactory.registerBeanDefinition("bean" + i, new RootBeanDefinition(TestBean.class));
+		}
+		RootBeanDefinition lazy = new RootBeanDefinition(TestBean.class);
+		lazy.setLazyInit(true);
+		this.beanFactory.registerBeanDefinition("lazy", lazy);
+		RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+		prototype.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("prototype", prototype);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		for (int i = 0; i < 50; i++) {
+			assertThat(this.beanFactory.containsSingleton("bean" + i)).isTrue();
+		}
+		assertThat(this.beanFactory.containsSingleton("lazy")).isFalse();
+		assertThat(this.beanFactory.containsSingleton("prototype")).isFalse();
+	}
+
+	@Test
+	void createsSingletonsOnExecutorThreads() {
+		for (int i = 0; i < 10; i++) {
+			this.beanFactory.registerBeanDefinition("bean" + i, recordingBean());
+		}
+
+		this.beanFactory.preInstantiateSingletons();
+
+		for (int i = 0; i < 10; i++) {
+			RecordingBean bean = this.beanFactory.getBean("bean" + i, RecordingBean.class);
+			assertThat(bean.thread).isNotSameAs(Thread.currentThread());
+		}
+	}
+
+	@Test
+	void respectsDependsOn() {
+		RootBeanDefinition first = recordingBean();
+		first.setDependsOn("second");
+		this.beanFactory.registerBeanDefinition("first", first);
+		RootBeanDefinition second = recordingBean();
+		second.setDependsOn("third");
+		this.beanFactory.registerBeanDefinition("second", second);
+		this.beanFactory.registerBeanDefinition("third", recordingBean());
+
+		this.beanFactory.preInstantiateSingletons();
+
+		assertThat(this.log).containsExactly("third", "second", "first");
+	}
+
+	@Test
+	void respectsReferencesInPropertyValues() {
+		RootBeanDefinition first = recordingBean();
+		List<Object> references = new ManagedList<>();
+		references.add(new RuntimeBeanReference("second"));
+		references.add(new RuntimeBeanReference("third"));
+		first.getPropertyValues().add("references", references);
+		this.beanFactory.registerBeanDefinition("first", first);
+		RootBeanDefinition second = recordingBean();
+		second.getPropertyValues().add("references", new RuntimeBeanReference("third"));
+		this.beanFactory.registerBeanDefinition("second", second);
+		this.beanFactory.registerBeanDefinition("third", recordingBean());
+
+		this.beanFactory.preInstantiateSingletons();
+
+		assertThat(this.log).containsExactly("third", "second", "first");
+	}
+
+	@Test
+	void resolvesCircularReferences() {
+		RootBeanDefinition husband = new RootBeanDefinition(TestBean.class);
+		husband.getPropertyValues().add("spouse", new RuntimeBeanReference("wife"));
+		this.beanFactory.registerBeanDefinition("husband", husband);
+		RootBeanDefinition wife = new RootBeanDefinition(TestBean.class);
+		wife.getPropertyValues().add("spouse", new RuntimeBeanReference("husband"));
+		this.beanFactory.registerBeanDefinition("wife", wife);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		TestBean husbandBean = this.beanFactory.getBean("husband", TestBean.class);
+		TestBean wifeBean = this.beanFactory.getBean("wife", TestBean.class);
+		assertThat(husbandBean.getSpouse()).isSameAs(wifeBean);
+		assertThat(wifeBean.getSpouse()).isSameAs(husbandBean);
+	}
+
+	@Test
+	void resolvesCircularReferencesAcrossThreadsLikeOnSingleThread() {
+		CountDownLatch bothInCreation = new CountDownLatch(2);
+		RootBeanDefinition first = new RootBeanDefinition(PartnerBean.class);
+		first.getConstructorArgumentValues().addGenericArgumentValue(bothInCreation);
+		first.getPropertyValues().add("partnerName", "second");
+		this.beanFactory.registerBeanDefinition("first", first);
+		RootBeanDefinition second = new RootBeanDefinition(PartnerBean.class);
+		second.getConstructorArgumentValues().addGenericArgumentValue(bothInCreation);
+		second.getPropertyValues().add("partnerName", "first");
+		this.beanFactory.registerBeanDefinition("second", second);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		PartnerBean firstBean = this.beanFactory.getBean("first", PartnerBean.class);
+		PartnerBean secondBean = this.beanFactory.getBean("second", PartnerBean.class);
+		assertThat(firstBean.partner).isSameAs(secondBean);
+		assertThat(secondBean.partner).isSameAs(firstBean);
+		// Both partners have been created on the same thread
+		assertThat(firstBean.thread).isSameAs(secondBean.thread);
+	}
+
+	@Test
+	void invokesSmartInitializingSingletonOnCallingThread() {
+		this.beanFactory.registerBeanDefinition("bean", recordingBean());
+
+		this.beanFactory.preInstantiateSingletons();
+
+		RecordingBean bean = this.beanFactory.getBean("bean", RecordingBean.class);
+		assertThat(bean.afterSingletonsInstantiatedThread).isSameAs(Thread.currentThread());
+	}
+
+	@Test
+	void propagatesCreationFailure() {
+		this.beanFactory.registerBeanDefinition("bean", recordingBean());
+		RootBeanDefinition failing = new RootBeanDefinition(TestBean.class);
+		failing.getPropertyValues().add("noSuchProperty", "value");
+		this.beanFactory.registerBeanDefinition("failing", failing);
+		RootBeanDefinition dependent = recordingBean();
+		dependent.setDependsOn("failing");
+		this.beanFactory.registerBeanDefinition("dependent", dependent);
+
+		assertThatExceptionOfType(BeanCreationException.class).isThrownBy(
+				this.beanFactory::preInstantiateSingletons)
+				.satisfies(ex -> assertThat(ex.getBeanName()).isEqualTo("failing"));
+		assertThat(this.log).doesNotContain("dependent");
+	}
+
+	@Test
+	void runsRejectedTasksOnCallingThread() {
+		this.beanFactory.setBootstrapExecutor(task -> {
+			throw new RejectedExecutionException();
+		});
+		this.beanFactory.registerBeanDefinition("bean", recordingBean());
+
+		this.beanFactory.preInstantiateSingletons();
+
+		RecordingBean bean = this.beanFactory.getBean("bean", RecordingBean.class);
+		assertThat(bean.thread).isSameAs(Thread.currentThread());
+	}
+
+
+	private static RootBeanDefinition recordingBean() {
+		RootBeanDefinition bd = new RootBeanDefinition(RecordingBean.class);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("log"));
+		return bd;
+	}
+
+
+	/**
+	 * Looks up its partner bean while in creation, once the partner is in creation
+	 * as well: a circular reference that the dependency graph does not know about.
+	 */
+	static class PartnerBean implements BeanFactoryAware {
+
+		private final CountDownLatch bothInCreation;
+
+		private final Thread thread = Thread.currentThread();
+
+		private String partnerName;
+
+		private Object partner;
+
+		PartnerBean(CountDownLatch bothInCreation) {
+			this.bothInCreation = bothInCreation;
+		}
+
+		public void setPartnerName(String partnerName) {
+			this.partnerName = partnerName;
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+			this.bothInCreation.countDown();
+			try {
+				this.bothInCreation.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.partner = beanFactory.getBean(this.partnerName);
+		}
+	}
+
+
+	static class RecordingBean implements BeanNameAware, InitializingBean, SmartInitializingSingleton {
+
+		private final Queue<String> log;
+
+		private final Thread thread = Thread.currentThread();
+
+		private final List<Object> references = new ArrayList<>();
+
+		private String beanName;
+
+		private Thread afterSingletonsInstantiatedThread;
+
+		RecordingBean(Queue<String> log) {
+			this.log = log;
+		}
+
+		public void setReferences(List<Object> references) {
+			this.references.addAll(references);
+		}
+
+		@Override
+		public void setBeanName(String name) {
+			this.beanName = name;
+		}
+
+		@Override
+		public void afterPropertiesSet() {
+			this.log.add(this.beanName);
+		}
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			this.afterSingletonsInstantiatedThread = Thread.currentThread();
+		}
+	}
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+
+/**
+ * Annotation {@link Processor} that writes the annotation types present on
+ * each compiled type and its methods to {@code META-INF/spring.annotations},
+ * allowing {@code MergedAnnotations} to skip reflective scanning for
+ * annotations that are known to be absent.
+ *
+ * <p>For every type, two entries are recorded: one listing all annotation types
+ * that are present on the type, its superclasses and its interfaces, and one
+ * (with a {@code "#methods"} suffix) listing all annotation types present on
+ * any method declared in that hierarchy. Both include meta-annotations and
+ * annotations nested in attribute values, such as repeatable annotations held
+ * by a container annotation.
+ *
+ * <p>Entries are only recorded for types whose superclasses and interfaces are
+ * all compiled in the same module, apart from {@code java.*} types which are
+ * never searched for annotations. Types that extend or implement types from
+ * other libraries have no entry and are always scanned, since those libraries
+ * may be upgraded independently. The meta-annotations of the recorded
+ * annotation types are expanded again at runtime for the same reason.
+ *
+ * <p>The processor is opt-in and only writes the index when the
+ * {@value #INDEX_ANNOTATIONS_OPTION} option is set to {@code true}, e.g. with
+ * {@code -Aspring.index.annotations=true}.
+ *
+ * @author Spring Team
+ * @since 5.3
+ */
+public class AnnotationsIndexer implements Processor {
+
+	/**
+	 * The processor option that enables the annotations index.
+	 */
+	public static final String INDEX_ANNOTATIONS_OPTION = "spring.index.annotations";
+
+	static final String METADATA_PATH = "META-INF/spring.annotations";
+
+	static final String METHODS_SUFFIX = "#methods";
+
+	private static final String REPEATABLE_ANNOTATION = "java.lang.annotation.Repeatable";
+
+	private static final Set<ElementKind> TYPE_KINDS =
+			Collections.unmodifiableSet(EnumSet.of(ElementKind.CLASS, ElementKind.INTERFACE, ElementKind.ENUM));
+
+	private boolean enabled;
+
+	private MetadataStore metadataStore;
+
+	private MetadataCollector metadataCollector;
+
+	private TypeHelper typeHelper;
+
+	private final Set<String> processedTypes = new HashSet<>();
+
+	private final List<PendingEntry> pendingEntries = new ArrayList<>();
+
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return Collections.singleton(INDEX_ANNOTATIONS_OPTION);
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton("*");
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latest();
+	}
+
+	@Override
+	public synchronized void init(ProcessingEnvironment env) {
+		this.enabled = Boolean.parseBoolean(env.getOptions().get(INDEX_ANNOTATIONS_OPTION));
+		if (this.enabled) {
+			this.typeHelper = new TypeHelper(env);
+			this.metadataStore = new MetadataStore(env, METADATA_PATH);
+			this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		}
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (!this.enabled) {
+			return false;
+		}
+		this.metadataCollector.processing(roundEnv);
+		roundEnv.getRootElements().forEach(this::processElement);
+		if (roundEnv.processingOver()) {
+			writeMetaData();
+		}
+		return false;
+	}
+
+	@Override
+	public Iterable<? extends Completion> getCompletions(
+			Element element, AnnotationMirror annotation, ExecutableElement member, String userText) {
+
+		return Collections.emptyList();
+	}
+
+
+	private void processElement(Element element) {
+		if (TYPE_KINDS.contains(element.getKind())) {
+			addMetadataFor((TypeElement) element);
+			staticTypesIn(element.getEnclosedElements()).forEach(this::processElement);
+		}
+	}
+
+	private void addMetadataFor(TypeElement type) {
+		Set<String> typeAnnotations = new TreeSet<>();
+		Set<String> methodAnnotations = new TreeSet<>();
+		Set<String> superTypes = new HashSet<>();
+		for (TypeElement candidate : getTypeHierarchy(type)) {
+			if (candidate != type) {
+				superTypes.add(this.typeHelper.getType(candidate));
+			}
+			candidate.getAnnotationMirrors().forEach(annotation -> collectAnnotationTypes(annotation, typeAnnotations));
+			for (ExecutableElement method : ElementFilter.methodsIn(candidate.getEnclosedElements())) {
+				method.getAnnotationMirrors().forEach(annotation -> collectAnnotationTypes(annotation, methodAnnotations));
+			}
+		}
+		String typeName = this.typeHelper.getType(type);
+		this.processedTypes.add(typeName);
+		// Decided once all rounds are processed, as supertypes may be generated in a later round
+		this.pendingEntries.add(new PendingEntry(typeName, typeAnnotations, methodAnnotations, superTypes));
+	}
+
+	private boolean isLocalHierarchy(PendingEntry entry) {
+		for (String superType : entry.superTypes) {
+			if (!superType.startsWith("java.") && !this.processedTypes.contains(superType) &&
+					!this.metadataCollector.isLocalType(superType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private List<TypeElement> getTypeHierarchy(TypeElement type) {
+		List<TypeElement> hierarchy = new ArrayList<>();
+		collectTypeHierarchy(type, hierarchy, new HashSet<>());
+		return hierarchy;
+	}
+
+	private void collectTypeHierarchy(Element element, List<TypeElement> hierarchy, Set<String> visited) {
+		if (!(element instanceof TypeElement) || !visited.add(this.typeHelper.getType(element))) {
+			return;
+		}
+		hierarchy.add((TypeElement) element);
+		Element superClass = this.typeHelper.getSuperClass(element);
+		if (superClass != null) {
+			collectTypeHierarchy(superClass, hierarchy, visited);
+		}
+		for (Element directInterface : this.typeHelper.getDirectInterfaces(element)) {
+			collectTypeHierarchy(directInterface, hierarchy, visited);
+		}
+	}
+
+	private void collectAnnotationTypes(AnnotationMirror annotation, Set<String> annotationTypes) {
+		String annotationTypeName = this.typeHelper.getType(annotation);
+		if (!annotationTypes.add(annotationTypeName)) {
+			return;
+		}
+		if (REPEATABLE_ANNOTATION.equals(annotationTypeName)) {
+			// Repeated annotations may be reported individually rather than in their container
+			for (AnnotationValue value : annotation.getElementValues().values()) {
+				if (value.getValue() instanceof TypeMirror) {
+					annotationTypes.add(this.typeHelper.getType((TypeMirror) value.getValue()));
+				}
+			}
+		}
+		Element annotationType = annotation.getAnnotationType().asElement();
+		annotationType.getAnnotationMirrors().forEach(metaAnnotation ->
+				collectAnnotationTypes(metaAnnotation, annotationTypes));
+		for (AnnotationValue value : annotation.getElementValues().values()) {
+			collectNestedAnnotationTypes(value.getValue(), annotationTypes);
+		}
+	}
+
+	private void collectNestedAnnotationTypes(Object value, Set<String> annotationTypes) {
+		if (value instanceof AnnotationMirror) {
+			collectAnnotationTypes((AnnotationMirror) value, annotationTypes);
+		}
+		else if (value instanceof List) {
+			for (Object element : (List<?>) value) {
+				if (element instanceof AnnotationValue) {
+					collectNestedAnnotationTypes(((AnnotationValue) element).getValue(), annotationTypes);
+				}
+			}
+		}
+	}
+
+	private void writeMetaData() {
+		for (PendingEntry entry : this.pendingEntries) {
+			if (isLocalHierarchy(entry)) {
+				this.metadataCollector.add(new ItemMetadata(entry.typeName, entry.typeAnnotations));
+				this.metadataCollector.add(new ItemMetadata(entry.typeName + METHODS_SUFFIX, entry.methodAnnotations));
+			}
+		}
+		CandidateComponentsMetadata metadata = this.metadataCollector.getMetadata();
+		if (!metadata.getItems().isEmpty()) {
+			try {
+				this.metadataStore.writeMetadata(metadata);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to write metadata", ex);
+			}
+		}
+	}
+
+	private static List<TypeElement> staticTypesIn(Iterable<? extends Element> elements) {
+		List<TypeElement> list = new ArrayList<>();
+		for (Element element : elements) {
+			if (TYPE_KINDS.contains(element.getKind()) && element.getModifiers().contains(Modifier.STATIC)) {
+				list.add(TypeElement.class.cast(element));
+			}
+		}
+		return list;
+	}
+
+
+	/**
+	 * The annotation types collected for a type, along with its supertypes.
+	 */
+	private static class PendingEntry {
+
+		final String typeName;
+
+		final Set<String> typeAnnotations;
+
+		final Set<String> methodAnnotations;
+
+		final Set<String> superTypes;
+
+		PendingEntry(String typeName, Set<String> typeAnnotations, Set<String> methodAnnotations,
+				Set<String> superTypes) {
+
+			this.typeName = typeName;
+			this.typeAnnotations = typeAnnotations;
+			this.methodAnnotations = methodAnnotations;
+			this.superTypes = superTypes;
+		}
+	}
+
+}
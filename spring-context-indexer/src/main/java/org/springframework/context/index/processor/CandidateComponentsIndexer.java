@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.processing.Completion;
@@ -40,12 +42,24 @@ import javax.lang.model.element.TypeElement;
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>If the {@value #INDEX_METADATA_OPTION} option is set to {@code true}, e.g.
+ * with {@code -Aspring.index.metadata=true}, the annotation metadata of each
+ * candidate component is also written to {@code META-INF/spring.components.metadata},
+ * so that the components can be read at runtime without reading their class files.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
  */
 public class CandidateComponentsIndexer implements Processor {
 
+	/**
+	 * The processor option that enables writing the annotation metadata of
+	 * candidate components.
+	 * @since 5.3
+	 */
+	public static final String INDEX_METADATA_OPTION = "spring.index.metadata";
+
 	private static final Set<ElementKind> TYPE_KINDS =
 			Collections.unmodifiableSet(EnumSet.of(ElementKind.CLASS, ElementKind.INTERFACE));
 
@@ -57,10 +71,18 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private List<StereotypesProvider> stereotypesProviders;
 
+	private TypeMetadataStore typeMetadataStore;
+
+	private TypeMetadataSerializer typeMetadataSerializer;
+
+	private Map<String, byte[]> previousTypeMetadata;
+
+	private final Map<String, byte[]> typeMetadata = new LinkedHashMap<>();
+
 
 	@Override
 	public Set<String> getSupportedOptions() {
-		return Collections.emptySet();
+		return Collections.singleton(INDEX_METADATA_OPTION);
 	}
 
 	@Override
@@ -79,6 +101,11 @@ public class CandidateComponentsIndexer implements Processor {
 		this.typeHelper = new TypeHelper(env);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		if (Boolean.parseBoolean(env.getOptions().get(INDEX_METADATA_OPTION))) {
+			this.typeMetadataStore = new TypeMetadataStore(env);
+			this.previousTypeMetadata = this.typeMetadataStore.readMetadata();
+			this.typeMetadataSerializer = new TypeMetadataSerializer(env);
+		}
 	}
 
 	@Override
@@ -118,6 +145,18 @@ public class CandidateComponentsIndexer implements Processor {
 		this.stereotypesProviders.forEach(p -> stereotypes.addAll(p.getStereotypes(element)));
 		if (!stereotypes.isEmpty()) {
 			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
+			if (this.typeMetadataSerializer != null && element instanceof TypeElement) {
+				addTypeMetadataFor((TypeElement) element);
+			}
+		}
+	}
+
+	private void addTypeMetadataFor(TypeElement element) {
+		try {
+			this.typeMetadata.put(this.typeHelper.getType(element), this.typeMetadataSerializer.serialize(element));
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write metadata for " + element, ex);
 		}
 	}
 
@@ -130,6 +169,26 @@ public class CandidateComponentsIndexer implements Processor {
 			catch (IOException ex) {
 				throw new IllegalStateException("Failed to write metadata", ex);
 			}
+			if (this.typeMetadataStore != null) {
+				writeTypeMetadata(metadata);
+			}
+		}
+	}
+
+	private void writeTypeMetadata(CandidateComponentsMetadata candidates) {
+		Map<String, byte[]> metadata = new LinkedHashMap<>(this.typeMetadata);
+		// Keep entries from a previous build for candidates that have not been compiled again
+		for (ItemMetadata item : candidates.getItems()) {
+			byte[] data = this.previousTypeMetadata.get(item.getType());
+			if (data != null) {
+				metadata.putIfAbsent(item.getType(), data);
+			}
+		}
+		try {
+			this.typeMetadataStore.writeMetadata(metadata);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write metadata", ex);
 		}
 	}
 
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Model of the functional registration code generated by
+ * {@link ConfigurationRegistrationGenerator} for a single configuration class,
+ * able to render itself as Java source.
+ *
+ * <p>The generated class registers the configuration class and its bean methods
+ * through {@code ConfigurationBeanRegistrar}. If the configuration class proxies
+ * its bean methods, the generated class also declares a subclass of it that
+ * overrides each instance bean method to return the bean from the container,
+ * replacing the CGLIB subclass that would otherwise be created at runtime.
+ *
+ * @author Spring Team
+ * @since 5.3
+ */
+class ConfigurationRegistration {
+
+	static final String GENERATED_SUFFIX = "__BeanDefinitions";
+
+	private static final String ENHANCED_CLASS_NAME = "EnhancedConfiguration$$Generated";
+
+	private static final String REGISTRAR_TYPE = "org.springframework.context.annotation.ConfigurationBeanRegistrar";
+
+
+	private final String packageName;
+
+	private final String configClassName;
+
+	private final String generatedClassName;
+
+	private final String beanName;
+
+	private final boolean proxyBeanMethods;
+
+	private final List<Parameter> constructorParameters = new ArrayList<>();
+
+	private final List<String> constructorExceptions = new ArrayList<>();
+
+	private final List<String> customizations = new ArrayList<>();
+
+	private final List<BeanMethod> beanMethods = new ArrayList<>();
+
+
+	/**
+	 * Create a new {@code ConfigurationRegistration}.
+	 * @param packageName the package of the configuration class
+	 * @param configClassName the canonical name of the configuration class
+	 * @param generatedClassName the simple name of the class to generate
+	 * @param beanName the default bean name of the configuration class
+	 * @param proxyBeanMethods whether calls between bean methods need to be proxied
+	 */
+	ConfigurationRegistration(String packageName, String configClassName, String generatedClassName,
+			String beanName, boolean proxyBeanMethods) {
+
+		this.packageName = packageName;
+		this.configClassName = configClassName;
+		this.generatedClassName = generatedClassName;
+		this.beanName = beanName;
+		this.proxyBeanMethods = proxyBeanMethods;
+	}
+
+
+	public String getQualifiedName() {
+		return (this.packageName.isEmpty() ? this.generatedClassName :
+				this.packageName + "." + this.generatedClassName);
+	}
+
+	public List<Parameter> getConstructorParameters() {
+		return this.constructorParameters;
+	}
+
+	public List<String> getConstructorExceptions() {
+		return this.constructorExceptions;
+	}
+
+	/**
+	 * Return the statements customizing the bean definition of the configuration
+	 * class, operating on a {@code BeanDefinition} named {@code bd}.
+	 */
+	public List<String> getCustomizations() {
+		return this.customizations;
+	}
+
+	public List<BeanMethod> getBeanMethods() {
+		return this.beanMethods;
+	}
+
+
+	/**
+	 * Render the generated class as Java source.
+	 */
+	public String toSource() {
+		StringBuilder source = new StringBuilder();
+		if (!this.packageName.isEmpty()) {
+			source.append("package ").append(this.packageName).append(";\n\n");
+		}
+		source.append("/**\n");
+		source.append(" * Functional bean registration for {@link ").append(this.configClassName).append("},\n");
+		source.append(" * generated at build time. Do not edit.\n");
+		source.append(" */\n");
+		source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\", \"deprecation\"})\n");
+		source.append("public final class ").append(this.generatedClassName).append(" implements\n");
+		source.append("\t\torg.springframework.context.ApplicationContextInitializer<")
+				.append("org.springframework.context.support.GenericApplicationContext> {\n\n");
+		source.append("\tpublic static final String BEAN_NAME = ").append(this.beanName).append(";\n\n\n");
+		source.append("\t@Override\n");
+		source.append("\tpublic void initialize(org.springframework.context.support.GenericApplicationContext context) {\n");
+		source.append("\t\tregisterBeanDefinitions(context, BEAN_NAME);\n");
+		source.append("\t}\n\n");
+		source.append("\tpublic static void registerBeanDefinitions(\n");
+		source.append("\t\t\torg.springframework.beans.factory.support.BeanDefinitionRegistry registry, String beanName) {\n\n");
+		source.append("\t\t").append(REGISTRAR_TYPE).append(" registrar =\n");
+		source.append("\t\t\t\tnew ").append(REGISTRAR_TYPE).append("(registry, ")
+				.append(this.configClassName).append(".class, beanName);\n");
+		source.append("\t\tregistrar.registerConfiguration(").append(classArray(this.constructorParameters))
+				.append(",\n\t\t\t\targs -> new ")
+				.append(this.proxyBeanMethods ? ENHANCED_CLASS_NAME : this.configClassName).append("(")
+				.append(this.proxyBeanMethods ? (this.constructorParameters.isEmpty() ? "registrar" : "registrar, ") : "")
+				.append(arguments(this.constructorParameters)).append(")")
+				.append(customizer(this.customizations)).append(");\n");
+		for (BeanMethod beanMethod : this.beanMethods) {
+			for (String alias : beanMethod.aliases) {
+				source.append("\t\tregistrar.registerAlias(").append(beanMethod.beanName).append(", ")
+						.append(alias).append(");\n");
+			}
+			source.append("\t\tregistrar.registerBean(").append(beanMethod.beanName).append(", \"")
+					.append(beanMethod.methodName).append("\", ").append(classArray(beanMethod.parameters))
+					.append(",\n\t\t\t\targs -> ").append(invocation(beanMethod))
+					.append(customizer(beanMethod.customizations)).append(");\n");
+		}
+		source.append("\t}\n");
+		if (this.proxyBeanMethods) {
+			appendEnhancedClass(source);
+		}
+		source.append("\n}\n");
+		return source.toString();
+	}
+
+	private void appendEnhancedClass(StringBuilder source) {
+		source.append("\n\n");
+		source.append("\tprivate static final class ").append(ENHANCED_CLASS_NAME).append(" extends ")
+				.append(this.configClassName).append(" {\n\n");
+		source.append("\t\tprivate final ").append(REGISTRAR_TYPE).append(" registrar;\n\n");
+		source.append("\t\t").append(ENHANCED_CLASS_NAME).append("(").append(REGISTRAR_TYPE).append(" registrar")
+				.append(this.constructorParameters.isEmpty() ? "" : ", ").append(parameters(this.constructorParameters))
+				.append(")").append(throwsClause(this.constructorExceptions)).append(" {\n");
+		source.append("\t\t\tsuper(").append(parameterNames(this.constructorParameters)).append(");\n");
+		source.append("\t\t\tthis.registrar = registrar;\n");
+		source.append("\t\t}\n");
+		for (BeanMethod beanMethod : this.beanMethods) {
+			if (beanMethod.isStatic) {
+				continue;
+			}
+			String signature = beanMethod.returnType + " %s(" + parameters(beanMethod.parameters) + ")";
+			source.append("\n\t\t@Override\n");
+			source.append("\t\t").append(beanMethod.modifier)
+					.append(String.format(signature, beanMethod.methodName)).append(" {\n");
+			source.append("\t\t\treturn (").append(beanMethod.returnType).append(") this.registrar.getBean(")
+					.append(beanMethod.beanName).append(");\n");
+			source.append("\t\t}\n\n");
+			source.append("\t\t").append(String.format(signature, superMethodName(beanMethod)))
+					.append(throwsClause(beanMethod.exceptions)).append(" {\n");
+			source.append("\t\t\treturn super.").append(beanMethod.methodName).append("(")
+					.append(parameterNames(beanMethod.parameters)).append(");\n");
+			source.append("\t\t}\n");
+		}
+		source.append("\t}\n");
+	}
+
+	private String invocation(BeanMethod beanMethod) {
+		String arguments = "(" + arguments(beanMethod.parameters) + ")";
+		if (beanMethod.isStatic) {
+			return this.configClassName + "." + beanMethod.methodName + arguments;
+		}
+		if (this.proxyBeanMethods) {
+			return "((" + ENHANCED_CLASS_NAME + ") registrar.getConfiguration())." +
+					superMethodName(beanMethod) + arguments;
+		}
+		return "((" + this.configClassName + ") registrar.getConfiguration())." + beanMethod.methodName + arguments;
+	}
+
+	private static String superMethodName(BeanMethod beanMethod) {
+		return "super$" + beanMethod.methodName;
+	}
+
+	private static String classArray(List<Parameter> parameters) {
+		return parameters.stream().map(parameter -> parameter.rawType + ".class")
+				.collect(Collectors.joining(", ", "new Class<?>[] {", "}"));
+	}
+
+	private static String arguments(List<Parameter> parameters) {
+		List<String> arguments = new ArrayList<>(parameters.size());
+		for (int i = 0; i < parameters.size(); i++) {
+			arguments.add("(" + parameters.get(i).type + ") args[" + i + "]");
+		}
+		return String.join(", ", arguments);
+	}
+
+	private static String parameters(List<Parameter> parameters) {
+		List<String> declarations = new ArrayList<>(parameters.size());
+		for (int i = 0; i < parameters.size(); i++) {
+			declarations.add(parameters.get(i).type + " arg" + i);
+		}
+		return String.join(", ", declarations);
+	}
+
+	private static String parameterNames(List<Parameter> parameters) {
+		List<String> names = new ArrayList<>(parameters.size());
+		for (int i = 0; i < parameters.size(); i++) {
+			names.add("arg" + i);
+		}
+		return String.join(", ", names);
+	}
+
+	private static String throwsClause(List<String> exceptions) {
+		return (exceptions.isEmpty() ? "" : " throws " + String.join(", ", exceptions));
+	}
+
+	private static String customizer(List<String> customizations) {
+		if (customizations.isEmpty()) {
+			return "";
+		}
+		return ",\n\t\t\t\tbd -> {\n" + customizations.stream().map(statement -> "\t\t\t\t\t" + statement + "\n")
+				.collect(Collectors.joining()) + "\t\t\t\t}";
+	}
+
+
+	/**
+	 * A parameter of a constructor or bean method.
+	 */
+	static class Parameter {
+
+		private final String type;
+
+		private final String rawType;
+
+		/**
+		 * Create a new parameter.
+		 * @param type the declared type of the parameter, including generics
+		 * @param rawType the erasure of the declared type
+		 */
+		Parameter(String type, String rawType) {
+			this.type = type;
+			this.rawType = rawType;
+		}
+	}
+
+
+	/**
+	 * A bean method of the configuration class.
+	 */
+	static class BeanMethod {
+
+		private final String methodName;
+
+		private final String beanName;
+
+		private final List<String> aliases;
+
+		private final boolean isStatic;
+
+		private final String modifier;
+
+		private final String returnType;
+
+		private final List<Parameter> parameters = new ArrayList<>();
+
+		private final List<String> exceptions = new ArrayList<>();
+
+		private final List<String> customizations = new ArrayList<>();
+
+		/**
+		 * Create a new bean method.
+		 * @param methodName the name of the method
+		 * @param beanName the bean name as a string literal
+		 * @param aliases the bean name aliases as string literals
+		 * @param isStatic whether the method is static
+		 * @param modifier the access modifier of the method, followed by a space
+		 * unless empty
+		 * @param returnType the declared return type of the method
+		 */
+		BeanMethod(String methodName, String beanName, List<String> aliases, boolean isStatic,
+				String modifier, String returnType) {
+
+			this.methodName = methodName;
+			this.beanName = beanName;
+			this.aliases = aliases;
+			this.isStatic = isStatic;
+			this.modifier = modifier;
+			this.returnType = returnType;
+		}
+
+		public List<Parameter> getParameters() {
+			return this.parameters;
+		}
+
+		public List<String> getExceptions() {
+			return this.exceptions;
+		}
+
+		/**
+		 * Return the statements customizing the bean definition, operating on
+		 * a {@code BeanDefinition} named {@code bd}.
+		 */
+		public List<String> getCustomizations() {
+			return this.customizations;
+		}
+	}
+
+}
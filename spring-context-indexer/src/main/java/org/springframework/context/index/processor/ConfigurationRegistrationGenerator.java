@@ -0,0 +1,582 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import org.springframework.context.index.processor.ConfigurationRegistration.BeanMethod;
+import org.springframework.context.index.processor.ConfigurationRegistration.Parameter;
+
+/**
+ * Annotation {@link Processor} that generates functional registration code for
+ * {@code @Configuration} classes, allowing {@code ConfigurationClassPostProcessor}
+ * to register their beans without parsing the classes or enhancing them through
+ * CGLIB at runtime. Each generated class is recorded in
+ * {@code META-INF/spring.configurations}.
+ *
+ * <p>Code is only generated for configuration classes whose semantics can be
+ * reproduced without runtime processing: classes that declare {@code @Bean}
+ * methods with a single, non-private constructor and no further configuration
+ * annotations such as {@code @Import}, {@code @ComponentScan} or conditions,
+ * and whose {@code @Bean} methods are not overloaded and use no scoped proxies.
+ * For configuration classes that proxy bean methods, non-static {@code @Bean}
+ * methods must not declare parameters either, since a call with explicit
+ * arguments cannot be routed to the generated bean definition.
+ * All other configuration classes are reported as a note and left to be
+ * processed at runtime.
+ *
+ * <p>The processor is opt-in and only generates code when the
+ * {@value #GENERATE_REGISTRATIONS_OPTION} option is set to {@code true}, e.g.
+ * with {@code -Aspring.generate.configurations=true}.
+ *
+ * @author Spring Team
+ * @since 5.3
+ */
+public class ConfigurationRegistrationGenerator implements Processor {
+
+	/**
+	 * The processor option that enables the generation of registration code.
+	 */
+	public static final String GENERATE_REGISTRATIONS_OPTION = "spring.generate.configurations";
+
+	static final String METADATA_PATH = "META-INF/spring.configurations";
+
+	private static final String ANNOTATION_PACKAGE = "org.springframework.context.annotation.";
+
+	private static final String CONFIGURATION_ANNOTATION = ANNOTATION_PACKAGE + "Configuration";
+
+	private static final String BEAN_ANNOTATION = ANNOTATION_PACKAGE + "Bean";
+
+	private static final String SCOPE_ANNOTATION = ANNOTATION_PACKAGE + "Scope";
+
+	private static final String LAZY_ANNOTATION = ANNOTATION_PACKAGE + "Lazy";
+
+	private static final String PRIMARY_ANNOTATION = ANNOTATION_PACKAGE + "Primary";
+
+	private static final String DEPENDS_ON_ANNOTATION = ANNOTATION_PACKAGE + "DependsOn";
+
+	private static final String ROLE_ANNOTATION = ANNOTATION_PACKAGE + "Role";
+
+	private static final String DESCRIPTION_ANNOTATION = ANNOTATION_PACKAGE + "Description";
+
+	private static final String FACTORY_BEAN_TYPE = "org.springframework.beans.factory.FactoryBean";
+
+	private static final Set<String> UNSUPPORTED_PARAMETER_TYPES = Collections.unmodifiableSet(new HashSet<>(
+			Arrays.asList("org.springframework.beans.factory.InjectionPoint",
+					"org.springframework.beans.factory.config.DependencyDescriptor")));
+
+	/** Annotations on a configuration class that the generated code reproduces. */
+	private static final Set<String> SUPPORTED_CLASS_ANNOTATIONS = Collections.unmodifiableSet(new HashSet<>(
+			Arrays.asList(CONFIGURATION_ANNOTATION, LAZY_ANNOTATION, PRIMARY_ANNOTATION, DEPENDS_ON_ANNOTATION,
+					ROLE_ANNOTATION, DESCRIPTION_ANNOTATION, "java.lang.Deprecated")));
+
+	/** Annotations on a bean method that the generated code reproduces. */
+	private static final Set<String> SUPPORTED_METHOD_ANNOTATIONS = Collections.unmodifiableSet(new HashSet<>(
+			Arrays.asList(BEAN_ANNOTATION, SCOPE_ANNOTATION, LAZY_ANNOTATION, PRIMARY_ANNOTATION,
+					DEPENDS_ON_ANNOTATION, ROLE_ANNOTATION, DESCRIPTION_ANNOTATION, "java.lang.Deprecated",
+					"org.springframework.lang.Nullable")));
+
+	private static final Set<ElementKind> TYPE_KINDS =
+			Collections.unmodifiableSet(EnumSet.of(ElementKind.CLASS, ElementKind.INTERFACE, ElementKind.ENUM));
+
+	private boolean enabled;
+
+	private ProcessingEnvironment env;
+
+	private Elements elements;
+
+	private Types types;
+
+	private MetadataStore metadataStore;
+
+	private MetadataCollector metadataCollector;
+
+	private TypeHelper typeHelper;
+
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return Collections.singleton(GENERATE_REGISTRATIONS_OPTION);
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton("*");
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latest();
+	}
+
+	@Override
+	public synchronized void init(ProcessingEnvironment env) {
+		this.enabled = Boolean.parseBoolean(env.getOptions().get(GENERATE_REGISTRATIONS_OPTION));
+		if (this.enabled) {
+			this.env = env;
+			this.elements = env.getElementUtils();
+			this.types = env.getTypeUtils();
+			this.typeHelper = new TypeHelper(env);
+			this.metadataStore = new MetadataStore(env, METADATA_PATH);
+			this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		}
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (!this.enabled) {
+			return false;
+		}
+		this.metadataCollector.processing(roundEnv);
+		roundEnv.getRootElements().forEach(this::processElement);
+		if (roundEnv.processingOver()) {
+			writeMetaData();
+		}
+		return false;
+	}
+
+	@Override
+	public Iterable<? extends Completion> getCompletions(
+			Element element, AnnotationMirror annotation, ExecutableElement member, String userText) {
+
+		return Collections.emptyList();
+	}
+
+
+	private void processElement(Element element) {
+		if (TYPE_KINDS.contains(element.getKind())) {
+			if (getAnnotation(element, CONFIGURATION_ANNOTATION) != null) {
+				generateRegistration((TypeElement) element);
+			}
+			for (Element enclosed : element.getEnclosedElements()) {
+				if (enclosed.getModifiers().contains(Modifier.STATIC)) {
+					processElement(enclosed);
+				}
+			}
+		}
+	}
+
+	private void generateRegistration(TypeElement configClass) {
+		ConfigurationRegistration registration;
+		try {
+			registration = createRegistration(configClass);
+		}
+		catch (UnsupportedConfigurationException ex) {
+			this.env.getMessager().printMessage(Diagnostic.Kind.NOTE, "No registration code generated for " +
+					"configuration class, to be processed at runtime: " + ex.getMessage(), configClass);
+			return;
+		}
+		try (Writer writer = this.env.getFiler().createSourceFile(
+				registration.getQualifiedName(), configClass).openWriter()) {
+			writer.write(registration.toSource());
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write registration code for " + configClass, ex);
+		}
+		this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(configClass),
+				Collections.singleton(registration.getQualifiedName())));
+	}
+
+	private ConfigurationRegistration createRegistration(TypeElement configClass) {
+		PackageElement packageElement = this.elements.getPackageOf(configClass);
+		checkConfigurationClass(configClass, packageElement);
+
+		AnnotationMirror configuration = getAnnotation(configClass, CONFIGURATION_ANNOTATION);
+		String beanName = (String) getValue(configuration, "value");
+		if (beanName.isEmpty()) {
+			beanName = decapitalize(configClass.getQualifiedName().toString()
+					.substring(packageElement.getQualifiedName().length()).replaceFirst("^\\.", ""));
+		}
+		boolean proxyBeanMethods = (Boolean) getValue(configuration, "proxyBeanMethods");
+
+		String packageName = packageElement.getQualifiedName().toString();
+		String generatedClassName = getGeneratedClassName(configClass);
+		ConfigurationRegistration registration = new ConfigurationRegistration(packageName,
+				configClass.getQualifiedName().toString(), generatedClassName, literal(beanName), proxyBeanMethods);
+
+		ExecutableElement constructor = getConstructor(configClass);
+		registration.getConstructorParameters().addAll(getParameters(constructor, packageElement));
+		constructor.getThrownTypes().forEach(type -> registration.getConstructorExceptions().add(type.toString()));
+		addCommonCustomizations(configClass, null, registration.getCustomizations());
+
+		Set<String> beanNames = new HashSet<>();
+		beanNames.add(beanName);
+		Set<String> methodNames = new HashSet<>();
+		for (ExecutableElement method : ElementFilter.methodsIn(configClass.getEnclosedElements())) {
+			if (getAnnotation(method, BEAN_ANNOTATION) == null) {
+				continue;
+			}
+			if (!methodNames.add(method.getSimpleName().toString())) {
+				throw new UnsupportedConfigurationException("overloaded @Bean method " + method.getSimpleName());
+			}
+			BeanMethod beanMethod = createBeanMethod(configClass, method, proxyBeanMethods, packageElement, beanNames);
+			registration.getBeanMethods().add(beanMethod);
+		}
+		if (registration.getBeanMethods().isEmpty()) {
+			throw new UnsupportedConfigurationException("no @Bean methods declared");
+		}
+		return registration;
+	}
+
+	private void checkConfigurationClass(TypeElement configClass, PackageElement packageElement) {
+		if (configClass.getKind() != ElementKind.CLASS || configClass.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new UnsupportedConfigurationException("not a concrete class");
+		}
+		if (!configClass.getTypeParameters().isEmpty()) {
+			throw new UnsupportedConfigurationException("generic class");
+		}
+		if (!isAccessible(configClass.asType(), packageElement)) {
+			throw new UnsupportedConfigurationException("class not accessible from generated code");
+		}
+		for (AnnotationMirror annotation : configClass.getAnnotationMirrors()) {
+			String annotationType = this.typeHelper.getType(annotation);
+			if (!SUPPORTED_CLASS_ANNOTATIONS.contains(annotationType)) {
+				throw new UnsupportedConfigurationException("unsupported annotation @" + annotationType);
+			}
+		}
+		TypeMirror superclass = configClass.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED ||
+				!"java.lang.Object".equals(this.typeHelper.getType(superclass))) {
+			throw new UnsupportedConfigurationException("superclass other than java.lang.Object");
+		}
+		for (TypeMirror ifc : configClass.getInterfaces()) {
+			if (declaresBeanMethods(this.types.asElement(ifc))) {
+				throw new UnsupportedConfigurationException("@Bean methods declared by interface " + ifc);
+			}
+		}
+		for (TypeElement memberType : ElementFilter.typesIn(configClass.getEnclosedElements())) {
+			// Member classes may be configuration classes themselves, registered along with this one
+			if (!memberType.getAnnotationMirrors().isEmpty() || declaresBeanMethods(memberType)) {
+				throw new UnsupportedConfigurationException("potential member configuration class " +
+						memberType.getSimpleName());
+			}
+		}
+	}
+
+	private ExecutableElement getConstructor(TypeElement configClass) {
+		List<ExecutableElement> constructors = ElementFilter.constructorsIn(configClass.getEnclosedElements());
+		if (constructors.size() != 1) {
+			throw new UnsupportedConfigurationException("multiple constructors");
+		}
+		ExecutableElement constructor = constructors.get(0);
+		if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+			throw new UnsupportedConfigurationException("private constructor");
+		}
+		return constructor;
+	}
+
+	private BeanMethod createBeanMethod(TypeElement configClass, ExecutableElement method, boolean proxyBeanMethods,
+			PackageElement packageElement, Set<String> beanNames) {
+
+		String methodName = method.getSimpleName().toString();
+		Set<Modifier> modifiers = method.getModifiers();
+		boolean isStatic = modifiers.contains(Modifier.STATIC);
+		if (modifiers.contains(Modifier.PRIVATE) || (proxyBeanMethods && !isStatic && modifiers.contains(Modifier.FINAL))) {
+			throw new UnsupportedConfigurationException("private or final @Bean method " + methodName);
+		}
+		if (!method.getTypeParameters().isEmpty()) {
+			throw new UnsupportedConfigurationException("generic @Bean method " + methodName);
+		}
+		for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+			String annotationType = this.typeHelper.getType(annotation);
+			if (!SUPPORTED_METHOD_ANNOTATIONS.contains(annotationType)) {
+				throw new UnsupportedConfigurationException("unsupported annotation @" + annotationType +
+						" on @Bean method " + methodName);
+			}
+		}
+		TypeMirror returnType = method.getReturnType();
+		if (returnType.getKind() == TypeKind.VOID || !isAccessible(returnType, packageElement)) {
+			throw new UnsupportedConfigurationException("unsupported return type of @Bean method " + methodName);
+		}
+		if (proxyBeanMethods && !isStatic && isFactoryBean(returnType)) {
+			throw new UnsupportedConfigurationException("FactoryBean returned by @Bean method " + methodName);
+		}
+
+		AnnotationMirror bean = getAnnotation(method, BEAN_ANNOTATION);
+		List<String> names = getStrings(getValue(bean, "name"));
+		if (names.isEmpty()) {
+			names = getStrings(getValue(bean, "value"));
+		}
+		String beanName = (names.isEmpty() ? methodName : names.get(0));
+		List<String> aliases = new ArrayList<>();
+		for (String name : names.subList(Math.min(1, names.size()), names.size())) {
+			aliases.add(literal(name));
+		}
+		if (!beanNames.add(beanName)) {
+			throw new UnsupportedConfigurationException("duplicate bean name '" + beanName + "'");
+		}
+
+		String modifier = (modifiers.contains(Modifier.PUBLIC) ? "public " :
+				modifiers.contains(Modifier.PROTECTED) ? "protected " : "");
+		BeanMethod beanMethod = new BeanMethod(methodName, literal(beanName), aliases, isStatic, modifier,
+				returnType.toString());
+		beanMethod.getParameters().addAll(getParameters(method, packageElement));
+		if (proxyBeanMethods && !isStatic && !beanMethod.getParameters().isEmpty()) {
+			// A call with explicit arguments is routed to getBean(name, args), which the
+			// instance supplier of a generated bean definition cannot honor
+			throw new UnsupportedConfigurationException("@Bean method " + methodName + " with parameters");
+		}
+		method.getThrownTypes().forEach(type -> beanMethod.getExceptions().add(type.toString()));
+
+		List<String> customizations = beanMethod.getCustomizations();
+		addCommonCustomizations(method, configClass, customizations);
+		String autowire = getValue(bean, "autowire").toString();
+		if ("BY_NAME".equals(autowire) || "BY_TYPE".equals(autowire)) {
+			customizations.add("((org.springframework.beans.factory.support.AbstractBeanDefinition) bd)" +
+					".setAutowireMode(org.springframework.beans.factory.config.AutowireCapableBeanFactory.AUTOWIRE_" +
+					autowire + ");");
+		}
+		if (!(Boolean) getValue(bean, "autowireCandidate")) {
+			customizations.add("bd.setAutowireCandidate(false);");
+		}
+		String initMethod = (String) getValue(bean, "initMethod");
+		if (!initMethod.trim().isEmpty()) {
+			customizations.add("bd.setInitMethodName(" + literal(initMethod) + ");");
+		}
+		customizations.add("bd.setDestroyMethodName(" + literal((String) getValue(bean, "destroyMethod")) + ");");
+		AnnotationMirror scope = getAnnotation(method, SCOPE_ANNOTATION);
+		if (scope != null) {
+			String proxyMode = getValue(scope, "proxyMode").toString();
+			if (!"DEFAULT".equals(proxyMode) && !"NO".equals(proxyMode)) {
+				throw new UnsupportedConfigurationException("scoped proxy for @Bean method " + methodName);
+			}
+			String scopeName = (String) getValue(scope, "value");
+			if (scopeName.isEmpty()) {
+				scopeName = (String) getValue(scope, "scopeName");
+			}
+			if (!scopeName.isEmpty()) {
+				customizations.add("bd.setScope(" + literal(scopeName) + ");");
+			}
+		}
+		return beanMethod;
+	}
+
+	/**
+	 * Add customizations for the common definition annotations, with class-level
+	 * {@code @Lazy} as a default for bean methods.
+	 */
+	private void addCommonCustomizations(Element element, TypeElement configClass, List<String> customizations) {
+		AnnotationMirror lazy = getAnnotation(element, LAZY_ANNOTATION);
+		if (lazy == null && configClass != null) {
+			lazy = getAnnotation(configClass, LAZY_ANNOTATION);
+		}
+		if (lazy != null) {
+			customizations.add("bd.setLazyInit(" + getValue(lazy, "value") + ");");
+		}
+		if (getAnnotation(element, PRIMARY_ANNOTATION) != null) {
+			customizations.add("bd.setPrimary(true);");
+		}
+		AnnotationMirror dependsOn = getAnnotation(element, DEPENDS_ON_ANNOTATION);
+		if (dependsOn != null) {
+			List<String> dependencies = new ArrayList<>();
+			getStrings(getValue(dependsOn, "value")).forEach(name -> dependencies.add(literal(name)));
+			customizations.add("bd.setDependsOn(new String[] {" + String.join(", ", dependencies) + "});");
+		}
+		AnnotationMirror role = getAnnotation(element, ROLE_ANNOTATION);
+		if (role != null) {
+			customizations.add("bd.setRole(" + getValue(role, "value") + ");");
+		}
+		AnnotationMirror description = getAnnotation(element, DESCRIPTION_ANNOTATION);
+		if (description != null) {
+			customizations.add("bd.setDescription(" + literal((String) getValue(description, "value")) + ");");
+		}
+	}
+
+	private List<Parameter> getParameters(ExecutableElement executable, PackageElement packageElement) {
+		List<Parameter> parameters = new ArrayList<>();
+		for (VariableElement parameter : executable.getParameters()) {
+			TypeMirror type = parameter.asType();
+			if (!isAccessible(type, packageElement) ||
+					UNSUPPORTED_PARAMETER_TYPES.contains(this.typeHelper.getType(this.types.erasure(type)))) {
+				throw new UnsupportedConfigurationException("unsupported parameter type " + type + " of " +
+						executable.getSimpleName());
+			}
+			parameters.add(new Parameter(type.toString(), this.types.erasure(type).toString()));
+		}
+		return parameters;
+	}
+
+	private boolean declaresBeanMethods(Element element) {
+		for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+			if (getAnnotation(method, BEAN_ANNOTATION) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isFactoryBean(TypeMirror type) {
+		TypeElement factoryBean = this.elements.getTypeElement(FACTORY_BEAN_TYPE);
+		return (factoryBean != null &&
+				this.types.isAssignable(this.types.erasure(type), this.types.erasure(factoryBean.asType())));
+	}
+
+	/**
+	 * Determine whether the given type can be referenced from generated code in
+	 * the given package.
+	 */
+	private boolean isAccessible(TypeMirror type, PackageElement packageElement) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+			case BYTE:
+			case SHORT:
+			case INT:
+			case LONG:
+			case CHAR:
+			case FLOAT:
+			case DOUBLE:
+				return true;
+			case ARRAY:
+				return isAccessible(((ArrayType) type).getComponentType(), packageElement);
+			case WILDCARD:
+				WildcardType wildcard = (WildcardType) type;
+				return ((wildcard.getExtendsBound() == null || isAccessible(wildcard.getExtendsBound(), packageElement)) &&
+						(wildcard.getSuperBound() == null || isAccessible(wildcard.getSuperBound(), packageElement)));
+			case DECLARED:
+				DeclaredType declaredType = (DeclaredType) type;
+				Element element = declaredType.asElement();
+				boolean samePackage = this.elements.getPackageOf(element).equals(packageElement);
+				while (element instanceof TypeElement) {
+					Set<Modifier> modifiers = element.getModifiers();
+					if (modifiers.contains(Modifier.PRIVATE) || (!modifiers.contains(Modifier.PUBLIC) && !samePackage)) {
+						return false;
+					}
+					element = element.getEnclosingElement();
+				}
+				for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+					if (!isAccessible(typeArgument, packageElement)) {
+						return false;
+					}
+				}
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private AnnotationMirror getAnnotation(Element element, String annotationType) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (annotationType.equals(this.typeHelper.getType(annotation))) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	private Object getValue(AnnotationMirror annotation, String name) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+				this.elements.getElementValuesWithDefaults(annotation);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(name)) {
+				return entry.getValue().getValue();
+			}
+		}
+		throw new IllegalStateException("No attribute '" + name + "' on " + annotation);
+	}
+
+	private static List<String> getStrings(Object value) {
+		List<String> strings = new ArrayList<>();
+		for (Object element : (List<?>) value) {
+			strings.add((String) ((AnnotationValue) element).getValue());
+		}
+		return strings;
+	}
+
+	private String literal(String value) {
+		return this.elements.getConstantExpression(value);
+	}
+
+	private String getGeneratedClassName(TypeElement configClass) {
+		StringBuilder name = new StringBuilder(configClass.getSimpleName());
+		Element enclosing = configClass.getEnclosingElement();
+		while (enclosing instanceof TypeElement) {
+			name.insert(0, enclosing.getSimpleName() + "_");
+			enclosing = enclosing.getEnclosingElement();
+		}
+		return name.append(ConfigurationRegistration.GENERATED_SUFFIX).toString();
+	}
+
+	/**
+	 * Derive a default bean name from the short class name, following the rules
+	 * of {@code java.beans.Introspector#decapitalize}.
+	 */
+	private static String decapitalize(String name) {
+		if (name.isEmpty() || (name.length() > 1 && Character.isUpperCase(name.charAt(1)) &&
+				Character.isUpperCase(name.charAt(0)))) {
+			return name;
+		}
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private void writeMetaData() {
+		CandidateComponentsMetadata metadata = this.metadataCollector.getMetadata();
+		if (!metadata.getItems().isEmpty()) {
+			try {
+				this.metadataStore.writeMetadata(metadata);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to write metadata", ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Raised for a configuration class that needs to be processed at runtime.
+	 */
+	@SuppressWarnings("serial")
+	private static class UnsupportedConfigurationException extends RuntimeException {
+
+		UnsupportedConfigurationException(String reason) {
+			super(reason);
+		}
+	}
+
+}
@@ -91,12 +91,38 @@ class MetadataCollector {
 		return metadata;
 	}
 
+	/**
+	 * Determine whether the given type is compiled as part of the current
+	 * module, either in the current build or in a previous incremental one.
+	 * @param type the fully qualified type name
+	 * @since 5.3
+	 */
+	public boolean isLocalType(String type) {
+		if (processedInCurrentBuild(type)) {
+			return true;
+		}
+		if (this.previousMetadata != null && !deletedInCurrentBuild(type)) {
+			for (ItemMetadata item : this.previousMetadata.getItems()) {
+				if (type.equals(item.getType())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	private boolean shouldBeMerged(ItemMetadata itemMetadata) {
-		String sourceType = itemMetadata.getType();
+		String sourceType = getSourceType(itemMetadata.getType());
 		return (sourceType != null && !deletedInCurrentBuild(sourceType)
 				&& !processedInCurrentBuild(sourceType));
 	}
 
+	private String getSourceType(String type) {
+		// Entries for members of a type use a "type#member" key
+		int memberSeparator = (type != null ? type.indexOf('#') : -1);
+		return (memberSeparator != -1 ? type.substring(0, memberSeparator) : type);
+	}
+
 	private boolean deletedInCurrentBuild(String sourceType) {
 		return this.processingEnvironment.getElementUtils()
 				.getTypeElement(sourceType) == null;
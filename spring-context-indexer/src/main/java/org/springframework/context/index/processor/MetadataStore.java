@@ -36,9 +36,16 @@ class MetadataStore {
 
 	private final ProcessingEnvironment environment;
 
+	private final String metadataPath;
+
 
 	public MetadataStore(ProcessingEnvironment environment) {
+		this(environment, METADATA_PATH);
+	}
+
+	public MetadataStore(ProcessingEnvironment environment, String metadataPath) {
 		this.environment = environment;
+		this.metadataPath = metadataPath;
 	}
 
 
@@ -71,11 +78,11 @@ class MetadataStore {
 	}
 
 	private FileObject getMetadataResource() throws IOException {
-		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", this.metadataPath);
 	}
 
 	private FileObject createMetadataResource() throws IOException {
-		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", this.metadataPath);
 	}
 
 }
@@ -45,6 +45,7 @@ abstract class PropertiesMarshaller {
 		props.load(in);
 		props.forEach((type, value) -> {
 			Set<String> candidates = new HashSet<>(Arrays.asList(((String) value).split(",")));
+			candidates.remove("");
 			result.add(new ItemMetadata((String) type, candidates));
 		});
 		return result;
@@ -0,0 +1,468 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Writes the annotation metadata of a type in the binary form read by
+ * {@code IndexedMetadataReaderFactory} in {@code spring-core}, mirroring what
+ * an ASM-based {@code MetadataReader} would read from the compiled class file.
+ *
+ * <p>Only annotations with runtime retention are written, except for those in
+ * the {@code java.lang} and {@code org.springframework.lang} packages, along
+ * with the attribute values that are declared explicitly. Methods are written
+ * if they declare at least one such annotation. Class references are written
+ * as class names.
+ *
+ * @author Spring Team
+ * @since 5.3
+ */
+class TypeMetadataSerializer {
+
+	// Access flags as defined by the JVM specification
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_PRIVATE = 0x0002;
+
+	private static final int ACC_PROTECTED = 0x0004;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int ACC_SYNCHRONIZED = 0x0020;
+
+	private static final int ACC_VARARGS = 0x0080;
+
+	private static final int ACC_NATIVE = 0x0100;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private static final int ACC_ENUM = 0x4000;
+
+	// Attribute value tags, as used by SimpleAnnotationMetadataSerializer
+	private static final byte STRING = 's';
+
+	private static final byte BOOLEAN = 'Z';
+
+	private static final byte BYTE = 'B';
+
+	private static final byte CHAR = 'C';
+
+	private static final byte SHORT = 'S';
+
+	private static final byte INT = 'I';
+
+	private static final byte LONG = 'J';
+
+	private static final byte FLOAT = 'F';
+
+	private static final byte DOUBLE = 'D';
+
+	private static final byte ENUM = 'e';
+
+	private static final byte ANNOTATION = '@';
+
+	private static final byte ARRAY = '[';
+
+	private static final String[] FILTERED_PACKAGES = {"java.lang.", "org.springframework.lang."};
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	TypeMetadataSerializer(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Serialize the metadata of the given type.
+	 * @param type the type to serialize
+	 * @return the serialized form
+	 * @throws IOException in case of I/O errors
+	 */
+	public byte[] serialize(TypeElement type) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		String className = getClassName(type);
+		Element enclosingElement = type.getEnclosingElement();
+		boolean nested = (enclosingElement instanceof TypeElement);
+		out.writeUTF(className);
+		out.writeInt(getTypeAccess(type));
+		writeNullableString(out, nested ? getClassName((TypeElement) enclosingElement) : null);
+		writeNullableString(out, getSuperClassName(type));
+		out.writeBoolean(nested && (type.getKind() != ElementKind.CLASS ||
+				type.getModifiers().contains(Modifier.STATIC)));
+		List<String> interfaceNames = new ArrayList<>();
+		for (TypeMirror interfaceType : type.getInterfaces()) {
+			interfaceNames.add(getClassName(interfaceType));
+		}
+		writeStrings(out, interfaceNames);
+		List<String> memberClassNames = new ArrayList<>();
+		List<ExecutableElement> annotatedMethods = new ArrayList<>();
+		for (Element element : type.getEnclosedElements()) {
+			if (element instanceof TypeElement) {
+				memberClassNames.add(getClassName((TypeElement) element));
+			}
+			else if ((element.getKind() == ElementKind.METHOD || element.getKind() == ElementKind.CONSTRUCTOR) &&
+					!getAnnotations(element).isEmpty()) {
+				annotatedMethods.add((ExecutableElement) element);
+			}
+		}
+		writeStrings(out, memberClassNames);
+		writeAnnotations(out, getAnnotations(type));
+		out.writeInt(annotatedMethods.size());
+		for (ExecutableElement method : annotatedMethods) {
+			// Constructors are named "<init>" and return void, as in the class file
+			out.writeUTF(method.getSimpleName().toString());
+			out.writeInt(getMethodAccess(method));
+			out.writeUTF(getClassName(method.getReturnType()));
+			out.writeUTF(getDescriptor(method));
+			writeAnnotations(out, getAnnotations(method));
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private int getTypeAccess(TypeElement type) {
+		Set<Modifier> modifiers = type.getModifiers();
+		// Nested types are public or package-private in the class file
+		int access = (modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED) ?
+				ACC_PUBLIC : 0);
+		switch (type.getKind()) {
+			case ANNOTATION_TYPE:
+				return access | ACC_ANNOTATION | ACC_INTERFACE | ACC_ABSTRACT;
+			case INTERFACE:
+				return access | ACC_INTERFACE | ACC_ABSTRACT;
+			case ENUM:
+				access |= ACC_ENUM;
+				break;
+			default:
+				break;
+		}
+		access |= ACC_SUPER;
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			access |= ACC_ABSTRACT;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		return access;
+	}
+
+	private int getMethodAccess(ExecutableElement method) {
+		Set<Modifier> modifiers = method.getModifiers();
+		int access = 0;
+		access |= (modifiers.contains(Modifier.PUBLIC) ? ACC_PUBLIC : 0);
+		access |= (modifiers.contains(Modifier.PRIVATE) ? ACC_PRIVATE : 0);
+		access |= (modifiers.contains(Modifier.PROTECTED) ? ACC_PROTECTED : 0);
+		access |= (modifiers.contains(Modifier.STATIC) ? ACC_STATIC : 0);
+		access |= (modifiers.contains(Modifier.FINAL) ? ACC_FINAL : 0);
+		access |= (modifiers.contains(Modifier.SYNCHRONIZED) ? ACC_SYNCHRONIZED : 0);
+		access |= (modifiers.contains(Modifier.NATIVE) ? ACC_NATIVE : 0);
+		access |= (modifiers.contains(Modifier.ABSTRACT) ? ACC_ABSTRACT : 0);
+		access |= (method.isVarArgs() ? ACC_VARARGS : 0);
+		return access;
+	}
+
+	private String getSuperClassName(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (type.getKind() == ElementKind.INTERFACE || type.getKind() == ElementKind.ANNOTATION_TYPE ||
+				superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		return getClassName(superclass);
+	}
+
+	/**
+	 * Return the directly declared annotations of the given element that are
+	 * visible at runtime.
+	 */
+	private List<AnnotationMirror> getAnnotations(Element element) {
+		List<AnnotationMirror> annotations = null;
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (isVisible(annotation)) {
+				if (annotations == null) {
+					annotations = new ArrayList<>();
+				}
+				annotations.add(annotation);
+			}
+		}
+		return (annotations != null ? annotations : Collections.emptyList());
+	}
+
+	private boolean isVisible(AnnotationMirror annotation) {
+		TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+		if (isFiltered(annotationType)) {
+			return false;
+		}
+		Retention retention = annotationType.getAnnotation(Retention.class);
+		return (retention != null && retention.value() == RetentionPolicy.RUNTIME);
+	}
+
+	private boolean isFiltered(TypeElement annotationType) {
+		String name = annotationType.getQualifiedName().toString();
+		for (String filteredPackage : FILTERED_PACKAGES) {
+			if (name.startsWith(filteredPackage)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void writeAnnotations(DataOutputStream out, List<AnnotationMirror> annotations) throws IOException {
+		out.writeInt(annotations.size());
+		for (AnnotationMirror annotation : annotations) {
+			writeAttributes(out, annotation);
+		}
+	}
+
+	private void writeAttributes(DataOutputStream out, AnnotationMirror annotation) throws IOException {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = annotation.getElementValues();
+		List<ExecutableElement> attributes = new ArrayList<>(values.size());
+		for (ExecutableElement attribute : values.keySet()) {
+			// Nested annotations from filtered packages are not read from class files either
+			if (!isFilteredAnnotation(attribute.getReturnType())) {
+				attributes.add(attribute);
+			}
+		}
+		out.writeUTF(getClassName(annotation.getAnnotationType()));
+		out.writeInt(attributes.size());
+		for (ExecutableElement attribute : attributes) {
+			out.writeUTF(attribute.getSimpleName().toString());
+			writeValue(out, attribute.getReturnType(), values.get(attribute));
+		}
+	}
+
+	private boolean isFilteredAnnotation(TypeMirror type) {
+		TypeMirror componentType = (type.getKind() == TypeKind.ARRAY ? ((ArrayType) type).getComponentType() : type);
+		Element element = this.types.asElement(componentType);
+		return (element != null && element.getKind() == ElementKind.ANNOTATION_TYPE &&
+				isFiltered((TypeElement) element));
+	}
+
+	private void writeValue(DataOutputStream out, TypeMirror type, AnnotationValue value) throws IOException {
+		if (type.getKind() == TypeKind.ARRAY) {
+			TypeMirror componentType = ((ArrayType) type).getComponentType();
+			List<AnnotationValue> elements = getArrayElements(value);
+			out.writeByte(ARRAY);
+			writeType(out, componentType);
+			out.writeInt(elements.size());
+			for (AnnotationValue element : elements) {
+				writeElement(out, element.getValue());
+			}
+		}
+		else {
+			writeType(out, type);
+			writeElement(out, value.getValue());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<AnnotationValue> getArrayElements(AnnotationValue value) {
+		Object elements = value.getValue();
+		if (elements instanceof List) {
+			return (List<AnnotationValue>) elements;
+		}
+		return Collections.singletonList(value);
+	}
+
+	private void writeType(DataOutputStream out, TypeMirror type) throws IOException {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				out.writeByte(BOOLEAN);
+				return;
+			case BYTE:
+				out.writeByte(BYTE);
+				return;
+			case CHAR:
+				out.writeByte(CHAR);
+				return;
+			case SHORT:
+				out.writeByte(SHORT);
+				return;
+			case INT:
+				out.writeByte(INT);
+				return;
+			case LONG:
+				out.writeByte(LONG);
+				return;
+			case FLOAT:
+				out.writeByte(FLOAT);
+				return;
+			case DOUBLE:
+				out.writeByte(DOUBLE);
+				return;
+			case DECLARED:
+				Element element = ((DeclaredType) type).asElement();
+				if (element.getKind() == ElementKind.ENUM) {
+					out.writeByte(ENUM);
+					out.writeUTF(getClassName((TypeElement) element));
+					return;
+				}
+				if (element.getKind() == ElementKind.ANNOTATION_TYPE) {
+					out.writeByte(ANNOTATION);
+					return;
+				}
+				// String or Class, the latter written as a class name
+				out.writeByte(STRING);
+				return;
+			default:
+				throw new IOException("Unsupported annotation attribute type: " + type);
+		}
+	}
+
+	private void writeElement(DataOutputStream out, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof TypeMirror) {
+			out.writeUTF(getClassName((TypeMirror) value));
+		}
+		else if (value instanceof VariableElement) {
+			out.writeUTF(((VariableElement) value).getSimpleName().toString());
+		}
+		else if (value instanceof AnnotationMirror) {
+			writeAttributes(out, (AnnotationMirror) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeDouble((Double) value);
+		}
+		else {
+			throw new IOException("Unsupported annotation attribute value: " + value);
+		}
+	}
+
+	private String getClassName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString();
+	}
+
+	/**
+	 * Return the class name of the erasure of the given type, in the form
+	 * used by ASM's {@code Type.getClassName()}.
+	 */
+	private String getClassName(TypeMirror type) {
+		TypeMirror erasure = this.types.erasure(type);
+		switch (erasure.getKind()) {
+			case ARRAY:
+				return getClassName(((ArrayType) erasure).getComponentType()) + "[]";
+			case DECLARED:
+				return getClassName((TypeElement) ((DeclaredType) erasure).asElement());
+			default:
+				// Primitive types and void
+				return erasure.getKind().name().toLowerCase(Locale.ENGLISH);
+		}
+	}
+
+	private String getDescriptor(ExecutableElement method) {
+		StringBuilder descriptor = new StringBuilder("(");
+		for (VariableElement parameter : method.getParameters()) {
+			descriptor.append(getDescriptor(parameter.asType()));
+		}
+		return descriptor.append(')').append(getDescriptor(method.getReturnType())).toString();
+	}
+
+	private String getDescriptor(TypeMirror type) {
+		TypeMirror erasure = this.types.erasure(type);
+		switch (erasure.getKind()) {
+			case BOOLEAN: return "Z";
+			case BYTE: return "B";
+			case CHAR: return "C";
+			case SHORT: return "S";
+			case INT: return "I";
+			case LONG: return "J";
+			case FLOAT: return "F";
+			case DOUBLE: return "D";
+			case VOID: return "V";
+			case ARRAY: return "[" + getDescriptor(((ArrayType) erasure).getComponentType());
+			default: return "L" + getClassName(erasure).replace('.', '/') + ";";
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+}
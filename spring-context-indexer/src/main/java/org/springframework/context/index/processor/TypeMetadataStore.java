@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Store the serialized annotation metadata of candidate components, as written
+ * by {@link TypeMetadataSerializer}, on the filesystem.
+ *
+ * @author Spring Team
+ * @since 5.3
+ */
+class TypeMetadataStore {
+
+	static final String METADATA_PATH = "META-INF/spring.components.metadata";
+
+	private static final int MAGIC = 0x53504958;
+
+	private static final int VERSION = 1;
+
+
+	private final ProcessingEnvironment environment;
+
+
+	public TypeMetadataStore(ProcessingEnvironment environment) {
+		this.environment = environment;
+	}
+
+
+	/**
+	 * Read previously written metadata, keyed by class name.
+	 * @return the metadata, or an empty map if none is available
+	 */
+	public Map<String, byte[]> readMetadata() {
+		try {
+			FileObject resource = this.environment.getFiler().getResource(
+					StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(resource.openInputStream()))) {
+				if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+					return Collections.emptyMap();
+				}
+				int size = in.readInt();
+				Map<String, byte[]> metadata = new LinkedHashMap<>(size);
+				for (int i = 0; i < size; i++) {
+					String type = in.readUTF();
+					byte[] data = new byte[in.readInt()];
+					in.readFully(data);
+					metadata.put(type, data);
+				}
+				return metadata;
+			}
+		}
+		catch (IOException ex) {
+			// Failed to read metadata -> ignore.
+			return Collections.emptyMap();
+		}
+	}
+
+	/**
+	 * Write the given metadata, keyed by class name.
+	 * @param metadata the metadata to write
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeMetadata(Map<String, byte[]> metadata) throws IOException {
+		if (!metadata.isEmpty()) {
+			FileObject resource = this.environment.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(resource.openOutputStream()))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(metadata.size());
+				for (Map.Entry<String, byte[]> entry : metadata.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeInt(entry.getValue().length);
+					out.write(entry.getValue());
+				}
+			}
+		}
+	}
+
+}
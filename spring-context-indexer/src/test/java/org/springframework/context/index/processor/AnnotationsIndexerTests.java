@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Repeatable;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.annotation.PropertySources;
+import org.springframework.context.index.sample.AbstractController;
+import org.springframework.context.index.sample.SampleAnnotatedMethods;
+import org.springframework.context.index.sample.SampleMetaController;
+import org.springframework.context.index.sample.type.SampleEntity;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Indexed;
+import org.springframework.util.StringUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AnnotationsIndexer}.
+ */
+class AnnotationsIndexerTests {
+
+	private TestCompiler compiler;
+
+
+	@BeforeEach
+	void createCompiler(@TempDir Path tempDir) throws IOException {
+		this.compiler = new TestCompiler(tempDir);
+	}
+
+	@Test
+	void disabledByDefault() {
+		this.compiler.getTask(SampleMetaController.class).call(new AnnotationsIndexer());
+		assertThat(new File(this.compiler.getOutputLocation(), AnnotationsIndexer.METADATA_PATH)).doesNotExist();
+	}
+
+	@Test
+	void typeWithoutAnnotations() {
+		Properties index = compile(SampleEntity.class);
+		assertThat(index.getProperty(SampleEntity.class.getName())).isEmpty();
+		assertThat(index.getProperty(SampleEntity.class.getName() + AnnotationsIndexer.METHODS_SUFFIX)).isEmpty();
+	}
+
+	@Test
+	void typeWithMetaAnnotations() {
+		Properties index = compile(SampleMetaController.class);
+		assertThat(annotationTypes(index, SampleMetaController.class.getName()))
+				.contains(Controller.class.getName(), Component.class.getName(),
+						Indexed.class.getName(), Documented.class.getName());
+	}
+
+	@Test
+	void typeWithRepeatedAnnotationsAndAnnotatedSuperclass() {
+		Properties index = compile(SampleAnnotatedMethods.class, AbstractController.class);
+		assertThat(annotationTypes(index, SampleAnnotatedMethods.class.getName()))
+				.contains(PropertySource.class.getName(), PropertySources.class.getName(),
+						Repeatable.class.getName(), Component.class.getName())
+				.doesNotContain(Bean.class.getName());
+	}
+
+	@Test
+	void methodsOfType() {
+		Properties index = compile(SampleAnnotatedMethods.class, AbstractController.class);
+		assertThat(annotationTypes(index, SampleAnnotatedMethods.class.getName() + AnnotationsIndexer.METHODS_SUFFIX))
+				.contains(Bean.class.getName(), Documented.class.getName())
+				.doesNotContain(Component.class.getName(), PropertySource.class.getName());
+	}
+
+	@Test
+	void typeWithSuperclassFromAnotherModule() {
+		Properties index = compile(SampleAnnotatedMethods.class, SampleEntity.class);
+		assertThat(index.getProperty(SampleAnnotatedMethods.class.getName())).isNull();
+		assertThat(index.getProperty(SampleAnnotatedMethods.class.getName() + AnnotationsIndexer.METHODS_SUFFIX)).isNull();
+		assertThat(index.getProperty(SampleEntity.class.getName())).isEmpty();
+	}
+
+
+	private Properties compile(Class<?>... types) {
+		this.compiler.getTask(Collections.singletonList("-A" + AnnotationsIndexer.INDEX_ANNOTATIONS_OPTION + "=true"),
+				types).call(new AnnotationsIndexer());
+		File metadataFile = new File(this.compiler.getOutputLocation(), AnnotationsIndexer.METADATA_PATH);
+		Properties properties = new Properties();
+		try (FileInputStream fileInputStream = new FileInputStream(metadataFile)) {
+			properties.load(fileInputStream);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to read metadata from disk", ex);
+		}
+		return properties;
+	}
+
+	private static Iterable<String> annotationTypes(Properties index, String key) {
+		return StringUtils.commaDelimitedListToSet(index.getProperty(key));
+	}
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.index.sample.config.SampleConfiguration;
+import org.springframework.context.index.sample.config.SampleConfiguration.Repository;
+import org.springframework.context.index.sample.config.SampleConfiguration.Service;
+import org.springframework.context.index.sample.config.SampleImportingConfiguration;
+import org.springframework.context.index.sample.config.SampleLiteConfiguration;
+import org.springframework.context.index.sample.config.SampleParameterizedConfiguration;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ConfigurationRegistrationGenerator}, including the use of the
+ * generated code at runtime.
+ */
+class ConfigurationRegistrationGeneratorTests {
+
+	private TestCompiler compiler;
+
+
+	@BeforeEach
+	void createCompiler(@TempDir Path tempDir) throws IOException {
+		this.compiler = new TestCompiler(tempDir);
+	}
+
+	@Test
+	void disabledByDefault() {
+		this.compiler.getTask(SampleConfiguration.class).call(new ConfigurationRegistrationGenerator());
+		assertThat(generatedFile(ConfigurationRegistrationGenerator.METADATA_PATH)).doesNotExist();
+		assertThat(generatedFile(generatedSource(SampleConfiguration.class))).doesNotExist();
+	}
+
+	@Test
+	void generatesRegistrationForSupportedConfigurationClasses() throws IOException {
+		Properties index = compile(SampleConfiguration.class, SampleLiteConfiguration.class,
+				SampleImportingConfiguration.class, SampleParameterizedConfiguration.class);
+		assertThat(index).hasSize(2);
+		assertThat(index.getProperty(SampleConfiguration.class.getName()))
+				.isEqualTo(SampleConfiguration.class.getName() + ConfigurationRegistration.GENERATED_SUFFIX);
+		assertThat(index.getProperty(SampleLiteConfiguration.class.getName()))
+				.isEqualTo(SampleLiteConfiguration.class.getName() + ConfigurationRegistration.GENERATED_SUFFIX);
+		assertThat(generatedFile(generatedSource(SampleConfiguration.class))).isFile();
+		assertThat(generatedFile(generatedSource(SampleImportingConfiguration.class))).doesNotExist();
+		assertThat(generatedFile(generatedSource(SampleParameterizedConfiguration.class))).doesNotExist();
+	}
+
+	@Test
+	void registersBeansThroughApplicationContextInitializer() throws Exception {
+		compile(SampleConfiguration.class);
+		try (URLClassLoader classLoader = createClassLoader()) {
+			GenericApplicationContext context = new GenericApplicationContext();
+			AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+			initializerFor(SampleConfiguration.class, classLoader).initialize(context);
+			context.refresh();
+
+			assertSampleConfiguration(context);
+			assertThat(context.getBean(SampleConfiguration.class).getClass().getName()).doesNotContain("CGLIB");
+			assertThat(context.getBeanDefinition("sampleConfiguration").getBeanClassName())
+					.isEqualTo(SampleConfiguration.class.getName());
+			context.close();
+		}
+	}
+
+	@Test
+	void registersBeansThroughConfigurationClassPostProcessor() throws Exception {
+		compile(SampleConfiguration.class, SampleLiteConfiguration.class);
+		try (URLClassLoader classLoader = createClassLoader()) {
+			AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+			context.setClassLoader(classLoader);
+			context.register(SampleConfiguration.class, SampleLiteConfiguration.class);
+			context.registerBean("task", Runnable.class, () -> () -> {});
+			context.refresh();
+
+			assertSampleConfiguration(context);
+			assertThat(context.getBean(SampleConfiguration.class).getClass().getName()).doesNotContain("CGLIB");
+			SampleLiteConfiguration.Component component = context.getBean(SampleLiteConfiguration.Component.class);
+			assertThat(component.getEnvironment()).isSameAs(context.getEnvironment());
+			assertThat(component.getTasks()).containsExactly(context.getBean("task", Runnable.class));
+			assertThat(component.isInitialized()).isTrue();
+			context.close();
+		}
+	}
+
+	@Test
+	void resolvesEmptyCollectionForMissingBeans() throws Exception {
+		compile(SampleLiteConfiguration.class);
+		try (URLClassLoader classLoader = createClassLoader()) {
+			AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+			context.setClassLoader(classLoader);
+			context.register(SampleLiteConfiguration.class);
+			context.refresh();
+
+			assertThat(context.getBean(SampleLiteConfiguration.Component.class).getTasks()).isEmpty();
+			assertThat(context.getBean("lite")).isExactlyInstanceOf(SampleLiteConfiguration.class);
+			context.close();
+		}
+	}
+
+	private void assertSampleConfiguration(GenericApplicationContext context) {
+		Repository repository = context.getBean("repository", Repository.class);
+		assertThat(context.getBean("sampleRepository")).isSameAs(repository);
+		assertThat(context.getBean(SampleConfiguration.class).repository()).isSameAs(repository);
+		Service service = context.getBean(Service.class);
+		assertThat(service).isSameAs(context.getBean("service"));
+		assertThat(service.getRepository()).isSameAs(repository);
+		Service prototypeService = context.getBean("prototypeService", Service.class);
+		assertThat(prototypeService).isNotSameAs(context.getBean("prototypeService"));
+		assertThat(prototypeService.getRepository()).isSameAs(repository);
+		assertThat(context.getBean("name")).isEqualTo("sample");
+		BeanDefinition prototypeDefinition = context.getBeanDefinition("prototypeService");
+		assertThat(prototypeDefinition.isPrototype()).isTrue();
+		assertThat(prototypeDefinition.isLazyInit()).isTrue();
+		assertThat(context.getBeanDefinition("service").isPrimary()).isTrue();
+	}
+
+
+	private Properties compile(Class<?>... types) throws IOException {
+		this.compiler.getTask(Collections.singletonList(
+				"-A" + ConfigurationRegistrationGenerator.GENERATE_REGISTRATIONS_OPTION + "=true"), types)
+				.call(new ConfigurationRegistrationGenerator());
+		Properties properties = new Properties();
+		File index = generatedFile(ConfigurationRegistrationGenerator.METADATA_PATH);
+		if (index.isFile()) {
+			try (FileInputStream in = new FileInputStream(index)) {
+				properties.load(in);
+			}
+		}
+		return properties;
+	}
+
+	private URLClassLoader createClassLoader() throws IOException {
+		return new URLClassLoader(new URL[] {this.compiler.getOutputLocation().toURI().toURL()},
+				getClass().getClassLoader());
+	}
+
+	@SuppressWarnings("unchecked")
+	private ApplicationContextInitializer<GenericApplicationContext> initializerFor(
+			Class<?> configClass, ClassLoader classLoader) throws Exception {
+
+		Class<?> initializerClass = ClassUtils.forName(
+				configClass.getName() + ConfigurationRegistration.GENERATED_SUFFIX, classLoader);
+		return (ApplicationContextInitializer<GenericApplicationContext>)
+				initializerClass.getDeclaredConstructor().newInstance();
+	}
+
+	private File generatedFile(String path) {
+		return new File(this.compiler.getOutputLocation(), path);
+	}
+
+	private static String generatedSource(Class<?> configClass) {
+		return (configClass.getName() + ConfigurationRegistration.GENERATED_SUFFIX).replace('.', '/') + ".java";
+	}
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.index.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.AnnotationScopeMetadataResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopeMetadata;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.context.index.sample.metadata.SampleAttributes;
+import org.springframework.context.index.sample.metadata.SampleMetadataComponent;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TypeMetadataSerializer}, as written by the
+ * {@link CandidateComponentsIndexer} and read through the
+ * {@link CandidateComponentsIndex} at runtime.
+ */
+class TypeMetadataSerializerTests {
+
+	private static final String NESTED = SampleMetadataComponent.class.getName() + "$Nested";
+
+	private static final String SKIPPED = SampleMetadataComponent.class.getName() + "$Skipped";
+
+	private TestCompiler compiler;
+
+
+	@BeforeEach
+	void createCompiler(@TempDir Path tempDir) throws IOException {
+		this.compiler = new TestCompiler(tempDir);
+	}
+
+	@Test
+	void disabledByDefault() {
+		this.compiler.getTask(SampleMetadataComponent.class).call(new CandidateComponentsIndexer());
+		assertThat(new File(this.compiler.getOutputLocation(), MetadataStore.METADATA_PATH)).isFile();
+		assertThat(new File(this.compiler.getOutputLocation(), TypeMetadataStore.METADATA_PATH)).doesNotExist();
+	}
+
+	@Test
+	void metadataMatchesClassFile() throws Exception {
+		compile(SampleMetadataComponent.class);
+		try (URLClassLoader classLoader = createClassLoader()) {
+			CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(classLoader);
+			assertThat(index).isNotNull();
+			assertThat(index.hasMetadata()).isTrue();
+			MetadataReaderFactory indexed = index.getMetadataReaderFactory(new FailingMetadataReaderFactory());
+			MetadataReaderFactory classFiles = new SimpleMetadataReaderFactory(classLoader);
+			for (String type : Arrays.asList(SampleMetadataComponent.class.getName(), NESTED, SKIPPED)) {
+				MetadataReader metadataReader = indexed.getMetadataReader(type);
+				assertThat(metadataReader.getResource().getFilename()).isEqualTo(
+						type.substring(type.lastIndexOf('.') + 1) + ".class");
+				assertSameMetadata(metadataReader.getAnnotationMetadata(),
+						classFiles.getMetadataReader(type).getAnnotationMetadata());
+			}
+		}
+	}
+
+	@Test
+	void scanningDoesNotReadClassFiles() throws Exception {
+		compile(SampleMetadataComponent.class);
+		try (URLClassLoader classLoader = createClassLoader()) {
+			ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+			provider.setResourceLoader(new DefaultResourceLoader(classLoader));
+			provider.setMetadataReaderFactory(new FailingMetadataReaderFactory());
+			Set<BeanDefinition> candidates = provider.findCandidateComponents(
+					SampleMetadataComponent.class.getPackage().getName());
+			assertThat(candidates.stream().map(BeanDefinition::getBeanClassName).collect(Collectors.toList()))
+					.containsExactlyInAnyOrder(SampleMetadataComponent.class.getName(), NESTED);
+			AnnotatedBeanDefinition candidate = (AnnotatedBeanDefinition) candidates.stream()
+					.filter(bd -> SampleMetadataComponent.class.getName().equals(bd.getBeanClassName()))
+					.findFirst().get();
+			ScopeMetadata scopeMetadata = new AnnotationScopeMetadataResolver().resolveScopeMetadata(candidate);
+			assertThat(scopeMetadata.getScopeName()).isEqualTo("prototype");
+			assertThat(scopeMetadata.getScopedProxyMode()).isEqualTo(ScopedProxyMode.TARGET_CLASS);
+		}
+	}
+
+	private void assertSameMetadata(AnnotationMetadata actual, AnnotationMetadata expected) {
+		assertThat(actual.getClassName()).isEqualTo(expected.getClassName());
+		assertThat(actual.isInterface()).isEqualTo(expected.isInterface());
+		assertThat(actual.isAnnotation()).isEqualTo(expected.isAnnotation());
+		assertThat(actual.isAbstract()).isEqualTo(expected.isAbstract());
+		assertThat(actual.isFinal()).isEqualTo(expected.isFinal());
+		assertThat(actual.isIndependent()).isEqualTo(expected.isIndependent());
+		assertThat(actual.getEnclosingClassName()).isEqualTo(expected.getEnclosingClassName());
+		assertThat(actual.getSuperClassName()).isEqualTo(expected.getSuperClassName());
+		assertThat(actual.getInterfaceNames()).containsExactly(expected.getInterfaceNames());
+		assertThat(actual.getMemberClassNames()).containsExactlyInAnyOrder(expected.getMemberClassNames());
+		assertThat(actual.getAnnotationTypes()).containsExactlyElementsOf(expected.getAnnotationTypes());
+		for (String annotationType : expected.getAnnotationTypes()) {
+			assertThat(actual.getMetaAnnotationTypes(annotationType))
+					.containsExactlyElementsOf(expected.getMetaAnnotationTypes(annotationType));
+			assertSameAttributes(actual.getAnnotationAttributes(annotationType, true),
+					expected.getAnnotationAttributes(annotationType, true));
+		}
+		for (Class<?> annotationType : Arrays.asList(Autowired.class, Bean.class, Lazy.class, Scope.class,
+				SampleAttributes.class, Override.class)) {
+			String annotationName = annotationType.getName();
+			Set<MethodMetadata> expectedMethods = expected.getAnnotatedMethods(annotationName);
+			Set<MethodMetadata> actualMethods = actual.getAnnotatedMethods(annotationName);
+			assertThat(actualMethods).hasSameSizeAs(expectedMethods);
+			for (MethodMetadata expectedMethod : expectedMethods) {
+				MethodMetadata actualMethod = actualMethods.stream()
+						.filter(method -> method.getMethodName().equals(expectedMethod.getMethodName()))
+						.findFirst().get();
+				assertThat(actualMethod.getReturnTypeName()).isEqualTo(expectedMethod.getReturnTypeName());
+				assertThat(actualMethod.getDeclaringClassName()).isEqualTo(expectedMethod.getDeclaringClassName());
+				assertThat(actualMethod.isStatic()).isEqualTo(expectedMethod.isStatic());
+				assertThat(actualMethod.isFinal()).isEqualTo(expectedMethod.isFinal());
+				assertThat(actualMethod.isAbstract()).isEqualTo(expectedMethod.isAbstract());
+				assertThat(actualMethod.isOverridable()).isEqualTo(expectedMethod.isOverridable());
+				assertThat(actualMethod.getAnnotations().get(annotationName).getSource().toString())
+						.isEqualTo(expectedMethod.getAnnotations().get(annotationName).getSource().toString());
+				assertSameAttributes(actualMethod.getAnnotationAttributes(annotationName, true),
+						expectedMethod.getAnnotationAttributes(annotationName, true));
+			}
+		}
+	}
+
+	private void assertSameAttributes(Object actual, Object expected) {
+		// AnnotationAttributes render array values by content
+		assertThat(String.valueOf(actual)).isEqualTo(String.valueOf(expected));
+	}
+
+	private void compile(Class<?>... types) {
+		this.compiler.getTask(Collections.singletonList(
+				"-A" + CandidateComponentsIndexer.INDEX_METADATA_OPTION + "=true"), types)
+				.call(new CandidateComponentsIndexer());
+	}
+
+	private URLClassLoader createClassLoader() throws IOException {
+		return new URLClassLoader(new URL[] {this.compiler.getOutputLocation().toURI().toURL()},
+				getClass().getClassLoader());
+	}
+
+
+	/**
+	 * {@link MetadataReaderFactory} that fails if a class file needs to be read.
+	 */
+	private static class FailingMetadataReaderFactory implements MetadataReaderFactory {
+
+		@Override
+		public MetadataReader getMetadataReader(String className) {
+			throw new AssertionError("Unexpected read of class file for " + className);
+		}
+
+		@Override
+		public MetadataReader getMetadataReader(Resource resource) {
+			throw new AssertionError("Unexpected read of class file " + resource);
+		}
+	}
+
+}
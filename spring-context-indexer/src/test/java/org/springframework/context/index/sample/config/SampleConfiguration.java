@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
+
+/**
+ * Test configuration class that proxies bean methods, supported by the generator.
+ */
+@Configuration
+public class SampleConfiguration {
+
+	@Bean({"repository", "sampleRepository"})
+	public Repository repository() {
+		return new Repository();
+	}
+
+	@Bean
+	@Primary
+	public Service service() {
+		return new Service(repository());
+	}
+
+	@Bean
+	@Lazy
+	@Scope("prototype")
+	public Service prototypeService() {
+		return new Service(repository());
+	}
+
+	@Bean
+	public static String name() {
+		return "sample";
+	}
+
+
+	public static class Repository {
+	}
+
+
+	public static class Service {
+
+		private final Repository repository;
+
+		public Service(Repository repository) {
+			this.repository = repository;
+		}
+
+		public Repository getRepository() {
+			return this.repository;
+		}
+	}
+
+}
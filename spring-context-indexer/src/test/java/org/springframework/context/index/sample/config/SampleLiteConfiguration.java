@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Test configuration class that does not proxy bean methods and uses
+ * constructor injection, supported by the generator.
+ */
+@Configuration(value = "lite", proxyBeanMethods = false)
+public class SampleLiteConfiguration {
+
+	private final Environment environment;
+
+	public SampleLiteConfiguration(Environment environment) {
+		this.environment = environment;
+	}
+
+	@Bean(initMethod = "init")
+	public Component component(List<Runnable> tasks) {
+		return new Component(this.environment, tasks);
+	}
+
+
+	public static class Component {
+
+		private final Environment environment;
+
+		private final List<Runnable> tasks;
+
+		private boolean initialized;
+
+		public Component(Environment environment, List<Runnable> tasks) {
+			this.environment = environment;
+			this.tasks = tasks;
+		}
+
+		public void init() {
+			this.initialized = true;
+		}
+
+		public Environment getEnvironment() {
+			return this.environment;
+		}
+
+		public List<Runnable> getTasks() {
+			return this.tasks;
+		}
+
+		public boolean isInitialized() {
+			return this.initialized;
+		}
+	}
+
+}
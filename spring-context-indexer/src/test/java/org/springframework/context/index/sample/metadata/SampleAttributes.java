@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample.metadata;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Test annotation declaring attributes of all supported types.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SampleAttributes {
+
+	boolean flag() default false;
+
+	byte byteValue() default 0;
+
+	char charValue() default 'a';
+
+	short shortValue() default 0;
+
+	int intValue() default 0;
+
+	long longValue() default 0L;
+
+	float floatValue() default 0F;
+
+	double doubleValue() default 0D;
+
+	String string() default "";
+
+	String[] strings() default {};
+
+	Class<?> type() default Void.class;
+
+	Class<?>[] types() default {};
+
+	RetentionPolicy policy() default RetentionPolicy.RUNTIME;
+
+	ElementType[] targets() default {};
+
+	Lazy lazy() default @Lazy;
+
+	Qualifier[] qualifiers() default {};
+
+}
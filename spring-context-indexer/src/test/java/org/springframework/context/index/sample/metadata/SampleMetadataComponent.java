@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample.metadata;
+
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Component;
+
+/**
+ * Test candidate with annotation metadata of all kinds.
+ */
+@Component("sample")
+@Scope(scopeName = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+@Lazy
+@Primary
+@Qualifier("primary")
+@DependsOn({"first", "second"})
+@Conditional(SampleCondition.class)
+@SampleAttributes(flag = true, byteValue = 1, charValue = 'c', shortValue = 2, intValue = 3, longValue = 4,
+		floatValue = 5.5F, doubleValue = 6.5D, string = "test", strings = "single", type = List.class,
+		types = {String[].class, int.class, SampleMetadataComponent.Nested.class}, policy = RetentionPolicy.CLASS,
+		targets = {ElementType.TYPE, ElementType.METHOD}, lazy = @Lazy(false),
+		qualifiers = {@Qualifier("one"), @Qualifier("two")})
+@SampleClassRetention
+@Deprecated
+public class SampleMetadataComponent implements Runnable, Serializable {
+
+	@Autowired
+	public SampleMetadataComponent(@Qualifier("name") String name) {
+	}
+
+	@Bean
+	@Lazy(false)
+	public static String name() {
+		return "name";
+	}
+
+	@Bean(initMethod = "init")
+	@Scope("prototype")
+	protected <T extends Runnable> List<T> tasks(T[] tasks, int count) {
+		return null;
+	}
+
+	@Override
+	public void run() {
+	}
+
+	@SampleAttributes
+	private final void helper(String... values) {
+	}
+
+
+	/**
+	 * Nested candidate.
+	 */
+	@Component
+	public static final class Nested {
+	}
+
+
+	/**
+	 * Nested candidate that does not match its condition.
+	 */
+	@Component
+	@SampleAbstract
+	@Conditional(SampleCondition.class)
+	abstract static class Skipped {
+	}
+
+
+	/**
+	 * Inner class.
+	 */
+	public class Inner {
+	}
+
+}
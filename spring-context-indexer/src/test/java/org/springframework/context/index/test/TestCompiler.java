@@ -69,12 +69,18 @@ public class TestCompiler {
 
 	public TestCompilationTask getTask(String... types) {
 		Iterable<? extends JavaFileObject> javaFileObjects = getJavaFileObjects(types);
-		return getTask(javaFileObjects);
+		return getTask(null, javaFileObjects);
 	}
 
-	private TestCompilationTask getTask(Iterable<? extends JavaFileObject> javaFileObjects) {
+	public TestCompilationTask getTask(Iterable<String> options, Class<?>... types) {
+		List<String> names = Arrays.stream(types).map(Class::getName).collect(Collectors.toList());
+		Iterable<? extends JavaFileObject> javaFileObjects = getJavaFileObjects(names.toArray(new String[names.size()]));
+		return getTask(options, javaFileObjects);
+	}
+
+	private TestCompilationTask getTask(Iterable<String> options, Iterable<? extends JavaFileObject> javaFileObjects) {
 		return new TestCompilationTask(
-				this.compiler.getTask(null, this.fileManager, null, null, null, javaFileObjects));
+				this.compiler.getTask(null, this.fileManager, null, options, null, javaFileObjects));
 	}
 
 	public File getOutputLocation() {
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+/**
+ * A {@link Condition} whose outcome only depends on the attributes of the
+ * annotations declaring it and on the {@link org.springframework.core.env.Environment},
+ * but not on the annotated element itself or on the state of the bean registry.
+ *
+ * <p>The outcome of such a condition may be cached and reused for all elements
+ * declaring the condition with the same annotation attributes, for example all
+ * classes and methods annotated with {@code @Profile("dev")}.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see Profile
+ */
+public interface CacheableCondition extends Condition {
+
+}
@@ -18,11 +18,15 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -112,6 +116,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	private int parallelism = 1;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -161,6 +167,33 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.resourcePattern = resourcePattern;
 	}
 
+	/**
+	 * Set the maximum number of candidate classes to read concurrently when
+	 * scanning the classpath.
+	 * <p>The default is 1, reading candidate classes sequentially on the
+	 * calling thread. With a higher parallelism, the class files of all
+	 * candidates are read in a {@link ForkJoinPool} that is created for each
+	 * scan and shut down at its end. The configured {@link TypeFilter TypeFilters}
+	 * and {@link Conditional @Conditional} conditions are still applied on the
+	 * calling thread, in the order of a sequential scan; only the
+	 * {@link #setMetadataReaderFactory MetadataReaderFactory} needs to be
+	 * thread-safe, as the default one is.
+	 * @since 5.3
+	 * @see PathMatchingResourcePatternResolver#setParallelism
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Return the maximum number of candidate classes to read concurrently.
+	 * @since 5.3
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
 	/**
 	 * Add an include type filter to the <i>end</i> of the inclusion list.
 	 */
@@ -308,6 +341,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * @return a corresponding Set of autodetected bean definitions
 	 */
 	public Set<BeanDefinition> findCandidateComponents(String basePackage) {
+		// Take changes to the Environment since the previous scan into account
+		getConditionEvaluator().clearCache();
 		if (this.componentsIndex != null && indexSupportsIncludeFilters()) {
 			return addCandidateComponentsFromIndex(this.componentsIndex, basePackage);
 		}
@@ -380,10 +415,12 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 				}
 				types.addAll(index.getCandidateTypes(basePackage, stereotype));
 			}
+			// Read candidates from the metadata recorded in the index, if available
+			MetadataReaderFactory metadataReaderFactory = index.getMetadataReaderFactory(getMetadataReaderFactory());
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
 			for (String type : types) {
-				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				MetadataReader metadataReader = metadataReaderFactory.getMetadataReader(type);
 				if (isCandidateComponent(metadataReader)) {
 					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
 					sbd.setSource(metadataReader.getResource());
@@ -418,52 +455,113 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
-			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
+			MetadataReader[] metadataReaders = (this.parallelism > 1 && resources.length > 1 ?
+					readMetadataInParallel(resources) : new MetadataReader[resources.length]);
+			for (int i = 0; i < resources.length; i++) {
+				ScannedGenericBeanDefinition candidate = scanCandidateComponent(resources[i], metadataReaders[i]);
+				if (candidate != null) {
+					candidates.add(candidate);
 				}
-				if (resource.isReadable()) {
+			}
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Read the class files of the given resources concurrently, in a pool that
+	 * is shut down before returning.
+	 * @return the metadata reader for each resource in the given order, or
+	 * {@code null} if not readable (to be reported by the sequential matching)
+	 */
+	private MetadataReader[] readMetadataInParallel(Resource[] resources) {
+		MetadataReaderFactory metadataReaderFactory = getMetadataReaderFactory();
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			List<ForkJoinTask<MetadataReader>> tasks = new ArrayList<>(resources.length);
+			for (Resource resource : resources) {
+				tasks.add(pool.submit(() -> {
+					Thread currentThread = Thread.currentThread();
+					ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+					currentThread.setContextClassLoader(contextClassLoader);
 					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-						if (isCandidateComponent(metadataReader)) {
-							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-							sbd.setSource(resource);
-							if (isCandidateComponent(sbd)) {
-								if (debugEnabled) {
-									logger.debug("Identified candidate component class: " + resource);
-								}
-								candidates.add(sbd);
-							}
-							else {
-								if (debugEnabled) {
-									logger.debug("Ignored because not a concrete top-level class: " + resource);
-								}
-							}
-						}
-						else {
-							if (traceEnabled) {
-								logger.trace("Ignored because not matching any filter: " + resource);
-							}
-						}
+						return (resource.isReadable() ? metadataReaderFactory.getMetadataReader(resource) : null);
 					}
 					catch (Throwable ex) {
-						throw new BeanDefinitionStoreException(
-								"Failed to read candidate component class: " + resource, ex);
+						return null;
+					}
+					finally {
+						currentThread.setContextClassLoader(originalClassLoader);
+					}
+				}));
+			}
+			MetadataReader[] metadataReaders = new MetadataReader[resources.length];
+			for (int i = 0; i < metadataReaders.length; i++) {
+				metadataReaders[i] = tasks.get(i).get();
+			}
+			return metadataReaders;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanDefinitionStoreException("Interrupted during classpath scanning", ex);
+		}
+		catch (ExecutionException ex) {
+			throw new BeanDefinitionStoreException("Failed to read candidate component classes", ex.getCause());
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Nullable
+	private ScannedGenericBeanDefinition scanCandidateComponent(Resource resource,
+			@Nullable MetadataReader metadataReader) {
+
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+		if (metadataReader != null || resource.isReadable()) {
+			try {
+				if (metadataReader == null) {
+					metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+				}
+				if (isCandidateComponent(metadataReader)) {
+					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+					sbd.setSource(resource);
+					if (isCandidateComponent(sbd)) {
+						if (debugEnabled) {
+							logger.debug("Identified candidate component class: " + resource);
+						}
+						return sbd;
+					}
+					else {
+						if (debugEnabled) {
+							logger.debug("Ignored because not a concrete top-level class: " + resource);
+						}
 					}
 				}
 				else {
 					if (traceEnabled) {
-						logger.trace("Ignored because not readable: " + resource);
+						logger.trace("Ignored because not matching any filter: " + resource);
 					}
 				}
 			}
+			catch (Throwable ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to read candidate component class: " + resource, ex);
+			}
 		}
-		catch (IOException ex) {
-			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		else {
+			if (traceEnabled) {
+				logger.trace("Ignored because not readable: " + resource);
+			}
 		}
-		return candidates;
+		return null;
 	}
 
 
@@ -506,11 +604,15 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * @return whether the class qualifies as a candidate component
 	 */
 	private boolean isConditionMatch(MetadataReader metadataReader) {
+		return !getConditionEvaluator().shouldSkip(metadataReader.getAnnotationMetadata());
+	}
+
+	private ConditionEvaluator getConditionEvaluator() {
 		if (this.conditionEvaluator == null) {
 			this.conditionEvaluator =
 					new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
 		}
-		return !this.conditionEvaluator.shouldSkip(metadataReader.getAnnotationMetadata());
+		return this.conditionEvaluator;
 	}
 
 	/**
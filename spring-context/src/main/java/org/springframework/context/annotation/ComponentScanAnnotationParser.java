@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -109,6 +109,26 @@ class ComponentScanAnnotationParser {
 			scanner.getBeanDefinitionDefaults().setLazyInit(true);
 		}
 
+		Set<String> basePackages = getBasePackages(componentScan, declaringClass);
+
+		scanner.addExcludeFilter(new AbstractTypeHierarchyTraversingFilter(false, false) {
+			@Override
+			protected boolean matchClassName(String className) {
+				return declaringClass.equals(className);
+			}
+		});
+		return scanner.doScan(StringUtils.toStringArray(basePackages));
+	}
+
+	/**
+	 * Determine the base packages to scan for the given {@code @ComponentScan}
+	 * attributes, defaulting to the package of the declaring class.
+	 * @param componentScan the {@code @ComponentScan} attributes
+	 * @param declaringClass the name of the class declaring the annotation
+	 * @return the base packages, with placeholders resolved
+	 * @since 5.3
+	 */
+	Set<String> getBasePackages(AnnotationAttributes componentScan, String declaringClass) {
 		Set<String> basePackages = new LinkedHashSet<>();
 		String[] basePackagesArray = componentScan.getStringArray("basePackages");
 		for (String pkg : basePackagesArray) {
@@ -122,14 +142,7 @@ class ComponentScanAnnotationParser {
 		if (basePackages.isEmpty()) {
 			basePackages.add(ClassUtils.getPackageName(declaringClass));
 		}
-
-		scanner.addExcludeFilter(new AbstractTypeHierarchyTraversingFilter(false, false) {
-			@Override
-			protected boolean matchClassName(String className) {
-				return declaringClass.equals(className);
-			}
-		});
-		return scanner.doScan(StringUtils.toStringArray(basePackages));
+		return basePackages;
 	}
 
 	private List<TypeFilter> typeFiltersFor(AnnotationAttributes filterAttributes) {
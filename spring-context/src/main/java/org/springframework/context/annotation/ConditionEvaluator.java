@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,11 @@ package org.springframework.context.annotation;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -26,6 +30,8 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.ConfigurationCondition.ConfigurationPhase;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotation.Adapt;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
 import org.springframework.core.env.StandardEnvironment;
@@ -37,10 +43,18 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 
 /**
  * Internal class used to evaluate {@link Conditional} annotations.
  *
+ * <p>The outcome of a {@link CacheableCondition} is cached per condition type
+ * and attributes of the declaring annotations, and reused for all further
+ * elements declaring the same condition with the same attributes, until
+ * {@link #clearCache()} is called at the start of the next processing pass.
+ * Condition classes are resolved once, while a new condition instance is
+ * created for each evaluation.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @since 4.0
@@ -49,6 +63,14 @@ class ConditionEvaluator {
 
 	private final ConditionContextImpl context;
 
+	private final Map<String, Class<?>> conditionClassCache = new ConcurrentHashMap<>();
+
+	private final Map<Object, Boolean> outcomeCache = new ConcurrentHashMap<>();
+
+	private final LongAdder evaluationCount = new LongAdder();
+
+	private final LongAdder cachedEvaluationCount = new LongAdder();
+
 
 	/**
 	 * Create a new {@link ConditionEvaluator} instance.
@@ -105,7 +127,7 @@ class ConditionEvaluator {
 			if (condition instanceof ConfigurationCondition) {
 				requiredPhase = ((ConfigurationCondition) condition).getConfigurationPhase();
 			}
-			if ((requiredPhase == null || requiredPhase == phase) && !condition.matches(this.context, metadata)) {
+			if ((requiredPhase == null || requiredPhase == phase) && !matches(condition, metadata)) {
 				return true;
 			}
 		}
@@ -113,6 +135,99 @@ class ConditionEvaluator {
 		return false;
 	}
 
+	/**
+	 * Clear the cached outcomes of {@link CacheableCondition CacheableConditions},
+	 * so that changes to the {@link Environment} since the last processing pass,
+	 * e.g. to its active profiles, are taken into account.
+	 * @since 5.3
+	 */
+	public void clearCache() {
+		this.outcomeCache.clear();
+	}
+
+	/**
+	 * Return the number of condition evaluations requested from this evaluator,
+	 * including the ones served from the outcome cache.
+	 * @since 5.3
+	 */
+	public long getEvaluationCount() {
+		return this.evaluationCount.sum();
+	}
+
+	/**
+	 * Return the number of condition evaluations that have been saved by
+	 * reusing a cached outcome.
+	 * @since 5.3
+	 * @see CacheableCondition
+	 */
+	public long getCachedEvaluationCount() {
+		return this.cachedEvaluationCount.sum();
+	}
+
+	private boolean matches(Condition condition, AnnotatedTypeMetadata metadata) {
+		this.evaluationCount.increment();
+		Object cacheKey = (condition instanceof CacheableCondition ? getCacheKey(condition, metadata) : null);
+		if (cacheKey == null) {
+			return condition.matches(this.context, metadata);
+		}
+		Boolean outcome = this.outcomeCache.get(cacheKey);
+		if (outcome != null) {
+			this.cachedEvaluationCount.increment();
+			return outcome;
+		}
+		boolean matches = condition.matches(this.context, metadata);
+		this.outcomeCache.put(cacheKey, matches);
+		return matches;
+	}
+
+	/**
+	 * Build a cache key from the type of the given condition and the attribute
+	 * values of the annotations declaring it.
+	 * @return the cache key, or {@code null} if the attributes of the declaring
+	 * annotations cannot be resolved
+	 */
+	@Nullable
+	private Object getCacheKey(Condition condition, AnnotatedTypeMetadata metadata) {
+		String conditionClass = condition.getClass().getName();
+		List<Object> cacheKey = new ArrayList<>();
+		cacheKey.add(conditionClass);
+		try {
+			metadata.getAnnotations().stream(Conditional.class).forEach(conditional -> {
+				if (ObjectUtils.containsElement(conditional.getStringArray(MergedAnnotation.VALUE), conditionClass)) {
+					MergedAnnotation<?> declaringAnnotation = conditional.getMetaSource();
+					MergedAnnotation<?> annotation = (declaringAnnotation != null ? declaringAnnotation : conditional);
+					cacheKey.add(annotation.getType().getName());
+					cacheKey.add(getCacheKeyValue(annotation.asMap(Adapt.values(true, true))));
+				}
+			});
+		}
+		catch (Throwable ex) {
+			return null;
+		}
+		return cacheKey;
+	}
+
+	/**
+	 * Turn arrays into lists, also within nested annotation attributes,
+	 * for equality based on attribute values.
+	 */
+	private static Object getCacheKeyValue(Object value) {
+		if (value.getClass().isArray()) {
+			Object[] elements = ObjectUtils.toObjectArray(value);
+			List<Object> list = new ArrayList<>(elements.length);
+			for (Object element : elements) {
+				list.add(getCacheKeyValue(element));
+			}
+			return list;
+		}
+		if (value instanceof Map) {
+			Map<Object, Object> map = new LinkedHashMap<>();
+			((Map<?, ?>) value).forEach((key, nestedValue) -> map.put(key, getCacheKeyValue(nestedValue)));
+			return map;
+		}
+		return value;
+	}
+
 	@SuppressWarnings("unchecked")
 	private List<String[]> getConditionClasses(AnnotatedTypeMetadata metadata) {
 		MultiValueMap<String, Object> attributes = metadata.getAllAnnotationAttributes(Conditional.class.getName(), true);
@@ -121,7 +236,8 @@ class ConditionEvaluator {
 	}
 
 	private Condition getCondition(String conditionClassName, @Nullable ClassLoader classloader) {
-		Class<?> conditionClass = ClassUtils.resolveClassName(conditionClassName, classloader);
+		Class<?> conditionClass = this.conditionClassCache.computeIfAbsent(conditionClassName,
+				className -> ClassUtils.resolveClassName(className, classloader));
 		return (Condition) BeanUtils.instantiateClass(conditionClass);
 	}
 
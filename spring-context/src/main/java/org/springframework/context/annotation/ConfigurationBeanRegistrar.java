@@ -0,0 +1,369 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.InjectionPoint;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.beans.factory.UnsatisfiedDependencyException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.ConfigurationClassBeanDefinitionReader.ConfigurationClassBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Registers the bean definitions declared by a {@link Configuration @Configuration}
+ * class through instance suppliers, on behalf of functional registration code
+ * that has been generated for that class at build time.
+ *
+ * <p>Generated code calls {@link #registerConfiguration} for the configuration
+ * class itself and {@link #registerBean} for each of its {@link Bean @Bean}
+ * methods, passing a callback that invokes the constructor or method directly.
+ * Arguments are resolved as for regular {@code @Bean} methods, including
+ * qualifiers, {@code @Value} and fallbacks to empty collections. The resulting
+ * bean definitions are registered when {@link ConfigurationClassPostProcessor}
+ * reads its configuration model, in the same order and with the same overriding
+ * rules as for parsed configuration classes, but the class is neither parsed nor
+ * enhanced through CGLIB. For configuration classes
+ * that proxy bean methods, generated code declares a subclass instead, which
+ * routes calls between {@code @Bean} methods to {@link #getBean}.
+ *
+ * <p>This class is not meant to be used directly by application code.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see ConfigurationClassPostProcessor
+ */
+public final class ConfigurationBeanRegistrar {
+
+	private static final Log logger = LogFactory.getLog(ConfigurationBeanRegistrar.class);
+
+
+	private final BeanDefinitionRegistry registry;
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final Class<?> configClass;
+
+	private final String configBeanName;
+
+
+	/**
+	 * Create a new {@code ConfigurationBeanRegistrar}.
+	 * @param registry the registry to register bean definitions with: a
+	 * {@link DefaultListableBeanFactory} or a {@link GenericApplicationContext}
+	 * @param configClass the configuration class
+	 * @param configBeanName the bean name of the configuration class
+	 */
+	public ConfigurationBeanRegistrar(BeanDefinitionRegistry registry, Class<?> configClass, String configBeanName) {
+		Assert.notNull(registry, "BeanDefinitionRegistry must not be null");
+		Assert.notNull(configClass, "Configuration class must not be null");
+		Assert.hasText(configBeanName, "Configuration bean name must not be empty");
+		this.registry = registry;
+		this.beanFactory = obtainBeanFactory(registry);
+		this.configClass = configClass;
+		this.configBeanName = configBeanName;
+	}
+
+
+	/**
+	 * Register the bean definition for the configuration class itself, or
+	 * prepare an existing one for the configuration class.
+	 * @param parameterTypes the parameter types of the constructor to use
+	 * @param factory the callback invoking the constructor with resolved arguments
+	 * @param customizers callbacks for customizing the bean definition
+	 */
+	public void registerConfiguration(Class<?>[] parameterTypes, InstanceFactory factory,
+			BeanDefinitionCustomizer... customizers) {
+
+		Constructor<?> constructor;
+		try {
+			constructor = this.configClass.getDeclaredConstructor(parameterTypes);
+		}
+		catch (NoSuchMethodException ex) {
+			throw new IllegalStateException("Generated registration for " + this.configClass.getName() +
+					" does not match constructor: " + ex.getMessage());
+		}
+
+		AbstractBeanDefinition beanDef = null;
+		if (this.registry.containsBeanDefinition(this.configBeanName)) {
+			BeanDefinition existingBeanDef = this.registry.getBeanDefinition(this.configBeanName);
+			if (existingBeanDef instanceof AbstractBeanDefinition &&
+					this.configClass.getName().equals(existingBeanDef.getBeanClassName())) {
+				beanDef = (AbstractBeanDefinition) existingBeanDef;
+			}
+		}
+		boolean register = (beanDef == null);
+		if (register) {
+			beanDef = new RootBeanDefinition(this.configClass);
+		}
+		beanDef.setInstanceSupplier(() -> createInstance(this.configBeanName, constructor, factory));
+		beanDef.setAttribute(ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE,
+				ConfigurationClassUtils.CONFIGURATION_CLASS_LITE);
+		for (BeanDefinitionCustomizer customizer : customizers) {
+			customizer.customize(beanDef);
+		}
+		if (register) {
+			this.registry.registerBeanDefinition(this.configBeanName, beanDef);
+		}
+	}
+
+	/**
+	 * Register the bean definition for a {@link Bean @Bean} method, unless the
+	 * bean has already been defined elsewhere in a way that takes precedence.
+	 * @param beanName the name of the bean
+	 * @param methodName the name of the {@code @Bean} method
+	 * @param parameterTypes the parameter types of the {@code @Bean} method
+	 * @param factory the callback invoking the method with resolved arguments
+	 * @param customizers callbacks for customizing the bean definition
+	 */
+	@SuppressWarnings("deprecation")  // for RequiredAnnotationBeanPostProcessor.SKIP_REQUIRED_CHECK_ATTRIBUTE
+	public void registerBean(String beanName, String methodName, Class<?>[] parameterTypes,
+			InstanceFactory factory, BeanDefinitionCustomizer... customizers) {
+
+		Method method;
+		try {
+			method = this.configClass.getDeclaredMethod(methodName, parameterTypes);
+		}
+		catch (NoSuchMethodException ex) {
+			throw new IllegalStateException("Generated registration for " + this.configClass.getName() +
+					" does not match @Bean method: " + ex.getMessage());
+		}
+		if (isOverriddenByExistingDefinition(beanName, method)) {
+			return;
+		}
+
+		// Derive the bean type from the method rather than setting a bean class,
+		// so that the definition is not mistaken for a configuration class candidate
+		GeneratedBeanDefinition beanDef = new GeneratedBeanDefinition(this.configClass.getName());
+		beanDef.setTargetType(ResolvableType.forMethodReturnType(method));
+		beanDef.setInstanceSupplier(() -> createInstance(beanName, method, factory));
+		beanDef.setResourceDescription(this.configClass.getName());
+		beanDef.setAttribute(org.springframework.beans.factory.annotation.RequiredAnnotationBeanPostProcessor.
+				SKIP_REQUIRED_CHECK_ATTRIBUTE, Boolean.TRUE);
+		for (BeanDefinitionCustomizer customizer : customizers) {
+			customizer.customize(beanDef);
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace(String.format("Registering generated bean definition for @Bean method %s.%s()",
+					this.configClass.getName(), beanName));
+		}
+		this.registry.registerBeanDefinition(beanName, beanDef);
+	}
+
+	/**
+	 * Register an alias for a bean, as declared through {@link Bean#name()}.
+	 * @param beanName the name of the bean
+	 * @param alias the alias to register
+	 */
+	public void registerAlias(String beanName, String alias) {
+		this.registry.registerAlias(beanName, alias);
+	}
+
+	/**
+	 * Return the configuration class instance that declares the {@code @Bean} methods.
+	 */
+	public Object getConfiguration() {
+		return this.beanFactory.getBean(this.configBeanName);
+	}
+
+	/**
+	 * Return the bean with the given name, as a call from one {@code @Bean}
+	 * method to another is expected to return in a configuration class that
+	 * proxies bean methods.
+	 * @param beanName the name of the bean
+	 * @return the bean instance, or {@code null} for a {@code null} bean
+	 */
+	@Nullable
+	public Object getBean(String beanName) {
+		Object bean = this.beanFactory.getBean(beanName);
+		return (bean.equals(null) ? null : bean);
+	}
+
+
+	private boolean isOverriddenByExistingDefinition(String beanName, Method method) {
+		if (!this.registry.containsBeanDefinition(beanName)) {
+			return false;
+		}
+		if (beanName.equals(this.configBeanName)) {
+			throw new BeanDefinitionStoreException(this.configClass.getName(), beanName,
+					"Bean name derived from @Bean method '" + method.getName() +
+					"' clashes with bean name for containing configuration class; please make those names unique!");
+		}
+		// Same rules as for parsed configuration classes: definitions from other configuration
+		// classes, component scan results and framework-generated beans can be overridden,
+		// top-level definitions take precedence
+		BeanDefinition existingBeanDef = this.registry.getBeanDefinition(beanName);
+		if (existingBeanDef instanceof GeneratedBeanDefinition) {
+			return ((GeneratedBeanDefinition) existingBeanDef).getConfigurationClassName()
+					.equals(this.configClass.getName());
+		}
+		if (existingBeanDef instanceof ConfigurationClassBeanDefinition) {
+			return ((ConfigurationClassBeanDefinition) existingBeanDef).getMetadata().getClassName()
+					.equals(this.configClass.getName());
+		}
+		if (existingBeanDef instanceof ScannedGenericBeanDefinition ||
+				existingBeanDef.getRole() > BeanDefinition.ROLE_APPLICATION) {
+			return false;
+		}
+		if (!this.beanFactory.isAllowBeanDefinitionOverriding()) {
+			throw new BeanDefinitionStoreException(this.configClass.getName(),
+					beanName, "@Bean definition illegally overridden by existing bean definition: " + existingBeanDef);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Skipping generated bean definition for %s: a definition for bean '%s' " +
+					"already exists. This top-level bean definition is considered as an override.", method, beanName));
+		}
+		return true;
+	}
+
+	private Object createInstance(String beanName, Executable executable, InstanceFactory factory) {
+		Object[] args = resolveArguments(beanName, executable);
+		try {
+			return factory.create(args);
+		}
+		catch (Throwable ex) {
+			if (executable instanceof Constructor) {
+				throw new BeanInstantiationException((Constructor<?>) executable, "Constructor threw exception", ex);
+			}
+			throw new BeanInstantiationException((Method) executable,
+					"Factory method '" + executable.getName() + "' threw exception", ex);
+		}
+	}
+
+	private Object[] resolveArguments(String beanName, Executable executable) {
+		int parameterCount = executable.getParameterCount();
+		Object[] args = new Object[parameterCount];
+		for (int i = 0; i < parameterCount; i++) {
+			MethodParameter parameter = MethodParameter.forExecutable(executable, i);
+			try {
+				args[i] = resolveArgument(beanName, parameter);
+			}
+			catch (BeansException ex) {
+				throw new UnsatisfiedDependencyException(this.configClass.getName(), beanName,
+						new InjectionPoint(parameter), ex);
+			}
+		}
+		return args;
+	}
+
+	@Nullable
+	private Object resolveArgument(String beanName, MethodParameter parameter) {
+		Class<?> parameterType = parameter.getParameterType();
+		try {
+			return this.beanFactory.resolveDependency(new DependencyDescriptor(parameter, true), beanName);
+		}
+		catch (NoUniqueBeanDefinitionException ex) {
+			throw ex;
+		}
+		catch (NoSuchBeanDefinitionException ex) {
+			// Same fallback as for a unique factory method: an empty array/collection
+			// for e.g. a vararg or a non-null List/Set/Map parameter
+			if (parameterType.isArray()) {
+				return Array.newInstance(parameterType.getComponentType(), 0);
+			}
+			else if (CollectionFactory.isApproximableCollectionType(parameterType)) {
+				return CollectionFactory.createCollection(parameterType, 0);
+			}
+			else if (CollectionFactory.isApproximableMapType(parameterType)) {
+				return CollectionFactory.createMap(parameterType, 0);
+			}
+			throw ex;
+		}
+	}
+
+	private static DefaultListableBeanFactory obtainBeanFactory(BeanDefinitionRegistry registry) {
+		if (registry instanceof DefaultListableBeanFactory) {
+			return (DefaultListableBeanFactory) registry;
+		}
+		else if (registry instanceof GenericApplicationContext) {
+			return ((GenericApplicationContext) registry).getDefaultListableBeanFactory();
+		}
+		throw new IllegalArgumentException("Generated bean registration requires a DefaultListableBeanFactory " +
+				"or GenericApplicationContext: " + registry);
+	}
+
+
+	/**
+	 * Bean definition for a {@link Bean @Bean} method registered through generated
+	 * code, keeping track of the declaring configuration class. Used in bean
+	 * overriding cases, like a {@link ConfigurationClassBeanDefinition}.
+	 */
+	@SuppressWarnings("serial")
+	static final class GeneratedBeanDefinition extends RootBeanDefinition {
+
+		private final String configurationClassName;
+
+		GeneratedBeanDefinition(String configurationClassName) {
+			this.configurationClassName = configurationClassName;
+		}
+
+		private GeneratedBeanDefinition(GeneratedBeanDefinition original) {
+			super(original);
+			this.configurationClassName = original.configurationClassName;
+		}
+
+		String getConfigurationClassName() {
+			return this.configurationClassName;
+		}
+
+		@Override
+		public GeneratedBeanDefinition cloneBeanDefinition() {
+			return new GeneratedBeanDefinition(this);
+		}
+	}
+
+
+	/**
+	 * Callback that creates an instance, invoking a constructor or {@code @Bean}
+	 * method with the given arguments.
+	 */
+	@FunctionalInterface
+	public interface InstanceFactory {
+
+		/**
+		 * Create the instance.
+		 * @param args the resolved arguments
+		 * @return the instance (may be {@code null} for a {@code @Bean} method)
+		 * @throws Throwable any exception thrown by the constructor or method
+		 */
+		@Nullable
+		Object create(Object[] args) throws Throwable;
+	}
+
+}
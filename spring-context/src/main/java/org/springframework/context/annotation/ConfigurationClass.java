@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.lang.reflect.Method;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -67,6 +68,9 @@ final class ConfigurationClass {
 
 	final Set<String> skippedBeanMethods = new HashSet<>();
 
+	@Nullable
+	private Method registrationMethod;
+
 
 	/**
 	 * Create a new {@link ConfigurationClass} with the given name.
@@ -209,6 +213,25 @@ final class ConfigurationClass {
 		return this.importedResources;
 	}
 
+	/**
+	 * Set the registration method generated at build time for this class,
+	 * to be invoked instead of registering its {@link Bean} methods.
+	 * @since 5.3
+	 * @see ConfigurationRegistrationIndex#getRegistrationMethod
+	 */
+	public void setRegistrationMethod(@Nullable Method registrationMethod) {
+		this.registrationMethod = registrationMethod;
+	}
+
+	/**
+	 * Return the registration method generated at build time for this class, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public Method getRegistrationMethod() {
+		return this.registrationMethod;
+	}
+
 	public void validate(ProblemReporter problemReporter) {
 		// A configuration class may not be final (CGLIB limitation) unless it declares proxyBeanMethods=false
 		Map<String, Object> attributes = this.metadata.getAnnotationAttributes(Configuration.class.getName());
@@ -54,6 +54,7 @@ import org.springframework.core.type.StandardAnnotationMetadata;
 import org.springframework.core.type.StandardMethodMetadata;
 import org.springframework.lang.NonNull;
 import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -115,6 +116,7 @@ class ConfigurationClassBeanDefinitionReader {
 	 * with the registry based on its contents.
 	 */
 	public void loadBeanDefinitions(Set<ConfigurationClass> configurationModel) {
+		this.conditionEvaluator.clearCache();
 		TrackedConditionEvaluator trackedConditionEvaluator = new TrackedConditionEvaluator();
 		for (ConfigurationClass configClass : configurationModel) {
 			loadBeanDefinitionsForConfigurationClass(configClass, trackedConditionEvaluator);
@@ -140,6 +142,10 @@ class ConfigurationClassBeanDefinitionReader {
 		if (configClass.isImported()) {
 			registerBeanDefinitionForImportedConfigurationClass(configClass);
 		}
+		Method registrationMethod = configClass.getRegistrationMethod();
+		if (registrationMethod != null) {
+			loadBeanDefinitionsFromGeneratedCode(configClass, registrationMethod);
+		}
 		for (BeanMethod beanMethod : configClass.getBeanMethods()) {
 			loadBeanDefinitionsForBeanMethod(beanMethod);
 		}
@@ -170,6 +176,19 @@ class ConfigurationClassBeanDefinitionReader {
 		}
 	}
 
+	/**
+	 * Register the bean definitions of the given {@link ConfigurationClass}
+	 * through the registration code generated for it at build time.
+	 * @see ConfigurationBeanRegistrar
+	 */
+	private void loadBeanDefinitionsFromGeneratedCode(ConfigurationClass configClass, Method registrationMethod) {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Registering beans of configuration class [" + configClass.getMetadata().getClassName() +
+					"] through " + registrationMethod.getDeclaringClass().getName());
+		}
+		ReflectionUtils.invokeMethod(registrationMethod, null, this.registry, configClass.getBeanName());
+	}
+
 	/**
 	 * Read the given {@link BeanMethod}, registering bean definitions
 	 * with the BeanDefinitionRegistry based on its contents.
@@ -310,6 +329,12 @@ class ConfigurationClassBeanDefinitionReader {
 			}
 		}
 
+		// Same for a bean definition registered through code generated for a configuration class
+		if (existingBeanDef instanceof ConfigurationBeanRegistrar.GeneratedBeanDefinition) {
+			return ((ConfigurationBeanRegistrar.GeneratedBeanDefinition) existingBeanDef).getConfigurationClassName()
+					.equals(beanMethod.getConfigurationClass().getMetadata().getClassName());
+		}
+
 		// A bean definition resulting from a component scan can be silently overridden
 		// by an @Bean method, as of 4.2...
 		if (existingBeanDef instanceof ScannedGenericBeanDefinition) {
@@ -392,7 +417,7 @@ class ConfigurationClassBeanDefinitionReader {
 	 * definition was created externally.
 	 */
 	@SuppressWarnings("serial")
-	private static class ConfigurationClassBeanDefinition extends RootBeanDefinition implements AnnotatedBeanDefinition {
+	static class ConfigurationClassBeanDefinition extends RootBeanDefinition implements AnnotatedBeanDefinition {
 
 		private final AnnotationMetadata annotationMetadata;
 
@@ -19,6 +19,7 @@ package org.springframework.context.annotation;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.ArrayDeque;
@@ -147,6 +148,11 @@ class ConfigurationClassParser {
 
 	private final SourceClass objectSourceClass = new SourceClass(Object.class);
 
+	private int parallelism = 1;
+
+	@Nullable
+	private ConfigurationRegistrationIndex registrationIndex;
+
 
 	/**
 	 * Create a new {@link ConfigurationClassParser} instance that will be used
@@ -167,7 +173,38 @@ class ConfigurationClassParser {
 	}
 
 
+	/**
+	 * Set the maximum number of classes to read concurrently ahead of parsing.
+	 * <p>The default is 1, reading classes sequentially while parsing. With a
+	 * higher parallelism, the metadata of the configuration candidates, the
+	 * classes they reference and the classes in their component scan packages
+	 * is read concurrently first, so that parsing finds it in the metadata cache.
+	 * Parsing itself remains sequential, in the order of the candidates.
+	 * @since 5.3
+	 * @see ConfigurationClassPreloader
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Set the index of registration code generated at build time. Configuration
+	 * classes with an entry are not parsed: their beans are registered through
+	 * the generated code when the configuration model is read, in parse order.
+	 * @since 5.3
+	 * @see ConfigurationClass#getRegistrationMethod()
+	 */
+	void setRegistrationIndex(@Nullable ConfigurationRegistrationIndex registrationIndex) {
+		this.registrationIndex = registrationIndex;
+	}
+
+
 	public void parse(Set<BeanDefinitionHolder> configCandidates) {
+		if (this.parallelism > 1 && !configCandidates.isEmpty()) {
+			preload(configCandidates);
+		}
+
 		for (BeanDefinitionHolder holder : configCandidates) {
 			BeanDefinition bd = holder.getBeanDefinition();
 			try {
@@ -193,6 +230,30 @@ class ConfigurationClassParser {
 		this.deferredImportSelectorHandler.process();
 	}
 
+	private void preload(Set<BeanDefinitionHolder> configCandidates) {
+		List<AnnotationMetadata> candidates = new ArrayList<>(configCandidates.size());
+		for (BeanDefinitionHolder holder : configCandidates) {
+			BeanDefinition bd = holder.getBeanDefinition();
+			try {
+				if (bd instanceof AnnotatedBeanDefinition) {
+					candidates.add(((AnnotatedBeanDefinition) bd).getMetadata());
+				}
+				else if (bd instanceof AbstractBeanDefinition && ((AbstractBeanDefinition) bd).hasBeanClass()) {
+					candidates.add(AnnotationMetadata.introspect(((AbstractBeanDefinition) bd).getBeanClass()));
+				}
+				else if (bd.getBeanClassName() != null) {
+					candidates.add(this.metadataReaderFactory.getMetadataReader(bd.getBeanClassName())
+							.getAnnotationMetadata());
+				}
+			}
+			catch (IOException ex) {
+				// Reported by the subsequent parsing
+			}
+		}
+		new ConfigurationClassPreloader(this.metadataReaderFactory, this.environment, this.resourceLoader,
+				this.componentScanParser, this.parallelism).preload(candidates);
+	}
+
 	protected final void parse(@Nullable String className, String beanName) throws IOException {
 		Assert.notNull(className, "No bean class name for configuration class bean definition");
 		MetadataReader reader = this.metadataReaderFactory.getMetadataReader(className);
@@ -221,6 +282,15 @@ class ConfigurationClassParser {
 		return this.configurationClasses.keySet();
 	}
 
+	/**
+	 * Return the {@link ConditionEvaluator} used for parsing, e.g. for
+	 * reporting its evaluation statistics.
+	 * @since 5.3
+	 */
+	ConditionEvaluator getConditionEvaluator() {
+		return this.conditionEvaluator;
+	}
+
 
 	protected void processConfigurationClass(ConfigurationClass configClass, Predicate<String> filter) throws IOException {
 		if (this.conditionEvaluator.shouldSkip(configClass.getMetadata(), ConfigurationPhase.PARSE_CONFIGURATION)) {
@@ -244,12 +314,21 @@ class ConfigurationClassParser {
 			}
 		}
 
-		// Recursively process the configuration class and its superclass hierarchy.
-		SourceClass sourceClass = asSourceClass(configClass, filter);
-		do {
-			sourceClass = doProcessConfigurationClass(configClass, sourceClass, filter);
+		Method registrationMethod = (this.registrationIndex != null ? this.registrationIndex.getRegistrationMethod(
+				configClass.getMetadata().getClassName(), this.registry) : null);
+		if (registrationMethod != null) {
+			// Generated code registers all beans of the class, which the generator
+			// only supports without superclasses, imports or member classes.
+			configClass.setRegistrationMethod(registrationMethod);
+		}
+		else {
+			// Recursively process the configuration class and its superclass hierarchy.
+			SourceClass sourceClass = asSourceClass(configClass, filter);
+			do {
+				sourceClass = doProcessConfigurationClass(configClass, sourceClass, filter);
+			}
+			while (sourceClass != null);
 		}
-		while (sourceClass != null);
 
 		this.configurationClasses.put(configClass, configClass);
 	}
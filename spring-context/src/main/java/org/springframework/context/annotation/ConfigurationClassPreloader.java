@@ -0,0 +1,246 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reads the metadata that {@link ConfigurationClassParser} is going to need
+ * for a set of configuration candidates concurrently, ahead of the actual
+ * parsing, so that the parser finds it in the metadata cache.
+ *
+ * <p>Starting from the candidates, the metadata of their member classes,
+ * superclasses and {@link Import @Import}ed classes is read, along with the
+ * class files in the base packages of their {@link ComponentScan @ComponentScan}
+ * declarations; configuration candidates found that way are followed in turn.
+ * Classes declaring {@link Conditional @Conditional} conditions are read but
+ * not followed, since their conditions can only be evaluated during parsing.
+ *
+ * <p>Preloading is best-effort: failures are ignored here and are reported
+ * by the subsequent parsing. Parsing itself, including the evaluation of
+ * conditions and the registration of bean definitions, remains sequential,
+ * so the result is the same as without preloading.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see ConfigurationClassParser#setParallelism
+ */
+final class ConfigurationClassPreloader {
+
+	private static final Log logger = LogFactory.getLog(ConfigurationClassPreloader.class);
+
+
+	private final MetadataReaderFactory metadataReaderFactory;
+
+	private final Environment environment;
+
+	private final ResourceLoader resourceLoader;
+
+	private final ComponentScanAnnotationParser componentScanParser;
+
+	private final int parallelism;
+
+	private final boolean scanningPreloadable;
+
+	private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+	private final Set<String> visited = ConcurrentHashMap.newKeySet();
+
+
+	ConfigurationClassPreloader(MetadataReaderFactory metadataReaderFactory, Environment environment,
+			ResourceLoader resourceLoader, ComponentScanAnnotationParser componentScanParser, int parallelism) {
+
+		this.metadataReaderFactory = metadataReaderFactory;
+		this.environment = environment;
+		this.resourceLoader = resourceLoader;
+		this.componentScanParser = componentScanParser;
+		this.parallelism = parallelism;
+		// Scanned class files are only read from the shared metadata cache of a
+		// DefaultResourceLoader, and not read at all if a components index is used
+		this.scanningPreloadable = (resourceLoader instanceof DefaultResourceLoader &&
+				CandidateComponentsIndexLoader.loadIndex(resourceLoader.getClassLoader()) == null);
+	}
+
+
+	/**
+	 * Preload the metadata for the given configuration candidates.
+	 * @param candidates the metadata of the candidates
+	 */
+	public void preload(Collection<AnnotationMetadata> candidates) {
+		long startTime = System.nanoTime();
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(candidates.size());
+		for (AnnotationMetadata metadata : candidates) {
+			if (this.visited.add(metadata.getClassName())) {
+				tasks.add(task(() -> preloadReferences(metadata)));
+			}
+		}
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			pool.invoke(task(() -> ForkJoinTask.invokeAll(tasks)));
+		}
+		finally {
+			pool.shutdown();
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Preloaded metadata for " + this.visited.size() + " classes and packages in " +
+					(System.nanoTime() - startTime) / 1000000 + " ms");
+		}
+	}
+
+	private void preloadClass(String className, boolean followReferences) {
+		if (!this.visited.add(className)) {
+			return;
+		}
+		try {
+			AnnotationMetadata metadata =
+					this.metadataReaderFactory.getMetadataReader(className).getAnnotationMetadata();
+			if (followReferences || ConfigurationClassUtils.isConfigurationCandidate(metadata)) {
+				preloadReferences(metadata);
+			}
+		}
+		catch (Throwable ex) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Failed to preload metadata of class [" + className + "]: " + ex);
+			}
+		}
+	}
+
+	private void preloadReferences(AnnotationMetadata metadata) {
+		if (metadata.isAnnotated(Conditional.class.getName())) {
+			return;
+		}
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		try {
+			collectReferences(metadata, tasks);
+		}
+		catch (Throwable ex) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Failed to preload classes referenced by [" + metadata.getClassName() + "]: " + ex);
+			}
+		}
+		ForkJoinTask.invokeAll(tasks);
+	}
+
+	private void collectReferences(AnnotationMetadata metadata, List<ForkJoinTask<?>> tasks) {
+		for (String memberClassName : metadata.getMemberClassNames()) {
+			tasks.add(task(() -> preloadClass(memberClassName, false)));
+		}
+		String superClassName = metadata.getSuperClassName();
+		if (superClassName != null && !superClassName.startsWith("java")) {
+			tasks.add(task(() -> preloadClass(superClassName, true)));
+		}
+		metadata.getAnnotations().stream(Import.class).forEach(importAnnotation -> {
+			for (String importedClassName : importAnnotation.getStringArray(MergedAnnotation.VALUE)) {
+				tasks.add(task(() -> preloadClass(importedClassName, false)));
+			}
+		});
+		if (this.scanningPreloadable) {
+			Set<AnnotationAttributes> componentScans = AnnotationConfigUtils.attributesForRepeatable(
+					metadata, ComponentScans.class, ComponentScan.class);
+			for (AnnotationAttributes componentScan : componentScans) {
+				String resourcePattern = componentScan.getString("resourcePattern");
+				Set<String> basePackages = this.componentScanParser.getBasePackages(
+						componentScan, metadata.getClassName());
+				for (String basePackage : basePackages) {
+					String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
+							ClassUtils.convertClassNameToResourcePath(
+									this.environment.resolveRequiredPlaceholders(basePackage)) + '/' + resourcePattern;
+					tasks.add(task(() -> preloadPackage(packageSearchPath)));
+				}
+			}
+		}
+	}
+
+	private void preloadPackage(String packageSearchPath) {
+		if (!this.visited.add(packageSearchPath)) {
+			return;
+		}
+		// Same cache as the one used by the scanners of ComponentScanAnnotationParser
+		MetadataReaderFactory scanMetadataReaderFactory = new CachingMetadataReaderFactory(this.resourceLoader);
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		try {
+			Resource[] resources = ResourcePatternUtils.getResourcePatternResolver(this.resourceLoader)
+					.getResources(packageSearchPath);
+			for (Resource resource : resources) {
+				tasks.add(task(() -> {
+					try {
+						if (resource.isReadable()) {
+							AnnotationMetadata metadata =
+									scanMetadataReaderFactory.getMetadataReader(resource).getAnnotationMetadata();
+							if (ConfigurationClassUtils.isConfigurationCandidate(metadata)) {
+								preloadClass(metadata.getClassName(), false);
+							}
+						}
+					}
+					catch (Throwable ex) {
+						if (logger.isTraceEnabled()) {
+							logger.trace("Failed to preload metadata of " + resource + ": " + ex);
+						}
+					}
+				}));
+			}
+		}
+		catch (Throwable ex) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Failed to preload package [" + packageSearchPath + "]: " + ex);
+			}
+		}
+		ForkJoinTask.invokeAll(tasks);
+	}
+
+	/**
+	 * Adapt the given action to a task that runs with the context class loader
+	 * of the thread that created this preloader.
+	 */
+	private ForkJoinTask<?> task(Runnable action) {
+		return ForkJoinTask.adapt(() -> {
+			Thread currentThread = Thread.currentThread();
+			ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+			currentThread.setContextClassLoader(this.contextClassLoader);
+			try {
+				action.run();
+			}
+			finally {
+				currentThread.setContextClassLoader(originalClassLoader);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Index of the functional registration code generated at build time for
+ * {@link Configuration @Configuration} classes, as recorded in
+ * {@value #INDEX_LOCATION} files by the {@code ConfigurationRegistrationGenerator}
+ * processor of {@code spring-context-indexer}.
+ *
+ * <p>Used by {@link ConfigurationClassParser} to register the beans of an
+ * indexed configuration class through its generated code rather than by
+ * parsing and enhancing the class. This applies to every configuration class
+ * that the parser reaches, whether registered directly, imported or detected
+ * through component scanning, and the generated code is applied in parse order
+ * so that bean definition overriding follows the regular rules. Configuration
+ * classes without an entry, including those the generator could not handle,
+ * are processed as usual.
+ *
+ * <p>The index can be ignored by setting the {@value #IGNORE_GENERATED} system
+ * property or Spring property to {@code true}.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see ConfigurationBeanRegistrar
+ */
+final class ConfigurationRegistrationIndex {
+
+	/**
+	 * The location to look for configuration registration index files.
+	 * Can be present in multiple JAR files.
+	 */
+	static final String INDEX_LOCATION = "META-INF/spring.configurations";
+
+	/**
+	 * System property that instructs Spring to ignore generated registration
+	 * code and to process all configuration classes at runtime.
+	 */
+	static final String IGNORE_GENERATED = "spring.configurations.ignore";
+
+	private static final String REGISTER_METHOD_NAME = "registerBeanDefinitions";
+
+	private static final boolean shouldIgnoreGenerated = SpringProperties.getFlag(IGNORE_GENERATED);
+
+	private static final ConfigurationRegistrationIndex NONE =
+			new ConfigurationRegistrationIndex(null, Collections.emptyMap());
+
+	private static final Map<ClassLoader, ConfigurationRegistrationIndex> cache =
+			new ConcurrentReferenceHashMap<>();
+
+	private static final Log logger = LogFactory.getLog(ConfigurationRegistrationIndex.class);
+
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+	private final Map<String, String> registrations;
+
+
+	ConfigurationRegistrationIndex(@Nullable ClassLoader classLoader, Map<String, String> registrations) {
+		this.classLoader = classLoader;
+		this.registrations = registrations;
+	}
+
+
+	/**
+	 * Return the generated registration method for the given configuration
+	 * class, if any.
+	 * <p>The returned method is static and takes the {@link BeanDefinitionRegistry}
+	 * and the bean name of the configuration class as arguments.
+	 * @param className the name of the configuration class
+	 * @param registry the registry that bean definitions are going to be registered with
+	 * @return the registration method, or {@code null} if the configuration
+	 * class needs to be processed at runtime
+	 */
+	@Nullable
+	Method getRegistrationMethod(String className, BeanDefinitionRegistry registry) {
+		if (this.registrations.isEmpty() || !isSupportedRegistry(registry)) {
+			return null;
+		}
+		String registrationClassName = this.registrations.get(className);
+		if (registrationClassName == null) {
+			return null;
+		}
+		try {
+			Class<?> registrationClass = ClassUtils.forName(registrationClassName, this.classLoader);
+			return registrationClass.getMethod(REGISTER_METHOD_NAME, BeanDefinitionRegistry.class, String.class);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not load generated registration for configuration class [" + className +
+						"] - processing it at runtime: " + ex);
+			}
+			return null;
+		}
+	}
+
+	private static boolean isSupportedRegistry(BeanDefinitionRegistry registry) {
+		return (registry instanceof DefaultListableBeanFactory || registry instanceof GenericApplicationContext);
+	}
+
+
+	/**
+	 * Return the index for the given class loader, loading it if necessary.
+	 * @param classLoader the class loader to load index files and generated
+	 * classes with
+	 * @return the index, possibly empty
+	 */
+	static ConfigurationRegistrationIndex forClassLoader(@Nullable ClassLoader classLoader) {
+		if (shouldIgnoreGenerated) {
+			return NONE;
+		}
+		ClassLoader classLoaderToUse = (classLoader != null ? classLoader :
+				ConfigurationRegistrationIndex.class.getClassLoader());
+		if (classLoaderToUse == null) {
+			return NONE;
+		}
+		return cache.computeIfAbsent(classLoaderToUse, ConfigurationRegistrationIndex::load);
+	}
+
+	private static ConfigurationRegistrationIndex load(ClassLoader classLoader) {
+		try {
+			Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return NONE;
+			}
+			Map<String, String> registrations = new HashMap<>();
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				Properties properties = new Properties();
+				try (InputStream inputStream = url.openStream()) {
+					properties.load(inputStream);
+				}
+				properties.forEach((key, value) -> registrations.put((String) key, (String) value));
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + registrations.size() + " generated configuration registrations");
+			}
+			return new ConfigurationRegistrationIndex(classLoader, registrations);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load configuration registration index from location [" +
+					INDEX_LOCATION + "]", ex);
+		}
+	}
+
+}
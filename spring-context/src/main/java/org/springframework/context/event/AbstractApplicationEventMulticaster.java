@@ -18,11 +18,13 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.beans.factory.BeanClassLoaderAware;
@@ -49,6 +51,11 @@ import org.springframework.util.ObjectUtils;
  * ApplicationListener objects can be overridden through the "collectionClass"
  * bean property.
  *
+ * <p>Registered listeners are kept in immutable snapshots that get replaced
+ * on registration changes, so that listener retrieval does not lock. The
+ * sorted listeners for each event type and source type are cached; a
+ * registration change only evicts the cache entries it may affect.
+ *
  * <p>Implementing ApplicationEventMulticaster's actual {@link #multicastEvent} method
  * is left to subclasses. {@link SimpleApplicationEventMulticaster} simply multicasts
  * all events to all registered listeners, invoking them in the calling thread.
@@ -102,50 +109,98 @@ public abstract class AbstractApplicationEventMulticaster
 	@Override
 	public void addApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.defaultRetriever) {
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
 			// Explicitly remove target for a proxy, if registered already,
 			// in order to avoid double invocations of the same listener.
 			Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
 			if (singletonTarget instanceof ApplicationListener) {
-				this.defaultRetriever.applicationListeners.remove(singletonTarget);
+				listeners.remove(singletonTarget);
 			}
-			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			listeners.add(listener);
+			this.defaultRetriever.applicationListeners = Collections.unmodifiableSet(listeners);
+			evictRetrievers((cacheKey, retriever) -> retriever.contains(singletonTarget) ||
+					supportsEvent(listener, cacheKey.eventType, cacheKey.sourceType));
 		}
 	}
 
 	@Override
 	public void addApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.defaultRetriever) {
-			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			Set<String> listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
+			listenerBeans.add(listenerBeanName);
+			this.defaultRetriever.applicationListenerBeans = Collections.unmodifiableSet(listenerBeans);
+			evictRetrievers((cacheKey, retriever) -> isAffectedBy(listenerBeanName, cacheKey, retriever));
 		}
 	}
 
 	@Override
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.defaultRetriever) {
-			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
+			listeners.remove(listener);
+			this.defaultRetriever.applicationListeners = Collections.unmodifiableSet(listeners);
+			evictRetrievers((cacheKey, retriever) -> retriever.contains(listener));
 		}
 	}
 
 	@Override
 	public void removeApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.defaultRetriever) {
-			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			Set<String> listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
+			listenerBeans.remove(listenerBeanName);
+			this.defaultRetriever.applicationListenerBeans = Collections.unmodifiableSet(listenerBeans);
+			evictRetrievers((cacheKey, retriever) -> isAffectedBy(listenerBeanName, cacheKey, retriever));
 		}
 	}
 
 	@Override
 	public void removeAllListeners() {
 		synchronized (this.defaultRetriever) {
-			this.defaultRetriever.applicationListeners.clear();
-			this.defaultRetriever.applicationListenerBeans.clear();
+			this.defaultRetriever.applicationListeners = Collections.emptySet();
+			this.defaultRetriever.applicationListenerBeans = Collections.emptySet();
 			this.retrieverCache.clear();
 		}
 	}
 
+	/**
+	 * Evict the cached retrievers affected by a registration change, along with
+	 * the ones that are not fully populated yet (and therefore might have been
+	 * populated from the registrations before the change).
+	 * <p>To be called after the change has been applied to the default retriever.
+	 * @param affected whether the change affects the given cached retriever
+	 */
+	private void evictRetrievers(BiPredicate<ListenerCacheKey, CachedListenerRetriever> affected) {
+		if (this.retrieverCache.isEmpty()) {
+			return;
+		}
+		this.retrieverCache.entrySet().removeIf(entry ->
+				!entry.getValue().isPopulated() || affected.test(entry.getKey(), entry.getValue()));
+	}
+
+	/**
+	 * Determine whether registering or removing the given listener bean may
+	 * change the listeners for the given cache key: either as a listener for
+	 * the event type itself, or through its singleton instance that may have
+	 * been registered programmatically as well.
+	 */
+	private boolean isAffectedBy(String listenerBeanName, ListenerCacheKey cacheKey, CachedListenerRetriever retriever) {
+		if (this.beanFactory == null) {
+			return true;
+		}
+		try {
+			if (supportsEvent(this.beanFactory, listenerBeanName, cacheKey.eventType)) {
+				return true;
+			}
+			Object singleton = this.beanFactory.getSingleton(listenerBeanName);
+			return (singleton instanceof ApplicationListener && (retriever.contains(singleton) ||
+					supportsEvent((ApplicationListener<?>) singleton, cacheKey.eventType, cacheKey.sourceType)));
+		}
+		catch (RuntimeException ex) {
+			// Listener bean type not determinable - evict to be on the safe side
+			return true;
+		}
+	}
+
 
 	/**
 	 * Return a Collection containing all ApplicationListeners.
@@ -153,9 +208,7 @@ public abstract class AbstractApplicationEventMulticaster
 	 * @see org.springframework.context.ApplicationListener
 	 */
 	protected Collection<ApplicationListener<?>> getApplicationListeners() {
-		synchronized (this.defaultRetriever) {
-			return this.defaultRetriever.getApplicationListeners();
-		}
+		return this.defaultRetriever.getApplicationListeners();
 	}
 
 	/**
@@ -164,7 +217,8 @@ public abstract class AbstractApplicationEventMulticaster
 	 * @param event the event to be propagated. Allows for excluding
 	 * non-matching listeners early, based on cached matching information.
 	 * @param eventType the event type
-	 * @return a Collection of ApplicationListeners
+	 * @return a Collection of ApplicationListeners (not to be modified,
+	 * since it may be shared between invocations for the same event type)
 	 * @see org.springframework.context.ApplicationListener
 	 */
 	protected Collection<ApplicationListener<?>> getApplicationListeners(
@@ -218,12 +272,8 @@ public abstract class AbstractApplicationEventMulticaster
 		Set<ApplicationListener<?>> filteredListeners = (retriever != null ? new LinkedHashSet<>() : null);
 		Set<String> filteredListenerBeans = (retriever != null ? new LinkedHashSet<>() : null);
 
-		Set<ApplicationListener<?>> listeners;
-		Set<String> listenerBeans;
-		synchronized (this.defaultRetriever) {
-			listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
-			listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
-		}
+		Set<ApplicationListener<?>> listeners = this.defaultRetriever.applicationListeners;
+		Set<String> listenerBeans = this.defaultRetriever.applicationListenerBeans;
 
 		// Add programmatically registered listeners, including ones coming
 		// from ApplicationListenerDetector (singleton beans and inner beans).
@@ -278,12 +328,10 @@ public abstract class AbstractApplicationEventMulticaster
 		AnnotationAwareOrderComparator.sort(allListeners);
 		if (retriever != null) {
 			if (filteredListenerBeans.isEmpty()) {
-				retriever.applicationListeners = new LinkedHashSet<>(allListeners);
-				retriever.applicationListenerBeans = filteredListenerBeans;
+				retriever.populate(new LinkedHashSet<>(allListeners), filteredListenerBeans);
 			}
 			else {
-				retriever.applicationListeners = filteredListeners;
-				retriever.applicationListenerBeans = filteredListenerBeans;
+				retriever.populate(filteredListeners, filteredListenerBeans);
 			}
 		}
 		return allListeners;
@@ -422,42 +470,63 @@ public abstract class AbstractApplicationEventMulticaster
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
 	 * <p>An instance of this helper gets cached per event type and source type.
+	 * Unless non-singleton listener beans are involved, it holds the sorted
+	 * listeners as a precomputed unmodifiable list to be returned as-is.
 	 */
 	private class CachedListenerRetriever {
 
 		@Nullable
-		public volatile Set<ApplicationListener<?>> applicationListeners;
+		private volatile Set<ApplicationListener<?>> applicationListeners;
 
 		@Nullable
-		public volatile Set<String> applicationListenerBeans;
+		private volatile Set<String> applicationListenerBeans;
 
 		@Nullable
-		public Collection<ApplicationListener<?>> getApplicationListeners() {
+		private volatile List<ApplicationListener<?>> sortedListeners;
+
+		public void populate(Set<ApplicationListener<?>> applicationListeners, Set<String> applicationListenerBeans) {
+			if (applicationListenerBeans.isEmpty()) {
+				this.sortedListeners = Collections.unmodifiableList(new ArrayList<>(applicationListeners));
+			}
+			this.applicationListeners = applicationListeners;
+			this.applicationListenerBeans = applicationListenerBeans;
+		}
+
+		public boolean isPopulated() {
+			return (this.applicationListenerBeans != null);
+		}
+
+		public boolean contains(@Nullable Object listener) {
 			Set<ApplicationListener<?>> applicationListeners = this.applicationListeners;
+			return (listener != null && applicationListeners != null && applicationListeners.contains(listener));
+		}
+
+		@Nullable
+		public Collection<ApplicationListener<?>> getApplicationListeners() {
 			Set<String> applicationListenerBeans = this.applicationListenerBeans;
+			Set<ApplicationListener<?>> applicationListeners = this.applicationListeners;
 			if (applicationListeners == null || applicationListenerBeans == null) {
 				// Not fully populated yet
 				return null;
 			}
+			if (applicationListenerBeans.isEmpty()) {
+				return this.sortedListeners;
+			}
 
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
 					applicationListeners.size() + applicationListenerBeans.size());
 			allListeners.addAll(applicationListeners);
-			if (!applicationListenerBeans.isEmpty()) {
-				BeanFactory beanFactory = getBeanFactory();
-				for (String listenerBeanName : applicationListenerBeans) {
-					try {
-						allListeners.add(beanFactory.getBean(listenerBeanName, ApplicationListener.class));
-					}
-					catch (NoSuchBeanDefinitionException ex) {
-						// Singleton listener instance (without backing bean definition) disappeared -
-						// probably in the middle of the destruction phase
-					}
+			BeanFactory beanFactory = getBeanFactory();
+			for (String listenerBeanName : applicationListenerBeans) {
+				try {
+					allListeners.add(beanFactory.getBean(listenerBeanName, ApplicationListener.class));
+				}
+				catch (NoSuchBeanDefinitionException ex) {
+					// Singleton listener instance (without backing bean definition) disappeared -
+					// probably in the middle of the destruction phase
 				}
 			}
-			if (!applicationListenerBeans.isEmpty()) {
-				AnnotationAwareOrderComparator.sort(allListeners);
-			}
+			AnnotationAwareOrderComparator.sort(allListeners);
 			return allListeners;
 		}
 	}
@@ -465,20 +534,24 @@ public abstract class AbstractApplicationEventMulticaster
 
 	/**
 	 * Helper class that encapsulates a general set of target listeners.
+	 * <p>Holds immutable snapshots of the registered listeners, to be replaced
+	 * (under the lock of this retriever) on every registration change.
 	 */
 	private class DefaultListenerRetriever {
 
-		public final Set<ApplicationListener<?>> applicationListeners = new LinkedHashSet<>();
+		public volatile Set<ApplicationListener<?>> applicationListeners = Collections.emptySet();
 
-		public final Set<String> applicationListenerBeans = new LinkedHashSet<>();
+		public volatile Set<String> applicationListenerBeans = Collections.emptySet();
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			Set<ApplicationListener<?>> applicationListeners = this.applicationListeners;
+			Set<String> applicationListenerBeans = this.applicationListenerBeans;
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
-					this.applicationListeners.size() + this.applicationListenerBeans.size());
-			allListeners.addAll(this.applicationListeners);
-			if (!this.applicationListenerBeans.isEmpty()) {
+					applicationListeners.size() + applicationListenerBeans.size());
+			allListeners.addAll(applicationListeners);
+			if (!applicationListenerBeans.isEmpty()) {
 				BeanFactory beanFactory = getBeanFactory();
-				for (String listenerBeanName : this.applicationListenerBeans) {
+				for (String listenerBeanName : applicationListenerBeans) {
 					try {
 						ApplicationListener<?> listener =
 								beanFactory.getBean(listenerBeanName, ApplicationListener.class);
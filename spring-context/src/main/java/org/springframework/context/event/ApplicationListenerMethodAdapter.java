@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 
 import org.apache.commons.logging.Log;
@@ -45,6 +46,7 @@ import org.springframework.core.annotation.Order;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
@@ -60,6 +62,9 @@ import org.springframework.util.concurrent.ListenableFuture;
  * to define any arbitrary event type. If a condition is defined, it is
  * evaluated prior to invoking the underlying method.
  *
+ * <p>The answers to {@link #supportsEventType} and the declared event type
+ * matching an event are cached per event type.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -88,6 +93,11 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final int order;
 
+	private final Map<ResolvableType, Boolean> supportedEventTypeCache = new ConcurrentReferenceHashMap<>(8);
+
+	/** Declared event type per event class (or per payload type), with NONE for no match. */
+	private final Map<Object, ResolvableType> declaredEventTypeCache = new ConcurrentReferenceHashMap<>(8);
+
 	@Nullable
 	private ApplicationContext applicationContext;
 
@@ -155,6 +165,15 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	@Override
 	public boolean supportsEventType(ResolvableType eventType) {
+		Boolean supported = this.supportedEventTypeCache.get(eventType);
+		if (supported == null) {
+			supported = determineSupportedEventType(eventType);
+			this.supportedEventTypeCache.put(eventType, supported);
+		}
+		return supported;
+	}
+
+	private boolean determineSupportedEventType(ResolvableType eventType) {
 		for (ResolvableType declaredEventType : this.declaredEventTypes) {
 			if (declaredEventType.isAssignableFrom(eventType)) {
 				return true;
@@ -393,6 +412,28 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	@Nullable
 	private ResolvableType getResolvableType(ApplicationEvent event) {
+		Object cacheKey = null;
+		if (!(event instanceof PayloadApplicationEvent)) {
+			cacheKey = event.getClass();
+		}
+		else if (event.getClass() == PayloadApplicationEvent.class) {
+			// The payload type is the only variable part for a plain PayloadApplicationEvent
+			ResolvableType eventType = ((PayloadApplicationEvent<?>) event).getResolvableType();
+			cacheKey = (eventType != null ? eventType.as(PayloadApplicationEvent.class).getGeneric() : null);
+		}
+		if (cacheKey == null) {
+			return resolveDeclaredEventType(event);
+		}
+		ResolvableType declaredEventType = this.declaredEventTypeCache.get(cacheKey);
+		if (declaredEventType == null) {
+			declaredEventType = resolveDeclaredEventType(event);
+			this.declaredEventTypeCache.put(cacheKey, declaredEventType != null ? declaredEventType : ResolvableType.NONE);
+		}
+		return (declaredEventType != ResolvableType.NONE ? declaredEventType : null);
+	}
+
+	@Nullable
+	private ResolvableType resolveDeclaredEventType(ApplicationEvent event) {
 		ResolvableType payloadType = null;
 		if (event instanceof PayloadApplicationEvent) {
 			PayloadApplicationEvent<?> payloadEvent = (PayloadApplicationEvent<?>) event;
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Extended variant of the standard {@link ApplicationListener} interface,
+ * able to process several events of its declared event type at once.
+ *
+ * <p>A {@link QueueingApplicationEventMulticaster} with a
+ * {@linkplain QueueingApplicationEventMulticaster#setMaxBatchSize maximum batch size}
+ * greater than 1 hands over the events queued for such a listener in batches.
+ * Other multicasters deliver each event individually, as a batch of one.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @param <E> the specific {@code ApplicationEvent} subclass to listen to
+ * @see QueueingApplicationEventMulticaster
+ */
+@FunctionalInterface
+public interface BatchApplicationListener<E extends ApplicationEvent> extends ApplicationListener<E> {
+
+	/**
+	 * Handle a batch of application events, in the order of their publication.
+	 * @param events the events to respond to (never empty)
+	 */
+	void onApplicationEvents(List<E> events);
+
+	/**
+	 * Handle a single application event as a batch of one.
+	 */
+	@Override
+	default void onApplicationEvent(E event) {
+		onApplicationEvents(Collections.singletonList(event));
+	}
+
+}
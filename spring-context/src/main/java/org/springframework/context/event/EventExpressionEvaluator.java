@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.context.event;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -27,12 +29,24 @@ import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * Utility class for handling SpEL expression parsing for application events.
  * <p>Meant to be used as a reusable, thread-safe component.
  *
+ * <p>An evaluation context is created for every event, since it holds the
+ * event and the method arguments and may be modified by the expression.
+ * The reflective property accessor and method resolver, along with their
+ * member caches, are shared across these contexts, as are the bean resolvers.
+ * Conditions are compiled only if enabled through the
+ * {@code spring.expression.compiler.mode} property.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see CachedExpressionEvaluator
@@ -41,6 +55,14 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 
 	private final Map<ExpressionKey, Expression> conditionCache = new ConcurrentHashMap<>(64);
 
+	private final List<PropertyAccessor> propertyAccessors =
+			Collections.singletonList(new ReflectivePropertyAccessor());
+
+	private final List<MethodResolver> methodResolvers =
+			Collections.singletonList(new ReflectiveMethodResolver());
+
+	private final Map<BeanFactory, BeanFactoryResolver> beanResolverCache = new ConcurrentReferenceHashMap<>(4);
+
 
 	/**
 	 * Determine if the condition defined by the specified expression evaluates
@@ -52,8 +74,11 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 		EventExpressionRootObject root = new EventExpressionRootObject(event, args);
 		MethodBasedEvaluationContext evaluationContext = new MethodBasedEvaluationContext(
 				root, targetMethod, args, getParameterNameDiscoverer());
+		evaluationContext.setPropertyAccessors(this.propertyAccessors);
+		evaluationContext.setMethodResolvers(this.methodResolvers);
 		if (beanFactory != null) {
-			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
+			evaluationContext.setBeanResolver(
+					this.beanResolverCache.computeIfAbsent(beanFactory, BeanFactoryResolver::new));
 		}
 
 		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
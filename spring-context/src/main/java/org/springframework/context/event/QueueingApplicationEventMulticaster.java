@@ -0,0 +1,528 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * {@link SimpleApplicationEventMulticaster} variant that hands events over
+ * to the listeners through a bounded queue per listener.
+ *
+ * <p>Each listener gets drained by at most one task on the
+ * {@linkplain #setTaskExecutor task executor} at a time, so that a listener
+ * receives its events in the order of their publication, and the number of
+ * executor submissions is bounded by the number of listeners rather than the
+ * number of events. When the queue of a listener is full, the configured
+ * {@link OverflowPolicy} applies. Without a task executor, all listeners are
+ * invoked in the calling thread, as with a {@code SimpleApplicationEventMulticaster}.
+ *
+ * <p>With a {@linkplain #setMaxBatchSize maximum batch size} greater than 1,
+ * a {@link BatchApplicationListener} receives all events queued for it at the
+ * time of draining (up to the maximum batch size) in a single invocation.
+ *
+ * <p>Queue depth, throughput and latency (from publication to the completion
+ * of the listener invocation) are tracked per listener and exposed through
+ * {@link #getListenerStatistics()}.
+ *
+ * <p>Note that queued events are processed asynchronously: they do not
+ * participate in the publisher's thread context (class loader, transaction
+ * association), and events still queued when the application context shuts
+ * down may get processed after the context has been closed.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see #setTaskExecutor
+ * @see #setQueueCapacity
+ * @see #setOverflowPolicy
+ * @see BatchApplicationListener
+ */
+public class QueueingApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+
+	private static final Log logger = LogFactory.getLog(QueueingApplicationEventMulticaster.class);
+
+
+	private int queueCapacity = 1024;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	private int maxBatchSize = 1;
+
+	private final Map<ApplicationListener<?>, ListenerQueue> listenerQueues = new ConcurrentHashMap<>(16);
+
+	/** Listeners registered as instances, retaining their queues until removed. */
+	private final Set<ApplicationListener<?>> listenerInstances = ConcurrentHashMap.newKeySet();
+
+	/** Names of registered singleton listener beans that have not been instantiated yet. */
+	private final Set<String> pendingListenerBeanNames = ConcurrentHashMap.newKeySet();
+
+	/** Instances of registered singleton listener beans, retaining their queues until removed. */
+	private final Map<String, Object> listenerBeans = new ConcurrentHashMap<>(16);
+
+	private final Set<Object> listenerBeanInstances = ConcurrentHashMap.newKeySet();
+
+	@Nullable
+	private ConfigurableBeanFactory beanFactory;
+
+
+	/**
+	 * Create a new QueueingApplicationEventMulticaster.
+	 */
+	public QueueingApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new QueueingApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public QueueingApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+
+	/**
+	 * Set the maximum number of events to queue per listener.
+	 * <p>Default is 1024. Applies to the queues of listeners receiving their
+	 * first event after this call.
+	 * @see #setOverflowPolicy
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the policy to apply when an event is published while the queue of
+	 * a listener is full.
+	 * <p>Default is {@link OverflowPolicy#BLOCK}.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Set the maximum number of queued events to hand over to a
+	 * {@link BatchApplicationListener} in a single invocation.
+	 * <p>Default is 1, invoking every listener for each event individually.
+	 * Batches are formed from the events that are queued at the time of
+	 * draining; there is no waiting for a batch to fill up.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Return the statistics for each registered listener that has received
+	 * events through a queue so far.
+	 * <p>The returned statistics are live views, reflecting further activity.
+	 * The statistics of a listener are discarded once it gets removed.
+	 */
+	public Map<ApplicationListener<?>, ListenerStatistics> getListenerStatistics() {
+		Map<ApplicationListener<?>, ListenerStatistics> statistics = new LinkedHashMap<>();
+		this.listenerQueues.forEach((listener, queue) -> statistics.put(listener, queue));
+		return Collections.unmodifiableMap(statistics);
+	}
+
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		super.setBeanFactory(beanFactory);
+		this.beanFactory = (ConfigurableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public void addApplicationListener(ApplicationListener<?> listener) {
+		super.addApplicationListener(listener);
+		this.listenerInstances.add(listener);
+	}
+
+	@Override
+	public void addApplicationListenerBean(String listenerBeanName) {
+		super.addApplicationListenerBean(listenerBeanName);
+		// Non-singleton listener beans get a new instance for every event: no need to track them
+		if (this.beanFactory == null || !this.beanFactory.containsBean(listenerBeanName) ||
+				this.beanFactory.isSingleton(listenerBeanName)) {
+			this.pendingListenerBeanNames.add(listenerBeanName);
+		}
+	}
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		this.listenerInstances.remove(listener);
+		this.listenerQueues.remove(listener);
+	}
+
+	@Override
+	public void removeApplicationListenerBean(String listenerBeanName) {
+		super.removeApplicationListenerBean(listenerBeanName);
+		this.pendingListenerBeanNames.remove(listenerBeanName);
+		Object listener = this.listenerBeans.remove(listenerBeanName);
+		if (listener != null && !this.listenerBeans.containsValue(listener)) {
+			this.listenerBeanInstances.remove(listener);
+			if (!this.listenerInstances.contains(listener)) {
+				this.listenerQueues.remove(listener);
+			}
+		}
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		this.listenerInstances.clear();
+		this.pendingListenerBeanNames.clear();
+		this.listenerBeans.clear();
+		this.listenerBeanInstances.clear();
+		this.listenerQueues.clear();
+	}
+
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+		Executor executor = getTaskExecutor();
+		if (executor == null) {
+			super.multicastEvent(event, eventType);
+			return;
+		}
+		ResolvableType type = (eventType != null ? eventType : ResolvableType.forInstance(event));
+		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+			ListenerQueue queue = this.listenerQueues.get(listener);
+			if (queue == null) {
+				if (isRegisteredInstance(listener)) {
+					queue = this.listenerQueues.computeIfAbsent(
+							listener, key -> new ListenerQueue(this.queueCapacity));
+				}
+				else {
+					// Non-singleton listener bean: a new instance for every event,
+					// not to be retained beyond the processing of this event
+					queue = new ListenerQueue(this.queueCapacity);
+				}
+			}
+			queue.enqueue(listener, event, executor);
+		}
+	}
+
+	/**
+	 * Determine whether the given listener is registered as an instance or
+	 * as a singleton bean, as opposed to a new instance of a non-singleton bean.
+	 */
+	private boolean isRegisteredInstance(ApplicationListener<?> listener) {
+		if (this.listenerInstances.contains(listener) || this.listenerBeanInstances.contains(listener)) {
+			return true;
+		}
+		if (this.beanFactory != null && !this.pendingListenerBeanNames.isEmpty()) {
+			// Only singleton beans that were not instantiated on earlier calls need a lookup
+			for (String listenerBeanName : this.pendingListenerBeanNames) {
+				Object singleton = this.beanFactory.getSingleton(listenerBeanName);
+				if (singleton != null) {
+					this.listenerBeans.put(listenerBeanName, singleton);
+					this.listenerBeanInstances.add(singleton);
+					this.pendingListenerBeanNames.remove(listenerBeanName);
+				}
+			}
+			return this.listenerBeanInstances.contains(listener);
+		}
+		return false;
+	}
+
+	/**
+	 * Invoke the given batch listener with the given events.
+	 * @param listener the BatchApplicationListener to invoke
+	 * @param events the current events to propagate
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected void invokeListener(BatchApplicationListener<?> listener, List<ApplicationEvent> events) {
+		ErrorHandler errorHandler = getErrorHandler();
+		if (errorHandler != null) {
+			try {
+				((BatchApplicationListener) listener).onApplicationEvents(events);
+			}
+			catch (Throwable err) {
+				errorHandler.handleError(err);
+			}
+		}
+		else {
+			((BatchApplicationListener) listener).onApplicationEvents(events);
+		}
+	}
+
+
+	/**
+	 * Policy to apply when an event is published while the queue of a
+	 * listener is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publishing thread until the listener's queue has space.
+		 * <p>If the publishing thread gets interrupted while waiting, the
+		 * event is dropped for that listener and the interrupt flag is restored.
+		 * If the event is published by the listener itself while draining its
+		 * queue, the listener is invoked in the publishing thread instead, since
+		 * no other thread could make space in its queue.
+		 */
+		BLOCK,
+
+		/**
+		 * Drop the event for that listener, counting it in the
+		 * {@linkplain ListenerStatistics#getDroppedCount() dropped events}.
+		 */
+		DROP,
+
+		/**
+		 * Invoke the listener in the publishing thread, bypassing its queue
+		 * (and therefore the ordering with the events still queued).
+		 */
+		CALLER_RUNS
+	}
+
+
+	/**
+	 * Statistics for the queue of a specific listener.
+	 */
+	public interface ListenerStatistics {
+
+		/**
+		 * Return the number of events currently waiting in the queue.
+		 */
+		int getQueueDepth();
+
+		/**
+		 * Return the number of events that the listener has processed so far,
+		 * including events that led to an exception.
+		 */
+		long getProcessedCount();
+
+		/**
+		 * Return the number of events dropped because the queue was full.
+		 * @see OverflowPolicy#DROP
+		 */
+		long getDroppedCount();
+
+		/**
+		 * Return the average time from the publication of an event to the
+		 * completion of the listener invocation, in nanoseconds.
+		 */
+		long getAverageLatency();
+
+		/**
+		 * Return the maximum time from the publication of an event to the
+		 * completion of the listener invocation, in nanoseconds.
+		 */
+		long getMaxLatency();
+	}
+
+
+	/**
+	 * An event along with the time of its publication.
+	 */
+	private static final class QueuedEvent {
+
+		final ApplicationEvent event;
+
+		final long publishTime;
+
+		QueuedEvent(ApplicationEvent event, long publishTime) {
+			this.event = event;
+			this.publishTime = publishTime;
+		}
+	}
+
+
+	/**
+	 * The queue of a specific listener, along with its drain state and statistics.
+	 */
+	private class ListenerQueue implements ListenerStatistics {
+
+		private final BlockingQueue<QueuedEvent> queue;
+
+		private final AtomicBoolean draining = new AtomicBoolean();
+
+		@Nullable
+		private volatile Thread drainThread;
+
+		private final LongAdder processedCount = new LongAdder();
+
+		private final LongAdder droppedCount = new LongAdder();
+
+		private final LongAdder totalLatency = new LongAdder();
+
+		private final AtomicLong maxLatency = new AtomicLong();
+
+		ListenerQueue(int capacity) {
+			this.queue = new ArrayBlockingQueue<>(capacity);
+		}
+
+		void enqueue(ApplicationListener<?> listener, ApplicationEvent event, Executor executor) {
+			QueuedEvent queuedEvent = new QueuedEvent(event, System.nanoTime());
+			if (!this.queue.offer(queuedEvent)) {
+				switch (overflowPolicy) {
+					case BLOCK:
+						if (Thread.currentThread() == this.drainThread) {
+							// Published by the listener itself: waiting would never end
+							process(listener, Collections.singletonList(queuedEvent));
+							return;
+						}
+						// Make sure that the queue is being drained while we are waiting
+						scheduleDrain(listener, executor);
+						try {
+							while (!this.queue.offer(queuedEvent, 100, TimeUnit.MILLISECONDS)) {
+								scheduleDrain(listener, executor);
+							}
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							drop(listener, event);
+							return;
+						}
+						break;
+					case DROP:
+						drop(listener, event);
+						return;
+					case CALLER_RUNS:
+						process(listener, Collections.singletonList(queuedEvent));
+						return;
+				}
+			}
+			scheduleDrain(listener, executor);
+		}
+
+		private void drop(ApplicationListener<?> listener, ApplicationEvent event) {
+			this.droppedCount.increment();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Dropped " + event + " for listener " + listener + " because its queue is full");
+			}
+		}
+
+		private void scheduleDrain(ApplicationListener<?> listener, Executor executor) {
+			if (this.draining.compareAndSet(false, true)) {
+				try {
+					executor.execute(() -> drain(listener, executor));
+				}
+				catch (RuntimeException ex) {
+					this.draining.set(false);
+					throw ex;
+				}
+			}
+		}
+
+		private void drain(ApplicationListener<?> listener, Executor executor) {
+			int batchSize = (listener instanceof BatchApplicationListener ? maxBatchSize : 1);
+			List<QueuedEvent> batch = new ArrayList<>(batchSize);
+			this.drainThread = Thread.currentThread();
+			try {
+				while (this.queue.drainTo(batch, batchSize) > 0) {
+					process(listener, batch);
+					batch.clear();
+				}
+			}
+			finally {
+				this.drainThread = null;
+				this.draining.set(false);
+				// Events may have been queued after the last drainTo call but
+				// before the reset of the draining flag
+				if (!this.queue.isEmpty()) {
+					scheduleDrain(listener, executor);
+				}
+			}
+		}
+
+		private void process(ApplicationListener<?> listener, List<QueuedEvent> batch) {
+			try {
+				if (listener instanceof BatchApplicationListener && batch.size() > 1) {
+					List<ApplicationEvent> events = new ArrayList<>(batch.size());
+					for (QueuedEvent queuedEvent : batch) {
+						events.add(queuedEvent.event);
+					}
+					invokeListener((BatchApplicationListener<?>) listener, events);
+				}
+				else {
+					for (QueuedEvent queuedEvent : batch) {
+						invokeListener(listener, queuedEvent.event);
+					}
+				}
+			}
+			finally {
+				long now = System.nanoTime();
+				for (QueuedEvent queuedEvent : batch) {
+					long latency = now - queuedEvent.publishTime;
+					this.totalLatency.add(latency);
+					this.maxLatency.accumulateAndGet(latency, Math::max);
+				}
+				this.processedCount.add(batch.size());
+			}
+		}
+
+		@Override
+		public int getQueueDepth() {
+			return this.queue.size();
+		}
+
+		@Override
+		public long getProcessedCount() {
+			return this.processedCount.sum();
+		}
+
+		@Override
+		public long getDroppedCount() {
+			return this.droppedCount.sum();
+		}
+
+		@Override
+		public long getAverageLatency() {
+			long processedCount = getProcessedCount();
+			return (processedCount > 0 ? this.totalLatency.sum() / processedCount : 0);
+		}
+
+		@Override
+		public long getMaxLatency() {
+			return this.maxLatency.get();
+		}
+
+		@Override
+		public String toString() {
+			return "queueDepth=" + getQueueDepth() + ", processed=" + getProcessedCount() +
+					", dropped=" + getDroppedCount() + ", averageLatency=" + getAverageLatency() +
+					"ns, maxLatency=" + getMaxLatency() + "ns";
+		}
+	}
+
+}
@@ -18,10 +18,14 @@ package org.springframework.context.index;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.core.type.classreading.IndexedMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -43,6 +47,11 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>If the index has been built with annotation metadata, as recorded in
+ * {@code META-INF/spring.components.metadata}, the candidates can be read through
+ * the {@link #getMetadataReaderFactory(MetadataReaderFactory) MetadataReaderFactory}
+ * exposed by the index, without reading their class files.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -52,9 +61,22 @@ public class CandidateComponentsIndex {
 
 	private final MultiValueMap<String, Entry> index;
 
+	private final Map<String, byte[]> metadata;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyMap(), null);
+	}
+
+	CandidateComponentsIndex(List<Properties> content, Map<String, byte[]> metadata,
+			@Nullable ClassLoader classLoader) {
+
 		this.index = parseIndex(content);
+		this.metadata = metadata;
+		this.classLoader = classLoader;
 	}
 
 	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
@@ -89,6 +111,30 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return whether annotation metadata has been recorded for the candidates.
+	 * @since 5.3
+	 */
+	public boolean hasMetadata() {
+		return !this.metadata.isEmpty();
+	}
+
+	/**
+	 * Return a {@link MetadataReaderFactory} that reads candidate types from the
+	 * annotation metadata recorded in the index, if any, and delegates to the
+	 * given factory for all other types.
+	 * @param metadataReaderFactory the factory to use for types without recorded
+	 * metadata
+	 * @return the factory to use for reading candidate types
+	 * @since 5.3
+	 */
+	public MetadataReaderFactory getMetadataReaderFactory(MetadataReaderFactory metadataReaderFactory) {
+		if (this.metadata.isEmpty()) {
+			return metadataReaderFactory;
+		}
+		return new IndexedMetadataReaderFactory(metadataReaderFactory, this.metadata, this.classLoader);
+	}
+
 
 	private static class Entry {
 
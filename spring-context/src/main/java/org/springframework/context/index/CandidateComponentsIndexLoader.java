@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,16 @@
 
 package org.springframework.context.index;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentMap;
 
@@ -58,9 +63,32 @@ public final class CandidateComponentsIndexLoader {
 	 */
 	public static final String IGNORE_INDEX = "spring.index.ignore";
 
+	/**
+	 * The location to look for the annotation metadata of components, as written
+	 * by {@code spring-context-indexer} if enabled.
+	 * <p>Can be present in multiple JAR files.
+	 * @since 5.3
+	 */
+	public static final String COMPONENTS_METADATA_RESOURCE_LOCATION = "META-INF/spring.components.metadata";
+
+	/**
+	 * System property that instructs Spring to ignore the annotation metadata
+	 * recorded in {@value #COMPONENTS_METADATA_RESOURCE_LOCATION}, i.e. to read
+	 * the class file of each candidate from the index.
+	 * <p>The default is "false".
+	 * @since 5.3
+	 */
+	public static final String IGNORE_INDEX_METADATA = "spring.index.metadata.ignore";
+
+	private static final int METADATA_MAGIC = 0x53504958;
+
+	private static final int METADATA_VERSION = 1;
+
 
 	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
 
+	private static final boolean shouldIgnoreIndexMetadata = SpringProperties.getFlag(IGNORE_INDEX_METADATA);
+
 	private static final Log logger = LogFactory.getLog(CandidateComponentsIndexLoader.class);
 
 	private static final ConcurrentMap<ClassLoader, CandidateComponentsIndex> cache =
@@ -110,7 +138,8 @@ public final class CandidateComponentsIndexLoader {
 				logger.debug("Loaded " + result.size() + "] index(es)");
 			}
 			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			return (totalCount > 0 ?
+					new CandidateComponentsIndex(result, loadMetadata(classLoader), classLoader) : null);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
@@ -118,4 +147,37 @@ public final class CandidateComponentsIndexLoader {
 		}
 	}
 
+	private static Map<String, byte[]> loadMetadata(ClassLoader classLoader) throws IOException {
+		if (shouldIgnoreIndexMetadata) {
+			return Collections.emptyMap();
+		}
+		Enumeration<URL> urls = classLoader.getResources(COMPONENTS_METADATA_RESOURCE_LOCATION);
+		if (!urls.hasMoreElements()) {
+			return Collections.emptyMap();
+		}
+		Map<String, byte[]> metadata = new HashMap<>();
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(url.openStream()))) {
+				if (in.readInt() != METADATA_MAGIC || in.readInt() != METADATA_VERSION) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Ignoring index metadata in unknown format: " + url);
+					}
+					continue;
+				}
+				int size = in.readInt();
+				for (int i = 0; i < size; i++) {
+					String type = in.readUTF();
+					byte[] data = new byte[in.readInt()];
+					in.readFully(data);
+					metadata.put(type, data);
+				}
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Loaded index metadata for " + metadata.size() + " components");
+		}
+		return metadata;
+	}
+
 }
@@ -17,12 +17,14 @@
 package org.springframework.context.support;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextException;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 
 /**
@@ -70,6 +72,9 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 	@Nullable
 	private Boolean allowCircularReferences;
 
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/** Bean factory for this context. */
 	@Nullable
 	private volatile DefaultListableBeanFactory beanFactory;
@@ -111,6 +116,17 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 		this.allowCircularReferences = allowCircularReferences;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating non-lazy singletons in parallel.
+	 * <p>Default is none, creating all singletons one after another on the
+	 * refreshing thread.
+	 * @since 5.3
+	 * @see org.springframework.beans.factory.support.DefaultListableBeanFactory#setBootstrapExecutor
+	 */
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
 
 	/**
 	 * This implementation performs an actual refresh of this context's underlying
@@ -126,8 +142,15 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 		try {
 			DefaultListableBeanFactory beanFactory = createBeanFactory();
 			beanFactory.setSerializationId(getId());
+			beanFactory.setApplicationStartup(getApplicationStartup());
 			customizeBeanFactory(beanFactory);
-			loadBeanDefinitions(beanFactory);
+			StartupStep loadBeanDefinitions = getApplicationStartup().start("spring.context.bean-definitions.load");
+			try {
+				loadBeanDefinitions(beanFactory);
+			}
+			finally {
+				loadBeanDefinitions.end();
+			}
 			this.beanFactory = beanFactory;
 		}
 		catch (IOException ex) {
@@ -202,7 +225,8 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 	 * Called for each {@link #refresh()} attempt.
 	 * <p>The default implementation applies this context's
 	 * {@linkplain #setAllowBeanDefinitionOverriding "allowBeanDefinitionOverriding"}
-	 * and {@linkplain #setAllowCircularReferences "allowCircularReferences"} settings,
+	 * and {@linkplain #setAllowCircularReferences "allowCircularReferences"} settings
+	 * as well as the {@linkplain #setBootstrapExecutor bootstrap executor},
 	 * if specified. Can be overridden in subclasses to customize any of
 	 * {@link DefaultListableBeanFactory}'s settings.
 	 * @param beanFactory the newly created bean factory for this context
@@ -210,6 +234,7 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 	 * @see DefaultListableBeanFactory#setAllowCircularReferences
 	 * @see DefaultListableBeanFactory#setAllowRawInjectionDespiteWrapping
 	 * @see DefaultListableBeanFactory#setAllowEagerClassLoading
+	 * @see DefaultListableBeanFactory#setBootstrapExecutor
 	 */
 	protected void customizeBeanFactory(DefaultListableBeanFactory beanFactory) {
 		if (this.allowBeanDefinitionOverriding != null) {
@@ -218,6 +243,9 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 		if (this.allowCircularReferences != null) {
 			beanFactory.setAllowCircularReferences(this.allowCircularReferences);
 		}
+		if (this.bootstrapExecutor != null) {
+			beanFactory.setBootstrapExecutor(this.bootstrapExecutor);
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.context.support;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -25,7 +26,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
@@ -46,6 +51,12 @@ import org.springframework.util.Assert;
 /**
  * Default implementation of the {@link LifecycleProcessor} strategy.
  *
+ * <p>By default, the beans of each phase are started and stopped one after
+ * the other in the calling thread. With a {@linkplain #setTaskExecutor task
+ * executor}, the beans of the same phase are started and stopped concurrently,
+ * with each bean still waiting for the beans it depends on (when starting)
+ * or the beans depending on it (when stopping).
+ *
  * @author Mark Fisher
  * @author Juergen Hoeller
  * @since 3.0
@@ -56,6 +67,9 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 
 	private volatile long timeoutPerShutdownPhase = 30000;
 
+	@Nullable
+	private volatile Executor taskExecutor;
+
 	private volatile boolean running;
 
 	@Nullable
@@ -71,6 +85,25 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 		this.timeoutPerShutdownPhase = timeoutPerShutdownPhase;
 	}
 
+	/**
+	 * Specify an executor (typically a bounded thread pool) for starting and
+	 * stopping the beans of the same phase concurrently.
+	 * <p>Default is none, starting and stopping all beans one after the other in
+	 * the calling thread. With an executor, a bean gets started once all beans it
+	 * depends on have been started, and stopped once all beans depending on it
+	 * have been stopped; otherwise, the beans of a phase do not wait for each
+	 * other. Phases are still processed one after the other, and the first
+	 * failure to start a bean is rethrown once all start attempts of its phase
+	 * have completed. Tasks rejected by the executor run in the calling thread.
+	 * <p>Note that the {@code start} and {@code stop} methods of the beans are
+	 * then invoked in the executor's threads, not participating in the calling
+	 * thread's context (e.g. its context class loader).
+	 * @since 5.3
+	 */
+	public void setTaskExecutor(@Nullable Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
 		if (!(beanFactory instanceof ConfigurableListableBeanFactory)) {
@@ -173,20 +206,52 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 			for (String dependency : dependenciesForBean) {
 				doStart(lifecycleBeans, dependency, autoStartupOnly);
 			}
-			if (!bean.isRunning() &&
-					(!autoStartupOnly || !(bean instanceof SmartLifecycle) || ((SmartLifecycle) bean).isAutoStartup())) {
-				if (logger.isTraceEnabled()) {
-					logger.trace("Starting bean '" + beanName + "' of type [" + bean.getClass().getName() + "]");
-				}
-				try {
-					bean.start();
-				}
-				catch (Throwable ex) {
-					throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Successfully started bean '" + beanName + "'");
-				}
+			startBean(beanName, bean, autoStartupOnly);
+		}
+	}
+
+	/**
+	 * Schedule the start of the specified bean on the given executor, once
+	 * all beans that it depends on have been started.
+	 * @param startFutures the futures of the beans scheduled so far, by bean name
+	 * @return the future for the start of the bean
+	 * @see #doStart
+	 */
+	private CompletableFuture<Void> scheduleStart(Map<String, ? extends Lifecycle> lifecycleBeans, String beanName,
+			boolean autoStartupOnly, Map<String, CompletableFuture<Void>> startFutures, Executor executor) {
+
+		Lifecycle bean = lifecycleBeans.remove(beanName);
+		if (bean == null || bean == this) {
+			// Scheduled or started before - or currently being scheduled,
+			// in which case a circular dependency must not wait for it
+			return startFutures.getOrDefault(beanName, CompletableFuture.completedFuture(null));
+		}
+		String[] dependenciesForBean = getBeanFactory().getDependenciesForBean(beanName);
+		List<CompletableFuture<Void>> dependencyFutures = new ArrayList<>(dependenciesForBean.length);
+		for (String dependency : dependenciesForBean) {
+			dependencyFutures.add(scheduleStart(lifecycleBeans, dependency, autoStartupOnly, startFutures, executor));
+		}
+		CompletableFuture<Void> future = CompletableFuture.allOf(dependencyFutures.toArray(new CompletableFuture<?>[0]))
+				.thenRunAsync(() -> startBean(beanName, bean, autoStartupOnly), executor);
+		startFutures.put(beanName, future);
+		return future;
+	}
+
+	private void startBean(String beanName, Lifecycle bean, boolean autoStartupOnly) {
+		if (!bean.isRunning() &&
+				(!autoStartupOnly || !(bean instanceof SmartLifecycle) || ((SmartLifecycle) bean).isAutoStartup())) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Starting bean '" + beanName + "' of type [" + bean.getClass().getName() + "]");
+			}
+			long startTime = System.nanoTime();
+			try {
+				bean.start();
+			}
+			catch (Throwable ex) {
+				throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Successfully started bean '" + beanName + "' in " + elapsedMillis(startTime) + " ms");
 			}
 		}
 	}
@@ -227,42 +292,125 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 			for (String dependentBean : dependentBeans) {
 				doStop(lifecycleBeans, dependentBean, latch, countDownBeanNames);
 			}
-			try {
-				if (bean.isRunning()) {
-					if (bean instanceof SmartLifecycle) {
-						if (logger.isTraceEnabled()) {
-							logger.trace("Asking bean '" + beanName + "' of type [" +
-									bean.getClass().getName() + "] to stop");
-						}
-						countDownBeanNames.add(beanName);
-						((SmartLifecycle) bean).stop(() -> {
-							latch.countDown();
-							countDownBeanNames.remove(beanName);
-							if (logger.isDebugEnabled()) {
-								logger.debug("Bean '" + beanName + "' completed its stop procedure");
-							}
-						});
+			stopBean(beanName, bean, latch, countDownBeanNames);
+		}
+	}
+
+	/**
+	 * Schedule the stop of the specified bean on the given executor, once
+	 * all beans that depend on it have been stopped.
+	 * @param stopFutures the futures of the beans scheduled so far, by bean name
+	 * @return the future for the stop of the bean (not including the completion
+	 * of an asynchronous {@link SmartLifecycle} stop procedure)
+	 * @see #doStop
+	 */
+	private CompletableFuture<Void> scheduleStop(Map<String, ? extends Lifecycle> lifecycleBeans, String beanName,
+			CountDownLatch latch, Set<String> countDownBeanNames, Map<String, CompletableFuture<Void>> stopFutures,
+			Executor executor) {
+
+		Lifecycle bean = lifecycleBeans.remove(beanName);
+		if (bean == null) {
+			// Scheduled or stopped before - or currently being scheduled,
+			// in which case a circular dependency must not wait for it
+			return stopFutures.getOrDefault(beanName, CompletableFuture.completedFuture(null));
+		}
+		String[] dependentBeans = getBeanFactory().getDependentBeans(beanName);
+		List<CompletableFuture<Void>> dependentFutures = new ArrayList<>(dependentBeans.length);
+		for (String dependentBean : dependentBeans) {
+			dependentFutures.add(scheduleStop(
+					lifecycleBeans, dependentBean, latch, countDownBeanNames, stopFutures, executor));
+		}
+		CompletableFuture<Void> future = CompletableFuture.allOf(dependentFutures.toArray(new CompletableFuture<?>[0]))
+				.thenRunAsync(() -> stopBean(beanName, bean, latch, countDownBeanNames), executor);
+		stopFutures.put(beanName, future);
+		return future;
+	}
+
+	private void stopBean(String beanName, Lifecycle bean, CountDownLatch latch, Set<String> countDownBeanNames) {
+		try {
+			if (bean.isRunning()) {
+				long startTime = System.nanoTime();
+				if (bean instanceof SmartLifecycle) {
+					if (logger.isTraceEnabled()) {
+						logger.trace("Asking bean '" + beanName + "' of type [" +
+								bean.getClass().getName() + "] to stop");
 					}
-					else {
-						if (logger.isTraceEnabled()) {
-							logger.trace("Stopping bean '" + beanName + "' of type [" +
-									bean.getClass().getName() + "]");
-						}
-						bean.stop();
+					countDownBeanNames.add(beanName);
+					((SmartLifecycle) bean).stop(() -> {
+						latch.countDown();
+						countDownBeanNames.remove(beanName);
 						if (logger.isDebugEnabled()) {
-							logger.debug("Successfully stopped bean '" + beanName + "'");
+							logger.debug("Bean '" + beanName + "' completed its stop procedure in " +
+									elapsedMillis(startTime) + " ms");
 						}
-					}
+					});
 				}
-				else if (bean instanceof SmartLifecycle) {
-					// Don't wait for beans that aren't running...
-					latch.countDown();
+				else {
+					if (logger.isTraceEnabled()) {
+						logger.trace("Stopping bean '" + beanName + "' of type [" +
+								bean.getClass().getName() + "]");
+					}
+					bean.stop();
+					if (logger.isDebugEnabled()) {
+						logger.debug("Successfully stopped bean '" + beanName + "' in " +
+								elapsedMillis(startTime) + " ms");
+					}
 				}
 			}
-			catch (Throwable ex) {
-				if (logger.isWarnEnabled()) {
-					logger.warn("Failed to stop bean '" + beanName + "'", ex);
+			else if (bean instanceof SmartLifecycle) {
+				// Don't wait for beans that aren't running...
+				latch.countDown();
+			}
+		}
+		catch (Throwable ex) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Failed to stop bean '" + beanName + "'", ex);
+			}
+		}
+	}
+
+	private static long elapsedMillis(long startTime) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+	}
+
+	/**
+	 * Return an executor that submits tasks to the configured task executor,
+	 * running tasks in the calling thread if rejected by it.
+	 */
+	@Nullable
+	private Executor getCallerRunsExecutor() {
+		Executor taskExecutor = this.taskExecutor;
+		if (taskExecutor == null) {
+			return null;
+		}
+		return task -> {
+			try {
+				taskExecutor.execute(task);
+			}
+			catch (RejectedExecutionException ex) {
+				task.run();
+			}
+		};
+	}
+
+	/**
+	 * Wait for the completion of all given futures, rethrowing the first failure.
+	 */
+	private static void awaitCompletion(Collection<CompletableFuture<Void>> futures) {
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((result, ex) -> null).join();
+		for (CompletableFuture<Void> future : futures) {
+			try {
+				future.join();
+			}
+			catch (CompletionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
 				}
+				throw ex;
 			}
 		}
 	}
@@ -356,8 +504,18 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				logger.debug("Starting beans in phase " + this.phase);
 			}
 			Collections.sort(this.members);
-			for (LifecycleGroupMember member : this.members) {
-				doStart(this.lifecycleBeans, member.name, this.autoStartupOnly);
+			Executor executor = getCallerRunsExecutor();
+			if (executor != null) {
+				Map<String, CompletableFuture<Void>> startFutures = new LinkedHashMap<>();
+				for (LifecycleGroupMember member : this.members) {
+					scheduleStart(this.lifecycleBeans, member.name, this.autoStartupOnly, startFutures, executor);
+				}
+				awaitCompletion(startFutures.values());
+			}
+			else {
+				for (LifecycleGroupMember member : this.members) {
+					doStart(this.lifecycleBeans, member.name, this.autoStartupOnly);
+				}
 			}
 		}
 
@@ -372,15 +530,24 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 			CountDownLatch latch = new CountDownLatch(this.smartMemberCount);
 			Set<String> countDownBeanNames = Collections.synchronizedSet(new LinkedHashSet<>());
 			Set<String> lifecycleBeanNames = new HashSet<>(this.lifecycleBeans.keySet());
+			Executor executor = getCallerRunsExecutor();
+			Map<String, CompletableFuture<Void>> stopFutures = new LinkedHashMap<>();
 			for (LifecycleGroupMember member : this.members) {
 				if (lifecycleBeanNames.contains(member.name)) {
-					doStop(this.lifecycleBeans, member.name, latch, countDownBeanNames);
+					if (executor != null) {
+						scheduleStop(this.lifecycleBeans, member.name, latch, countDownBeanNames, stopFutures, executor);
+					}
+					else {
+						doStop(this.lifecycleBeans, member.name, latch, countDownBeanNames);
+					}
 				}
 				else if (member.bean instanceof SmartLifecycle) {
 					// Already removed: must have been a dependent bean from another phase
 					latch.countDown();
 				}
 			}
+			// Wait for all stop invocations to return, as with sequential stopping
+			awaitCompletion(stopFutures.values());
 			try {
 				latch.await(this.timeout, TimeUnit.MILLISECONDS);
 				if (latch.getCount() > 0 && !countDownBeanNames.isEmpty() && logger.isInfoEnabled()) {
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.ApplicationStartupAware;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.componentscan.simple.SimpleComponent;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.BufferingApplicationStartup;
+import org.springframework.core.metrics.BufferingApplicationStartup.RecordedStep;
+import org.springframework.core.metrics.StartupStep;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for recording the startup steps of an {@link AnnotationConfigApplicationContext}
+ * through an {@link ApplicationStartup}.
+ *
+ * @since 5.3
+ */
+class ApplicationStartupTests {
+
+	@Test
+	void recordsRefreshSteps() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(1000);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.register(Config.class);
+		context.scan(SimpleComponent.class.getPackage().getName());
+		context.refresh();
+
+		List<RecordedStep> steps = applicationStartup.getBufferedSteps();
+		assertThat(steps).extracting(RecordedStep::getName).contains(
+				"spring.context.base-packages.scan", "spring.context.refresh",
+				"spring.context.beans.post-process", "spring.context.beandef-registry.post-process",
+				"spring.context.bean-factory.post-process", "spring.context.config-classes.parse",
+				"spring.context.config-classes.enhance", "spring.beans.instantiate");
+
+		RecordedStep refresh = findStep(steps, "spring.context.refresh");
+		assertThat(refresh.getParentId()).isNull();
+		assertThat(findStep(steps, "spring.context.beans.post-process").getParentId()).isEqualTo(refresh.getId());
+		Set<String> beanNames = steps.stream()
+				.filter(step -> step.getName().equals("spring.beans.instantiate"))
+				.map(step -> tagValue(step, "beanName"))
+				.collect(Collectors.toSet());
+		assertThat(beanNames).contains("startupAwareBean", "simpleComponent");
+
+		assertThat(context.getBean(StartupAwareBean.class).applicationStartup).isSameAs(applicationStartup);
+		assertThat(context.getBean(ConfigurableApplicationContext.APPLICATION_STARTUP_BEAN_NAME))
+				.isSameAs(applicationStartup);
+		context.close();
+	}
+
+	@Test
+	void recordsNothingByDefault() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(Config.class);
+		assertThat(context.getApplicationStartup()).isSameAs(ApplicationStartup.DEFAULT);
+		assertThat(context.getBeanFactory().getApplicationStartup()).isSameAs(ApplicationStartup.DEFAULT);
+		assertThat(context.getBean(StartupAwareBean.class).applicationStartup).isSameAs(ApplicationStartup.DEFAULT);
+		context.close();
+	}
+
+
+	private static RecordedStep findStep(List<RecordedStep> steps, String name) {
+		return steps.stream().filter(step -> step.getName().equals(name)).findFirst().get();
+	}
+
+	private static String tagValue(RecordedStep step, String key) {
+		for (StartupStep.Tag tag : step.getTags()) {
+			if (tag.getKey().equals(key)) {
+				return tag.getValue();
+			}
+		}
+		return "";
+	}
+
+
+	@Configuration
+	static class Config {
+
+		@Bean
+		StartupAwareBean startupAwareBean() {
+			return new StartupAwareBean();
+		}
+	}
+
+
+	static class StartupAwareBean implements ApplicationStartupAware {
+
+		ApplicationStartup applicationStartup;
+
+		@Override
+		public void setApplicationStartup(ApplicationStartup applicationStartup) {
+			this.applicationStartup = applicationStartup;
+		}
+	}
+
+}
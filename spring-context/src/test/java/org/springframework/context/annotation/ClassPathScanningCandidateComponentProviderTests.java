@@ -18,8 +18,11 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import example.gh24375.AnnotatedComponent;
 import example.profilescan.DevComponent;
@@ -102,6 +105,43 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertBeanDefinitionType(candidates);
 	}
 
+	@Test
+	public void defaultsWithParallelScan() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		provider.setParallelism(4);
+		testDefault(provider);
+	}
+
+	@Test
+	public void parallelScanPreservesOrder() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		List<String> sequential = getBeanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE));
+		provider.setParallelism(4);
+		for (int i = 0; i < 10; i++) {
+			assertThat(getBeanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE)))
+					.containsExactlyElementsOf(sequential);
+		}
+	}
+
+	@Test
+	public void parallelScanAppliesFiltersOnCallingThread() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		Set<Thread> filterThreads = new CopyOnWriteArraySet<>();
+		provider.addIncludeFilter((metadataReader, metadataReaderFactory) -> {
+			filterThreads.add(Thread.currentThread());
+			return true;
+		});
+		provider.setParallelism(4);
+		assertThat(provider.findCandidateComponents(TEST_BASE_PACKAGE)).hasSizeGreaterThan(1);
+		assertThat(filterThreads).containsExactly(Thread.currentThread());
+	}
+
 	@Test
 	public void antStylePackageWithScan() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
@@ -503,6 +543,10 @@ public class ClassPathScanningCandidateComponentProviderTests {
 	}
 
 
+	private List<String> getBeanClassNames(Set<BeanDefinition> candidates) {
+		return candidates.stream().map(BeanDefinition::getBeanClassName).collect(Collectors.toList());
+	}
+
 	private boolean containsBeanClass(Set<BeanDefinition> candidates, Class<?> beanClass) {
 		for (BeanDefinition candidate : candidates) {
 			if (beanClass.getName().equals(candidate.getBeanClassName())) {
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ConditionEvaluator}.
+ */
+class ConditionEvaluatorTests {
+
+	private final StandardEnvironment environment = new StandardEnvironment();
+
+	private final ConditionEvaluator evaluator =
+			new ConditionEvaluator(new DefaultListableBeanFactory(), this.environment, null);
+
+
+	@BeforeEach
+	void resetCounters() {
+		CountingCondition.matchCount.set(0);
+		CountingCacheableCondition.matchCount.set(0);
+		CountingCondition.instanceCount.set(0);
+	}
+
+
+	@Test
+	void cacheableConditionOutcomeIsReusedForSameAttributes() {
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Foo1.class))).isFalse();
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Foo2.class))).isFalse();
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Bar.class))).isTrue();
+		assertThat(CountingCacheableCondition.matchCount).hasValue(2);
+		assertThat(this.evaluator.getEvaluationCount()).isEqualTo(3);
+		assertThat(this.evaluator.getCachedEvaluationCount()).isEqualTo(1);
+	}
+
+	@Test
+	void cacheableConditionOutcomeIsReusedForSameArrayAttributes() {
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Multi1.class))).isFalse();
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Multi2.class))).isFalse();
+		assertThat(this.evaluator.getCachedEvaluationCount()).isEqualTo(1);
+	}
+
+	@Test
+	void regularConditionIsEvaluatedEveryTimeWithNewInstance() {
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Plain1.class))).isFalse();
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Plain2.class))).isFalse();
+		assertThat(CountingCondition.matchCount).hasValue(2);
+		assertThat(CountingCondition.instanceCount).hasValue(2);
+		assertThat(this.evaluator.getCachedEvaluationCount()).isEqualTo(0);
+	}
+
+	@Test
+	void profileConditionOutcomeIsCached() {
+		this.environment.setActiveProfiles("dev");
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Dev1.class))).isFalse();
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Dev2.class))).isFalse();
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Prod.class))).isTrue();
+		assertThat(this.evaluator.getCachedEvaluationCount()).isEqualTo(1);
+	}
+
+	@Test
+	void profileChangeIsTakenIntoAccountAfterClearingCache() {
+		this.environment.setActiveProfiles("dev");
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Dev1.class))).isFalse();
+		this.environment.setActiveProfiles("prod");
+		this.evaluator.clearCache();
+		assertThat(this.evaluator.shouldSkip(AnnotationMetadata.introspect(Dev2.class))).isTrue();
+		assertThat(this.evaluator.getCachedEvaluationCount()).isEqualTo(0);
+	}
+
+	@Test
+	void profileChangeIsTakenIntoAccountForLaterRegistration() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().setActiveProfiles("dev");
+		context.register(Dev1.class);
+		context.getEnvironment().setActiveProfiles("prod");
+		context.register(Dev2.class);
+		context.refresh();
+		assertThat(context.getBeanNamesForType(Dev1.class)).hasSize(1);
+		assertThat(context.getBeanNamesForType(Dev2.class)).isEmpty();
+		context.close();
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	@Conditional(CountingCacheableCondition.class)
+	@interface Enabled {
+
+		boolean value();
+
+		String[] tags() default {};
+	}
+
+
+	@Enabled(true)
+	static class Foo1 {
+	}
+
+
+	@Enabled(true)
+	static class Foo2 {
+	}
+
+
+	@Enabled(false)
+	static class Bar {
+	}
+
+
+	@Enabled(value = true, tags = {"a", "b"})
+	static class Multi1 {
+	}
+
+
+	@Enabled(value = true, tags = {"a", "b"})
+	static class Multi2 {
+	}
+
+
+	@Conditional(CountingCondition.class)
+	static class Plain1 {
+	}
+
+
+	@Conditional(CountingCondition.class)
+	static class Plain2 {
+	}
+
+
+	@Profile("dev")
+	static class Dev1 {
+	}
+
+
+	@Profile("dev")
+	static class Dev2 {
+	}
+
+
+	@Profile("prod")
+	static class Prod {
+	}
+
+
+	static class CountingCacheableCondition implements CacheableCondition {
+
+		static final AtomicInteger matchCount = new AtomicInteger();
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			matchCount.incrementAndGet();
+			return (Boolean) metadata.getAnnotationAttributes(Enabled.class.getName()).get("value");
+		}
+	}
+
+
+	static class CountingCondition implements Condition {
+
+		static final AtomicInteger matchCount = new AtomicInteger();
+
+		static final AtomicInteger instanceCount = new AtomicInteger();
+
+		CountingCondition() {
+			instanceCount.incrementAndGet();
+		}
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			matchCount.incrementAndGet();
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.context.annotation.ConfigurationBeanRegistrar.GeneratedBeanDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for registering configuration classes through generated code,
+ * as indexed in {@code META-INF/spring.configurations} on the test classpath.
+ *
+ * @see ConfigurationBeanRegistrar
+ */
+class ConfigurationBeanRegistrarTests {
+
+	@Test
+	void generatedBeanIsOverriddenByLaterConfiguration() {
+		AnnotationConfigApplicationContext context =
+				new AnnotationConfigApplicationContext(GeneratedConfig.class, ParsedConfig.class);
+		assertThat(context.getBean("foo")).isEqualTo("parsed");
+		context.close();
+	}
+
+	@Test
+	void generatedBeanOverridesEarlierConfiguration() {
+		AnnotationConfigApplicationContext context =
+				new AnnotationConfigApplicationContext(ParsedConfig.class, GeneratedConfig.class);
+		assertThat(context.getBean("foo")).isEqualTo("generated");
+		assertThat(context.getBeanFactory().getBeanDefinition("foo")).isInstanceOf(GeneratedBeanDefinition.class);
+		context.close();
+	}
+
+	@Test
+	void importedConfigurationIsRegisteredThroughGeneratedCode() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ImportingConfig.class);
+		assertThat(context.getBean("foo")).isEqualTo("generated");
+		assertThat(context.getBeanFactory().getBeanDefinition("foo")).isInstanceOf(GeneratedBeanDefinition.class);
+		assertThat(context.getBean(GeneratedConfig.class).getClass()).isSameAs(GeneratedConfig.class);
+		context.close();
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	static class GeneratedConfig {
+
+		@Bean
+		String foo() {
+			return "generated";
+		}
+	}
+
+
+	/**
+	 * Stands in for the registration code generated for {@link GeneratedConfig}.
+	 */
+	public static final class GeneratedConfigRegistration {
+
+		public static void registerBeanDefinitions(BeanDefinitionRegistry registry, String beanName) {
+			ConfigurationBeanRegistrar registrar =
+					new ConfigurationBeanRegistrar(registry, GeneratedConfig.class, beanName);
+			registrar.registerConfiguration(new Class<?>[0], args -> new GeneratedConfig());
+			registrar.registerBean("foo", "foo", new Class<?>[0],
+					args -> ((GeneratedConfig) registrar.getConfiguration()).foo());
+		}
+	}
+
+
+	@Configuration
+	static class ParsedConfig {
+
+		@Bean
+		String foo() {
+			return "parsed";
+		}
+	}
+
+
+	@Configuration
+	@Import(GeneratedConfig.class)
+	static class ImportingConfig {
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ConfigurationClassPreloader} and parallel parsing of
+ * configuration classes.
+ */
+class ConfigurationClassPreloaderTests {
+
+	@Test
+	void parallelParsingRegistersSameBeanDefinitionsInSameOrder() {
+		assertThat(getBeanDefinitionNames(4)).containsExactly(getBeanDefinitionNames(1));
+	}
+
+	@Test
+	void preloadReadsScannedAndImportedClasses() {
+		DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+		preload(resourceLoader, ScanningConfig.class);
+		String[] cachedClassFiles = getCachedClassFiles(resourceLoader);
+		assertThat(cachedClassFiles).contains("FooServiceImpl.class", "StubFooDao.class",
+				"ConfigurationClassPreloaderTests$ImportedConfig.class",
+				"ConfigurationClassPreloaderTests$ScanningConfig$MemberConfig.class");
+	}
+
+	@Test
+	void preloadDoesNotFollowConditionalClasses() {
+		DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+		preload(resourceLoader, ConditionalScanningConfig.class);
+		assertThat(getCachedClassFiles(resourceLoader)).isEmpty();
+	}
+
+	private String[] getBeanDefinitionNames(int parallelism) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)
+				.getPropertyValues().add("parallelism", parallelism);
+		context.register(ScanningConfig.class);
+		context.refresh();
+		String[] beanDefinitionNames = context.getBeanDefinitionNames();
+		assertThat(context.getBean("member")).isEqualTo("member");
+		assertThat(context.getBean("imported")).isEqualTo("imported");
+		context.close();
+		return beanDefinitionNames;
+	}
+
+	private void preload(DefaultResourceLoader resourceLoader, Class<?> configClass) {
+		StandardEnvironment environment = new StandardEnvironment();
+		ComponentScanAnnotationParser componentScanParser = new ComponentScanAnnotationParser(environment,
+				resourceLoader, AnnotationBeanNameGenerator.INSTANCE, new DefaultListableBeanFactory());
+		new ConfigurationClassPreloader(new CachingMetadataReaderFactory(resourceLoader), environment,
+				resourceLoader, componentScanParser, 4)
+				.preload(Collections.singleton(AnnotationMetadata.introspect(configClass)));
+	}
+
+	private String[] getCachedClassFiles(DefaultResourceLoader resourceLoader) {
+		Map<Resource, MetadataReader> cache = resourceLoader.getResourceCache(MetadataReader.class);
+		return cache.keySet().stream().map(Resource::getFilename).collect(Collectors.toList()).toArray(new String[0]);
+	}
+
+
+	@Configuration
+	@ComponentScan("example.scannable")
+	@Import(ImportedConfig.class)
+	static class ScanningConfig {
+
+		@Configuration
+		static class MemberConfig {
+
+			@Bean
+			String member() {
+				return "member";
+			}
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig {
+
+		@Bean
+		String imported() {
+			return "imported";
+		}
+	}
+
+
+	@Configuration
+	@Conditional(NeverCondition.class)
+	@ComponentScan("example.scannable")
+	static class ConditionalScanningConfig {
+	}
+
+
+	static class NeverCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return false;
+		}
+	}
+
+}
@@ -301,12 +301,38 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.contains(event3)).isTrue();
 		assertThat(listener1.seenEvents.contains(event4)).isTrue();
 
+		// Lazy registration of listener2 only evicts the MyEvent entry
 		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
-		assertThat(multicaster.retrieverCache.size()).isEqualTo(2);
+		assertThat(multicaster.retrieverCache.size()).isEqualTo(3);
 
 		context.close();
 	}
 
+	@Test
+	public void listenerRegistrationEvictsAffectedEventTypesOnly() {
+		SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		multicaster.addApplicationListener(listener1);
+		multicaster.multicastEvent(new MyEvent(this));
+		multicaster.multicastEvent(new MyOtherEvent(this));
+		assertThat(multicaster.retrieverCache.size()).isEqualTo(2);
+
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+		multicaster.addApplicationListener(listener2);
+		assertThat(multicaster.retrieverCache.size()).isEqualTo(1);
+
+		listener1.seenEvents.clear();
+		MyEvent event = new MyEvent(this);
+		multicaster.multicastEvent(event);
+		assertThat(listener1.seenEvents).containsExactly(event);
+		assertThat(multicaster.retrieverCache.size()).isEqualTo(2);
+
+		multicaster.removeApplicationListener(listener2);
+		assertThat(multicaster.retrieverCache.size()).isEqualTo(1);
+		multicaster.removeApplicationListener(listener1);
+		assertThat(multicaster.retrieverCache).isEmpty();
+	}
+
 	@Test
 	public void listenersInApplicationContextWithPayloadEvents() {
 		StaticApplicationContext context = new StaticApplicationContext();
@@ -304,6 +304,47 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.sampleEvents, times(2)).handleStringOrInteger();
 	}
 
+	@Test
+	public void invokeSameListenerWithDifferentPayloadTypes() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		for (int i = 0; i < 3; i++) {
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "test"));
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, 123L));
+		}
+		verify(this.sampleEvents, times(3)).handleString("test");
+		assertThat(adapter.supportsEventType(createGenericEventType(String.class))).isTrue();
+		assertThat(adapter.supportsEventType(createGenericEventType(Long.class))).isFalse();
+		assertThat(adapter.supportsEventType(createGenericEventType(String.class))).isTrue();
+	}
+
+	@Test
+	public void invokeSameListenerWithGenericPayloadsOfDifferentTypes() {
+		Method method = ReflectionUtils.findMethod(
+				SampleEvents.class, "handleGenericStringPayload", EntityWrapper.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		EntityWrapper<String> payload = new EntityWrapper<>("test");
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, payload));
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, new EntityWrapper<>(123)));
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, payload));
+		verify(this.sampleEvents, times(2)).handleGenericStringPayload(payload);
+		verify(this.sampleEvents, times(2)).handleGenericStringPayload(any());
+	}
+
+	@Test
+	public void invokeListenerWithConditionRepeatedly() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStringWithCondition", String.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		adapter.init(this.context, new EventExpressionEvaluator());
+		// Each evaluation gets its own context, sharing accessors and resolvers
+		for (int i = 0; i < 3; i++) {
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "test"));
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "no"));
+		}
+		verify(this.sampleEvents, times(3)).handleStringWithCondition("test");
+		verify(this.sampleEvents, never()).handleStringWithCondition("no");
+	}
+
 	@Test
 	public void beanInstanceRetrievedAtEveryInvocation() {
 		Method method = ReflectionUtils.findMethod(
@@ -392,6 +433,10 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		public void handleStringOrInteger() {
 		}
 
+		@EventListener(condition = "#p0.length() > 2")
+		public void handleStringWithCondition(String payload) {
+		}
+
 		@EventListener({String.class, Integer.class})
 		public void handleStringOrIntegerWithParam(String invalid) {
 		}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.QueueingApplicationEventMulticaster.ListenerStatistics;
+import org.springframework.context.event.QueueingApplicationEventMulticaster.OverflowPolicy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link QueueingApplicationEventMulticaster}.
+ */
+class QueueingApplicationEventMulticasterTests {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	private final QueueingApplicationEventMulticaster multicaster = new QueueingApplicationEventMulticaster();
+
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	void eventsAreDeliveredInOrderPerListener() throws Exception {
+		this.multicaster.setTaskExecutor(this.executor);
+		RecordingListener listener = new RecordingListener(100);
+		this.multicaster.addApplicationListener(listener);
+
+		List<TestEvent> events = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			TestEvent event = new TestEvent(i);
+			events.add(event);
+			this.multicaster.multicastEvent(event);
+		}
+		assertThat(listener.latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.events).containsExactlyElementsOf(events);
+		assertThat(listener.threads).doesNotContain(Thread.currentThread());
+
+		ListenerStatistics statistics = this.multicaster.getListenerStatistics().get(listener);
+		assertThat(statistics.getProcessedCount()).isEqualTo(100);
+		assertThat(statistics.getMaxLatency()).isGreaterThanOrEqualTo(statistics.getAverageLatency());
+	}
+
+	@Test
+	void dropPolicyDropsEventsWhenQueueIsFull() throws Exception {
+		this.multicaster.setTaskExecutor(this.executor);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.DROP);
+		BlockingListener listener = new BlockingListener();
+		this.multicaster.addApplicationListener(listener);
+
+		this.multicaster.multicastEvent(new TestEvent(0));
+		assertThat(listener.started.await(5, TimeUnit.SECONDS)).isTrue();
+		this.multicaster.multicastEvent(new TestEvent(1));
+		this.multicaster.multicastEvent(new TestEvent(2));
+
+		ListenerStatistics statistics = this.multicaster.getListenerStatistics().get(listener);
+		assertThat(statistics.getQueueDepth()).isEqualTo(1);
+		assertThat(statistics.getDroppedCount()).isEqualTo(1);
+		listener.release.countDown();
+	}
+
+	@Test
+	void callerRunsPolicyInvokesListenerInPublishingThread() throws Exception {
+		this.multicaster.setTaskExecutor(this.executor);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.CALLER_RUNS);
+		BlockingListener listener = new BlockingListener();
+		this.multicaster.addApplicationListener(listener);
+		RecordingListener recorder = new RecordingListener(3);
+		this.multicaster.addApplicationListener(recorder);
+
+		this.multicaster.multicastEvent(new TestEvent(0));
+		assertThat(listener.started.await(5, TimeUnit.SECONDS)).isTrue();
+		this.multicaster.multicastEvent(new TestEvent(1));
+		this.multicaster.multicastEvent(new TestEvent(2));
+
+		assertThat(listener.threads).containsExactly(Thread.currentThread());
+		listener.release.countDown();
+		assertThat(recorder.latch.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void blockPolicyInvokesListenerInlineWhenPublishingFromItsOwnDrainThread() throws Exception {
+		this.multicaster.setTaskExecutor(this.executor);
+		this.multicaster.setQueueCapacity(1);
+		List<Object> sources = new CopyOnWriteArrayList<>();
+		CountDownLatch latch = new CountDownLatch(3);
+		ApplicationListener<TestEvent> listener = event -> {
+			sources.add(event.getSource());
+			if (event.getSource().equals(0)) {
+				// The second event finds the queue full
+				this.multicaster.multicastEvent(new TestEvent(1));
+				this.multicaster.multicastEvent(new TestEvent(2));
+			}
+			latch.countDown();
+		};
+		this.multicaster.addApplicationListener(listener);
+
+		this.multicaster.multicastEvent(new TestEvent(0));
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(sources).containsExactly(0, 2, 1);
+	}
+
+	@Test
+	void batchListenerReceivesQueuedEventsInBatches() throws Exception {
+		this.multicaster.setTaskExecutor(this.executor);
+		this.multicaster.setMaxBatchSize(10);
+		List<List<TestEvent>> batches = new CopyOnWriteArrayList<>();
+		CountDownLatch latch = new CountDownLatch(25);
+		BatchApplicationListener<TestEvent> listener = events -> {
+			batches.add(events);
+			events.forEach(event -> latch.countDown());
+		};
+		this.multicaster.addApplicationListener(listener);
+
+		for (int i = 0; i < 25; i++) {
+			this.multicaster.multicastEvent(new TestEvent(i));
+		}
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+		assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(25);
+		assertThat(batches.stream().flatMap(List::stream).mapToInt(event -> (Integer) event.getSource()))
+				.containsExactly(IntStream.range(0, 25).toArray());
+	}
+
+	@Test
+	void listenerQueueIsRetainedUntilListenerRemoved() throws Exception {
+		this.multicaster.setTaskExecutor(this.executor);
+		RecordingListener listener = new RecordingListener(2);
+		this.multicaster.addApplicationListener(listener);
+
+		this.multicaster.multicastEvent(new TestEvent(0));
+		System.gc();
+		this.multicaster.multicastEvent(new TestEvent(1));
+		assertThat(listener.latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(this.multicaster.getListenerStatistics().get(listener).getProcessedCount()).isEqualTo(2);
+
+		this.multicaster.removeApplicationListener(listener);
+		assertThat(this.multicaster.getListenerStatistics()).isEmpty();
+	}
+
+	@Test
+	void withoutExecutorListenersAreInvokedInCallingThread() {
+		RecordingListener listener = new RecordingListener(1);
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.multicastEvent(new TestEvent(0));
+		assertThat(listener.threads).containsExactly(Thread.currentThread());
+		assertThat(this.multicaster.getListenerStatistics()).isEmpty();
+	}
+
+
+	@SuppressWarnings("serial")
+	static class TestEvent extends ApplicationEvent {
+
+		TestEvent(int index) {
+			super(index);
+		}
+	}
+
+
+	static class RecordingListener implements ApplicationListener<TestEvent> {
+
+		final List<TestEvent> events = new CopyOnWriteArrayList<>();
+
+		final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+		final CountDownLatch latch;
+
+		RecordingListener(int expectedEvents) {
+			this.latch = new CountDownLatch(expectedEvents);
+		}
+
+		@Override
+		public void onApplicationEvent(TestEvent event) {
+			this.events.add(event);
+			this.threads.add(Thread.currentThread());
+			this.latch.countDown();
+		}
+	}
+
+
+	/**
+	 * Blocks on the first event until released, recording the threads
+	 * that it gets invoked with for all further events.
+	 */
+	static class BlockingListener implements ApplicationListener<TestEvent> {
+
+		final CountDownLatch started = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onApplicationEvent(TestEvent event) {
+			if (!event.getSource().equals(0)) {
+				this.threads.add(Thread.currentThread());
+				return;
+			}
+			this.started.countDown();
+			try {
+				this.release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
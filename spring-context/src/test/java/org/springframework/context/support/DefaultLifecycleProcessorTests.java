@@ -17,6 +17,10 @@
 package org.springframework.context.support;
 
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -24,12 +28,14 @@ import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContextException;
 import org.springframework.context.Lifecycle;
 import org.springframework.context.LifecycleProcessor;
 import org.springframework.context.SmartLifecycle;
 import org.springframework.core.testfixture.EnabledForTestGroups;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.springframework.core.testfixture.TestGroup.PERFORMANCE;
 
 /**
@@ -563,6 +569,85 @@ public class DefaultLifecycleProcessorTests {
 		assertThat(getPhase(stoppedBeans.get(4))).isEqualTo(Integer.MIN_VALUE);
 	}
 
+	@Test
+	public void beansInSamePhaseStartedAndStoppedConcurrentlyWithTaskExecutor() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			CyclicBarrier barrier = new CyclicBarrier(3);
+			StaticApplicationContext context = createContextWithTaskExecutor(executor);
+			for (int i = 0; i < 3; i++) {
+				context.getBeanFactory().registerSingleton("bean" + i, new BarrierSmartLifecycleBean(barrier));
+			}
+			// Each bean waits for the other two in start() and stop(), so this only
+			// completes if all beans of the phase are started and stopped concurrently
+			context.refresh();
+			for (int i = 0; i < 3; i++) {
+				assertThat(context.getBean("bean" + i, Lifecycle.class).isRunning()).isTrue();
+			}
+			context.stop();
+			for (int i = 0; i < 3; i++) {
+				assertThat(context.getBean("bean" + i, Lifecycle.class).isRunning()).isFalse();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void dependencyStartedFirstWithTaskExecutor() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CopyOnWriteArrayList<Lifecycle> startedBeans = new CopyOnWriteArrayList<>();
+			TestSmartLifecycleBean bean1 = TestSmartLifecycleBean.forStartupTests(1, startedBeans);
+			TestSmartLifecycleBean bean2 = TestSmartLifecycleBean.forStartupTests(1, startedBeans);
+			TestSmartLifecycleBean bean3 = TestSmartLifecycleBean.forStartupTests(1, startedBeans);
+			StaticApplicationContext context = createContextWithTaskExecutor(executor);
+			context.getBeanFactory().registerSingleton("bean1", bean1);
+			context.getBeanFactory().registerSingleton("bean2", bean2);
+			context.getBeanFactory().registerSingleton("bean3", bean3);
+			context.getBeanFactory().registerDependentBean("bean3", "bean2");
+			context.getBeanFactory().registerDependentBean("bean2", "bean1");
+			context.refresh();
+			assertThat(startedBeans).containsExactly(bean3, bean2, bean1);
+			context.stop();
+			assertThat(bean1.isRunning()).isFalse();
+			assertThat(bean2.isRunning()).isFalse();
+			assertThat(bean3.isRunning()).isFalse();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void startFailureRethrownWithTaskExecutor() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			StaticApplicationContext context = createContextWithTaskExecutor(executor);
+			context.getBeanFactory().registerSingleton("bean", new DummySmartLifecycleBean() {
+				@Override
+				public void start() {
+					throw new IllegalStateException("Start failure");
+				}
+			});
+			assertThatExceptionOfType(ApplicationContextException.class).isThrownBy(context::refresh)
+					.withMessageContaining("Failed to start bean 'bean'")
+					.withRootCauseInstanceOf(IllegalStateException.class);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static StaticApplicationContext createContextWithTaskExecutor(ExecutorService executor) {
+		BeanDefinition beanDefinition = new RootBeanDefinition(DefaultLifecycleProcessor.class);
+		beanDefinition.getPropertyValues().addPropertyValue("taskExecutor", executor);
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.registerBeanDefinition("lifecycleProcessor", beanDefinition);
+		return context;
+	}
+
 
 	private static int getPhase(Lifecycle lifecycle) {
 		return (lifecycle instanceof SmartLifecycle) ?
@@ -672,6 +757,44 @@ public class DefaultLifecycleProcessorTests {
 	}
 
 
+	private static class BarrierSmartLifecycleBean implements SmartLifecycle {
+
+		private final CyclicBarrier barrier;
+
+		private volatile boolean running;
+
+		BarrierSmartLifecycleBean(CyclicBarrier barrier) {
+			this.barrier = barrier;
+		}
+
+		@Override
+		public void start() {
+			awaitBarrier();
+			this.running = true;
+		}
+
+		@Override
+		public void stop() {
+			awaitBarrier();
+			this.running = false;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return this.running;
+		}
+
+		private void awaitBarrier() {
+			try {
+				this.barrier.await(5, TimeUnit.SECONDS);
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+	}
+
+
 	public static class DummySmartLifecycleBean implements SmartLifecycle {
 
 		public boolean running = false;
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks for {@link ResolvableType#forMethodParameter} and the resolution
+ * of generic parameter types, as performed for each handler method argument.
+ *
+ * @since 5.3
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResolvableTypeBenchmark {
+
+	@Benchmark
+	public void forMethodParameter(MethodData data, Blackhole bh) {
+		bh.consume(ResolvableType.forMethodParameter(data.method, 0));
+	}
+
+	@Benchmark
+	public void forMethodParameterWithImplementationClass(MethodData data, Blackhole bh) {
+		bh.consume(ResolvableType.forMethodParameter(data.method, 1, ConcreteService.class));
+	}
+
+	@Benchmark
+	public void resolveGenerics(MethodData data, Blackhole bh) {
+		ResolvableType type = ResolvableType.forMethodParameter(new MethodParameter(data.method, 0));
+		bh.consume(type.getGeneric(1).getGeneric(0).resolve());
+	}
+
+	@State(Scope.Benchmark)
+	public static class MethodData {
+
+		public Method method;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.method = ReflectionUtils.findMethod(GenericService.class, "handle", Map.class, Object.class);
+		}
+	}
+
+
+	interface GenericService<T> {
+
+		void handle(Map<String, List<Integer>> values, T item);
+	}
+
+
+	static class ConcreteService implements GenericService<String> {
+
+		@Override
+		public void handle(Map<String, List<Integer>> values, String item) {
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks for {@link MergedAnnotations#from} lookups on classes and methods
+ * with meta-annotations and attribute aliases.
+ *
+ * @since 5.3
+ */
+@BenchmarkMode(Mode.Throughput)
+public class MergedAnnotationsBenchmark {
+
+	@Benchmark
+	public void directOnClass(AnnotatedElements data, Blackhole bh) {
+		bh.consume(MergedAnnotations.from(data.type).isPresent(Composed.class));
+	}
+
+	@Benchmark
+	public void inheritedOnClass(AnnotatedElements data, Blackhole bh) {
+		bh.consume(MergedAnnotations.from(data.type, SearchStrategy.TYPE_HIERARCHY).get(Base.class).getString("value"));
+	}
+
+	@Benchmark
+	public void inheritedOnMethod(AnnotatedElements data, Blackhole bh) {
+		bh.consume(MergedAnnotations.from(data.method, SearchStrategy.TYPE_HIERARCHY).get(Base.class).getString("value"));
+	}
+
+	@Benchmark
+	public void missingOnClass(AnnotatedElements data, Blackhole bh) {
+		bh.consume(MergedAnnotations.from(data.type, SearchStrategy.TYPE_HIERARCHY).isPresent(Missing.class));
+	}
+
+	@State(Scope.Benchmark)
+	public static class AnnotatedElements {
+
+		public Class<?> type;
+
+		public Method method;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.type = SubType.class;
+			this.method = ReflectionUtils.findMethod(SubType.class, "handle");
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Base {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Base
+	@interface Composed {
+
+		@AliasFor(annotation = Base.class)
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Missing {
+	}
+
+
+	interface Contract {
+
+		@Composed("contract")
+		void handle();
+	}
+
+
+	@Composed("super")
+	static class SuperType implements Contract {
+
+		@Override
+		public void handle() {
+		}
+	}
+
+
+	static class SubType extends SuperType {
+
+		@Override
+		public void handle() {
+		}
+	}
+
+}
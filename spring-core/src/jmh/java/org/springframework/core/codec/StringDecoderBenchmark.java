@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+/**
+ * Benchmarks for splitting newline-delimited input with {@link StringDecoder}
+ * and the underlying {@link DataBufferUtils#matcher(byte[][]) delimiter matchers}.
+ *
+ * @since 5.3
+ */
+@BenchmarkMode(Mode.Throughput)
+public class StringDecoderBenchmark {
+
+	@Benchmark
+	public void decode(DecoderData data, Blackhole bh) {
+		data.decoder.decode(data.input(), data.elementType, null, Collections.emptyMap())
+				.doOnNext(bh::consume)
+				.blockLast();
+	}
+
+	@Benchmark
+	public void matchSingleDelimiter(MatcherData data, Blackhole bh) {
+		matchAll(DataBufferUtils.matcher(data.newline), data.buffer(), bh);
+	}
+
+	@Benchmark
+	public void matchMultipleDelimiters(MatcherData data, Blackhole bh) {
+		matchAll(DataBufferUtils.matcher(data.delimiters), data.buffer(), bh);
+	}
+
+	@Benchmark
+	public void matchMultiByteDelimiter(MatcherData data, Blackhole bh) {
+		matchAll(DataBufferUtils.matcher(data.crlf), data.buffer(), bh);
+	}
+
+	private static void matchAll(DataBufferUtils.Matcher matcher, DataBuffer buffer, Blackhole bh) {
+		int endIndex;
+		while ((endIndex = matcher.match(buffer)) != -1) {
+			bh.consume(endIndex);
+			buffer.readPosition(endIndex + 1);
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class InputData {
+
+		@Param({"1024", "65536", "1048576"})
+		public int inputSize;
+
+		@Param({"false", "true"})
+		public boolean direct;
+
+		public DataBufferFactory bufferFactory;
+
+		public byte[] content;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.bufferFactory = new DefaultDataBufferFactory(this.direct);
+			StringBuilder builder = new StringBuilder(this.inputSize + 128);
+			for (int i = 0; builder.length() < this.inputSize; i++) {
+				builder.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i)
+						.append("\",\"tags\":[\"alpha\",\"beta\"],\"active\":").append(i % 2 == 0)
+						.append(i % 4 == 0 ? "}\r\n" : "}\n");
+			}
+			this.content = builder.substring(0, this.inputSize).getBytes(StandardCharsets.UTF_8);
+		}
+
+		DataBuffer createBuffer(int offset, int length) {
+			DataBuffer buffer = this.bufferFactory.allocateBuffer(length);
+			buffer.write(this.content, offset, length);
+			return buffer;
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class DecoderData extends InputData {
+
+		private static final int CHUNK_SIZE = 8192;
+
+		public StringDecoder decoder = StringDecoder.allMimeTypes();
+
+		public ResolvableType elementType = ResolvableType.forClass(String.class);
+
+		Flux<DataBuffer> input() {
+			List<DataBuffer> chunks = new ArrayList<>();
+			for (int offset = 0; offset < this.content.length; offset += CHUNK_SIZE) {
+				chunks.add(createBuffer(offset, Math.min(CHUNK_SIZE, this.content.length - offset)));
+			}
+			return Flux.fromIterable(chunks);
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class MatcherData extends InputData {
+
+		public byte[] newline = "\n".getBytes(StandardCharsets.UTF_8);
+
+		public byte[] crlf = "\r\n".getBytes(StandardCharsets.UTF_8);
+
+		public byte[][] delimiters = {this.crlf, this.newline};
+
+		private DataBuffer buffer;
+
+		@Setup(Level.Trial)
+		public void setupBuffer() {
+			this.buffer = createBuffer(0, this.content.length);
+		}
+
+		DataBuffer buffer() {
+			return this.buffer.readPosition(0);
+		}
+	}
+
+}
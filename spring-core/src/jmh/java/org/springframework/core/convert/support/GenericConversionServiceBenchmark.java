@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Benchmarks for {@link GenericConversionService#convert} with the converters
+ * registered by {@link DefaultConversionService}.
+ *
+ * @since 5.3
+ */
+@BenchmarkMode(Mode.Throughput)
+public class GenericConversionServiceBenchmark {
+
+	@Benchmark
+	public void convertStringToInteger(ConversionData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert("42", Integer.class));
+	}
+
+	@Benchmark
+	public void convertIntegerToString(ConversionData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert(42, String.class));
+	}
+
+	@Benchmark
+	public void convertStringToEnum(ConversionData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert("SECONDS", TimeUnit.class));
+	}
+
+	@Benchmark
+	public void convertListOfStringsToListOfIntegers(ConversionData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert(data.source, data.sourceType, data.targetType));
+	}
+
+	@Benchmark
+	public void canConvert(ConversionData data, Blackhole bh) {
+		bh.consume(data.conversionService.canConvert(String.class, Long.class));
+	}
+
+	@State(Scope.Benchmark)
+	public static class ConversionData {
+
+		public GenericConversionService conversionService;
+
+		public List<String> source;
+
+		public TypeDescriptor sourceType;
+
+		public TypeDescriptor targetType;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.conversionService = new DefaultConversionService();
+			this.source = Arrays.asList("1", "2", "3", "4", "5");
+			this.sourceType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(String.class));
+			this.targetType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(Integer.class));
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher#match(String, String)}, matching a set of
+ * request paths against a set of patterns as a handler mapping would, compared
+ * with a single lookup in an {@link AntPathPatternSet}.
+ *
+ * @since 5.3
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	private static final String TEMPLATE_PATTERN = "/api/{version}/{resource}/**";
+
+	@Benchmark
+	public void matchAllPatterns(PatternsData data, Blackhole bh) {
+		for (String path : data.paths) {
+			for (String pattern : data.patterns) {
+				bh.consume(data.matcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchAllPatternsWithoutCache(PatternsData data, Blackhole bh) {
+		for (String path : data.paths) {
+			for (String pattern : data.patterns) {
+				bh.consume(data.uncachedMatcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchPatternSet(PatternsData data, Blackhole bh) {
+		for (String path : data.paths) {
+			bh.consume(data.patternSet.getMatchingPatterns(path));
+		}
+	}
+
+	@Benchmark
+	public void extractUriTemplateVariables(PatternsData data, Blackhole bh) {
+		for (String path : data.paths) {
+			if (data.matcher.match(TEMPLATE_PATTERN, path)) {
+				bh.consume(data.matcher.extractUriTemplateVariables(TEMPLATE_PATTERN, path));
+			}
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class PatternsData {
+
+		@Param({"10", "100"})
+		public int patternCount;
+
+		public AntPathMatcher matcher;
+
+		public AntPathMatcher uncachedMatcher;
+
+		public List<String> patterns;
+
+		public AntPathPatternSet patternSet;
+
+		public List<String> paths;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.matcher = new AntPathMatcher();
+			this.uncachedMatcher = new AntPathMatcher();
+			this.uncachedMatcher.setCachePatterns(false);
+			this.patterns = new ArrayList<>(this.patternCount);
+			for (int i = 0; i < this.patternCount; i++) {
+				switch (i % 4) {
+					case 0:
+						this.patterns.add("/api/v1/resource" + i + "/{id}");
+						break;
+					case 1:
+						this.patterns.add("/api/v1/resource" + i + "/**");
+						break;
+					case 2:
+						this.patterns.add("/static/resource" + i + "/*.js");
+						break;
+					default:
+						this.patterns.add("/api/v?/resource" + i + "/{id}/items/{item:[a-z]+}");
+				}
+			}
+			this.patternSet = new AntPathPatternSet(this.matcher, this.patterns);
+			this.paths = new ArrayList<>();
+			this.paths.add("/api/v1/resource4/42");
+			this.paths.add("/api/v1/resource5/some/nested/path");
+			this.paths.add("/static/resource6/app.js");
+			this.paths.add("/api/v2/resource7/42/items/book");
+			this.paths.add("/not/matching/anything");
+		}
+	}
+
+}
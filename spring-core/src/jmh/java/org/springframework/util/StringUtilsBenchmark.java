@@ -0,0 +1,68 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the tokenizing and path methods of {@link StringUtils}.
+ *
+ * @since 5.3
+ */
+@BenchmarkMode(Mode.Throughput)
+public class StringUtilsBenchmark {
+
+	@Benchmark
+	public void tokenizeToStringArray(DelimitedData data, Blackhole bh) {
+		bh.consume(StringUtils.tokenizeToStringArray(data.value, data.delimiters));
+	}
+
+	@Benchmark
+	public void commaDelimitedListToStringArray(DelimitedData data, Blackhole bh) {
+		bh.consume(StringUtils.commaDelimitedListToStringArray(data.value));
+	}
+
+	@Benchmark
+	public void delimitedListToStringArray(DelimitedData data, Blackhole bh) {
+		bh.consume(StringUtils.delimitedListToStringArray(data.value, ","));
+	}
+
+	@Benchmark
+	public void cleanPath(PathData data, Blackhole bh) {
+		bh.consume(StringUtils.cleanPath(data.path));
+	}
+
+	@State(Scope.Benchmark)
+	public static class DelimitedData {
+
+		public String value = "text/html, application/xhtml+xml ,application/xml;q=0.9, image/webp, */*;q=0.8";
+
+		public String delimiters = ",; \t\n";
+	}
+
+	@State(Scope.Benchmark)
+	public static class PathData {
+
+		public String path = "/static/./js/../css/vendor/../app/./main/../../theme.css";
+	}
+
+}
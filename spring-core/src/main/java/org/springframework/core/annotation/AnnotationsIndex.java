@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of the annotation types present on classes and their methods, as
+ * recorded at build time in {@value #INDEX_LOCATION} files by the
+ * {@code AnnotationsIndexer} processor of {@code spring-context-indexer}.
+ *
+ * <p>An entry lists every annotation type, including meta-annotations, that
+ * may be found when searching the complete type hierarchy of a class or of
+ * one of its methods. The index is therefore only used to determine that an
+ * annotation is <em>not</em> present, so that reflective scanning can be
+ * skipped; elements without an entry are always scanned.
+ *
+ * <p>Entries are only recorded for classes whose complete hierarchy is compiled
+ * in the same module. Since the annotation types themselves may come from a
+ * library that is upgraded independently, their meta-annotations are expanded
+ * again from the loaded annotation classes the first time an entry is used;
+ * entries referring to annotation types that cannot be loaded are ignored.
+ *
+ * <p>The index can be ignored by setting the {@value #IGNORE_INDEX} system
+ * property or Spring property to {@code true}, which also ignores the
+ * candidate components index.
+ *
+ * @author Spring Team
+ * @since 5.3
+ */
+final class AnnotationsIndex {
+
+	/**
+	 * The location to look for annotation index files.
+	 * Can be present in multiple JAR files.
+	 */
+	static final String INDEX_LOCATION = "META-INF/spring.annotations";
+
+	/**
+	 * System property that instructs Spring to ignore build-time indexes.
+	 */
+	static final String IGNORE_INDEX = "spring.index.ignore";
+
+	private static final String METHODS_SUFFIX = "#methods";
+
+	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
+
+	/** Marker for classes without a usable entry. */
+	private static final Set<String> NO_ENTRY = Collections.unmodifiableSet(new HashSet<>());
+
+	private static final AnnotationsIndex NONE = new AnnotationsIndex(Collections.emptyMap());
+
+	private static final Map<ClassLoader, AnnotationsIndex> cache = new ConcurrentReferenceHashMap<>();
+
+	private static final Log logger = LogFactory.getLog(AnnotationsIndex.class);
+
+
+	private final Map<String, Set<String>> entries;
+
+	/** Resolved entries per class, keyed by class to avoid building string keys. */
+	private final Map<Class<?>, Set<String>> resolvedTypeEntries = new ConcurrentReferenceHashMap<>();
+
+	/** Resolved method entries per declaring class. */
+	private final Map<Class<?>, Set<String>> resolvedMethodEntries = new ConcurrentReferenceHashMap<>();
+
+
+	AnnotationsIndex(Map<String, Set<String>> entries) {
+		this.entries = entries;
+	}
+
+
+	/**
+	 * Determine whether the given annotation type is known to be absent from
+	 * the element when searched with the given strategy.
+	 * @param element the source element
+	 * @param searchStrategy the search strategy
+	 * @param annotationType the fully qualified annotation type name
+	 * @return {@code true} if the annotation is known to be absent, or
+	 * {@code false} if it may be present
+	 */
+	boolean isKnownAbsent(AnnotatedElement element, SearchStrategy searchStrategy, String annotationType) {
+		Set<String> annotationTypes = getAnnotationTypes(element, searchStrategy);
+		return (annotationTypes != null && !annotationTypes.contains(annotationType));
+	}
+
+	/**
+	 * Determine whether the element is known to have no annotations at all
+	 * when searched with the given strategy.
+	 * @param element the source element
+	 * @param searchStrategy the search strategy
+	 * @return {@code true} if the element is known to have no annotations
+	 */
+	boolean isKnownEmpty(AnnotatedElement element, SearchStrategy searchStrategy) {
+		Set<String> annotationTypes = getAnnotationTypes(element, searchStrategy);
+		return (annotationTypes != null && annotationTypes.isEmpty());
+	}
+
+	@Nullable
+	private Set<String> getAnnotationTypes(AnnotatedElement element, SearchStrategy searchStrategy) {
+		if (this.entries.isEmpty() || searchStrategy == SearchStrategy.TYPE_HIERARCHY_AND_ENCLOSING_CLASSES) {
+			return null;
+		}
+		Class<?> source;
+		Map<Class<?>, Set<String>> resolvedEntries;
+		if (element instanceof Class) {
+			source = (Class<?>) element;
+			resolvedEntries = this.resolvedTypeEntries;
+		}
+		else if (element instanceof Method) {
+			source = ((Method) element).getDeclaringClass();
+			resolvedEntries = this.resolvedMethodEntries;
+		}
+		else {
+			return null;
+		}
+		Set<String> annotationTypes = resolvedEntries.get(source);
+		if (annotationTypes == null) {
+			String key = (resolvedEntries == this.resolvedMethodEntries ?
+					source.getName() + METHODS_SUFFIX : source.getName());
+			Set<String> recordedTypes = this.entries.get(key);
+			// Resolved outside of the map since loading annotation types may consult the index
+			annotationTypes = (recordedTypes != null ?
+					resolveAnnotationTypes(recordedTypes, source.getClassLoader()) : NO_ENTRY);
+			resolvedEntries.putIfAbsent(source, annotationTypes);
+		}
+		return (annotationTypes != NO_ENTRY ? annotationTypes : null);
+	}
+
+	private static Set<String> resolveAnnotationTypes(Set<String> recordedTypes, @Nullable ClassLoader classLoader) {
+		Set<String> annotationTypes = new HashSet<>(recordedTypes);
+		for (String recordedType : recordedTypes) {
+			if (recordedType.startsWith("java.")) {
+				continue;
+			}
+			try {
+				Class<?> type = ClassUtils.forName(recordedType, classLoader);
+				if (type.isAnnotation()) {
+					AnnotationTypeMappings mappings = AnnotationTypeMappings.forAnnotationType(
+							type.asSubclass(Annotation.class));
+					for (int i = 0; i < mappings.size(); i++) {
+						annotationTypes.add(mappings.get(i).getAnnotationType().getName());
+					}
+				}
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring annotations index entry referring to unresolvable type [" +
+							recordedType + "]: " + ex);
+				}
+				return NO_ENTRY;
+			}
+		}
+		return annotationTypes;
+	}
+
+
+	/**
+	 * Return the index to use for the given element, loading it from the
+	 * class loader of the element's class if necessary.
+	 * @param element the source element
+	 * @return the index, possibly empty
+	 */
+	static AnnotationsIndex forElement(AnnotatedElement element) {
+		if (shouldIgnoreIndex) {
+			return NONE;
+		}
+		ClassLoader classLoader = null;
+		if (element instanceof Class) {
+			classLoader = ((Class<?>) element).getClassLoader();
+		}
+		else if (element instanceof Method) {
+			classLoader = ((Method) element).getDeclaringClass().getClassLoader();
+		}
+		if (classLoader == null) {
+			return NONE;
+		}
+		return cache.computeIfAbsent(classLoader, AnnotationsIndex::load);
+	}
+
+	private static AnnotationsIndex load(ClassLoader classLoader) {
+		try {
+			Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return NONE;
+			}
+			Map<String, Set<String>> entries = new HashMap<>();
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				Properties properties = new Properties();
+				try (InputStream inputStream = url.openStream()) {
+					properties.load(inputStream);
+				}
+				properties.forEach((key, value) -> entries.computeIfAbsent((String) key, k -> new HashSet<>())
+						.addAll(StringUtils.commaDelimitedListToSet((String) value)));
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + entries.size() + " annotations index entries");
+			}
+			return new AnnotationsIndex(entries);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load annotations index from location [" +
+					INDEX_LOCATION + "]", ex);
+		}
+	}
+
+}
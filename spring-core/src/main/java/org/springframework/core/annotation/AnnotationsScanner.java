@@ -485,6 +485,9 @@ abstract class AnnotationsScanner {
 		if (hasPlainJavaAnnotationsOnly(source)) {
 			return true;
 		}
+		if (AnnotationsIndex.forElement(source).isKnownEmpty(source, searchStrategy)) {
+			return true;
+		}
 		if (searchStrategy == SearchStrategy.DIRECT || isWithoutHierarchy(source, searchStrategy)) {
 			if (source instanceof Method && ((Method) source).isBridge()) {
 				return false;
@@ -66,6 +66,9 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	@Nullable
 	private volatile List<Aggregate> aggregates;
 
+	@Nullable
+	private volatile AnnotationsIndex index;
+
 
 	private TypeMappedAnnotations(AnnotatedElement element, SearchStrategy searchStrategy,
 			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
@@ -92,7 +95,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public <A extends Annotation> boolean isPresent(Class<A> annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -101,7 +104,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public boolean isPresent(String annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -110,7 +113,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public <A extends Annotation> boolean isDirectlyPresent(Class<A> annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -119,7 +122,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public boolean isDirectlyPresent(String annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -143,7 +146,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
 			@Nullable MergedAnnotationSelector<A> selector) {
 
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return MergedAnnotation.missing();
 		}
 		MergedAnnotation<A> result = scan(annotationType,
@@ -168,7 +171,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
 			@Nullable MergedAnnotationSelector<A> selector) {
 
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return MergedAnnotation.missing();
 		}
 		MergedAnnotation<A> result = scan(annotationType,
@@ -232,6 +235,22 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return aggregates;
 	}
 
+	private boolean isKnownAbsent(Class<?> annotationType) {
+		return isKnownAbsent(annotationType.getName());
+	}
+
+	private boolean isKnownAbsent(String annotationType) {
+		if (this.element == null || this.searchStrategy == null) {
+			return false;
+		}
+		AnnotationsIndex index = this.index;
+		if (index == null) {
+			index = AnnotationsIndex.forElement(this.element);
+			this.index = index;
+		}
+		return index.isKnownAbsent(this.element, this.searchStrategy, annotationType);
+	}
+
 	@Nullable
 	private <C, R> R scan(C criteria, AnnotationsProcessor<C, R> processor) {
 		if (this.annotations != null) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,9 @@ import org.springframework.util.StreamUtils;
 /**
  * Encoder for {@link Resource Resources}.
  *
+ * <p>Resources in the file system may be read from memory-mapped regions
+ * instead, see {@link #setUseMemoryMappedFiles}.
+ *
  * @author Arjen Poutsma
  * @since 5.0
  */
@@ -46,6 +49,8 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 
 	private final int bufferSize;
 
+	private boolean useMemoryMappedFiles = false;
+
 
 	public ResourceEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -57,6 +62,28 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Whether to read resources in the file system from memory-mapped regions
+	 * when encoding with a {@link org.springframework.core.io.buffer.DefaultDataBufferFactory},
+	 * avoiding copies of the file content, see {@link DataBufferUtils#readZeroCopy}.
+	 * <p>By default this is set to {@code false}, reading files through an
+	 * {@link java.nio.channels.AsynchronousFileChannel}. Note that mapped buffers
+	 * are read in the subscriber's thread, potentially blocking on page faults,
+	 * and that files must not be truncated while mapped.
+	 * @since 5.3
+	 */
+	public void setUseMemoryMappedFiles(boolean useMemoryMappedFiles) {
+		this.useMemoryMappedFiles = useMemoryMappedFiles;
+	}
+
+	/**
+	 * Return whether resources in the file system are read from memory-mapped regions.
+	 * @since 5.3
+	 */
+	public boolean isUseMemoryMappedFiles() {
+		return this.useMemoryMappedFiles;
+	}
+
 
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
@@ -72,6 +99,9 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 			String logPrefix = Hints.getLogPrefix(hints);
 			logger.debug(logPrefix + "Writing [" + resource + "]");
 		}
+		if (this.useMemoryMappedFiles) {
+			return DataBufferUtils.readZeroCopy(resource, 0, bufferFactory, this.bufferSize);
+		}
 		return DataBufferUtils.read(resource, bufferFactory, this.bufferSize);
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,6 +41,9 @@ import org.springframework.util.StreamUtils;
 /**
  * Encoder for {@link ResourceRegion ResourceRegions}.
  *
+ * <p>Resources in the file system may be read from memory-mapped regions
+ * instead, see {@link #setUseMemoryMappedFiles}.
+ *
  * @author Brian Clozel
  * @since 5.0
  */
@@ -58,6 +61,8 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 
 	private final int bufferSize;
 
+	private boolean useMemoryMappedFiles = false;
+
 
 	public ResourceRegionEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -69,6 +74,28 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Whether to read resources in the file system from memory-mapped regions
+	 * when encoding with a {@link org.springframework.core.io.buffer.DefaultDataBufferFactory},
+	 * avoiding copies of the file content, see {@link DataBufferUtils#readZeroCopy}.
+	 * <p>By default this is set to {@code false}, reading files through an
+	 * {@link java.nio.channels.AsynchronousFileChannel}. Note that mapped buffers
+	 * are read in the subscriber's thread, potentially blocking on page faults,
+	 * and that files must not be truncated while mapped.
+	 * @since 5.3
+	 */
+	public void setUseMemoryMappedFiles(boolean useMemoryMappedFiles) {
+		this.useMemoryMappedFiles = useMemoryMappedFiles;
+	}
+
+	/**
+	 * Return whether resources in the file system are read from memory-mapped regions.
+	 * @since 5.3
+	 */
+	public boolean isUseMemoryMappedFiles() {
+		return this.useMemoryMappedFiles;
+	}
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		return super.canEncode(elementType, mimeType)
@@ -129,7 +156,9 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 					"Writing region " + position + "-" + (position + count) + " of [" + resource + "]");
 		}
 
-		Flux<DataBuffer> in = DataBufferUtils.read(resource, position, bufferFactory, this.bufferSize);
+		Flux<DataBuffer> in = (this.useMemoryMappedFiles ?
+				DataBufferUtils.readZeroCopy(resource, position, bufferFactory, this.bufferSize) :
+				DataBufferUtils.read(resource, position, bufferFactory, this.bufferSize));
 		return DataBufferUtils.takeUntilByteCount(in, count);
 	}
 
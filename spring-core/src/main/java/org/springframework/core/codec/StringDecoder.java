@@ -16,7 +16,6 @@
 
 package org.springframework.core.codec;
 
-import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -156,19 +155,18 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 				}
 				int startIndex = buffer.readPosition();
 				int length = (endIndex - startIndex + 1);
-				DataBuffer slice = buffer.retainedSlice(startIndex, length);
+				DataBuffer line = buffer.retainedSlice(startIndex, length);
+				if (!chunks.isEmpty()) {
+					chunks.add(line);
+					line = buffer.factory().join(chunks);
+					chunks.clear();
+				}
 				if (this.stripDelimiter) {
-					slice.writePosition(slice.writePosition() - matcher.delimiter().length);
+					// Strip after joining: the delimiter may span chunks
+					line.writePosition(line.writePosition() - matcher.delimiter().length);
 				}
 				result = (result != null ? result : new ArrayList<>());
-				if (chunks.isEmpty()) {
-					result.add(slice);
-				}
-				else {
-					chunks.add(slice);
-					result.add(buffer.factory().join(chunks));
-					chunks.clear();
-				}
+				result.add(line);
 				buffer.readPosition(endIndex + 1);
 			}
 			while (buffer.readableByteCount() > 0);
@@ -184,9 +182,8 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Charset charset = getCharset(mimeType);
-		CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
+		String value = dataBuffer.toString(charset);
 		DataBufferUtils.release(dataBuffer);
-		String value = charBuffer.toString();
 		LogFormatUtils.traceDebug(logger, traceOn -> {
 			String formatted = LogFormatUtils.formatValue(value, !traceOn);
 			return Hints.getLogPrefix(hints) + "Decoded " + formatted;
@@ -20,6 +20,7 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.core.DecoratingProxy;
 import org.springframework.core.ResolvableType;
@@ -54,6 +56,19 @@ import org.springframework.util.StringUtils;
  * Indirectly implements {@link ConverterRegistry} as registration API through the
  * {@link ConfigurableConversionService} interface.
  *
+ * <p>Class-based requests via {@link #convert(Object, Class)} and
+ * {@link #canConvert(Class, Class)} are served from a dispatch table keyed by
+ * source and target class, without creating {@link TypeDescriptor} instances.
+ * The table holds classes that are cache-safe for the class loader of this
+ * service, up to a fixed number of class pairs; other requests go through the
+ * regular converter lookup. The table is not used by subclasses that override
+ * {@link #canConvert(TypeDescriptor, TypeDescriptor)},
+ * {@link #convert(Object, TypeDescriptor, TypeDescriptor)} or
+ * {@link #getConverter(TypeDescriptor, TypeDescriptor)}, so that class-based
+ * requests keep going through those methods. Table hits and misses are
+ * available through {@link #getDispatchHitCount()} and
+ * {@link #getDispatchMissCount()}.
+ *
  * @author Keith Donald
  * @author Juergen Hoeller
  * @author Chris Beams
@@ -74,11 +89,31 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	private static final GenericConverter NO_MATCH = new NoOpConverter("NO_MATCH");
 
+	/**
+	 * Maximum number of source/target class pairs in the dispatch table.
+	 */
+	private static final int DISPATCH_TABLE_LIMIT = 512;
+
 
 	private final Converters converters = new Converters();
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/** Copy-on-write dispatch table: target class to source class to converter. */
+	private volatile Map<Class<?>, Map<Class<?>, ConverterDispatch>> dispatchTable = Collections.emptyMap();
+
+	private volatile int dispatchTableVersion;
+
+	private int dispatchTableSize;
+
+	private final Object dispatchTableMonitor = new Object();
+
+	private final LongAdder dispatchHitCount = new LongAdder();
+
+	private final LongAdder dispatchMissCount = new LongAdder();
+
+	private final boolean dispatchEnabled = !overridesTypeDescriptorMethods(getClass());
+
 
 	// ConverterRegistry implementation
 
@@ -133,8 +168,14 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
-				TypeDescriptor.valueOf(targetType));
+		if (!this.dispatchEnabled) {
+			return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
+					TypeDescriptor.valueOf(targetType));
+		}
+		if (sourceType == null) {
+			return true;
+		}
+		return (getConverterDispatch(sourceType, targetType).converter != null);
 	}
 
 	@Override
@@ -172,6 +213,14 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		if (source != null && this.dispatchEnabled) {
+			ConverterDispatch dispatch = getConverterDispatch(source.getClass(), targetType);
+			if (dispatch.converter != null) {
+				Object result = ConversionUtils.invokeConverter(
+						dispatch.converter, source, dispatch.sourceType, dispatch.targetType);
+				return (T) handleResult(dispatch.sourceType, dispatch.targetType, result);
+			}
+		}
 		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
 	}
 
@@ -213,6 +262,29 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return convert(source, TypeDescriptor.forObject(source), targetType);
 	}
 
+	/**
+	 * Return the number of class-based conversion requests served from the
+	 * dispatch table.
+	 * @since 5.3
+	 * @see #convert(Object, Class)
+	 * @see #canConvert(Class, Class)
+	 */
+	public long getDispatchHitCount() {
+		return this.dispatchHitCount.sum();
+	}
+
+	/**
+	 * Return the number of class-based conversion requests that required a
+	 * regular converter lookup, either for a first request of its source and
+	 * target class pair or for a pair that the dispatch table does not hold.
+	 * @since 5.3
+	 * @see #convert(Object, Class)
+	 * @see #canConvert(Class, Class)
+	 */
+	public long getDispatchMissCount() {
+		return this.dispatchMissCount.sum();
+	}
+
 	@Override
 	public String toString() {
 		return this.converters.toString();
@@ -305,6 +377,69 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		synchronized (this.dispatchTableMonitor) {
+			this.dispatchTable = Collections.emptyMap();
+			this.dispatchTableSize = 0;
+			this.dispatchTableVersion++;
+		}
+	}
+
+	/**
+	 * Determine whether the given subclass overrides any of the methods that
+	 * the dispatch table would otherwise bypass for class-based requests.
+	 */
+	private static boolean overridesTypeDescriptorMethods(Class<?> clazz) {
+		for (Class<?> current = clazz; current != GenericConversionService.class; current = current.getSuperclass()) {
+			if (declaresMethod(current, "canConvert", TypeDescriptor.class, TypeDescriptor.class) ||
+					declaresMethod(current, "convert", Object.class, TypeDescriptor.class, TypeDescriptor.class) ||
+					declaresMethod(current, "getConverter", TypeDescriptor.class, TypeDescriptor.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean declaresMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+		try {
+			clazz.getDeclaredMethod(name, parameterTypes);
+			return true;
+		}
+		catch (NoSuchMethodException ex) {
+			return false;
+		}
+	}
+
+	private ConverterDispatch getConverterDispatch(Class<?> sourceClass, Class<?> targetClass) {
+		Map<Class<?>, ConverterDispatch> dispatchesForTarget = this.dispatchTable.get(targetClass);
+		if (dispatchesForTarget != null) {
+			ConverterDispatch dispatch = dispatchesForTarget.get(sourceClass);
+			if (dispatch != null) {
+				this.dispatchHitCount.increment();
+				return dispatch;
+			}
+		}
+		this.dispatchMissCount.increment();
+		int version = this.dispatchTableVersion;
+		TypeDescriptor sourceType = TypeDescriptor.valueOf(sourceClass);
+		TypeDescriptor targetType = TypeDescriptor.valueOf(targetClass);
+		ConverterDispatch dispatch = new ConverterDispatch(getConverter(sourceType, targetType), sourceType, targetType);
+		ClassLoader classLoader = getClass().getClassLoader();
+		if (ClassUtils.isCacheSafe(sourceClass, classLoader) && ClassUtils.isCacheSafe(targetClass, classLoader)) {
+			synchronized (this.dispatchTableMonitor) {
+				// Skip if converters changed in the meantime, or if the table is full
+				if (version == this.dispatchTableVersion && this.dispatchTableSize < DISPATCH_TABLE_LIMIT) {
+					Map<Class<?>, Map<Class<?>, ConverterDispatch>> table = new HashMap<>(this.dispatchTable);
+					Map<Class<?>, ConverterDispatch> dispatches = new HashMap<>(
+							table.getOrDefault(targetClass, Collections.emptyMap()));
+					if (dispatches.putIfAbsent(sourceClass, dispatch) == null) {
+						table.put(targetClass, dispatches);
+						this.dispatchTable = table;
+						this.dispatchTableSize++;
+					}
+				}
+			}
+		}
+		return dispatch;
 	}
 
 	@Nullable
@@ -444,6 +579,27 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Entry of the dispatch table: the converter for a source and target class,
+	 * along with the type descriptors to invoke it with.
+	 */
+	private static final class ConverterDispatch {
+
+		@Nullable
+		final GenericConverter converter;
+
+		final TypeDescriptor sourceType;
+
+		final TypeDescriptor targetType;
+
+		ConverterDispatch(@Nullable GenericConverter converter, TypeDescriptor sourceType, TypeDescriptor targetType) {
+			this.converter = converter;
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+		}
+	}
+
+
 	/**
 	 * Key for use with the converter cache.
 	 */
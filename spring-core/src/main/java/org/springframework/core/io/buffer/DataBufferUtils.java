@@ -21,15 +21,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -37,6 +41,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -65,6 +70,18 @@ public abstract class DataBufferUtils {
 
 	private static final Consumer<DataBuffer> RELEASE_CONSUMER = DataBufferUtils::release;
 
+	/**
+	 * Maximum number of bytes mapped into memory at once by
+	 * {@link #readMappedFileChannel}.
+	 */
+	private static final long MAX_MAPPED_REGION_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Minimum number of bytes to read for {@link #readZeroCopy} to map a file
+	 * into memory, below which a regular read is cheaper.
+	 */
+	private static final long MAPPED_READ_THRESHOLD = 64 * 1024;
+
 
 	//---------------------------------------------------------------------
 	// Reading
@@ -233,6 +250,83 @@ public abstract class DataBufferUtils {
 	}
 
 
+	/**
+	 * Obtain a {@code FileChannel} from the given supplier, and map it into
+	 * memory as a {@code Flux} of read-only {@code DataBuffer}s, starting at
+	 * the given position. Closes the channel when the Flux is terminated.
+	 * <p>The returned buffers are created through
+	 * {@link DataBufferFactory#wrap(ByteBuffer)} over slices of
+	 * {@link MappedByteBuffer}s, so the file content is not copied into
+	 * buffers allocated from the factory. The file is mapped in regions of
+	 * at most 64 MB, and the mapped memory is released when the buffers are
+	 * garbage collected. Note that accessing the mapped buffers may block on
+	 * page faults when the file content is not in the file system cache.
+	 * @param channelSupplier the supplier for the channel to read from
+	 * @param position the position to start reading from
+	 * @param bufferFactory the factory to wrap the mapped buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a Flux of data buffers read from the given channel
+	 * @since 5.3
+	 */
+	public static Flux<DataBuffer> readMappedFileChannel(
+			Callable<FileChannel> channelSupplier, long position, DataBufferFactory bufferFactory, int bufferSize) {
+
+		Assert.notNull(channelSupplier, "'channelSupplier' must not be null");
+		Assert.notNull(bufferFactory, "'dataBufferFactory' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be > 0");
+
+		return Flux.using(channelSupplier,
+				channel -> Flux.generate(new MappedFileChannelGenerator(channel, position, bufferFactory, bufferSize)),
+				DataBufferUtils::closeChannel);
+
+		// No doOnDiscard as operators used do not cache
+	}
+
+	/**
+	 * Read the given {@code Resource} into a {@code Flux} of {@code DataBuffer}s
+	 * starting at the given position, avoiding copies of the file content
+	 * where possible.
+	 * <p>If the resource is a file of which at least 64 KB are to be read, and
+	 * the buffer factory is a {@link DefaultDataBufferFactory}, the file is
+	 * read via {@link #readMappedFileChannel}, wrapping memory-mapped regions
+	 * of the file rather than copying them into allocated buffers. Otherwise
+	 * this method falls back on {@link #read(Resource, long, DataBufferFactory, int)}.
+	 * <p>In contrast to {@code read}, mapping a file is a blocking operation,
+	 * and so is accessing mapped content that is not in the file system cache:
+	 * This method is therefore not suitable for subscribers on an event loop
+	 * thread. Truncating a file while it is mapped leads to undefined behavior,
+	 * up to a crash of the JVM, and some operating systems (e.g. Windows) keep
+	 * a mapped file locked until its buffers have been garbage collected.
+	 * @param resource the resource to read from
+	 * @param position the position to start reading from
+	 * @param bufferFactory the factory to create data buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a Flux of data buffers read from the given resource
+	 * @since 5.3
+	 */
+	public static Flux<DataBuffer> readZeroCopy(
+			Resource resource, long position, DataBufferFactory bufferFactory, int bufferSize) {
+
+		if (bufferFactory instanceof DefaultDataBufferFactory) {
+			try {
+				if (resource.isFile()) {
+					File file = resource.getFile();
+					if (file.length() - position >= MAPPED_READ_THRESHOLD) {
+						return readMappedFileChannel(
+								() -> FileChannel.open(file.toPath(), StandardOpenOption.READ),
+								position, bufferFactory, bufferSize);
+					}
+				}
+			}
+			catch (IOException ignore) {
+				// fallback to regular read, below
+			}
+		}
+		return read(resource, position, bufferFactory, bufferSize);
+	}
+
+
 	//---------------------------------------------------------------------
 	// Writing
 	//---------------------------------------------------------------------
@@ -573,7 +667,11 @@ public abstract class DataBufferUtils {
 	 * @since 5.2
 	 */
 	public static Matcher matcher(byte[] delimiter) {
-		return createMatcher(delimiter);
+		Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
+		if (delimiter.length == 1) {
+			return (delimiter[0] == 10 ? SingleByteMatcher.NEWLINE_MATCHER : new SingleByteMatcher(delimiter));
+		}
+		return new KnuthMorrisPrattMatcher(delimiter);
 	}
 
 	/**
@@ -585,19 +683,7 @@ public abstract class DataBufferUtils {
 	 */
 	public static Matcher matcher(byte[]... delimiters) {
 		Assert.isTrue(delimiters.length > 0, "Delimiters must not be empty");
-		return (delimiters.length == 1 ? createMatcher(delimiters[0]) : new CompositeMatcher(delimiters));
-	}
-
-	private static NestedMatcher createMatcher(byte[] delimiter) {
-		Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
-		switch (delimiter.length) {
-			case 1:
-				return (delimiter[0] == 10 ? SingleByteMatcher.NEWLINE_MATCHER : new SingleByteMatcher(delimiter));
-			case 2:
-				return new TwoByteMatcher(delimiter);
-			default:
-				return new KnuthMorrisPrattMatcher(delimiter);
-		}
+		return (delimiters.length == 1 ? matcher(delimiters[0]) : new AhoCorasickMatcher(delimiters));
 	}
 
 
@@ -629,108 +715,118 @@ public abstract class DataBufferUtils {
 
 
 	/**
-	 * Matcher that supports searching for multiple delimiters.
+	 * Set of bytes to search for, e.g. the bytes a delimiter can start with.
+	 * Buffers backed by a {@link DefaultDataBuffer} are scanned eight bytes at
+	 * a time if the set is small; others are searched via
+	 * {@link DataBuffer#indexOf(IntPredicate, int)}.
 	 */
-	private static class CompositeMatcher implements Matcher {
+	private static final class ByteSet {
 
-		private static final byte[] NO_DELIMITER = new byte[0];
+		private static final int MAX_PATTERNS = 3;
 
+		private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
 
-		private final NestedMatcher[] matchers;
+		private final boolean[] table;
 
-		byte[] longestDelimiter = NO_DELIMITER;
+		/** Each byte of the set repeated across a long, or null if too many. */
+		@Nullable
+		private final long[] patterns;
 
-		CompositeMatcher(byte[][] delimiters) {
-			this.matchers = initMatchers(delimiters);
-		}
+		private final IntPredicate predicate;
 
-		private static NestedMatcher[] initMatchers(byte[][] delimiters) {
-			NestedMatcher[] matchers = new NestedMatcher[delimiters.length];
-			for (int i = 0; i < delimiters.length; i++) {
-				matchers[i] = createMatcher(delimiters[i]);
-			}
-			return matchers;
-		}
-
-		@Override
-		public int match(DataBuffer dataBuffer) {
-			this.longestDelimiter = NO_DELIMITER;
-
-			for (int pos = dataBuffer.readPosition(); pos < dataBuffer.writePosition(); pos++) {
-				byte b = dataBuffer.getByte(pos);
-
-				for (NestedMatcher matcher : this.matchers) {
-					if (matcher.match(b) && matcher.delimiter().length > this.longestDelimiter.length) {
-						this.longestDelimiter = matcher.delimiter();
+		ByteSet(boolean[] table) {
+			this.table = table;
+			long[] patterns = new long[MAX_PATTERNS];
+			int count = 0;
+			for (int b = 0; b < table.length && count <= MAX_PATTERNS; b++) {
+				if (table[b]) {
+					if (count < MAX_PATTERNS) {
+						patterns[count] = b * 0x0101010101010101L;
 					}
-				}
-
-				if (this.longestDelimiter != NO_DELIMITER) {
-					reset();
-					return pos;
+					count++;
 				}
 			}
-			return -1;
+			this.patterns = (count <= MAX_PATTERNS ? Arrays.copyOf(patterns, count) : null);
+			this.predicate = value -> table[value & 0xFF];
 		}
 
-		@Override
-		public byte[] delimiter() {
-			Assert.state(this.longestDelimiter != NO_DELIMITER, "Illegal state!");
-			return this.longestDelimiter;
+		static ByteSet of(byte b) {
+			boolean[] table = new boolean[256];
+			table[b & 0xFF] = true;
+			return new ByteSet(table);
 		}
 
-		@Override
-		public void reset() {
-			for (NestedMatcher matcher : this.matchers) {
-				matcher.reset();
+		/**
+		 * Return the {@code ByteBuffer} backing the given data buffer for direct
+		 * index-based scanning, or {@code null} if not backed by a single one.
+		 */
+		@Nullable
+		static ByteBuffer byteBuffer(DataBuffer dataBuffer) {
+			while (dataBuffer instanceof DataBufferWrapper) {
+				dataBuffer = ((DataBufferWrapper) dataBuffer).dataBuffer();
 			}
+			return (dataBuffer instanceof DefaultDataBuffer ? ((DefaultDataBuffer) dataBuffer).getByteBuffer() : null);
 		}
-	}
-
-
-	/**
-	 * Matcher that can be nested within {@link CompositeMatcher} where multiple
-	 * matchers advance together using the same index, one byte at a time.
-	 */
-	private interface NestedMatcher extends Matcher {
 
 		/**
-		 * Perform a match against the next byte of the stream and return true
-		 * if the delimiter is fully matched.
+		 * Return the index of the first byte of this set at or after the given
+		 * index and before the write position of the given buffer, or -1.
+		 * @param dataBuffer the buffer to search
+		 * @param byteBuffer the buffer returned from {@link #byteBuffer(DataBuffer)}
+		 * @param fromIndex the index to start at
 		 */
-		boolean match(byte b);
-
+		int indexIn(DataBuffer dataBuffer, @Nullable ByteBuffer byteBuffer, int fromIndex) {
+			if (byteBuffer == null) {
+				return dataBuffer.indexOf(this.predicate, fromIndex);
+			}
+			int toIndex = dataBuffer.writePosition();
+			int index = fromIndex;
+			if (this.patterns != null) {
+				boolean bigEndian = (byteBuffer.order() == ByteOrder.BIG_ENDIAN);
+				for (; index + Long.BYTES <= toIndex; index += Long.BYTES) {
+					long word = byteBuffer.getLong(index);
+					long found = 0;
+					for (long pattern : this.patterns) {
+						long diff = word ^ pattern;
+						// High bit set in exactly the zero bytes of diff
+						found |= ~(((diff & LOW_BITS) + LOW_BITS) | diff | LOW_BITS);
+					}
+					if (found != 0) {
+						int offset = (bigEndian ? Long.numberOfLeadingZeros(found) : Long.numberOfTrailingZeros(found));
+						return index + (offset >>> 3);
+					}
+				}
+			}
+			for (; index < toIndex; index++) {
+				if (this.table[byteBuffer.get(index) & 0xFF]) {
+					return index;
+				}
+			}
+			return -1;
+		}
 	}
 
 
 	/**
 	 * Matcher for a single byte delimiter.
 	 */
-	private static class SingleByteMatcher implements NestedMatcher {
+	private static class SingleByteMatcher implements Matcher {
 
 		static SingleByteMatcher NEWLINE_MATCHER = new SingleByteMatcher(new byte[] {10});
 
 		private final byte[] delimiter;
 
+		private final ByteSet byteSet;
+
 		SingleByteMatcher(byte[] delimiter) {
 			Assert.isTrue(delimiter.length == 1, "Expected a 1 byte delimiter");
 			this.delimiter = delimiter;
+			this.byteSet = ByteSet.of(delimiter[0]);
 		}
 
 		@Override
 		public int match(DataBuffer dataBuffer) {
-			for (int pos = dataBuffer.readPosition(); pos < dataBuffer.writePosition(); pos++) {
-				byte b = dataBuffer.getByte(pos);
-				if (match(b)) {
-					return pos;
-				}
-			}
-			return -1;
-		}
-
-		@Override
-		public boolean match(byte b) {
-			return this.delimiter[0] == b;
+			return this.byteSet.indexIn(dataBuffer, ByteSet.byteBuffer(dataBuffer), dataBuffer.readPosition());
 		}
 
 		@Override
@@ -745,48 +841,71 @@ public abstract class DataBufferUtils {
 
 
 	/**
-	 * Base class for a {@link NestedMatcher}.
+	 * Implementation of {@link Matcher} that uses the Knuth-Morris-Pratt algorithm.
+	 * Outside of a partial match, input is skipped up to the next occurrence of
+	 * the first delimiter byte.
+	 * @see <a href="https://www.nayuki.io/page/knuth-morris-pratt-string-matching">Knuth-Morris-Pratt string matching</a>
 	 */
-	private static abstract class AbstractNestedMatcher implements NestedMatcher {
+	private static class KnuthMorrisPrattMatcher implements Matcher {
 
 		private final byte[] delimiter;
 
-		private int matches = 0;
+		private final int[] table;
 
+		private final ByteSet firstByte;
 
-		protected AbstractNestedMatcher(byte[] delimiter) {
-			this.delimiter = delimiter;
-		}
+		private int matches = 0;
 
-		protected void setMatches(int index) {
-			this.matches = index;
+		public KnuthMorrisPrattMatcher(byte[] delimiter) {
+			this.delimiter = delimiter;
+			this.table = longestSuffixPrefixTable(delimiter);
+			this.firstByte = ByteSet.of(delimiter[0]);
 		}
 
-		protected int getMatches() {
-			return this.matches;
+		private static int[] longestSuffixPrefixTable(byte[] delimiter) {
+			int[] result = new int[delimiter.length];
+			result[0] = 0;
+			for (int i = 1; i < delimiter.length; i++) {
+				int j = result[i - 1];
+				while (j > 0 && delimiter[i] != delimiter[j]) {
+					j = result[j - 1];
+				}
+				if (delimiter[i] == delimiter[j]) {
+					j++;
+				}
+				result[i] = j;
+			}
+			return result;
 		}
 
 		@Override
 		public int match(DataBuffer dataBuffer) {
-			for (int pos = dataBuffer.readPosition(); pos < dataBuffer.writePosition(); pos++) {
-				byte b = dataBuffer.getByte(pos);
-				if (match(b)) {
-					reset();
-					return pos;
+			ByteBuffer byteBuffer = ByteSet.byteBuffer(dataBuffer);
+			int end = dataBuffer.writePosition();
+			int matches = this.matches;
+			for (int pos = dataBuffer.readPosition(); pos < end; pos++) {
+				if (matches == 0) {
+					pos = this.firstByte.indexIn(dataBuffer, byteBuffer, pos);
+					if (pos == -1) {
+						break;
+					}
+				}
+				byte b = (byteBuffer != null ? byteBuffer.get(pos) : dataBuffer.getByte(pos));
+				while (matches > 0 && b != this.delimiter[matches]) {
+					matches = this.table[matches - 1];
+				}
+				if (b == this.delimiter[matches]) {
+					matches++;
+					if (matches == this.delimiter.length) {
+						this.matches = 0;
+						return pos;
+					}
 				}
 			}
+			this.matches = matches;
 			return -1;
 		}
 
-		@Override
-		public boolean match(byte b) {
-			if (b == this.delimiter[this.matches]) {
-				this.matches++;
-				return (this.matches == delimiter().length);
-			}
-			return false;
-		}
-
 		@Override
 		public byte[] delimiter() {
 			return this.delimiter;
@@ -800,53 +919,143 @@ public abstract class DataBufferUtils {
 
 
 	/**
-	 * Matcher with a 2 byte delimiter that does not benefit from a
-	 * Knuth-Morris-Pratt suffix-prefix table.
+	 * Matcher that supports searching for multiple delimiters, based on an
+	 * Aho-Corasick automaton, i.e. a Knuth-Morris-Pratt table generalized to
+	 * multiple delimiters, compiled into a transition table so that each byte
+	 * takes a single lookup. Where several delimiters end at the same byte,
+	 * the longest one is matched. Outside of a partial match, input is skipped
+	 * up to the next byte that any of the delimiters starts with.
 	 */
-	private static class TwoByteMatcher extends AbstractNestedMatcher {
+	private static class AhoCorasickMatcher implements Matcher {
 
-		protected TwoByteMatcher(byte[] delimiter) {
-			super(delimiter);
-			Assert.isTrue(delimiter.length == 2, "Expected a 2-byte delimiter");
-		}
-	}
+		private final byte[][] delimiters;
 
+		/** Class of each byte value: 0 for bytes not in any delimiter. */
+		private final int[] byteClasses = new int[256];
 
-	/**
-	 * Implementation of {@link Matcher} that uses the Knuth-Morris-Pratt algorithm.
-	 * @see <a href="https://www.nayuki.io/page/knuth-morris-pratt-string-matching">Knuth-Morris-Pratt string matching</a>
-	 */
-	private static class KnuthMorrisPrattMatcher extends AbstractNestedMatcher {
+		private final int classCount;
 
-		private final int[] table;
+		/** Next state for each state and byte class, at {@code state * classCount + class}. */
+		private final int[] transitions;
 
-		public KnuthMorrisPrattMatcher(byte[] delimiter) {
-			super(delimiter);
-			this.table = longestSuffixPrefixTable(delimiter);
-		}
+		/** Index of the longest delimiter ending in each state, or -1. */
+		private final int[] outputs;
 
-		private static int[] longestSuffixPrefixTable(byte[] delimiter) {
-			int[] result = new int[delimiter.length];
-			result[0] = 0;
-			for (int i = 1; i < delimiter.length; i++) {
-				int j = result[i - 1];
-				while (j > 0 && delimiter[i] != delimiter[j]) {
-					j = result[j - 1];
+		private final ByteSet startBytes;
+
+		private int state;
+
+		@Nullable
+		private byte[] matchedDelimiter;
+
+		AhoCorasickMatcher(byte[][] delimiters) {
+			this.delimiters = delimiters;
+			int classCount = 1;
+			int maxStates = 1;
+			for (byte[] delimiter : delimiters) {
+				Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
+				for (byte b : delimiter) {
+					if (this.byteClasses[b & 0xFF] == 0) {
+						this.byteClasses[b & 0xFF] = classCount++;
+					}
 				}
-				if (delimiter[i] == delimiter[j]) {
-					j++;
+				maxStates += delimiter.length;
+			}
+			this.classCount = classCount;
+
+			// Trie of all delimiters, with -1 for missing edges
+			int[] trie = new int[maxStates * classCount];
+			Arrays.fill(trie, -1);
+			int[] outputs = new int[maxStates];
+			Arrays.fill(outputs, -1);
+			int stateCount = 1;
+			for (int i = 0; i < delimiters.length; i++) {
+				int state = 0;
+				for (byte b : delimiters[i]) {
+					int edge = state * classCount + this.byteClasses[b & 0xFF];
+					if (trie[edge] == -1) {
+						trie[edge] = stateCount++;
+					}
+					state = trie[edge];
+				}
+				if (outputs[state] == -1) {
+					outputs[state] = i;
 				}
-				result[i] = j;
 			}
-			return result;
+
+			// Complete the transition table breadth-first, following failure links
+			int[] transitions = new int[stateCount * classCount];
+			int[] failures = new int[stateCount];
+			int[] queue = new int[stateCount];
+			int tail = 0;
+			for (int c = 0; c < classCount; c++) {
+				if (trie[c] != -1) {
+					transitions[c] = trie[c];
+					queue[tail++] = trie[c];
+				}
+			}
+			for (int head = 0; head < tail; head++) {
+				int state = queue[head];
+				if (outputs[state] == -1) {
+					outputs[state] = outputs[failures[state]];
+				}
+				for (int c = 0; c < classCount; c++) {
+					int next = trie[state * classCount + c];
+					int fallback = transitions[failures[state] * classCount + c];
+					if (next == -1) {
+						transitions[state * classCount + c] = fallback;
+					}
+					else {
+						transitions[state * classCount + c] = next;
+						failures[next] = fallback;
+						queue[tail++] = next;
+					}
+				}
+			}
+			this.transitions = transitions;
+			this.outputs = Arrays.copyOf(outputs, stateCount);
+
+			boolean[] startBytes = new boolean[256];
+			for (byte[] delimiter : delimiters) {
+				startBytes[delimiter[0] & 0xFF] = true;
+			}
+			this.startBytes = new ByteSet(startBytes);
 		}
 
 		@Override
-		public boolean match(byte b) {
-			while (getMatches() > 0 && b != delimiter()[getMatches()]) {
-				setMatches(this.table[getMatches() - 1]);
+		public int match(DataBuffer dataBuffer) {
+			ByteBuffer byteBuffer = ByteSet.byteBuffer(dataBuffer);
+			int end = dataBuffer.writePosition();
+			int state = this.state;
+			for (int pos = dataBuffer.readPosition(); pos < end; pos++) {
+				if (state == 0) {
+					pos = this.startBytes.indexIn(dataBuffer, byteBuffer, pos);
+					if (pos == -1) {
+						break;
+					}
+				}
+				byte b = (byteBuffer != null ? byteBuffer.get(pos) : dataBuffer.getByte(pos));
+				state = this.transitions[state * this.classCount + this.byteClasses[b & 0xFF]];
+				int output = this.outputs[state];
+				if (output != -1) {
+					this.state = 0;
+					this.matchedDelimiter = this.delimiters[output];
+					return pos;
+				}
 			}
-			return super.match(b);
+			this.state = state;
+			return -1;
+		}
+
+		@Override
+		public byte[] delimiter() {
+			Assert.state(this.matchedDelimiter != null, "Illegal state!");
+			return this.matchedDelimiter;
+		}
+
+		@Override
+		public void reset() {
+			this.state = 0;
 		}
 	}
 
@@ -895,6 +1104,62 @@ public abstract class DataBufferUtils {
 	}
 
 
+	private static class MappedFileChannelGenerator implements Consumer<SynchronousSink<DataBuffer>> {
+
+		private final FileChannel channel;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int bufferSize;
+
+		private long position;
+
+		private long size = -1;
+
+		@Nullable
+		private ByteBuffer region;
+
+		public MappedFileChannelGenerator(
+				FileChannel channel, long position, DataBufferFactory dataBufferFactory, int bufferSize) {
+
+			this.channel = channel;
+			this.position = position;
+			this.dataBufferFactory = dataBufferFactory;
+			this.bufferSize = bufferSize;
+		}
+
+		@Override
+		public void accept(SynchronousSink<DataBuffer> sink) {
+			try {
+				ByteBuffer region = this.region;
+				if (region == null || !region.hasRemaining()) {
+					if (this.size == -1) {
+						this.size = this.channel.size();
+					}
+					long remaining = this.size - this.position;
+					if (remaining <= 0) {
+						this.region = null;
+						sink.complete();
+						return;
+					}
+					long regionSize = Math.min(remaining, MAX_MAPPED_REGION_SIZE);
+					region = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position, regionSize);
+					this.position += regionSize;
+					this.region = region;
+				}
+				int length = Math.min(region.remaining(), this.bufferSize);
+				ByteBuffer slice = region.slice();
+				slice.limit(length);
+				region.position(region.position() + length);
+				sink.next(this.dataBufferFactory.wrap(slice));
+			}
+			catch (IOException ex) {
+				sink.error(ex);
+			}
+		}
+	}
+
+
 	private static class ReadCompletionHandler implements CompletionHandler<Integer, DataBuffer> {
 
 		private final AsynchronousFileChannel channel;
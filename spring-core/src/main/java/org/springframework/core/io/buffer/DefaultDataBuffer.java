@@ -93,6 +93,14 @@ public class DefaultDataBuffer implements DataBuffer {
 		return this.byteBuffer;
 	}
 
+	/**
+	 * Return the native {@code ByteBuffer} as is, for index-based access
+	 * that leaves its position and limit unchanged.
+	 */
+	ByteBuffer getByteBuffer() {
+		return this.byteBuffer;
+	}
+
 	private void setNativeBuffer(ByteBuffer byteBuffer) {
 		this.byteBuffer = byteBuffer;
 		this.capacity = byteBuffer.remaining();
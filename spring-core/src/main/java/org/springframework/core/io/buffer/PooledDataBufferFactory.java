@@ -0,0 +1,795 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Pooling implementation of the {@code DataBufferFactory} interface, for use on
+ * runtimes without a Netty {@code ByteBufAllocator}, e.g. in place of the
+ * {@link DefaultDataBufferFactory} on Servlet containers or Undertow.
+ *
+ * <p>Allocated buffers implement {@link PooledDataBuffer}: once their reference
+ * count drops to zero through {@link DataBufferUtils#release(DataBuffer)}, the
+ * underlying {@link ByteBuffer} is returned to the pool for reuse. Requested
+ * capacities are served from power-of-two size classes that are pooled
+ * separately, with a small per-thread cache in front of a bounded shared pool.
+ * Each per-thread cache holds at most {@link #DEFAULT_MAX_THREAD_CACHE_CAPACITY}
+ * bytes by default, so the memory retained by idle threads stays bounded.
+ * Requests larger than the {@linkplain #getMaxPooledCapacity() maximum pooled
+ * capacity} are served by unpooled buffers.
+ *
+ * <p>When {@linkplain #setLeakDetection leak detection} is enabled, which is
+ * the default if debug logging is active for this class, buffers that are
+ * garbage collected without having been released are logged along with the
+ * stack trace of their allocation.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see DataBufferUtils#release(DataBuffer)
+ */
+public class PooledDataBufferFactory implements DataBufferFactory {
+
+	/**
+	 * The default capacity when none is specified.
+	 */
+	public static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+	/**
+	 * The default maximum capacity of pooled buffers: {@value}.
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default maximum number of buffers per size class in the shared pool: {@value}.
+	 */
+	public static final int DEFAULT_MAX_POOL_SIZE = 256;
+
+	/**
+	 * The default maximum number of buffers per size class in each thread-local cache: {@value}.
+	 */
+	public static final int DEFAULT_THREAD_CACHE_SIZE = 16;
+
+	/**
+	 * The default maximum number of bytes held in each thread-local cache: {@value}.
+	 */
+	public static final int DEFAULT_MAX_THREAD_CACHE_CAPACITY = 256 * 1024;
+
+	private static final int MIN_CAPACITY_SHIFT = 6;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final DefaultDataBufferFactory delegateFactory;
+
+	private final ArrayBlockingQueue<ByteBuffer>[] pools;
+
+	@Nullable
+	private final ThreadLocal<ThreadCache> threadCache;
+
+	private volatile boolean leakDetection = logger.isDebugEnabled();
+
+	private final ReferenceQueue<Object> leakQueue = new ReferenceQueue<>();
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder allocationCount = new LongAdder();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder leakCount = new LongAdder();
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with default settings,
+	 * pooling heap buffers.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with default pool settings.
+	 * @param preferDirect whether to pool direct buffers rather than heap buffers
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_POOL_SIZE, DEFAULT_THREAD_CACHE_SIZE);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with the given pool settings.
+	 * @param preferDirect whether to pool direct buffers rather than heap buffers
+	 * @param maxPooledCapacity the capacity up to which buffers are pooled,
+	 * rounded up to the next power of two
+	 * @param maxPoolSize the maximum number of buffers to keep per size class
+	 * in the shared pool
+	 * @param threadCacheSize the maximum number of buffers to keep per size class
+	 * in each thread-local cache, or 0 to disable thread-local caching
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int maxPooledCapacity, int maxPoolSize, int threadCacheSize) {
+		this(preferDirect, maxPooledCapacity, maxPoolSize, threadCacheSize, DEFAULT_MAX_THREAD_CACHE_CAPACITY);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with the given pool settings.
+	 * @param preferDirect whether to pool direct buffers rather than heap buffers
+	 * @param maxPooledCapacity the capacity up to which buffers are pooled,
+	 * rounded up to the next power of two
+	 * @param maxPoolSize the maximum number of buffers to keep per size class
+	 * in the shared pool
+	 * @param threadCacheSize the maximum number of buffers to keep per size class
+	 * in each thread-local cache, or 0 to disable thread-local caching
+	 * @param maxThreadCacheCapacity the maximum number of bytes to keep in each
+	 * thread-local cache, beyond which released buffers go to the shared pool
+	 */
+	@SuppressWarnings("unchecked")
+	public PooledDataBufferFactory(boolean preferDirect, int maxPooledCapacity, int maxPoolSize,
+			int threadCacheSize, int maxThreadCacheCapacity) {
+
+		Assert.isTrue(maxPooledCapacity > 0, "'maxPooledCapacity' should be larger than 0");
+		Assert.isTrue(maxPoolSize > 0, "'maxPoolSize' should be larger than 0");
+		Assert.isTrue(threadCacheSize >= 0, "'threadCacheSize' should not be negative");
+		Assert.isTrue(maxThreadCacheCapacity >= 0, "'maxThreadCacheCapacity' should not be negative");
+		int sizeClasses = sizeClass(maxPooledCapacity) + 1;
+		this.preferDirect = preferDirect;
+		this.maxPooledCapacity = capacityOf(sizeClasses - 1);
+		this.delegateFactory = new DefaultDataBufferFactory(preferDirect);
+		this.pools = new ArrayBlockingQueue[sizeClasses];
+		for (int i = 0; i < sizeClasses; i++) {
+			this.pools[i] = new ArrayBlockingQueue<>(maxPoolSize);
+		}
+		this.threadCache = (threadCacheSize > 0 && maxThreadCacheCapacity > 0 ?
+				ThreadLocal.withInitial(() -> new ThreadCache(sizeClasses, threadCacheSize, maxThreadCacheCapacity)) :
+				null);
+	}
+
+
+	/**
+	 * Return whether this factory pools direct buffers rather than heap buffers.
+	 */
+	public boolean isPreferDirect() {
+		return this.preferDirect;
+	}
+
+	/**
+	 * Return the capacity up to which buffers are pooled.
+	 */
+	public int getMaxPooledCapacity() {
+		return this.maxPooledCapacity;
+	}
+
+	/**
+	 * Specify whether buffers that are garbage collected without having been
+	 * released should be tracked and logged as leaks.
+	 * <p>Tracking records the stack trace of every allocation and is therefore
+	 * meant for debugging. The default is {@code true} if debug logging is
+	 * enabled for this class.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Return whether leak detection is enabled.
+	 */
+	public boolean isLeakDetection() {
+		return this.leakDetection;
+	}
+
+	/**
+	 * Return the total number of buffers allocated by this factory,
+	 * excluding {@linkplain #wrap(ByteBuffer) wrapped} buffers.
+	 */
+	public long getAllocationCount() {
+		return this.allocationCount.sum();
+	}
+
+	/**
+	 * Return the number of allocations served from a pool.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of allocations that required a new buffer.
+	 */
+	public long getMissCount() {
+		return getAllocationCount() - getHitCount();
+	}
+
+	/**
+	 * Return the number of allocated buffers that have not been released yet.
+	 */
+	public int getActiveCount() {
+		return this.activeCount.get();
+	}
+
+	/**
+	 * Return the number of buffers that were detected as leaked, i.e. garbage
+	 * collected without having been released. Only tracked when
+	 * {@linkplain #setLeakDetection leak detection} is enabled.
+	 */
+	public long getLeakCount() {
+		return this.leakCount.sum();
+	}
+
+	/**
+	 * Return the number of buffers currently held in the shared pool,
+	 * not counting thread-local caches.
+	 */
+	public int getPooledCount() {
+		int count = 0;
+		for (ArrayBlockingQueue<ByteBuffer> pool : this.pools) {
+			count += pool.size();
+		}
+		return count;
+	}
+
+
+	@Override
+	public PooledDataBuffer allocateBuffer() {
+		return allocateBuffer(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Buffers up to the {@linkplain #getMaxPooledCapacity() maximum pooled
+	 * capacity} are backed by pooled memory. Note that growing a buffer beyond
+	 * its initial capacity moves its content to a new, unpooled buffer.
+	 */
+	@Override
+	public PooledDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' must not be negative");
+		if (this.leakDetection) {
+			reportLeaks();
+		}
+		ByteBuffer pooledBuffer = null;
+		ByteBuffer byteBuffer;
+		if (initialCapacity <= this.maxPooledCapacity) {
+			pooledBuffer = obtain(sizeClass(initialCapacity));
+			byteBuffer = pooledBuffer.duplicate();
+			byteBuffer.limit(initialCapacity);
+		}
+		else {
+			byteBuffer = allocate(initialCapacity);
+		}
+		this.allocationCount.increment();
+		this.activeCount.incrementAndGet();
+		DefaultDataBuffer dataBuffer = DefaultDataBuffer.fromEmptyByteBuffer(this.delegateFactory, byteBuffer);
+		return new PooledDefaultDataBuffer(this, dataBuffer, pooledBuffer, true);
+	}
+
+	@Override
+	public PooledDataBuffer wrap(ByteBuffer byteBuffer) {
+		return new PooledDefaultDataBuffer(this, this.delegateFactory.wrap(byteBuffer), null, false);
+	}
+
+	@Override
+	public PooledDataBuffer wrap(byte[] bytes) {
+		return new PooledDefaultDataBuffer(this, this.delegateFactory.wrap(bytes), null, false);
+	}
+
+	@Override
+	public PooledDataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		int capacity = dataBuffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+		PooledDataBuffer result = allocateBuffer(capacity);
+		dataBuffers.forEach(result::write);
+		dataBuffers.forEach(DataBufferUtils::release);
+		return result;
+	}
+
+
+	private ByteBuffer obtain(int sizeClass) {
+		ByteBuffer byteBuffer = null;
+		if (this.threadCache != null) {
+			byteBuffer = this.threadCache.get().poll(sizeClass);
+		}
+		if (byteBuffer == null) {
+			byteBuffer = this.pools[sizeClass].poll();
+		}
+		if (byteBuffer != null) {
+			this.hitCount.increment();
+			byteBuffer.clear();
+			return byteBuffer;
+		}
+		return allocate(capacityOf(sizeClass));
+	}
+
+	private ByteBuffer allocate(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	private void recycle(@Nullable ByteBuffer byteBuffer) {
+		this.activeCount.decrementAndGet();
+		if (byteBuffer != null) {
+			int sizeClass = sizeClass(byteBuffer.capacity());
+			if (this.threadCache == null || !this.threadCache.get().offer(sizeClass, byteBuffer)) {
+				this.pools[sizeClass].offer(byteBuffer);
+			}
+		}
+	}
+
+	@Nullable
+	private LeakTracker track(PooledDefaultDataBuffer dataBuffer) {
+		if (!this.leakDetection) {
+			return null;
+		}
+		LeakTracker tracker = new LeakTracker(dataBuffer, this.leakQueue);
+		this.leakTrackers.add(tracker);
+		return tracker;
+	}
+
+	private void untrack(LeakTracker tracker) {
+		tracker.clear();
+		this.leakTrackers.remove(tracker);
+	}
+
+	private void reportLeaks() {
+		Object reference;
+		while ((reference = this.leakQueue.poll()) != null) {
+			reportLeak((LeakTracker) reference);
+		}
+	}
+
+	private void reportLeak(LeakTracker tracker) {
+		if (this.leakTrackers.remove(tracker)) {
+			this.leakCount.increment();
+			this.activeCount.decrementAndGet();
+			logger.warn("DataBuffer was garbage collected without having been released; " +
+					"allocated at:", tracker.allocationSite);
+		}
+	}
+
+	/**
+	 * Report the given buffer as leaked, as if it had been garbage collected
+	 * without having been released. For testing purposes only.
+	 * @param dataBuffer a buffer allocated by this factory with leak detection enabled
+	 */
+	void reportLeak(PooledDataBuffer dataBuffer) {
+		Assert.isInstanceOf(PooledDefaultDataBuffer.class, dataBuffer);
+		LeakTracker tracker = ((PooledDefaultDataBuffer) dataBuffer).leakTracker;
+		Assert.state(tracker != null, "DataBuffer is not tracked for leaks");
+		tracker.clear();
+		reportLeak(tracker);
+	}
+
+	private static int sizeClass(int capacity) {
+		if (capacity <= (1 << MIN_CAPACITY_SHIFT)) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_CAPACITY_SHIFT;
+	}
+
+	private static int capacityOf(int sizeClass) {
+		return 1 << (sizeClass + MIN_CAPACITY_SHIFT);
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ")";
+	}
+
+
+	/**
+	 * Per-thread stacks of pooled buffers, one per size class, holding at most
+	 * a given number of bytes in total.
+	 */
+	private static final class ThreadCache {
+
+		private final ByteBuffer[][] buffers;
+
+		private final int[] sizes;
+
+		private final int maxCapacity;
+
+		private int cachedCapacity;
+
+		ThreadCache(int sizeClasses, int capacity, int maxCapacity) {
+			this.buffers = new ByteBuffer[sizeClasses][capacity];
+			this.sizes = new int[sizeClasses];
+			this.maxCapacity = maxCapacity;
+		}
+
+		@Nullable
+		ByteBuffer poll(int sizeClass) {
+			int size = this.sizes[sizeClass];
+			if (size == 0) {
+				return null;
+			}
+			ByteBuffer[] stack = this.buffers[sizeClass];
+			ByteBuffer byteBuffer = stack[--size];
+			stack[size] = null;
+			this.sizes[sizeClass] = size;
+			this.cachedCapacity -= byteBuffer.capacity();
+			return byteBuffer;
+		}
+
+		boolean offer(int sizeClass, ByteBuffer byteBuffer) {
+			int size = this.sizes[sizeClass];
+			ByteBuffer[] stack = this.buffers[sizeClass];
+			if (size == stack.length || this.cachedCapacity + byteBuffer.capacity() > this.maxCapacity) {
+				return false;
+			}
+			stack[size] = byteBuffer;
+			this.sizes[sizeClass] = size + 1;
+			this.cachedCapacity += byteBuffer.capacity();
+			return true;
+		}
+	}
+
+
+	/**
+	 * Weak reference to an allocated buffer, registered while the buffer is in use.
+	 */
+	private static final class LeakTracker extends WeakReference<Object> {
+
+		final Throwable allocationSite = new Throwable("DataBuffer allocation");
+
+		LeakTracker(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+		}
+	}
+
+
+	/**
+	 * {@link PooledDataBuffer} on top of a {@link DefaultDataBuffer}, returning
+	 * the pooled {@link ByteBuffer} to its factory once fully released.
+	 */
+	private static class PooledDefaultDataBuffer extends DataBufferWrapper implements PooledDataBuffer {
+
+		private final PooledDataBufferFactory factory;
+
+		@Nullable
+		private final ByteBuffer pooledBuffer;
+
+		private final boolean tracked;
+
+		@Nullable
+		private final LeakTracker leakTracker;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		PooledDefaultDataBuffer(PooledDataBufferFactory factory, DefaultDataBuffer dataBuffer,
+				@Nullable ByteBuffer pooledBuffer, boolean tracked) {
+
+			super(dataBuffer);
+			this.factory = factory;
+			this.pooledBuffer = pooledBuffer;
+			this.tracked = tracked;
+			this.leakTracker = (tracked ? factory.track(this) : null);
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.refCount.get() > 0;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int refCount;
+			do {
+				refCount = this.refCount.get();
+				if (refCount <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released");
+				}
+			}
+			while (!this.refCount.compareAndSet(refCount, refCount + 1));
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			int refCount = this.refCount.decrementAndGet();
+			if (refCount > 0) {
+				return false;
+			}
+			if (refCount < 0) {
+				this.refCount.incrementAndGet();
+				throw new IllegalStateException("DataBuffer has already been released");
+			}
+			if (this.leakTracker != null) {
+				this.factory.untrack(this.leakTracker);
+			}
+			if (this.tracked) {
+				this.factory.recycle(this.pooledBuffer);
+			}
+			return true;
+		}
+
+		@Override
+		public PooledDataBufferFactory factory() {
+			return this.factory;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer capacity(int capacity) {
+			dataBuffer().capacity(capacity);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer ensureCapacity(int capacity) {
+			dataBuffer().ensureCapacity(capacity);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer readPosition(int readPosition) {
+			dataBuffer().readPosition(readPosition);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer writePosition(int writePosition) {
+			dataBuffer().writePosition(writePosition);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer read(byte[] destination) {
+			dataBuffer().read(destination);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer read(byte[] destination, int offset, int length) {
+			dataBuffer().read(destination, offset, length);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer write(byte b) {
+			dataBuffer().write(b);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer write(byte[] source) {
+			dataBuffer().write(source);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer write(byte[] source, int offset, int length) {
+			dataBuffer().write(source, offset, length);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer write(DataBuffer... buffers) {
+			dataBuffer().write(buffers);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer write(ByteBuffer... buffers) {
+			dataBuffer().write(buffers);
+			return this;
+		}
+
+		@Override
+		public PooledDefaultDataBuffer write(CharSequence charSequence, Charset charset) {
+			dataBuffer().write(charSequence, charset);
+			return this;
+		}
+
+		@Override
+		public PooledDataBuffer slice(int index, int length) {
+			return new SlicedPooledDataBuffer(dataBuffer().slice(index, length), this);
+		}
+
+		@Override
+		public PooledDataBuffer retainedSlice(int index, int length) {
+			return slice(index, length).retain();
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			return asInputStream(dataBuffer(), (releaseOnClose ? this : null));
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof PooledDefaultDataBuffer &&
+					dataBuffer().equals(((PooledDefaultDataBuffer) other).dataBuffer())));
+		}
+
+		@Override
+		public int hashCode() {
+			return dataBuffer().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return String.format("PooledDataBuffer (r: %d, w: %d, c: %d)",
+					readPosition(), writePosition(), capacity());
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledDefaultDataBuffer}, sharing its reference count.
+	 */
+	private static class SlicedPooledDataBuffer extends DataBufferWrapper implements PooledDataBuffer {
+
+		private final PooledDataBuffer parent;
+
+		SlicedPooledDataBuffer(DataBuffer slice, PooledDataBuffer parent) {
+			super(slice);
+			this.parent = parent;
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		public DataBufferFactory factory() {
+			return this.parent.factory();
+		}
+
+		@Override
+		public SlicedPooledDataBuffer capacity(int capacity) {
+			dataBuffer().capacity(capacity);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer ensureCapacity(int capacity) {
+			dataBuffer().ensureCapacity(capacity);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer readPosition(int readPosition) {
+			dataBuffer().readPosition(readPosition);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer writePosition(int writePosition) {
+			dataBuffer().writePosition(writePosition);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer read(byte[] destination) {
+			dataBuffer().read(destination);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer read(byte[] destination, int offset, int length) {
+			dataBuffer().read(destination, offset, length);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer write(byte b) {
+			dataBuffer().write(b);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer write(byte[] source) {
+			dataBuffer().write(source);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer write(byte[] source, int offset, int length) {
+			dataBuffer().write(source, offset, length);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer write(DataBuffer... buffers) {
+			dataBuffer().write(buffers);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer write(ByteBuffer... buffers) {
+			dataBuffer().write(buffers);
+			return this;
+		}
+
+		@Override
+		public SlicedPooledDataBuffer write(CharSequence charSequence, Charset charset) {
+			dataBuffer().write(charSequence, charset);
+			return this;
+		}
+
+		@Override
+		public PooledDataBuffer slice(int index, int length) {
+			return new SlicedPooledDataBuffer(dataBuffer().slice(index, length), this.parent);
+		}
+
+		@Override
+		public PooledDataBuffer retainedSlice(int index, int length) {
+			return slice(index, length).retain();
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			return asInputStream(dataBuffer(), (releaseOnClose ? this : null));
+		}
+	}
+
+
+	/**
+	 * Return an input stream for the given buffer, releasing the given pooled
+	 * buffer (if any) when closed.
+	 */
+	private static InputStream asInputStream(DataBuffer dataBuffer, @Nullable PooledDataBuffer toRelease) {
+		InputStream inputStream = dataBuffer.asInputStream();
+		if (toRelease == null) {
+			return inputStream;
+		}
+		return new FilterInputStream(inputStream) {
+			private boolean closed;
+			@Override
+			public void close() throws IOException {
+				if (!this.closed) {
+					this.closed = true;
+					toRelease.release();
+				}
+			}
+		};
+	}
+
+}
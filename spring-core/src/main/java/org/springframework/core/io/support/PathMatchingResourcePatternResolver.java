@@ -19,6 +19,7 @@ package org.springframework.core.io.support;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.JarURLConnection;
@@ -27,12 +28,17 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -40,6 +46,7 @@ import java.util.zip.ZipException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.core.SpringProperties;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
@@ -169,6 +176,16 @@ import org.springframework.util.StringUtils;
  * Ant-style pattern in such a case, which will search <i>all</i> class path
  * locations that contain the root package.
  *
+ * <p><b>Parallel matching:</b>
+ *
+ * <p>With a {@link #setParallelism parallelism} greater than 1, the root
+ * directories and jar files determined for a location pattern are searched
+ * concurrently in a {@link ForkJoinPool} that is created for each search and
+ * shut down at its end. The result keeps the order of a sequential search.
+ * Parallel matching is opt-in: the default parallelism of 1 can be changed
+ * through the {@value #PARALLELISM_PROPERTY_NAME} property, e.g. in a
+ * {@code spring.properties} file.
+ *
  * @author Juergen Hoeller
  * @author Colin Sampaleanu
  * @author Marius Bogoevici
@@ -182,6 +199,18 @@ import org.springframework.util.StringUtils;
  */
 public class PathMatchingResourcePatternResolver implements ResourcePatternResolver {
 
+	/**
+	 * System property that specifies the default number of root directories and
+	 * jar files to search concurrently: {@code "spring.scanning.parallelism"}.
+	 * <p>The default is 1, searching sequentially on the calling thread. Values
+	 * that are not a positive integer are ignored with a warning.
+	 * Also used as the default parallelism for configuration class parsing
+	 * in {@code ConfigurationClassPostProcessor}.
+	 * @since 5.3
+	 * @see #setParallelism
+	 */
+	public static final String PARALLELISM_PROPERTY_NAME = "spring.scanning.parallelism";
+
 	private static final Log logger = LogFactory.getLog(PathMatchingResourcePatternResolver.class);
 
 	@Nullable
@@ -200,11 +229,15 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	private static final int defaultParallelism = determineDefaultParallelism();
+
 
 	private final ResourceLoader resourceLoader;
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private int parallelism = defaultParallelism;
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -268,6 +301,59 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set the maximum number of root directories and jar files to search
+	 * concurrently when resolving a location pattern.
+	 * <p>The default is 1 (unless specified otherwise through the
+	 * {@value #PARALLELISM_PROPERTY_NAME} property), searching sequentially
+	 * on the calling thread. With a higher parallelism, the configured
+	 * {@link PathMatcher} and any overridden {@code doFind*} methods need
+	 * to be thread-safe.
+	 * @since 5.3
+	 * @see #PARALLELISM_PROPERTY_NAME
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Return the maximum number of root directories and jar files to search concurrently.
+	 * @since 5.3
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Return the default parallelism as specified through the
+	 * {@value #PARALLELISM_PROPERTY_NAME} property, validated once:
+	 * a positive integer, or 1 if not specified or invalid.
+	 * @since 5.3
+	 */
+	public static int getDefaultParallelism() {
+		return defaultParallelism;
+	}
+
+	private static int determineDefaultParallelism() {
+		String value = SpringProperties.getProperty(PARALLELISM_PROPERTY_NAME);
+		if (!StringUtils.hasText(value)) {
+			return 1;
+		}
+		try {
+			int parallelism = Integer.parseInt(value.trim());
+			if (parallelism > 0) {
+				return parallelism;
+			}
+		}
+		catch (NumberFormatException ex) {
+			// Reported below
+		}
+		logger.warn("Ignoring invalid value [" + value + "] for property '" + PARALLELISM_PROPERTY_NAME +
+				"': expected a positive integer - searching sequentially");
+		return 1;
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -496,24 +582,14 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		String subPattern = locationPattern.substring(rootDirPath.length());
 		Resource[] rootDirResources = getResources(rootDirPath);
 		Set<Resource> result = new LinkedHashSet<>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirUrl = rootDirResource.getURL();
-			if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
-				URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
-				if (resolvedUrl != null) {
-					rootDirUrl = resolvedUrl;
-				}
-				rootDirResource = new UrlResource(rootDirUrl);
-			}
-			if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher()));
+		if (this.parallelism > 1 && rootDirResources.length > 1) {
+			for (Set<Resource> resources : findPathMatchingResourcesInParallel(rootDirResources, subPattern)) {
+				result.addAll(resources);
 			}
-			else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern));
-			}
-			else {
-				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+		}
+		else {
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(findPathMatchingResources(rootDirResource, subPattern));
 			}
 		}
 		if (logger.isTraceEnabled()) {
@@ -522,6 +598,79 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return result.toArray(new Resource[0]);
 	}
 
+	/**
+	 * Search the given root directories concurrently, returning the matching
+	 * resources for each root directory in the given order.
+	 */
+	private List<Set<Resource>> findPathMatchingResourcesInParallel(Resource[] rootDirResources, String subPattern)
+			throws IOException {
+
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		List<Set<Resource>> results = new ArrayList<>(rootDirResources.length);
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			List<ForkJoinTask<Set<Resource>>> tasks = new ArrayList<>(rootDirResources.length);
+			for (Resource rootDirResource : rootDirResources) {
+				tasks.add(pool.submit(() -> {
+					Thread currentThread = Thread.currentThread();
+					ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+					currentThread.setContextClassLoader(contextClassLoader);
+					try {
+						return findPathMatchingResources(rootDirResource, subPattern);
+					}
+					finally {
+						currentThread.setContextClassLoader(originalClassLoader);
+					}
+				}));
+			}
+			for (ForkJoinTask<Set<Resource>> task : tasks) {
+				results.add(task.get());
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while searching for matching resources");
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			ReflectionUtils.rethrowRuntimeException(cause);
+		}
+		finally {
+			pool.shutdownNow();
+		}
+		return results;
+	}
+
+	/**
+	 * Find all resources underneath the given root directory that match the
+	 * given sub pattern, dispatching to the jar, file system or VFS variant.
+	 */
+	private Set<Resource> findPathMatchingResources(Resource rootDirResource, String subPattern)
+			throws IOException {
+
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirUrl = rootDirResource.getURL();
+		if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
+			URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
+			if (resolvedUrl != null) {
+				rootDirUrl = resolvedUrl;
+			}
+			rootDirResource = new UrlResource(rootDirUrl);
+		}
+		if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+			return VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher());
+		}
+		else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
+			return doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern);
+		}
+		else {
+			return doFindPathMatchingFileResources(rootDirResource, subPattern);
+		}
+	}
+
 	/**
 	 * Determine the root directory for the given location.
 	 * <p>Used for determining the starting point for file matching,
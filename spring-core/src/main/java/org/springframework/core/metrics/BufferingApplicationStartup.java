@@ -0,0 +1,303 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation that buffers {@link StartupStep steps}
+ * in memory and records their start time and duration, e.g. for finding the
+ * slowest beans of an application context after its refresh.
+ *
+ * <p>Steps are buffered once they {@link StartupStep#end() end}, up to the given
+ * capacity; further steps are discarded until the buffer has been
+ * {@link #drainBufferedSteps() drained}. Steps may be started and ended on any
+ * thread, with parent steps determined per thread.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see #getBufferedSteps()
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private final int capacity;
+
+	private final AtomicLong idSeq = new AtomicLong();
+
+	private final ThreadLocal<Deque<BufferedStartupStep>> currentSteps = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private final Queue<RecordedStep> recordedSteps = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger recordedCount = new AtomicInteger();
+
+
+	/**
+	 * Create a new buffering {@code ApplicationStartup} with the given capacity.
+	 * @param capacity the maximum number of steps to buffer
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.capacity = capacity;
+	}
+
+
+	@Override
+	public StartupStep start(String name) {
+		Deque<BufferedStartupStep> steps = this.currentSteps.get();
+		BufferedStartupStep parent = steps.peek();
+		BufferedStartupStep step = new BufferedStartupStep(
+				this.idSeq.getAndIncrement(), name, (parent != null ? parent.getId() : null));
+		steps.push(step);
+		return step;
+	}
+
+	/**
+	 * Return a snapshot of the steps buffered so far, in the order they ended.
+	 */
+	public List<RecordedStep> getBufferedSteps() {
+		return Collections.unmodifiableList(new ArrayList<>(this.recordedSteps));
+	}
+
+	/**
+	 * Return the steps buffered so far, in the order they ended, and remove
+	 * them from the buffer, making room for further steps.
+	 */
+	public List<RecordedStep> drainBufferedSteps() {
+		List<RecordedStep> steps = new ArrayList<>();
+		RecordedStep step;
+		while ((step = this.recordedSteps.poll()) != null) {
+			steps.add(step);
+			this.recordedCount.decrementAndGet();
+		}
+		return steps;
+	}
+
+	private void record(BufferedStartupStep step, long endNanos) {
+		Deque<BufferedStartupStep> steps = this.currentSteps.get();
+		steps.remove(step);
+		if (steps.isEmpty()) {
+			this.currentSteps.remove();
+		}
+		if (this.recordedCount.incrementAndGet() <= this.capacity) {
+			this.recordedSteps.add(new RecordedStep(step, Duration.ofNanos(endNanos - step.startNanos)));
+		}
+		else {
+			this.recordedCount.decrementAndGet();
+		}
+	}
+
+
+	private class BufferedStartupStep implements StartupStep {
+
+		private final long id;
+
+		private final String name;
+
+		@Nullable
+		private final Long parentId;
+
+		private final Instant startTime = Instant.now();
+
+		private final long startNanos = System.nanoTime();
+
+		private final List<StartupStep.Tag> tags = new ArrayList<>(2);
+
+		private boolean ended;
+
+		BufferedStartupStep(long id, String name, @Nullable Long parentId) {
+			this.id = id;
+			this.name = name;
+			this.parentId = parentId;
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public long getId() {
+			return this.id;
+		}
+
+		@Override
+		@Nullable
+		public Long getParentId() {
+			return this.parentId;
+		}
+
+		@Override
+		public StartupStep tag(String key, String value) {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			this.tags.add(new SimpleTag(key, value));
+			return this;
+		}
+
+		@Override
+		public StartupStep tag(String key, Supplier<String> value) {
+			return tag(key, value.get());
+		}
+
+		@Override
+		public StartupStep.Tags getTags() {
+			return new SimpleTags(this.tags);
+		}
+
+		@Override
+		public void end() {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			this.ended = true;
+			record(this, System.nanoTime());
+		}
+	}
+
+
+	/**
+	 * A {@link StartupStep} that has ended, as buffered by a
+	 * {@link BufferingApplicationStartup}.
+	 */
+	public static final class RecordedStep {
+
+		private final String name;
+
+		private final long id;
+
+		@Nullable
+		private final Long parentId;
+
+		private final StartupStep.Tags tags;
+
+		private final Instant startTime;
+
+		private final Duration duration;
+
+		RecordedStep(BufferedStartupStep step, Duration duration) {
+			this.name = step.getName();
+			this.id = step.getId();
+			this.parentId = step.getParentId();
+			this.tags = step.getTags();
+			this.startTime = step.startTime;
+			this.duration = duration;
+		}
+
+		/**
+		 * Return the name of the step.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the id of the step.
+		 */
+		public long getId() {
+			return this.id;
+		}
+
+		/**
+		 * Return the id of the parent step, if any.
+		 */
+		@Nullable
+		public Long getParentId() {
+			return this.parentId;
+		}
+
+		/**
+		 * Return the tags of the step.
+		 */
+		public StartupStep.Tags getTags() {
+			return this.tags;
+		}
+
+		/**
+		 * Return the time at which the step started.
+		 */
+		public Instant getStartTime() {
+			return this.startTime;
+		}
+
+		/**
+		 * Return the time between the start and the end of the step.
+		 */
+		public Duration getDuration() {
+			return this.duration;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder(this.name).append(" [").append(this.duration.toMillis()).append(" ms");
+			for (StartupStep.Tag tag : this.tags) {
+				sb.append(", ").append(tag.getKey()).append('=').append(tag.getValue());
+			}
+			return sb.append(']').toString();
+		}
+	}
+
+
+	private static final class SimpleTags implements StartupStep.Tags {
+
+		private final List<StartupStep.Tag> tags;
+
+		SimpleTags(List<StartupStep.Tag> tags) {
+			this.tags = Collections.unmodifiableList(new ArrayList<>(tags));
+		}
+
+		@Override
+		public Iterator<StartupStep.Tag> iterator() {
+			return this.tags.iterator();
+		}
+	}
+
+
+	private static final class SimpleTag implements StartupStep.Tag {
+
+		private final String key;
+
+		private final String value;
+
+		SimpleTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.jfr;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link StartupStep} implementation for the Java Flight Recorder.
+ *
+ * <p>This variant delegates to a {@link FlightRecorderStartupEvent JFR event extension}
+ * to collect and record data in Java Flight Recorder.
+ *
+ * @author Spring Team
+ * @since 5.3
+ */
+class FlightRecorderStartupStep implements StartupStep {
+
+	private static final Tags EMPTY_TAGS = Collections::emptyIterator;
+
+
+	private final FlightRecorderStartupEvent event;
+
+	private final LongConsumer endCallback;
+
+	private final StringBuilder tags = new StringBuilder();
+
+
+	FlightRecorderStartupStep(long id, String name, long parentId, LongConsumer endCallback) {
+		this.event = new FlightRecorderStartupEvent(id, name, parentId);
+		this.event.begin();
+		this.endCallback = endCallback;
+	}
+
+
+	@Override
+	public String getName() {
+		return this.event.name;
+	}
+
+	@Override
+	public long getId() {
+		return this.event.eventId;
+	}
+
+	@Override
+	@Nullable
+	public Long getParentId() {
+		return (this.event.parentId != 0L ? this.event.parentId : null);
+	}
+
+	@Override
+	public StartupStep tag(String key, String value) {
+		if (this.tags.length() > 0) {
+			this.tags.append(", ");
+		}
+		this.tags.append(key).append('=').append(value);
+		return this;
+	}
+
+	@Override
+	public StartupStep tag(String key, Supplier<String> value) {
+		return tag(key, value.get());
+	}
+
+	@Override
+	public Tags getTags() {
+		// Tags are only kept in serialized form for the event
+		return EMPTY_TAGS;
+	}
+
+	@Override
+	public void end() {
+		this.event.end();
+		if (this.event.shouldCommit()) {
+			this.event.setTags(this.tags.toString());
+			this.event.commit();
+		}
+		this.endCallback.accept(this.event.eventId);
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link MetadataReaderFactory} decorator that serves metadata recorded at
+ * build time, keyed by class name, without reading the corresponding class
+ * files. Classes without recorded metadata, as well as lookups by
+ * {@link Resource}, are delegated to the given {@code MetadataReaderFactory}.
+ *
+ * <p>Recorded metadata uses the same binary form as the entries of a
+ * {@link PersistentCachingMetadataReaderFactory} cache file: directly declared
+ * annotations with their attribute values, class references kept as class
+ * names. Entries that cannot be read, for instance because one
+ * of their annotation types is not available, fall back to the delegate.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see PersistentCachingMetadataReaderFactory
+ */
+public class IndexedMetadataReaderFactory implements MetadataReaderFactory {
+
+	private static final Log logger = LogFactory.getLog(IndexedMetadataReaderFactory.class);
+
+
+	private final MetadataReaderFactory delegate;
+
+	private final Map<String, byte[]> metadata;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+
+	/**
+	 * Create a new IndexedMetadataReaderFactory.
+	 * @param delegate the factory to use for classes without recorded metadata
+	 * @param metadata the recorded metadata, keyed by class name
+	 * @param classLoader the ClassLoader to resolve annotation and enum types
+	 * and class file resources with
+	 */
+	public IndexedMetadataReaderFactory(MetadataReaderFactory delegate, Map<String, byte[]> metadata,
+			@Nullable ClassLoader classLoader) {
+
+		Assert.notNull(delegate, "Delegate MetadataReaderFactory must not be null");
+		Assert.notNull(metadata, "Metadata must not be null");
+		this.delegate = delegate;
+		this.metadata = metadata;
+		this.classLoader = classLoader;
+	}
+
+
+	/**
+	 * Return whether metadata has been recorded for the given class.
+	 * @param className the class name (to be resolved to a ".class" file)
+	 */
+	public boolean hasMetadata(String className) {
+		return this.metadata.containsKey(className);
+	}
+
+	@Override
+	public MetadataReader getMetadataReader(String className) throws IOException {
+		byte[] data = this.metadata.get(className);
+		if (data != null) {
+			try {
+				AnnotationMetadata annotationMetadata =
+						SimpleAnnotationMetadataSerializer.deserialize(data, this.classLoader);
+				Resource resource = new ClassPathResource(
+						ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX,
+						this.classLoader);
+				return new SimpleMetadataReader(resource, annotationMetadata);
+			}
+			catch (IOException | RuntimeException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring recorded metadata for class [" + className + "]: " + ex);
+				}
+			}
+		}
+		return this.delegate.getMetadataReader(className);
+	}
+
+	@Override
+	public MetadataReader getMetadataReader(Resource resource) throws IOException {
+		return this.delegate.getMetadataReader(resource);
+	}
+
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * {@link MetadataReaderFactory} implementation that persists class metadata
+ * in a binary cache file, so that it can be reused across restarts instead of
+ * parsing the same class files with ASM again.
+ *
+ * <p>Entries are keyed by the URL of the class file and validated against a
+ * checksum: the CRC of the jar entry for classes packaged in a jar file, or
+ * the last-modified timestamp for classes in a directory. Stale entries are
+ * ignored and replaced with freshly parsed metadata. Metadata read back from
+ * the cache file is kept in memory, just like a shared resource cache of
+ * a {@link CachingMetadataReaderFactory}.
+ *
+ * <p>The cache file is read on construction and needs to be written through
+ * {@link #save()}, typically once the application context has been refreshed.
+ * Only entries that have been requested since construction are written, so
+ * metadata for classes that are no longer scanned does not accumulate.
+ *
+ * <p>Hit and miss counts are available through {@link #getHitCount()} and
+ * {@link #getMissCount()}.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see CachingMetadataReaderFactory
+ */
+public class PersistentCachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
+
+	private static final int MAGIC = 0x53504d44;
+
+	private static final int VERSION = 1;
+
+	private static final Log logger = LogFactory.getLog(PersistentCachingMetadataReaderFactory.class);
+
+
+	private final File cacheFile;
+
+	private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>(256);
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private volatile boolean modified;
+
+
+	/**
+	 * Create a new PersistentCachingMetadataReaderFactory for the default
+	 * class loader, loading any metadata previously saved to the given file.
+	 * @param cacheFile the file to load metadata from and save metadata to
+	 */
+	public PersistentCachingMetadataReaderFactory(File cacheFile) {
+		super();
+		this.cacheFile = cacheFile;
+		load();
+	}
+
+	/**
+	 * Create a new PersistentCachingMetadataReaderFactory for the given
+	 * {@link ClassLoader}, loading any metadata previously saved to the given file.
+	 * @param classLoader the ClassLoader to use
+	 * @param cacheFile the file to load metadata from and save metadata to
+	 */
+	public PersistentCachingMetadataReaderFactory(@Nullable ClassLoader classLoader, File cacheFile) {
+		super(classLoader);
+		this.cacheFile = cacheFile;
+		load();
+	}
+
+	/**
+	 * Create a new PersistentCachingMetadataReaderFactory for the given
+	 * {@link ResourceLoader}, loading any metadata previously saved to the given file.
+	 * @param resourceLoader the Spring ResourceLoader to use
+	 * (also determines the ClassLoader to use)
+	 * @param cacheFile the file to load metadata from and save metadata to
+	 */
+	public PersistentCachingMetadataReaderFactory(@Nullable ResourceLoader resourceLoader, File cacheFile) {
+		super(resourceLoader);
+		this.cacheFile = cacheFile;
+		load();
+	}
+
+
+	/**
+	 * Return the file that metadata is loaded from and saved to.
+	 */
+	public final File getCacheFile() {
+		return this.cacheFile;
+	}
+
+	/**
+	 * Return the number of requests served from previously parsed metadata,
+	 * either loaded from the cache file or parsed earlier by this factory.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of requests that required a class file to be parsed.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+
+	@Override
+	public MetadataReader getMetadataReader(Resource resource) throws IOException {
+		String key;
+		long checksum;
+		try {
+			key = resource.getURL().toExternalForm();
+			checksum = getChecksum(resource);
+		}
+		catch (IOException ex) {
+			// Not backed by a URL, e.g. a ByteArrayResource: cannot be cached.
+			this.missCount.incrementAndGet();
+			return super.getMetadataReader(resource);
+		}
+		CacheEntry entry = this.entries.get(key);
+		if (entry != null && entry.checksum == checksum) {
+			MetadataReader metadataReader = entry.getMetadataReader(resource);
+			if (metadataReader != null) {
+				this.hitCount.incrementAndGet();
+				return metadataReader;
+			}
+		}
+		this.missCount.incrementAndGet();
+		MetadataReader metadataReader = super.getMetadataReader(resource);
+		AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+		if (metadata instanceof SimpleAnnotationMetadata) {
+			try {
+				byte[] data = SimpleAnnotationMetadataSerializer.serialize((SimpleAnnotationMetadata) metadata);
+				this.entries.put(key, new CacheEntry(checksum, data, metadataReader));
+				this.modified = true;
+			}
+			catch (IOException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Cannot cache metadata for " + resource + ": " + ex.getMessage());
+				}
+			}
+		}
+		return metadataReader;
+	}
+
+	/**
+	 * Determine the checksum used to validate a cache entry for the given resource.
+	 * <p>The default implementation uses the CRC of the jar entry for a class
+	 * file in a jar, falling back to {@link Resource#lastModified()}.
+	 * @param resource the class file resource
+	 * @return the checksum to compare with the one of the cache entry
+	 * @throws IOException if the checksum cannot be determined
+	 */
+	protected long getChecksum(Resource resource) throws IOException {
+		URL url = resource.getURL();
+		if (ResourceUtils.isJarURL(url)) {
+			URLConnection con = url.openConnection();
+			if (con instanceof JarURLConnection) {
+				JarURLConnection jarCon = (JarURLConnection) con;
+				ResourceUtils.useCachesIfNecessary(jarCon);
+				try {
+					JarEntry jarEntry = jarCon.getJarEntry();
+					if (jarEntry != null && jarEntry.getCrc() != -1) {
+						return jarEntry.getCrc();
+					}
+				}
+				finally {
+					if (!jarCon.getUseCaches()) {
+						jarCon.getJarFile().close();
+					}
+				}
+			}
+		}
+		return resource.lastModified();
+	}
+
+	/**
+	 * Write all metadata requested since construction to the cache file,
+	 * provided that it differs from what has been loaded.
+	 * @throws IOException in case of I/O errors
+	 */
+	public void save() throws IOException {
+		Map<String, CacheEntry> usedEntries = new LinkedHashMap<>(this.entries.size());
+		this.entries.forEach((key, entry) -> {
+			if (entry.used) {
+				usedEntries.put(key, entry);
+			}
+		});
+		if (!this.modified && usedEntries.size() == this.entries.size()) {
+			return;
+		}
+		File parent = this.cacheFile.getAbsoluteFile().getParentFile();
+		Assert.state(parent != null, "Cache file has no parent directory");
+		Files.createDirectories(parent.toPath());
+		File tempFile = File.createTempFile(this.cacheFile.getName(), ".tmp", parent);
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(usedEntries.size());
+				for (Map.Entry<String, CacheEntry> entry : usedEntries.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeLong(entry.getValue().checksum);
+					out.writeInt(entry.getValue().data.length);
+					out.write(entry.getValue().data);
+				}
+			}
+			try {
+				Files.move(tempFile.toPath(), this.cacheFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tempFile.toPath(), this.cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			this.modified = false;
+		}
+		finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+
+	private void load() {
+		if (!this.cacheFile.isFile()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(this.cacheFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring metadata cache file in unknown format: " + this.cacheFile);
+				}
+				return;
+			}
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				String key = in.readUTF();
+				long checksum = in.readLong();
+				byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				this.entries.put(key, new CacheEntry(checksum, data, null));
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded metadata for " + this.entries.size() + " classes from " + this.cacheFile);
+			}
+		}
+		catch (IOException ex) {
+			this.entries.clear();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring unreadable metadata cache file " + this.cacheFile + ": " + ex.getMessage());
+			}
+		}
+	}
+
+
+	/**
+	 * Serialized metadata for a single class file, along with the
+	 * {@link MetadataReader} created from it once requested.
+	 */
+	private final class CacheEntry {
+
+		final long checksum;
+
+		final byte[] data;
+
+		@Nullable
+		private volatile MetadataReader metadataReader;
+
+		volatile boolean used;
+
+		CacheEntry(long checksum, byte[] data, @Nullable MetadataReader metadataReader) {
+			this.checksum = checksum;
+			this.data = data;
+			this.metadataReader = metadataReader;
+			this.used = (metadataReader != null);
+		}
+
+		@Nullable
+		MetadataReader getMetadataReader(Resource resource) {
+			MetadataReader metadataReader = this.metadataReader;
+			if (metadataReader == null) {
+				try {
+					AnnotationMetadata metadata = SimpleAnnotationMetadataSerializer.deserialize(
+							this.data, getResourceLoader().getClassLoader());
+					metadataReader = new SimpleMetadataReader(resource, metadata);
+				}
+				catch (IOException | RuntimeException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Discarding cached metadata for " + resource + ": " + ex);
+					}
+					return null;
+				}
+				this.metadataReader = metadataReader;
+			}
+			this.used = true;
+			return metadataReader;
+		}
+	}
+
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotation.Adapt;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Converts {@link SimpleAnnotationMetadata} to and from a compact binary
+ * form, as used by {@link PersistentCachingMetadataReaderFactory}.
+ *
+ * <p>Only directly declared annotations are written; meta-annotations are
+ * resolved again from the annotation types when the metadata is read back.
+ * Class references are kept as class names so that reading the metadata
+ * does not load any classes other than annotation and enum types, just
+ * like the ASM-based {@link SimpleMetadataReader}.
+ *
+ * @author Spring Team
+ * @since 5.3
+ */
+final class SimpleAnnotationMetadataSerializer {
+
+	private static final byte STRING = 's';
+
+	private static final byte BOOLEAN = 'Z';
+
+	private static final byte BYTE = 'B';
+
+	private static final byte CHAR = 'C';
+
+	private static final byte SHORT = 'S';
+
+	private static final byte INT = 'I';
+
+	private static final byte LONG = 'J';
+
+	private static final byte FLOAT = 'F';
+
+	private static final byte DOUBLE = 'D';
+
+	private static final byte ENUM = 'e';
+
+	private static final byte ANNOTATION = '@';
+
+	private static final byte ARRAY = '[';
+
+
+	private SimpleAnnotationMetadataSerializer() {
+	}
+
+
+	/**
+	 * Serialize the given metadata.
+	 * @param metadata the metadata to serialize
+	 * @return the serialized form
+	 * @throws IOException if the metadata contains an unsupported attribute value
+	 */
+	static byte[] serialize(SimpleAnnotationMetadata metadata) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeUTF(metadata.getClassName());
+		out.writeInt(metadata.getAccess());
+		writeNullableString(out, metadata.getEnclosingClassName());
+		writeNullableString(out, metadata.getSuperClassName());
+		out.writeBoolean(metadata.isIndependent());
+		writeStrings(out, metadata.getInterfaceNames());
+		writeStrings(out, metadata.getMemberClassNames());
+		writeAnnotations(out, metadata.getAnnotations());
+		MethodMetadata[] annotatedMethods = metadata.getAllAnnotatedMethods();
+		out.writeInt(annotatedMethods.length);
+		for (MethodMetadata annotatedMethod : annotatedMethods) {
+			SimpleMethodMetadata methodMetadata = (SimpleMethodMetadata) annotatedMethod;
+			SimpleMethodMetadataReadingVisitor.Source source =
+					(SimpleMethodMetadataReadingVisitor.Source) methodMetadata.getSource();
+			out.writeUTF(methodMetadata.getMethodName());
+			out.writeInt(methodMetadata.getAccess());
+			out.writeUTF(methodMetadata.getReturnTypeName());
+			out.writeUTF(source.getDescriptor());
+			writeAnnotations(out, methodMetadata.getAnnotations());
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Deserialize metadata previously written by {@link #serialize}.
+	 * @param data the serialized form
+	 * @param classLoader the ClassLoader to use for annotation and enum types
+	 * @return the metadata
+	 * @throws IOException if the data is corrupt
+	 * @throws IllegalArgumentException if an annotation or enum type cannot be resolved
+	 */
+	static SimpleAnnotationMetadata deserialize(byte[] data, @Nullable ClassLoader classLoader) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		String className = in.readUTF();
+		int access = in.readInt();
+		String enclosingClassName = readNullableString(in);
+		String superClassName = readNullableString(in);
+		boolean independentInnerClass = in.readBoolean();
+		String[] interfaceNames = readStrings(in);
+		String[] memberClassNames = readStrings(in);
+		MergedAnnotations annotations = readAnnotations(in, classLoader,
+				new SimpleAnnotationMetadataReadingVisitor.Source(className));
+		MethodMetadata[] annotatedMethods = new MethodMetadata[in.readInt()];
+		for (int i = 0; i < annotatedMethods.length; i++) {
+			String methodName = in.readUTF();
+			int methodAccess = in.readInt();
+			String returnTypeName = in.readUTF();
+			String descriptor = in.readUTF();
+			Object source = new SimpleMethodMetadataReadingVisitor.Source(className, methodName, descriptor);
+			annotatedMethods[i] = new SimpleMethodMetadata(methodName, methodAccess, className,
+					returnTypeName, source, readAnnotations(in, classLoader, source));
+		}
+		return new SimpleAnnotationMetadata(className, access, enclosingClassName, superClassName,
+				independentInnerClass, interfaceNames, memberClassNames, annotatedMethods, annotations);
+	}
+
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+		out.writeInt(values.length);
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static String[] readStrings(DataInputStream in) throws IOException {
+		String[] values = new String[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readUTF();
+		}
+		return values;
+	}
+
+	private static void writeAnnotations(DataOutputStream out, MergedAnnotations annotations) throws IOException {
+		List<MergedAnnotation<Annotation>> directAnnotations = new ArrayList<>();
+		annotations.stream().filter(MergedAnnotation::isDirectlyPresent).forEach(directAnnotations::add);
+		out.writeInt(directAnnotations.size());
+		for (MergedAnnotation<Annotation> annotation : directAnnotations) {
+			writeAttributes(out, annotation.asMap(
+					mergedAnnotation -> new AnnotationAttributes(mergedAnnotation.getType()),
+					Adapt.CLASS_TO_STRING, Adapt.ANNOTATION_TO_MAP));
+		}
+	}
+
+	private static void writeAttributes(DataOutputStream out, AnnotationAttributes attributes) throws IOException {
+		Class<? extends Annotation> annotationType = attributes.annotationType();
+		if (annotationType == null) {
+			throw new IOException("Cannot serialize annotation attributes without annotation type");
+		}
+		out.writeUTF(annotationType.getName());
+		out.writeInt(attributes.size());
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		Class<?> type = value.getClass();
+		if (type.isArray()) {
+			Class<?> componentType = type.getComponentType();
+			out.writeByte(ARRAY);
+			writeType(out, componentType);
+			int length = Array.getLength(value);
+			out.writeInt(length);
+			for (int i = 0; i < length; i++) {
+				writeElement(out, componentType, Array.get(value, i));
+			}
+		}
+		else {
+			writeType(out, type);
+			writeElement(out, type, value);
+		}
+	}
+
+	private static void writeType(DataOutputStream out, Class<?> type) throws IOException {
+		type = ClassUtils.resolvePrimitiveIfNecessary(type);
+		if (type == String.class) {
+			out.writeByte(STRING);
+		}
+		else if (type == Boolean.class) {
+			out.writeByte(BOOLEAN);
+		}
+		else if (type == Byte.class) {
+			out.writeByte(BYTE);
+		}
+		else if (type == Character.class) {
+			out.writeByte(CHAR);
+		}
+		else if (type == Short.class) {
+			out.writeByte(SHORT);
+		}
+		else if (type == Integer.class) {
+			out.writeByte(INT);
+		}
+		else if (type == Long.class) {
+			out.writeByte(LONG);
+		}
+		else if (type == Float.class) {
+			out.writeByte(FLOAT);
+		}
+		else if (type == Double.class) {
+			out.writeByte(DOUBLE);
+		}
+		else if (type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())) {
+			out.writeByte(ENUM);
+			out.writeUTF(type.isEnum() ? type.getName() : type.getSuperclass().getName());
+		}
+		else if (type == AnnotationAttributes.class) {
+			out.writeByte(ANNOTATION);
+		}
+		else {
+			throw new IOException("Unsupported annotation attribute type: " + type.getName());
+		}
+	}
+
+	private static void writeElement(DataOutputStream out, Class<?> type, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof Enum) {
+			out.writeUTF(((Enum<?>) value).name());
+		}
+		else if (value instanceof AnnotationAttributes) {
+			writeAttributes(out, (AnnotationAttributes) value);
+		}
+		else {
+			throw new IOException("Unsupported annotation attribute value of type " + type.getName());
+		}
+	}
+
+	private static MergedAnnotations readAnnotations(DataInputStream in,
+			@Nullable ClassLoader classLoader, Object source) throws IOException {
+
+		int size = in.readInt();
+		List<MergedAnnotation<?>> annotations = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			AnnotationAttributes attributes = readAttributes(in, classLoader);
+			annotations.add(MergedAnnotation.of(classLoader, source, attributes.annotationType(), attributes));
+		}
+		return MergedAnnotations.of(annotations);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static AnnotationAttributes readAttributes(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		Class<? extends Annotation> annotationType =
+				(Class<? extends Annotation>) ClassUtils.resolveClassName(in.readUTF(), classLoader);
+		int size = in.readInt();
+		AnnotationAttributes attributes = new AnnotationAttributes(annotationType);
+		for (int i = 0; i < size; i++) {
+			String name = in.readUTF();
+			attributes.put(name, readValue(in, classLoader));
+		}
+		return attributes;
+	}
+
+	private static Object readValue(DataInputStream in, @Nullable ClassLoader classLoader) throws IOException {
+		byte tag = in.readByte();
+		if (tag == ARRAY) {
+			byte componentTag = in.readByte();
+			Class<?> enumType = (componentTag == ENUM ? readEnumType(in, classLoader) : null);
+			int length = in.readInt();
+			Object array = Array.newInstance(getComponentType(componentTag, enumType), length);
+			for (int i = 0; i < length; i++) {
+				Array.set(array, i, readElement(in, componentTag, enumType, classLoader));
+			}
+			return array;
+		}
+		Class<?> enumType = (tag == ENUM ? readEnumType(in, classLoader) : null);
+		return readElement(in, tag, enumType, classLoader);
+	}
+
+	private static Class<?> readEnumType(DataInputStream in, @Nullable ClassLoader classLoader) throws IOException {
+		return ClassUtils.resolveClassName(in.readUTF(), classLoader);
+	}
+
+	private static Class<?> getComponentType(byte tag, @Nullable Class<?> enumType) throws IOException {
+		switch (tag) {
+			case STRING: return String.class;
+			case BOOLEAN: return boolean.class;
+			case BYTE: return byte.class;
+			case CHAR: return char.class;
+			case SHORT: return short.class;
+			case INT: return int.class;
+			case LONG: return long.class;
+			case FLOAT: return float.class;
+			case DOUBLE: return double.class;
+			case ANNOTATION: return AnnotationAttributes.class;
+			case ENUM:
+				if (enumType != null) {
+					return enumType;
+				}
+				break;
+		}
+		throw new IOException("Unknown attribute type tag: " + tag);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object readElement(DataInputStream in, byte tag, @Nullable Class<?> enumType,
+			@Nullable ClassLoader classLoader) throws IOException {
+
+		switch (tag) {
+			case STRING: return in.readUTF();
+			case BOOLEAN: return in.readBoolean();
+			case BYTE: return in.readByte();
+			case CHAR: return in.readChar();
+			case SHORT: return in.readShort();
+			case INT: return in.readInt();
+			case LONG: return in.readLong();
+			case FLOAT: return in.readFloat();
+			case DOUBLE: return in.readDouble();
+			case ANNOTATION: return readAttributes(in, classLoader);
+			case ENUM:
+				if (enumType != null) {
+					return Enum.valueOf((Class<? extends Enum>) enumType, in.readUTF());
+				}
+				break;
+		}
+		throw new IOException("Unknown attribute type tag: " + tag);
+	}
+
+}
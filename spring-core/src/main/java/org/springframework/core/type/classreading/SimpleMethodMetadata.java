@@ -37,16 +37,19 @@ final class SimpleMethodMetadata implements MethodMetadata {
 
 	private final String returnTypeName;
 
+	private final Object source;
+
 	private final MergedAnnotations annotations;
 
 
 	public SimpleMethodMetadata(String methodName, int access, String declaringClassName,
-			String returnTypeName, MergedAnnotations annotations) {
+			String returnTypeName, Object source, MergedAnnotations annotations) {
 
 		this.methodName = methodName;
 		this.access = access;
 		this.declaringClassName = declaringClassName;
 		this.returnTypeName = returnTypeName;
+		this.source = source;
 		this.annotations = annotations;
 	}
 
@@ -90,6 +93,14 @@ final class SimpleMethodMetadata implements MethodMetadata {
 		return (this.access & Opcodes.ACC_PRIVATE) != 0;
 	}
 
+	int getAccess() {
+		return this.access;
+	}
+
+	Object getSource() {
+		return this.source;
+	}
+
 	@Override
 	public MergedAnnotations getAnnotations() {
 		return this.annotations;
@@ -81,7 +81,7 @@ final class SimpleMethodMetadataReadingVisitor extends MethodVisitor {
 			String returnTypeName = Type.getReturnType(this.descriptor).getClassName();
 			MergedAnnotations annotations = MergedAnnotations.of(this.annotations);
 			SimpleMethodMetadata metadata = new SimpleMethodMetadata(this.name,
-					this.access, this.declaringClassName, returnTypeName, annotations);
+					this.access, this.declaringClassName, returnTypeName, getSource(), annotations);
 			this.consumer.accept(metadata);
 		}
 	}
@@ -116,6 +116,10 @@ final class SimpleMethodMetadataReadingVisitor extends MethodVisitor {
 			this.descriptor = descriptor;
 		}
 
+		String getDescriptor() {
+			return this.descriptor;
+		}
+
 		@Override
 		public int hashCode() {
 			int result = 1;
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * A compiled set of Ant-style path patterns that determines all patterns
+ * matching a given path in a single pass, instead of calling
+ * {@link AntPathMatcher#match(String, String)} for each pattern in turn.
+ *
+ * <p>Patterns are indexed in a trie of path segments: literal segments are
+ * looked up by key, so that only patterns sharing the literal segments of a
+ * path are ever considered. Remaining candidates are checked against the
+ * {@link AntPathMatcher} the set was created with, which means that the
+ * results are always the same as when matching each pattern individually.
+ *
+ * <p>The set of patterns is immutable once created, so instances are
+ * thread-safe as long as the given {@link AntPathMatcher} is not reconfigured
+ * afterwards: it is used as-is for matching, not copied.
+ *
+ * @author Spring Team
+ * @since 5.3
+ * @see AntPathMatcher
+ */
+public class AntPathPatternSet {
+
+	private final AntPathMatcher pathMatcher;
+
+	private final Set<String> patterns;
+
+	private final Node root = new Node();
+
+
+	/**
+	 * Create a new {@code AntPathPatternSet} for the given patterns, using a
+	 * default {@link AntPathMatcher}.
+	 * @param patterns the patterns to index
+	 */
+	public AntPathPatternSet(Collection<String> patterns) {
+		this(new AntPathMatcher(), patterns);
+	}
+
+	/**
+	 * Create a new {@code AntPathPatternSet} for the given patterns.
+	 * @param pathMatcher the matcher to tokenize and check patterns with
+	 * @param patterns the patterns to index
+	 */
+	public AntPathPatternSet(AntPathMatcher pathMatcher, Collection<String> patterns) {
+		Assert.notNull(pathMatcher, "AntPathMatcher must not be null");
+		Assert.notNull(patterns, "Patterns must not be null");
+		this.pathMatcher = pathMatcher;
+		this.patterns = Collections.unmodifiableSet(new LinkedHashSet<>(patterns));
+		for (String pattern : this.patterns) {
+			Assert.notNull(pattern, "Patterns must not contain null elements");
+			Node node = this.root;
+			for (String segment : pathMatcher.tokenizePath(pattern)) {
+				node = node.getOrCreateChild(segment);
+			}
+			node.addPattern(pattern);
+		}
+	}
+
+
+	/**
+	 * Return the patterns contained in this set, in registration order.
+	 */
+	public Set<String> getPatterns() {
+		return this.patterns;
+	}
+
+	/**
+	 * Determine whether any pattern in this set matches the given path.
+	 * @param path the path to match
+	 * @return {@code true} if at least one pattern matches
+	 */
+	public boolean matches(String path) {
+		for (String candidate : getCandidates(path)) {
+			if (this.pathMatcher.match(candidate, path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return all patterns that match the given path, sorted from the most
+	 * specific to the most generic one according to
+	 * {@link AntPathMatcher#getPatternComparator(String)}.
+	 * @param path the path to match
+	 * @return the matching patterns, or an empty list if none match
+	 */
+	public List<String> getMatchingPatterns(String path) {
+		Set<String> candidates = getCandidates(path);
+		if (candidates.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<String> matches = new ArrayList<>(candidates.size());
+		for (String candidate : candidates) {
+			if (this.pathMatcher.match(candidate, path)) {
+				matches.add(candidate);
+			}
+		}
+		if (matches.size() > 1) {
+			matches.sort(this.pathMatcher.getPatternComparator(path));
+		}
+		return matches;
+	}
+
+	/**
+	 * Return the patterns that may match the given path, to be checked
+	 * against the {@link AntPathMatcher}.
+	 */
+	private Set<String> getCandidates(String path) {
+		Set<String> candidates = new LinkedHashSet<>();
+		this.root.collectCandidates(this.pathMatcher.tokenizePath(path), 0, candidates);
+		return candidates;
+	}
+
+	/**
+	 * Normalize a literal segment the same way {@link String#equalsIgnoreCase}
+	 * compares characters, so that literal lookups also find candidates for
+	 * a case-insensitive {@link AntPathMatcher}.
+	 */
+	private static String normalize(String segment) {
+		char[] chars = segment.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
+	}
+
+	private static boolean isLiteral(String segment) {
+		return (segment.indexOf('*') == -1 && segment.indexOf('?') == -1 && segment.indexOf('{') == -1);
+	}
+
+
+	/**
+	 * A node in the trie, representing a pattern segment.
+	 */
+	private static final class Node {
+
+		private final Map<String, Node> literalChildren = new HashMap<>(4);
+
+		private final Map<String, Node> wildcardChildren = new LinkedHashMap<>(4);
+
+		@Nullable
+		private Node doubleWildcardChild;
+
+		private final List<String> patterns = new ArrayList<>(1);
+
+		Node getOrCreateChild(String segment) {
+			if ("**".equals(segment)) {
+				if (this.doubleWildcardChild == null) {
+					this.doubleWildcardChild = new Node();
+				}
+				return this.doubleWildcardChild;
+			}
+			if (isLiteral(segment)) {
+				return this.literalChildren.computeIfAbsent(normalize(segment), key -> new Node());
+			}
+			return this.wildcardChildren.computeIfAbsent(segment, key -> new Node());
+		}
+
+		void addPattern(String pattern) {
+			this.patterns.add(pattern);
+		}
+
+		/**
+		 * Collect the patterns that may match the path segments from the given
+		 * index on. This is a superset of the actual matches: wildcard segments
+		 * accept any path segment and {@code "**"} accepts any remainder.
+		 */
+		void collectCandidates(String[] segments, int index, Set<String> candidates) {
+			if (this.doubleWildcardChild != null) {
+				this.doubleWildcardChild.collectAll(candidates);
+			}
+			if (index == segments.length) {
+				candidates.addAll(this.patterns);
+				// A trailing "*" may match a path ending with a separator
+				for (Node child : this.wildcardChildren.values()) {
+					candidates.addAll(child.patterns);
+				}
+				return;
+			}
+			if (!this.literalChildren.isEmpty()) {
+				Node child = this.literalChildren.get(normalize(segments[index]));
+				if (child != null) {
+					child.collectCandidates(segments, index + 1, candidates);
+				}
+			}
+			for (Node child : this.wildcardChildren.values()) {
+				child.collectCandidates(segments, index + 1, candidates);
+			}
+		}
+
+		void collectAll(Set<String> candidates) {
+			candidates.addAll(this.patterns);
+			for (Node child : this.literalChildren.values()) {
+				child.collectAll(candidates);
+			}
+			for (Node child : this.wildcardChildren.values()) {
+				child.collectAll(candidates);
+			}
+			if (this.doubleWildcardChild != null) {
+				this.doubleWildcardChild.collectAll(candidates);
+			}
+		}
+	}
+
+}
@@ -22,14 +22,14 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
-import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
@@ -54,6 +54,10 @@ import org.springframework.lang.Nullable;
  * <p>If not explicitly specified, this implementation will use
  * {@linkplain SoftReference soft entry references}.
  *
+ * <p>Read operations never block: references that have been garbage collected
+ * are purged incrementally, in bounded batches, by whichever thread holds or
+ * can immediately acquire the lock of the affected segment.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @since 3.2
@@ -74,6 +78,8 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 
 	private static final int MAXIMUM_SEGMENT_SIZE = 1 << 30;
 
+	private static final int MAXIMUM_PURGE_BATCH_SIZE = 64;
+
 
 	/**
 	 * Array of segments indexed using the high order bits from the hash.
@@ -379,7 +385,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 	 */
 	public void purgeUnreferencedEntries() {
 		for (Segment segment : this.segments) {
-			segment.restructureIfNecessary(false);
+			segment.purgeUnreferencedEntries();
 		}
 	}
 
@@ -482,6 +488,11 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		 */
 		private int resizeThreshold;
 
+		/**
+		 * References polled for purge by readers that could not acquire the lock.
+		 */
+		private final Queue<Reference<K, V>> pendingPurges = new ConcurrentLinkedQueue<>();
+
 		public Segment(int initialSize, int resizeThreshold) {
 			this.referenceManager = createReferenceManager();
 			this.initialSize = initialSize;
@@ -492,7 +503,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		@Nullable
 		public Reference<K, V> getReference(@Nullable Object key, int hash, Restructure restructure) {
 			if (restructure == Restructure.WHEN_NECESSARY) {
-				restructureIfNecessary(false);
+				purgeIfPossible();
 			}
 			if (this.count.get() == 0) {
 				return null;
@@ -556,6 +567,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 				this.references = createReferenceArray(this.initialSize);
 				this.resizeThreshold = (int) (this.references.length * getLoadFactor());
 				this.count.set(0);
+				this.pendingPurges.clear();
 			}
 			finally {
 				unlock();
@@ -571,72 +583,147 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		protected final void restructureIfNecessary(boolean allowResize) {
 			int currCount = this.count.get();
 			boolean needsResize = allowResize && (currCount > 0 && currCount >= this.resizeThreshold);
-			Reference<K, V> ref = this.referenceManager.pollForPurge();
+			Reference<K, V> ref = pollForPurge();
 			if (ref != null || (needsResize)) {
 				restructure(allowResize, ref);
 			}
 		}
 
-		private void restructure(boolean allowResize, @Nullable Reference<K, V> ref) {
-			boolean needsResize;
-			lock();
-			try {
-				int countAfterRestructure = this.count.get();
-				Set<Reference<K, V>> toPurge = Collections.emptySet();
-				if (ref != null) {
-					toPurge = new HashSet<>();
-					while (ref != null) {
-						toPurge.add(ref);
-						ref = this.referenceManager.pollForPurge();
-					}
+		/**
+		 * Purge all references that have been garbage collected, rather than
+		 * the bounded batch purged on regular access.
+		 */
+		void purgeUnreferencedEntries() {
+			Reference<K, V> ref = pollForPurge();
+			if (ref != null) {
+				lock();
+				try {
+					purge(ref, Integer.MAX_VALUE);
 				}
-				countAfterRestructure -= toPurge.size();
-
-				// Recalculate taking into account count inside lock and items that
-				// will be purged
-				needsResize = (countAfterRestructure > 0 && countAfterRestructure >= this.resizeThreshold);
-				boolean resizing = false;
-				int restructureSize = this.references.length;
-				if (allowResize && needsResize && restructureSize < MAXIMUM_SEGMENT_SIZE) {
-					restructureSize <<= 1;
-					resizing = true;
+				finally {
+					unlock();
 				}
+			}
+		}
 
-				// Either create a new table or reuse the existing one
-				Reference<K, V>[] restructured =
-						(resizing ? createReferenceArray(restructureSize) : this.references);
-
-				// Restructure
-				for (int i = 0; i < this.references.length; i++) {
-					ref = this.references[i];
-					if (!resizing) {
-						restructured[i] = null;
+		/**
+		 * Purge references that have been garbage collected without ever blocking:
+		 * if the segment is currently locked, a polled reference is handed over to
+		 * the next thread that restructures this segment.
+		 */
+		private void purgeIfPossible() {
+			Reference<K, V> ref = pollForPurge();
+			if (ref != null) {
+				if (tryLock()) {
+					try {
+						purge(ref, MAXIMUM_PURGE_BATCH_SIZE);
 					}
-					while (ref != null) {
-						if (!toPurge.contains(ref)) {
-							Entry<K, V> entry = ref.get();
-							if (entry != null) {
-								int index = getIndex(ref.getHash(), restructured);
-								restructured[index] = this.referenceManager.createReference(
-										entry, ref.getHash(), restructured[index]);
-							}
-						}
-						ref = ref.getNext();
+					finally {
+						unlock();
 					}
 				}
+				else {
+					this.pendingPurges.add(ref);
+				}
+			}
+		}
 
-				// Replace volatile members
-				if (resizing) {
-					this.references = restructured;
-					this.resizeThreshold = (int) (this.references.length * getLoadFactor());
+		private void restructure(boolean allowResize, @Nullable Reference<K, V> ref) {
+			lock();
+			try {
+				purge(ref, MAXIMUM_PURGE_BATCH_SIZE);
+				if (allowResize && needsResize()) {
+					// Resizing traverses the whole table anyway: drain all references
+					// pending purge first so that they are not copied over
+					purge(pollForPurge(), Integer.MAX_VALUE);
+					if (needsResize()) {
+						resize();
+					}
 				}
-				this.count.set(Math.max(countAfterRestructure, 0));
 			}
 			finally {
 				unlock();
 			}
 		}
 
+		/**
+		 * Remove the given reference and up to {@code limit - 1} further references
+		 * pending purge from their chains. Only the affected chains are rebuilt,
+		 * so the cost is independent of the overall size of the segment.
+		 * <p>Must be called while holding the lock.
+		 */
+		private void purge(@Nullable Reference<K, V> ref, int limit) {
+			int remaining = limit;
+			while (ref != null) {
+				removeFromChain(ref);
+				if (--remaining == 0) {
+					return;
+				}
+				ref = pollForPurge();
+			}
+		}
+
+		private void removeFromChain(Reference<K, V> ref) {
+			Reference<K, V>[] references = this.references;
+			int index = getIndex(ref.getHash(), references);
+			Reference<K, V> head = references[index];
+			Reference<K, V> currRef = head;
+			while (currRef != null && currRef != ref) {
+				currRef = currRef.getNext();
+			}
+			if (currRef == null) {
+				// Already removed as part of an earlier purge or resize
+				return;
+			}
+			// References are immutable: copy the ones preceding the purged reference,
+			// dropping any that have been garbage collected in the meantime
+			Reference<K, V> newHead = ref.getNext();
+			int removed = 1;
+			for (currRef = head; currRef != ref; currRef = currRef.getNext()) {
+				Entry<K, V> entry = currRef.get();
+				if (entry != null) {
+					newHead = this.referenceManager.createReference(entry, currRef.getHash(), newHead);
+				}
+				else {
+					removed++;
+				}
+			}
+			references[index] = newHead;
+			this.count.addAndGet(-removed);
+		}
+
+		private boolean needsResize() {
+			int currCount = this.count.get();
+			return (currCount > 0 && currCount >= this.resizeThreshold &&
+					this.references.length < MAXIMUM_SEGMENT_SIZE);
+		}
+
+		private void resize() {
+			Reference<K, V>[] references = this.references;
+			Reference<K, V>[] resized = createReferenceArray(references.length << 1);
+			int resizedCount = 0;
+			for (Reference<K, V> head : references) {
+				for (Reference<K, V> ref = head; ref != null; ref = ref.getNext()) {
+					Entry<K, V> entry = ref.get();
+					if (entry != null) {
+						int index = getIndex(ref.getHash(), resized);
+						resized[index] = this.referenceManager.createReference(entry, ref.getHash(), resized[index]);
+						resizedCount++;
+					}
+				}
+			}
+			// Replace volatile members
+			this.references = resized;
+			this.resizeThreshold = (int) (resized.length * getLoadFactor());
+			this.count.set(resizedCount);
+		}
+
+		@Nullable
+		private Reference<K, V> pollForPurge() {
+			Reference<K, V> ref = this.pendingPurges.poll();
+			return (ref != null ? ref : this.referenceManager.pollForPurge());
+		}
+
 		@Nullable
 		private Reference<K, V> findInChain(Reference<K, V> ref, @Nullable Object key, int hash) {
 			Reference<K, V> currRef = ref;
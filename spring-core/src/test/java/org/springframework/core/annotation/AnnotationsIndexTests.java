@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AnnotationsIndex}. The index entries used by the
+ * {@link MergedAnnotations} tests are declared in
+ * {@code src/test/resources/META-INF/spring.annotations}.
+ */
+class AnnotationsIndexTests {
+
+	@Test
+	void isKnownAbsentForIndexedClass() {
+		AnnotationsIndex index = createIndex(IndexedWithFirst.class.getName(), First.class.getName());
+		assertThat(index.isKnownAbsent(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY, First.class.getName())).isFalse();
+		assertThat(index.isKnownAbsent(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY, Second.class.getName())).isTrue();
+		assertThat(index.isKnownEmpty(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY)).isFalse();
+	}
+
+	@Test
+	void isKnownAbsentForIndexedMethod() {
+		AnnotationsIndex index = createIndex(IndexedWithFirst.class.getName() + "#methods", First.class.getName());
+		Method method = ReflectionUtils.findMethod(IndexedWithFirst.class, "handle");
+		assertThat(index.isKnownAbsent(method, SearchStrategy.TYPE_HIERARCHY, First.class.getName())).isFalse();
+		assertThat(index.isKnownAbsent(method, SearchStrategy.TYPE_HIERARCHY, Second.class.getName())).isTrue();
+		assertThat(index.isKnownAbsent(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY, Second.class.getName())).isFalse();
+	}
+
+	@Test
+	void isKnownAbsentForUnindexedElement() {
+		AnnotationsIndex index = createIndex(IndexedWithFirst.class.getName(), First.class.getName());
+		assertThat(index.isKnownAbsent(Unindexed.class, SearchStrategy.TYPE_HIERARCHY, First.class.getName())).isFalse();
+		assertThat(index.isKnownEmpty(Unindexed.class, SearchStrategy.TYPE_HIERARCHY)).isFalse();
+	}
+
+	@Test
+	void isKnownAbsentIgnoresIndexWhenSearchingEnclosingClasses() {
+		AnnotationsIndex index = createIndex(IndexedWithFirst.class.getName(), "");
+		assertThat(index.isKnownEmpty(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY)).isTrue();
+		assertThat(index.isKnownEmpty(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY_AND_ENCLOSING_CLASSES)).isFalse();
+	}
+
+	@Test
+	void isKnownAbsentExpandsMetaAnnotationsOfLoadedTypes() {
+		AnnotationsIndex index = createIndex(IndexedWithFirst.class.getName(), MetaSecond.class.getName());
+		assertThat(index.isKnownAbsent(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY, Second.class.getName())).isFalse();
+		assertThat(index.isKnownAbsent(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY, First.class.getName())).isTrue();
+	}
+
+	@Test
+	void isKnownAbsentIgnoresEntryWithUnresolvableType() {
+		AnnotationsIndex index = createIndex(IndexedWithFirst.class.getName(), "com.example.Missing");
+		assertThat(index.isKnownAbsent(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY, First.class.getName())).isFalse();
+		assertThat(index.isKnownEmpty(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY)).isFalse();
+	}
+
+	@Test
+	void mergedAnnotationsUseIndexForClasses() {
+		assertThat(MergedAnnotations.from(IndexedAsUnannotated.class).isPresent(First.class)).isFalse();
+		assertThat(MergedAnnotations.from(IndexedAsUnannotated.class, SearchStrategy.TYPE_HIERARCHY)
+				.get(First.class).isPresent()).isFalse();
+		assertThat(MergedAnnotations.from(IndexedAsUnannotated.class,
+				SearchStrategy.TYPE_HIERARCHY_AND_ENCLOSING_CLASSES).isPresent(First.class)).isTrue();
+		assertThat(MergedAnnotations.from(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY)
+				.isPresent(First.class)).isTrue();
+		assertThat(MergedAnnotations.from(IndexedWithFirst.class, SearchStrategy.TYPE_HIERARCHY)
+				.isPresent(Second.class)).isFalse();
+		assertThat(MergedAnnotations.from(Unindexed.class).isPresent(First.class)).isTrue();
+	}
+
+	@Test
+	void mergedAnnotationsUseIndexForMethods() {
+		Method unannotated = ReflectionUtils.findMethod(IndexedAsUnannotated.class, "handle");
+		Method annotated = ReflectionUtils.findMethod(IndexedWithFirst.class, "handle");
+		assertThat(MergedAnnotations.from(unannotated, SearchStrategy.TYPE_HIERARCHY).isPresent(First.class)).isFalse();
+		assertThat(MergedAnnotations.from(annotated, SearchStrategy.TYPE_HIERARCHY)
+				.get(First.class).getString("value")).isEqualTo("method");
+	}
+
+
+	private static AnnotationsIndex createIndex(String key, String annotationType) {
+		Map<String, Set<String>> entries = new HashMap<>();
+		entries.put(key, (annotationType.isEmpty() ? Collections.emptySet() : Collections.singleton(annotationType)));
+		return new AnnotationsIndex(entries);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface First {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Second {
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Second
+	@interface MetaSecond {
+	}
+
+
+	@First
+	static class IndexedAsUnannotated {
+
+		@First
+		public void handle() {
+		}
+	}
+
+
+	@First
+	static class IndexedWithFirst {
+
+		@First("method")
+		public void handle() {
+		}
+	}
+
+
+	@First
+	static class Unindexed {
+	}
+
+}
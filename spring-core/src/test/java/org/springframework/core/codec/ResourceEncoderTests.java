@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,18 +16,26 @@
 
 package org.springframework.core.codec;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.core.testfixture.codec.AbstractEncoderTests;
 import org.springframework.lang.Nullable;
 import org.springframework.util.MimeType;
@@ -74,6 +82,28 @@ class ResourceEncoderTests extends AbstractEncoderTests<ResourceEncoder> {
 				.verifyComplete());
 	}
 
+	@Test
+	void encodeFileWithMemoryMappedFiles(@TempDir Path tempDir) throws Exception {
+		byte[] content = new byte[100 * 1024];
+		Arrays.fill(content, (byte) 'a');
+		File file = tempDir.resolve("file.txt").toFile();
+		Files.write(file.toPath(), content);
+
+		ResourceEncoder encoder = new ResourceEncoder();
+		assertThat(encoder.isUseMemoryMappedFiles()).isFalse();
+		encoder.setUseMemoryMappedFiles(true);
+
+		Flux<DataBuffer> result = encoder.encode(Flux.just(new FileSystemResource(file)),
+				new DefaultDataBufferFactory(), ResolvableType.forClass(Resource.class), null, null);
+		StepVerifier.create(DataBufferUtils.join(result))
+				.consumeNextWith(buffer -> {
+					byte[] bytes = new byte[buffer.readableByteCount()];
+					buffer.read(bytes);
+					assertThat(bytes).isEqualTo(content);
+				})
+				.verifyComplete();
+	}
+
 	@Override
 	protected void testEncodeError(Publisher<?> input, ResolvableType outputType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
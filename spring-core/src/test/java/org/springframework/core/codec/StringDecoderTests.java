@@ -136,6 +136,22 @@ class StringDecoderTests extends AbstractDecoderTests<StringDecoder> {
 				.verify());
 	}
 
+	@Test
+	void decodeDelimiterAcrossBuffers() {
+		Flux<DataBuffer> input = Flux.just(
+				stringBuffer("abc\r"),
+				stringBuffer("\ndef\r"),
+				stringBuffer("\n"),
+				stringBuffer("ghi"));
+
+		testDecode(input, String.class, step -> step
+				.expectNext("abc")
+				.expectNext("def")
+				.expectNext("ghi")
+				.expectComplete()
+				.verify());
+	}
+
 	@Test
 	void maxInMemoryLimit() {
 		Flux<DataBuffer> input = Flux.just(
@@ -628,6 +628,66 @@ class GenericConversionServiceTests {
 		assertThat(conversionService.convert("test", TypeDescriptor.valueOf(String.class), new TypeDescriptor(getClass().getField("integerCollection")))).isEqualTo(Collections.singleton("testX"));
 	}
 
+	@Test
+	void classBasedConversionUsesDispatchTable() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+
+		assertThat(conversionService.convert("1", Integer.class)).isEqualTo(1);
+		assertThat(conversionService.getDispatchHitCount()).isEqualTo(0);
+		assertThat(conversionService.getDispatchMissCount()).isEqualTo(1);
+
+		assertThat(conversionService.convert("2", Integer.class)).isEqualTo(2);
+		assertThat(conversionService.canConvert(String.class, Integer.class)).isTrue();
+		assertThat(conversionService.getDispatchHitCount()).isEqualTo(2);
+		assertThat(conversionService.getDispatchMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	void dispatchTableRemembersMissingConverter() {
+		assertThat(conversionService.canConvert(String.class, Integer.class)).isFalse();
+		assertThatExceptionOfType(ConverterNotFoundException.class).isThrownBy(() ->
+				conversionService.convert("1", Integer.class));
+		assertThat(conversionService.getDispatchHitCount()).isEqualTo(1);
+		assertThat(conversionService.getDispatchMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	void dispatchTableInvalidatedOnConverterChange() {
+		conversionService.addConverter(String.class, Integer.class, Integer::valueOf);
+		assertThat(conversionService.convert("1", Integer.class)).isEqualTo(1);
+
+		conversionService.addConverter(String.class, Integer.class, source -> Integer.valueOf(source) + 1);
+		assertThat(conversionService.convert("1", Integer.class)).isEqualTo(2);
+
+		conversionService.removeConvertible(String.class, Integer.class);
+		assertThat(conversionService.canConvert(String.class, Integer.class)).isFalse();
+		assertThat(conversionService.getDispatchMissCount()).isEqualTo(3);
+	}
+
+	@Test
+	void dispatchTableNotUsedWhenTypeDescriptorVariantsOverridden() {
+		List<TypeDescriptor> requestedTypes = new ArrayList<>();
+		GenericConversionService service = new GenericConversionService() {
+			@Override
+			public boolean canConvert(@Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				requestedTypes.add(targetType);
+				return super.canConvert(sourceType, targetType);
+			}
+			@Override
+			public Object convert(@Nullable Object source, @Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				requestedTypes.add(targetType);
+				return super.convert(source, sourceType, targetType);
+			}
+		};
+		service.addConverter(String.class, Integer.class, Integer::valueOf);
+
+		assertThat(service.canConvert(String.class, Integer.class)).isTrue();
+		assertThat(service.convert("1", Integer.class)).isEqualTo(1);
+		assertThat(requestedTypes).hasSize(2);
+		assertThat(service.getDispatchHitCount()).isEqualTo(0);
+		assertThat(service.getDispatchMissCount()).isEqualTo(0);
+	}
+
 
 	@ExampleAnnotation(active = true)
 	public String annotatedString;
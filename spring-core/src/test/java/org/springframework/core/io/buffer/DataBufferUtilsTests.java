@@ -31,6 +31,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
@@ -46,6 +47,7 @@ import reactor.test.StepVerifier;
 
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.testfixture.io.buffer.AbstractDataBufferAllocatingTests;
 
@@ -251,6 +253,67 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 				.verify(Duration.ofSeconds(5));
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedFileChannel(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		URI uri = this.resource.getURI();
+		Flux<DataBuffer> flux = DataBufferUtils.readMappedFileChannel(
+				() -> FileChannel.open(Paths.get(uri), StandardOpenOption.READ), 0, super.bufferFactory, 3);
+
+		verifyReadData(flux);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedFileChannelPosition(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		URI uri = this.resource.getURI();
+		Flux<DataBuffer> flux = DataBufferUtils.readMappedFileChannel(
+				() -> FileChannel.open(Paths.get(uri), StandardOpenOption.READ), 9, super.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("qux"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readZeroCopy(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		byte[] content = new byte[200 * 1024];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) i;
+		}
+		Files.write(this.tempFile, content);
+		Resource resource = new FileSystemResource(this.tempFile);
+
+		Flux<DataBuffer> flux = DataBufferUtils.readZeroCopy(resource, 1000, super.bufferFactory, 8192);
+		flux = DataBufferUtils.takeUntilByteCount(flux, 100_000);
+
+		StepVerifier.create(DataBufferUtils.join(flux))
+				.consumeNextWith(dataBuffer -> {
+					byte[] result = new byte[dataBuffer.readableByteCount()];
+					dataBuffer.read(result);
+					DataBufferUtils.release(dataBuffer);
+					assertThat(result).isEqualTo(Arrays.copyOfRange(content, 1000, 101_000));
+				})
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void readZeroCopyMapsFileForDefaultDataBufferFactory() throws Exception {
+		Files.write(this.tempFile, new byte[100 * 1024]);
+		Resource resource = new FileSystemResource(this.tempFile);
+
+		StepVerifier.create(DataBufferUtils.readZeroCopy(resource, 0, new DefaultDataBufferFactory(), 8192))
+				.consumeNextWith(dataBuffer -> assertThat(dataBuffer.asByteBuffer().isReadOnly()).isTrue())
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+	}
+
 	private void verifyReadData(Flux<DataBuffer> buffers) {
 		StepVerifier.create(buffers)
 				.consumeNextWith(stringConsumer("foo"))
@@ -940,6 +1003,84 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 		release(foo);
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void matcherMultipleDelimiters(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer foo = stringBuffer("foo\r\nbar\rbaz\r");
+		DataBuffer bar = stringBuffer("\nqux");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"\r\n".getBytes(StandardCharsets.UTF_8), "\n".getBytes(StandardCharsets.UTF_8));
+		int endIndex = matcher.match(foo);
+		assertThat(endIndex).isEqualTo(4);
+		assertThat(matcher.delimiter()).isEqualTo("\r\n".getBytes(StandardCharsets.UTF_8));
+		foo.readPosition(endIndex + 1);
+		endIndex = matcher.match(foo);
+		assertThat(endIndex).isEqualTo(-1);
+		endIndex = matcher.match(bar);
+		assertThat(endIndex).isEqualTo(0);
+		assertThat(matcher.delimiter()).isEqualTo("\r\n".getBytes(StandardCharsets.UTF_8));
+		bar.readPosition(endIndex + 1);
+		endIndex = matcher.match(bar);
+		assertThat(endIndex).isEqualTo(-1);
+
+		release(foo, bar);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void matcherPartialMatchDoesNotSkipBytes(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer foo = stringBuffer("a\rb\nc");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"\r\n".getBytes(StandardCharsets.UTF_8), "\n".getBytes(StandardCharsets.UTF_8));
+		int endIndex = matcher.match(foo);
+		assertThat(endIndex).isEqualTo(3);
+		assertThat(matcher.delimiter()).isEqualTo("\n".getBytes(StandardCharsets.UTF_8));
+
+		matcher = DataBufferUtils.matcher("\r\n".getBytes(StandardCharsets.UTF_8));
+		assertThat(matcher.match(foo)).isEqualTo(-1);
+
+		release(foo);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void matcherLongInput(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 40; i++) {
+			for (int j = 0; j < i; j++) {
+				builder.append((char) ('a' + j % 26));
+			}
+			builder.append(i % 2 == 0 ? "\n" : "\r\n");
+		}
+		String input = builder.toString();
+		DataBuffer buffer = stringBuffer(input);
+
+		DataBufferUtils.Matcher singleMatcher = DataBufferUtils.matcher("\n".getBytes(StandardCharsets.UTF_8));
+		DataBufferUtils.Matcher multipleMatcher = DataBufferUtils.matcher(
+				"\r\n".getBytes(StandardCharsets.UTF_8), "\n".getBytes(StandardCharsets.UTF_8));
+		DataBufferUtils.Matcher kmpMatcher = DataBufferUtils.matcher("\r\n".getBytes(StandardCharsets.UTF_8));
+		int crlfIndex = input.indexOf("\r\n");
+		for (int index = input.indexOf('\n'); index != -1; index = input.indexOf('\n', index + 1)) {
+			assertThat(singleMatcher.match(buffer)).isEqualTo(index);
+			assertThat(multipleMatcher.match(buffer)).isEqualTo(index);
+			if (index == crlfIndex + 1) {
+				assertThat(kmpMatcher.match(buffer)).isEqualTo(index);
+				crlfIndex = input.indexOf("\r\n", index);
+			}
+			buffer.readPosition(index + 1);
+		}
+		assertThat(singleMatcher.match(buffer)).isEqualTo(-1);
+		assertThat(multipleMatcher.match(buffer)).isEqualTo(-1);
+		assertThat(kmpMatcher.match(buffer)).isEqualTo(-1);
+
+		release(buffer);
+	}
+
 
 	private static class ZeroDemandSubscriber extends BaseSubscriber<DataBuffer> {
 
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ */
+class PooledDataBufferFactoryTests {
+
+	@Test
+	void allocateExactCapacity() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory();
+		PooledDataBuffer buffer = factory.allocateBuffer(100);
+		assertThat(buffer.capacity()).isEqualTo(100);
+		assertThat(buffer.factory()).isSameAs(factory);
+		assertThat(factory.getActiveCount()).isEqualTo(1);
+		assertThat(buffer.release()).isTrue();
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	void reuseReleasedBufferFromThreadCache() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory();
+		PooledDataBuffer buffer = factory.allocateBuffer(100);
+		buffer.write("foo", StandardCharsets.UTF_8);
+		buffer.release();
+
+		PooledDataBuffer reused = factory.allocateBuffer(128);
+		assertThat(reused.readableByteCount()).isEqualTo(0);
+		assertThat(reused.capacity()).isEqualTo(128);
+		reused.release();
+
+		assertThat(factory.getAllocationCount()).isEqualTo(2);
+		assertThat(factory.getHitCount()).isEqualTo(1);
+		assertThat(factory.getMissCount()).isEqualTo(1);
+		assertThat(factory.getPooledCount()).isEqualTo(0);
+	}
+
+	@Test
+	void reuseReleasedBufferFromSharedPool() throws Exception {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(true, 1024, 4, 0);
+		PooledDataBuffer buffer = factory.allocateBuffer(1000);
+		assertThat(buffer.asByteBuffer().isDirect()).isTrue();
+		CompletableFuture.runAsync(buffer::release).get();
+		assertThat(factory.getPooledCount()).isEqualTo(1);
+
+		factory.allocateBuffer(600).release();
+		assertThat(factory.getHitCount()).isEqualTo(1);
+		assertThat(factory.getPooledCount()).isEqualTo(1);
+	}
+
+	@Test
+	void threadCacheIsBoundedByCapacity() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 1024, 4, 16, 2048);
+		PooledDataBuffer[] buffers = new PooledDataBuffer[3];
+		Arrays.setAll(buffers, i -> factory.allocateBuffer(1024));
+		Arrays.stream(buffers).forEach(PooledDataBuffer::release);
+		assertThat(factory.getPooledCount()).isEqualTo(1);
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	void growAndCopyReleaseAllBuffers() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(true);
+		DataBuffer buffer = factory.allocateBuffer(4);
+		buffer.write("foobar", StandardCharsets.UTF_8);
+		DataBuffer copy = factory.allocateBuffer().write(buffer.slice(0, 3));
+		assertThat(copy.toString(StandardCharsets.UTF_8)).isEqualTo("foo");
+		DataBufferUtils.release(buffer);
+		DataBufferUtils.release(copy);
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	void differentSizeClassesArePooledSeparately() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 1024, 4, 0);
+		factory.allocateBuffer(100).release();
+		factory.allocateBuffer(1000).release();
+		assertThat(factory.getPooledCount()).isEqualTo(2);
+		assertThat(factory.getHitCount()).isEqualTo(0);
+	}
+
+	@Test
+	void sharedPoolIsBounded() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 1024, 2, 0);
+		PooledDataBuffer[] buffers = new PooledDataBuffer[3];
+		Arrays.setAll(buffers, i -> factory.allocateBuffer(256));
+		Arrays.stream(buffers).forEach(PooledDataBuffer::release);
+		assertThat(factory.getPooledCount()).isEqualTo(2);
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	void largeBufferIsNotPooled() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 1000, 4, 0);
+		assertThat(factory.getMaxPooledCapacity()).isEqualTo(1024);
+		PooledDataBuffer buffer = factory.allocateBuffer(2048);
+		assertThat(buffer.capacity()).isEqualTo(2048);
+		buffer.release();
+		assertThat(factory.getPooledCount()).isEqualTo(0);
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	void wrappedBufferIsNotPooled() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 1024, 4, 0);
+		PooledDataBuffer buffer = factory.wrap("foo".getBytes(StandardCharsets.UTF_8));
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("foo");
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+		assertThat(buffer.release()).isTrue();
+		assertThat(factory.getPooledCount()).isEqualTo(0);
+		assertThat(factory.getAllocationCount()).isEqualTo(0);
+	}
+
+	@Test
+	void sliceSharesReferenceCount() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory();
+		PooledDataBuffer buffer = factory.allocateBuffer(8);
+		buffer.write("foobar", StandardCharsets.UTF_8);
+
+		DataBuffer slice = buffer.retainedSlice(3, 3);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("bar");
+		assertThat(buffer.release()).isFalse();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(buffer.isAllocated()).isFalse();
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	void releaseOnInputStreamClose() throws Exception {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory();
+		PooledDataBuffer buffer = factory.allocateBuffer(8);
+		buffer.write("foo", StandardCharsets.UTF_8);
+		buffer.asInputStream(true).close();
+		assertThat(buffer.isAllocated()).isFalse();
+	}
+
+	@Test
+	void joinReleasesBuffers() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory();
+		PooledDataBuffer foo = factory.allocateBuffer(3);
+		foo.write("foo", StandardCharsets.UTF_8);
+		PooledDataBuffer bar = factory.allocateBuffer(3);
+		bar.write("bar", StandardCharsets.UTF_8);
+		PooledDataBuffer result = factory.join(Arrays.asList(foo, bar));
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+		assertThat(foo.isAllocated()).isFalse();
+		assertThat(bar.isAllocated()).isFalse();
+		result.release();
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	void leakDetection() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory();
+		factory.setLeakDetection(true);
+		PooledDataBuffer leaked = factory.allocateBuffer(16);
+		factory.allocateBuffer(16).release();
+		assertThat(factory.getActiveCount()).isEqualTo(1);
+
+		factory.reportLeak(leaked);
+		assertThat(factory.getLeakCount()).isEqualTo(1);
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+
+		// Reported only once
+		factory.reportLeak(leaked);
+		assertThat(factory.getLeakCount()).isEqualTo(1);
+	}
+
+	@Test
+	void sliceSupportsFluentWrites() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory();
+		PooledDataBuffer buffer = factory.allocateBuffer(8);
+		buffer.write("foobar", StandardCharsets.UTF_8);
+		PooledDataBuffer slice = buffer.slice(0, 6);
+		PooledDataBuffer result = slice.writePosition(0).write("baz", StandardCharsets.UTF_8).write((byte) '!');
+		assertThat(result).isSameAs(slice);
+		assertThat(buffer.toString(0, 4, StandardCharsets.UTF_8)).isEqualTo("baz!");
+		assertThat(buffer.release()).isTrue();
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	void sliceReleasesParentOnInputStreamClose() throws Exception {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory();
+		PooledDataBuffer buffer = factory.allocateBuffer(8);
+		buffer.write("foobar", StandardCharsets.UTF_8);
+		buffer.retainedSlice(0, 3).asInputStream(true).close();
+		assertThat(buffer.release()).isTrue();
+		assertThat(factory.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	void invalidPoolSettings() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new PooledDataBufferFactory(false, 0, 4, 4));
+		assertThatIllegalArgumentException().isThrownBy(() -> new PooledDataBufferFactory(false, 1024, 0, 4));
+		assertThatIllegalArgumentException().isThrownBy(() -> new PooledDataBufferFactory(false, 1024, 4, -1));
+		assertThatIllegalArgumentException().isThrownBy(() -> new PooledDataBufferFactory(false, 1024, 4, 4, -1));
+	}
+
+}
@@ -31,6 +31,7 @@ import org.springframework.util.StringUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * If this test case fails, uncomment diagnostics in the
@@ -129,6 +130,21 @@ class PathMatchingResourcePatternResolverTests {
 		assertThat(found).as("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar").isTrue();
 	}
 
+	@Test
+	void classpathStarWithPatternInParallel() throws IOException {
+		String pattern = "classpath*:org/**/annotation/*.class";
+		Resource[] sequential = resolver.getResources(pattern);
+		resolver.setParallelism(4);
+		Resource[] parallel = resolver.getResources(pattern);
+		assertThat(parallel).hasSizeGreaterThan(1).containsExactly(sequential);
+		assertThat(resolver.getResources(pattern)).containsExactly(sequential);
+	}
+
+	@Test
+	void invalidParallelism() {
+		assertThatIllegalArgumentException().isThrownBy(() -> resolver.setParallelism(0));
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.metrics.BufferingApplicationStartup.RecordedStep;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BufferingApplicationStartup}.
+ *
+ * @since 5.3
+ */
+class BufferingApplicationStartupTests {
+
+	@Test
+	void recordsNestedSteps() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("outer").tag("key", "value");
+		StartupStep inner = startup.start("inner").tag("lazy", () -> "computed");
+		inner.end();
+		outer.end();
+
+		List<RecordedStep> steps = startup.getBufferedSteps();
+		assertThat(steps).extracting(RecordedStep::getName).containsExactly("inner", "outer");
+		RecordedStep innerStep = steps.get(0);
+		RecordedStep outerStep = steps.get(1);
+		assertThat(innerStep.getParentId()).isEqualTo(outerStep.getId());
+		assertThat(outerStep.getParentId()).isNull();
+		assertThat(innerStep.getTags()).hasSize(1);
+		StartupStep.Tag tag = innerStep.getTags().iterator().next();
+		assertThat(tag.getKey()).isEqualTo("lazy");
+		assertThat(tag.getValue()).isEqualTo("computed");
+		assertThat(outerStep.getDuration()).isGreaterThanOrEqualTo(innerStep.getDuration());
+	}
+
+	@Test
+	void tracksParentStepsPerThread() throws Exception {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("outer");
+		AtomicReference<StartupStep> other = new AtomicReference<>();
+		Thread thread = new Thread(() -> other.set(startup.start("other")));
+		thread.start();
+		thread.join();
+		other.get().end();
+		outer.end();
+
+		assertThat(startup.getBufferedSteps()).extracting(RecordedStep::getParentId).containsOnlyNulls();
+	}
+
+	@Test
+	void discardsStepsBeyondCapacity() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(2);
+		startup.start("first").end();
+		startup.start("second").end();
+		startup.start("third").end();
+		assertThat(startup.getBufferedSteps()).extracting(RecordedStep::getName).containsExactly("first", "second");
+
+		assertThat(startup.drainBufferedSteps()).hasSize(2);
+		assertThat(startup.getBufferedSteps()).isEmpty();
+		startup.start("fourth").end();
+		assertThat(startup.getBufferedSteps()).extracting(RecordedStep::getName).containsExactly("fourth");
+	}
+
+	@Test
+	void rejectsEndingStepTwice() {
+		StartupStep step = new BufferingApplicationStartup(1).start("step");
+		step.end();
+		assertThatIllegalStateException().isThrownBy(step::end);
+	}
+
+}
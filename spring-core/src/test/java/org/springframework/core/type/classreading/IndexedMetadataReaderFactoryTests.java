@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link IndexedMetadataReaderFactory}.
+ */
+class IndexedMetadataReaderFactoryTests {
+
+	private final SimpleMetadataReaderFactory classFiles = new SimpleMetadataReaderFactory();
+
+
+	@Test
+	void readsRecordedMetadataWithoutDelegate() throws Exception {
+		Map<String, byte[]> metadata = Collections.singletonMap(Sample.class.getName(), serialize(Sample.class));
+		IndexedMetadataReaderFactory factory = new IndexedMetadataReaderFactory(
+				new FailingMetadataReaderFactory(), metadata, getClass().getClassLoader());
+		assertThat(factory.hasMetadata(Sample.class.getName())).isTrue();
+		MetadataReader metadataReader = factory.getMetadataReader(Sample.class.getName());
+		assertThat(metadataReader.getResource()).isInstanceOf(ClassPathResource.class);
+		assertThat(metadataReader.getResource().getFilename()).isEqualTo("IndexedMetadataReaderFactoryTests$Sample.class");
+		AnnotationMetadata annotationMetadata = metadataReader.getAnnotationMetadata();
+		assertThat(annotationMetadata.getClassName()).isEqualTo(Sample.class.getName());
+		assertThat(annotationMetadata.getAnnotations().get(Order.class).getInt("value")).isEqualTo(5);
+	}
+
+	@Test
+	void delegatesForClassWithoutMetadata() throws Exception {
+		IndexedMetadataReaderFactory factory = new IndexedMetadataReaderFactory(
+				this.classFiles, Collections.emptyMap(), getClass().getClassLoader());
+		assertThat(factory.hasMetadata(Sample.class.getName())).isFalse();
+		assertThat(factory.getMetadataReader(Sample.class.getName()).getAnnotationMetadata().getClassName())
+				.isEqualTo(Sample.class.getName());
+	}
+
+	@Test
+	void delegatesForUnreadableMetadata() throws Exception {
+		Map<String, byte[]> metadata = Collections.singletonMap(Sample.class.getName(), new byte[] {1, 2, 3});
+		IndexedMetadataReaderFactory factory = new IndexedMetadataReaderFactory(
+				this.classFiles, metadata, getClass().getClassLoader());
+		assertThat(factory.getMetadataReader(Sample.class.getName()).getAnnotationMetadata()
+				.getAnnotations().get(Order.class).getInt("value")).isEqualTo(5);
+	}
+
+	@Test
+	void delegatesForResource() {
+		IndexedMetadataReaderFactory factory = new IndexedMetadataReaderFactory(
+				new FailingMetadataReaderFactory(), Collections.emptyMap(), getClass().getClassLoader());
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() ->
+				factory.getMetadataReader(new ClassPathResource("Sample.class")));
+	}
+
+	private byte[] serialize(Class<?> type) throws IOException {
+		return SimpleAnnotationMetadataSerializer.serialize(
+				(SimpleAnnotationMetadata) this.classFiles.getMetadataReader(type.getName()).getAnnotationMetadata());
+	}
+
+
+	@Order(5)
+	static class Sample {
+	}
+
+
+	private static class FailingMetadataReaderFactory implements MetadataReaderFactory {
+
+		@Override
+		public MetadataReader getMetadataReader(String className) {
+			throw new IllegalStateException("Unexpected read of class file for " + className);
+		}
+
+		@Override
+		public MetadataReader getMetadataReader(Resource resource) {
+			throw new IllegalStateException("Unexpected read of class file " + resource);
+		}
+	}
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.annotation.MergedAnnotation.Adapt;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AbstractAnnotationMetadataTests;
+import org.springframework.core.type.AbstractMethodMetadataTests;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentCachingMetadataReaderFactory} and
+ * {@link SimpleAnnotationMetadataSerializer}.
+ */
+class PersistentCachingMetadataReaderFactoryTests {
+
+	@TempDir
+	Path tempDir;
+
+
+	@Test
+	void metadataIsReusedAfterSave() throws Exception {
+		File cacheFile = this.tempDir.resolve("metadata.cache").toFile();
+		PersistentCachingMetadataReaderFactory factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(WithAllAttributeTypes.class.getName());
+		assertThat(factory.getMissCount()).isEqualTo(1);
+		assertThat(factory.getHitCount()).isEqualTo(0);
+		factory.getMetadataReader(WithAllAttributeTypes.class.getName());
+		assertThat(factory.getHitCount()).isEqualTo(1);
+		factory.save();
+		assertThat(cacheFile).isFile();
+
+		PersistentCachingMetadataReaderFactory reloaded = new PersistentCachingMetadataReaderFactory(cacheFile);
+		reloaded.getMetadataReader(WithAllAttributeTypes.class.getName());
+		assertThat(reloaded.getMissCount()).isEqualTo(0);
+		assertThat(reloaded.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void attributesSurviveRoundTrip() throws Exception {
+		AnnotationMetadata original = new SimpleMetadataReaderFactory().getMetadataReader(
+				WithAllAttributeTypes.class.getName()).getAnnotationMetadata();
+		AnnotationMetadata restored = roundTrip(WithAllAttributeTypes.class);
+		assertThat(restored).isNotSameAs(original);
+		assertThat(getAttributes(restored)).usingRecursiveComparison().isEqualTo(getAttributes(original));
+		assertThat(restored.getAnnotations().get(AllAttributeTypes.class).getClassArray("classes"))
+				.containsExactly(String.class, Integer.class);
+		assertThat(restored.getAnnotations().get(AllAttributeTypes.class).getEnumArray("units", TimeUnit.class))
+				.containsExactly(TimeUnit.SECONDS, TimeUnit.DAYS);
+		MethodMetadata originalMethod = original.getAnnotatedMethods(AllAttributeTypes.class.getName()).iterator().next();
+		MethodMetadata restoredMethod = restored.getAnnotatedMethods(AllAttributeTypes.class.getName()).iterator().next();
+		assertThat(restoredMethod.getMethodName()).isEqualTo("annotated");
+		assertThat(restoredMethod.getReturnTypeName()).isEqualTo(originalMethod.getReturnTypeName());
+		assertThat(restoredMethod.getAnnotations().get(AllAttributeTypes.class).getSource())
+				.isEqualTo(originalMethod.getAnnotations().get(AllAttributeTypes.class).getSource());
+		assertThat(restoredMethod.getAnnotationAttributes(AllAttributeTypes.class.getName()))
+				.usingRecursiveComparison().isEqualTo(originalMethod.getAnnotationAttributes(AllAttributeTypes.class.getName()));
+	}
+
+	@Test
+	void staleEntryIsParsedAgain() throws Exception {
+		File cacheFile = this.tempDir.resolve("metadata.cache").toFile();
+		File classFile = copyClassFile(WithAllAttributeTypes.class);
+		Resource resource = new FileSystemResource(classFile);
+		PersistentCachingMetadataReaderFactory factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(resource);
+		factory.save();
+
+		assertThat(classFile.setLastModified(classFile.lastModified() - 10_000)).isTrue();
+		PersistentCachingMetadataReaderFactory reloaded = new PersistentCachingMetadataReaderFactory(cacheFile);
+		reloaded.getMetadataReader(resource);
+		assertThat(reloaded.getMissCount()).isEqualTo(1);
+		assertThat(reloaded.getHitCount()).isEqualTo(0);
+	}
+
+	@Test
+	void unusedEntriesAreNotSavedAgain() throws Exception {
+		File cacheFile = this.tempDir.resolve("metadata.cache").toFile();
+		PersistentCachingMetadataReaderFactory factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(WithAllAttributeTypes.class.getName());
+		factory.getMetadataReader(String.class.getName());
+		factory.save();
+
+		PersistentCachingMetadataReaderFactory reloaded = new PersistentCachingMetadataReaderFactory(cacheFile);
+		reloaded.getMetadataReader(String.class.getName());
+		reloaded.save();
+
+		PersistentCachingMetadataReaderFactory third = new PersistentCachingMetadataReaderFactory(cacheFile);
+		third.getMetadataReader(String.class.getName());
+		third.getMetadataReader(WithAllAttributeTypes.class.getName());
+		assertThat(third.getHitCount()).isEqualTo(1);
+		assertThat(third.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	void corruptCacheFileIsIgnored() throws Exception {
+		File cacheFile = this.tempDir.resolve("metadata.cache").toFile();
+		Files.write(cacheFile.toPath(), new byte[] {1, 2, 3});
+		PersistentCachingMetadataReaderFactory factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		assertThat(factory.getMetadataReader(WithAllAttributeTypes.class.getName())
+				.getAnnotationMetadata().hasAnnotation(AllAttributeTypes.class.getName())).isTrue();
+		assertThat(factory.getMissCount()).isEqualTo(1);
+		factory.save();
+		assertThat(new PersistentCachingMetadataReaderFactory(cacheFile)
+				.getMetadataReader(WithAllAttributeTypes.class.getName())).isNotNull();
+	}
+
+	private File copyClassFile(Class<?> type) throws IOException {
+		Resource resource = new DefaultResourceLoader().getResource(
+				"classpath:" + ClassUtils.convertClassNameToResourcePath(type.getName()) + ".class");
+		Path target = this.tempDir.resolve(type.getSimpleName() + ".class");
+		Files.copy(resource.getInputStream(), target);
+		return target.toFile();
+	}
+
+	private static Map<String, Object> getAttributes(AnnotationMetadata metadata) {
+		return metadata.getAnnotations().get(AllAttributeTypes.class).asMap(Adapt.CLASS_TO_STRING, Adapt.ANNOTATION_TO_MAP);
+	}
+
+	static AnnotationMetadata roundTrip(Class<?> source) {
+		try {
+			File cacheFile = File.createTempFile("metadata", ".cache");
+			try {
+				ClassLoader classLoader = source.getClassLoader();
+				PersistentCachingMetadataReaderFactory factory =
+						new PersistentCachingMetadataReaderFactory(classLoader, cacheFile);
+				factory.getMetadataReader(source.getName());
+				factory.save();
+				PersistentCachingMetadataReaderFactory reloaded =
+						new PersistentCachingMetadataReaderFactory(classLoader, cacheFile);
+				AnnotationMetadata metadata =
+						reloaded.getMetadataReader(source.getName()).getAnnotationMetadata();
+				assertThat(reloaded.getHitCount()).isEqualTo(1);
+				return metadata;
+			}
+			finally {
+				Files.deleteIfExists(cacheFile.toPath());
+			}
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	@Nested
+	class AnnotationMetadataTests extends AbstractAnnotationMetadataTests {
+
+		@Override
+		protected AnnotationMetadata get(Class<?> source) {
+			return roundTrip(source);
+		}
+	}
+
+
+	@Nested
+	class MethodMetadataTests extends AbstractMethodMetadataTests {
+
+		@Override
+		protected AnnotationMetadata get(Class<?> source) {
+			return roundTrip(source);
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@interface AllAttributeTypes {
+
+		String name() default "";
+
+		boolean flag() default false;
+
+		byte b() default 0;
+
+		char c() default 'a';
+
+		short s() default 0;
+
+		int i() default 0;
+
+		long l() default 0;
+
+		float f() default 0;
+
+		double d() default 0;
+
+		int[] ints() default {};
+
+		String[] names() default {};
+
+		Class<?> type() default Object.class;
+
+		Class<?>[] classes() default {};
+
+		TimeUnit unit() default TimeUnit.NANOSECONDS;
+
+		TimeUnit[] units() default {};
+
+		NestedValue nested() default @NestedValue;
+
+		NestedValue[] nestedArray() default {};
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface NestedValue {
+
+		String value() default "";
+
+		Class<?>[] classes() default {};
+	}
+
+
+	@AllAttributeTypes(name = "test", flag = true, b = 1, c = 'z', s = 2, i = 3, l = 4, f = 5.5f, d = 6.6,
+			ints = {7, 8}, names = {"a", "b"}, type = Number.class, classes = {String.class, Integer.class},
+			unit = TimeUnit.HOURS, units = {TimeUnit.SECONDS, TimeUnit.DAYS},
+			nested = @NestedValue(value = "one", classes = Long.class),
+			nestedArray = {@NestedValue("two"), @NestedValue(value = "three", classes = {})})
+	static class WithAllAttributeTypes {
+
+		@AllAttributeTypes(name = "method", ints = 1)
+		public Object annotated() {
+			return null;
+		}
+	}
+
+}
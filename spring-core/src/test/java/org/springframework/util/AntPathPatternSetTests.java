@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link AntPathPatternSet}.
+ */
+class AntPathPatternSetTests {
+
+	private static final List<String> PATTERNS = Arrays.asList(
+			"test", "/test", "t?st", "/t?st", "tes?", "*", "/*", "test*", "test/*", "*test*", "*.*",
+			"/bla/**/bla", "/**", "**", "/*bla/test", "/bla/**/**/bla", "/x/x/**/bla", "/bla*bla/test",
+			"/*bla*/**/bla/**", "/*bla*/**/bla/*", "/foo/bar/**", "/{bla}.*", "/{bla}/**",
+			"/hotels/{hotel}", "/hotels/{hotel:\\d+}", "/hotels/**", "/hotels/*/bookings", "/api/v?/*",
+			"/api/v1/**/items/{item}", "/**/*.jsp", "/static/**/*.js", "/static/js/app.js", "/", "");
+
+	private static final List<String> PATHS = Arrays.asList(
+			"test", "/test", "tost", "testt", "test/", "test/t", "AnothertestTest", "test.jpg",
+			"/bla/bla", "/bla/bla/bla", "/bla/testing/testing/bla", "/x/x/bla", "/XXblaXXXX/test",
+			"/XXXblaXXXX/testing/testing/bla/testing/testing", "/foo/bar", "/foo/bar/baz/qux",
+			"/testing.html", "/hotels/42", "/hotels/paris", "/hotels/42/bookings", "/hotels/",
+			"/api/v1/orders", "/api/v2/orders/", "/api/v1/orders/items/book", "/api/v1/items/book",
+			"/WEB-INF/views/home.jsp", "/static/js/app.js", "/static/css/theme.css", "/", "", "//");
+
+
+	@Test
+	void matchesSameAsMatchingEachPattern() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		AntPathPatternSet patternSet = new AntPathPatternSet(pathMatcher, PATTERNS);
+		for (String path : PATHS) {
+			assertThat(patternSet.getMatchingPatterns(path)).as(path)
+					.containsExactlyInAnyOrderElementsOf(matchEachPattern(pathMatcher, PATTERNS, path));
+		}
+	}
+
+	@Test
+	void matchesSameAsMatchingEachPatternWhenCaseInsensitive() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		AntPathPatternSet patternSet = new AntPathPatternSet(pathMatcher, PATTERNS);
+		for (String path : PATHS) {
+			String upperCasePath = path.toUpperCase();
+			assertThat(patternSet.getMatchingPatterns(upperCasePath)).as(upperCasePath)
+					.containsExactlyInAnyOrderElementsOf(matchEachPattern(pathMatcher, PATTERNS, upperCasePath));
+		}
+		assertThat(patternSet.getMatchingPatterns("/STATIC/JS/APP.JS")).contains("/static/js/app.js");
+	}
+
+	@Test
+	void matchesSameAsMatchingEachPatternWithCustomSeparator() {
+		AntPathMatcher pathMatcher = new AntPathMatcher(".");
+		List<String> patterns = Arrays.asList("a.b.c", "a.*.c", "a.**", "**.c", "a.{name}.c", "b.*");
+		AntPathPatternSet patternSet = new AntPathPatternSet(pathMatcher, patterns);
+		for (String path : Arrays.asList("a.b.c", "a.x.c", "a.b", "b.c", "a.b.c.d", "b.x")) {
+			assertThat(patternSet.getMatchingPatterns(path)).as(path)
+					.containsExactlyInAnyOrderElementsOf(matchEachPattern(pathMatcher, patterns, path));
+		}
+	}
+
+	@Test
+	void matchingPatternsAreSortedBySpecificity() {
+		AntPathPatternSet patternSet = new AntPathPatternSet(
+				Arrays.asList("/**", "/hotels/**", "/hotels/{hotel}", "/hotels/new", "/*/new"));
+		assertThat(patternSet.getMatchingPatterns("/hotels/new"))
+				.containsExactly("/hotels/new", "/hotels/{hotel}", "/*/new", "/hotels/**", "/**");
+	}
+
+	@Test
+	void noMatchingPatterns() {
+		AntPathPatternSet patternSet = new AntPathPatternSet(Arrays.asList("/hotels/{hotel}", "/static/*.js"));
+		assertThat(patternSet.getMatchingPatterns("/bookings/42")).isEmpty();
+		assertThat(patternSet.matches("/bookings/42")).isFalse();
+		assertThat(patternSet.matches("/static/app.js")).isTrue();
+	}
+
+	@Test
+	void duplicatePatternsAreMatchedOnce() {
+		AntPathPatternSet patternSet = new AntPathPatternSet(Arrays.asList("/hotels/*", "/hotels/*"));
+		assertThat(patternSet.getPatterns()).containsExactly("/hotels/*");
+		assertThat(patternSet.getMatchingPatterns("/hotels/42")).containsExactly("/hotels/*");
+	}
+
+	@Test
+	void nullPatternIsRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				new AntPathPatternSet(Arrays.asList("/hotels", null)));
+	}
+
+
+	private static List<String> matchEachPattern(AntPathMatcher pathMatcher, List<String> patterns, String path) {
+		List<String> matches = new ArrayList<>();
+		for (String pattern : patterns) {
+			if (pathMatcher.match(pattern, path)) {
+				matches.add(pattern);
+			}
+		}
+		return matches;
+	}
+
+}
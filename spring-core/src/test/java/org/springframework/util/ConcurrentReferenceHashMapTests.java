@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -250,6 +251,68 @@ class ConcurrentReferenceHashMapTests {
 		assertThat(this.map.get(5)).isEqualTo("5");
 	}
 
+	@Test
+	void shouldPurgeWithoutRebuildingOtherChains() {
+		this.map = new TestWeakConcurrentCache<>(16, 0.75f, 1);
+		this.map.put(1, "1");
+		this.map.put(2, "2");
+		this.map.put(17, "17");
+		Reference<Integer, String> reference1 = this.map.getMockReference(1, Restructure.NEVER);
+		Reference<Integer, String> reference2 = this.map.getMockReference(2, Restructure.NEVER);
+		this.map.getMockReference(17, Restructure.NEVER).queueForPurge();
+		assertThat(this.map.get(17)).isNull();
+		assertThat(this.map.getMockReference(1, Restructure.NEVER)).isSameAs(reference1);
+		assertThat(this.map.getMockReference(2, Restructure.NEVER)).isSameAs(reference2);
+		assertThat(this.map.getSegment(0).getCount()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldPurgeAllUnreferencedEntriesOnExplicitPurge() {
+		this.map = new TestWeakConcurrentCache<>(256, 0.75f, 1);
+		for (int i = 0; i < 100; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		for (int i = 0; i < 90; i++) {
+			this.map.getMockReference(i, Restructure.NEVER).release();
+		}
+		this.map.purgeUnreferencedEntries();
+		assertThat(this.map.size()).isEqualTo(10);
+		assertThat(this.map.get(95)).isEqualTo("95");
+	}
+
+	@Test
+	void shouldNotBlockGetWhileSegmentIsLocked() throws Exception {
+		this.map = new TestWeakConcurrentCache<>(1, 0.75f, 1);
+		for (int i = 1; i <= 5; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread writer = new Thread(() -> {
+			this.map.getSegment(0).lock();
+			try {
+				locked.countDown();
+				release.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				this.map.getSegment(0).unlock();
+			}
+		});
+		writer.start();
+		locked.await();
+		this.map.getMockReference(1, Restructure.NEVER).queueForPurge();
+		assertThat(this.map.get(2)).isEqualTo("2");
+		assertThat(this.map.getReference(1, Restructure.NEVER)).isNotNull();
+		release.countDown();
+		writer.join();
+		this.map.put(6, "6");
+		assertThat(this.map.getReference(1, Restructure.NEVER)).isNull();
+		assertThat(this.map.getSegment(0).getCount()).isEqualTo(5);
+	}
+
 	@Test
 	void shouldPutIfAbsent() {
 		assertThat(this.map.putIfAbsent(123, "123")).isNull();